@@ -0,0 +1,73 @@
+package com.example.rntn.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.rntn.dto.response.AnalisisSentimientoResponse;
+import com.example.rntn.dto.response.SentimentAggregateStats;
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.service.SentimentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SentimentService.calcularEstadisticasAgregadas over a fixed, seeded batch of results of the
+ * size a batch/aggregate request would carry.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregateStatsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int results;
+
+    private SentimentService service;
+    private List<AnalisisSentimientoResponse> batch;
+
+    @Setup
+    public void setup() {
+        // The method logs at INFO on every call; without Spring's logging config that would go to
+        // the console at DEBUG and dominate the measurement.
+        ((Logger) LoggerFactory.getLogger("com.example.rntn")).setLevel(Level.WARN);
+        service = new SentimentService(null, null);
+
+        Random random = new Random(42);
+        SentimentLabel[] labels = SentimentLabel.values();
+        batch = new ArrayList<>(results);
+        for (int i = 0; i < results; i++) {
+            SentimentLabel label = labels[random.nextInt(labels.length)];
+            batch.add(AnalisisSentimientoResponse.builder()
+                .texto("sentence " + i)
+                .predictedClass(label.getIndex())
+                .predictedLabel(label.name())
+                .confidence(0.2 + 0.8 * random.nextDouble())
+                .nivelRiesgo(label.getRiskLevel())
+                .timestamp(LocalDateTime.now())
+                .build());
+        }
+    }
+
+    @Benchmark
+    public SentimentAggregateStats aggregate() {
+        return service.calcularEstadisticasAgregadas(batch);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.rntn.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BenchmarkMain: runs the JMH benchmarks once per thread count, with the GC/allocation profiler
+ * and a JSON result file per run ({@code <out>/jmh-result-t<threads>.json}) that can be diffed
+ * against a previous run or loaded into jmh.morethan.io.
+ *
+ * Usage: BenchmarkMain [-threads 1,4] [-out target/jmh] [JMH options, e.g. a benchmark regex or -f 2]
+ * The model comes from -Drntn.benchmark.model (default models/out-model.ser.gz).
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        String threadCounts = "1," + Runtime.getRuntime().availableProcessors();
+        Path out = Path.of("target", "jmh");
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" -> threadCounts = args[++i];
+                case "-out" -> out = Path.of(args[++i]);
+                default -> {
+                    if (!args[i].isBlank()) {
+                        jmhArgs.add(args[i]);
+                    }
+                }
+            }
+        }
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        Files.createDirectories(out);
+
+        for (String count : threadCounts.split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            Path result = out.resolve("jmh-result-t" + threads + ".json");
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                // Forked JVMs do not inherit system properties, and this replaces @Fork's jvmArgsAppend
+                .jvmArgsAppend("-Xmx4g", "-Drntn.benchmark.model=" + Corpus.modelPath())
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+            if (commandLine.getIncludes().isEmpty()) {
+                options.include("com\\.example\\.rntn\\.benchmark\\..*");
+            }
+            System.out.println("Running benchmarks with " + threads + " thread(s) -> " + result);
+            new Runner(options.build()).run();
+        }
+    }
+}
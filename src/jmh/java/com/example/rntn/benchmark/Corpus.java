@@ -0,0 +1,64 @@
+package com.example.rntn.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corpus: the fixed benchmark sentences (classpath resource benchmark/corpus.txt), bucketed by
+ * whitespace token count so results can be compared per sentence length.
+ */
+public final class Corpus {
+
+    public enum Length {
+        SHORT, MEDIUM, LONG;
+
+        static Length of(String sentence) {
+            int tokens = sentence.trim().split("\\s+").length;
+            return tokens <= 8 ? SHORT : tokens <= 20 ? MEDIUM : LONG;
+        }
+    }
+
+    /**
+     * Model used by the benchmarks; forwarded to forked JVMs by BenchmarkMain.
+     */
+    public static String modelPath() {
+        return System.getProperty("rntn.benchmark.model", "models/out-model.ser.gz");
+    }
+
+    private Corpus() {
+    }
+
+    public static List<String> sentences(Length length) {
+        List<String> sentences = new ArrayList<>();
+        for (String sentence : all()) {
+            if (Length.of(sentence) == length) {
+                sentences.add(sentence);
+            }
+        }
+        return sentences;
+    }
+
+    public static List<String> all() {
+        try (InputStream in = Corpus.class.getResourceAsStream("/benchmark/corpus.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("benchmark/corpus.txt not found on the classpath");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> sentences = new ArrayList<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    sentences.add(line.trim());
+                }
+            }
+            return sentences;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rntn.benchmark;
+
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenization, sentence splitting, POS tagging and binarized parsing on their own: the part of
+ * PredictorBenchmark that runs before the RNTN.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    @Param({"SHORT", "MEDIUM", "LONG"})
+    public Corpus.Length length;
+
+    private StanfordCoreNLP pipeline;
+    private List<String> sentences;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pipeline = parsePipeline();
+        sentences = Corpus.sentences(length);
+    }
+
+    /**
+     * Same annotators and parser settings as SentimentPredictor, minus the sentiment annotator.
+     */
+    static StanfordCoreNLP parsePipeline() {
+        Properties props = new Properties();
+        props.setProperty("annotators", "tokenize,ssplit,pos,parse");
+        props.setProperty("parse.binaryTrees", "true");
+        return new StanfordCoreNLP(props);
+    }
+
+    @Benchmark
+    public Annotation tokenizeTagParse() {
+        Annotation annotation = new Annotation(sentences.get(next));
+        next = (next + 1) % sentences.size();
+        pipeline.annotate(annotation);
+        return annotation;
+    }
+}
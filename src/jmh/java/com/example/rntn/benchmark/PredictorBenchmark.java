@@ -0,0 +1,70 @@
+package com.example.rntn.benchmark;
+
+import com.example.rntn.util.SentimentPredictor;
+import com.example.rntn.util.SentimentPredictorPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end inference as served by SentimentService: tokenize, ssplit, POS, parse and RNTN
+ * through a SentimentPredictorPool sized to the benchmark thread count.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PredictorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Model {
+
+        SentimentPredictorPool pool;
+
+        @Setup(Level.Trial)
+        public void load(BenchmarkParams params) {
+            pool = new SentimentPredictorPool(Corpus.modelPath(), params.getThreads());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sentences {
+
+        @Param({"SHORT", "MEDIUM", "LONG"})
+        public Corpus.Length length;
+
+        private List<String> sentences;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void load() {
+            sentences = Corpus.sentences(length);
+        }
+
+        String next() {
+            String sentence = sentences.get(next);
+            next = (next + 1) % sentences.size();
+            return sentence;
+        }
+    }
+
+    @Benchmark
+    public SentimentPredictor.Prediction predict(Model model, Sentences sentences) throws InterruptedException {
+        String sentence = sentences.next();
+        return model.pool.withPredictor(predictor -> predictor.predict(sentence));
+    }
+}
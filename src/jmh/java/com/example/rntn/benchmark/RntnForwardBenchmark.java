@@ -0,0 +1,90 @@
+package com.example.rntn.benchmark;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.neural.rnn.RNNCoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.sentiment.CollapseUnaryTransformer;
+import edu.stanford.nlp.sentiment.SentimentCostAndGradient;
+import edu.stanford.nlp.sentiment.SentimentModel;
+import edu.stanford.nlp.trees.Tree;
+import edu.stanford.nlp.trees.TreeCoreAnnotations;
+import edu.stanford.nlp.util.CoreMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RNTN forward pass only, on trees parsed and unary-collapsed during setup (what the sentiment
+ * annotator does after the parser). Each invocation scores a copy of the tree, since the forward
+ * pass stores vectors and predictions on the nodes; the copy is part of the measured cost.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RntnForwardBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Model {
+
+        SentimentModel model;
+
+        @Setup(Level.Trial)
+        public void load() {
+            model = SentimentModel.loadSerialized(Corpus.modelPath());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Trees {
+
+        @Param({"SHORT", "MEDIUM", "LONG"})
+        public Corpus.Length length;
+
+        private final List<Tree> trees = new ArrayList<>();
+        private SentimentCostAndGradient scorer;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void parse(Model model) {
+            StanfordCoreNLP pipeline = ParseBenchmark.parsePipeline();
+            CollapseUnaryTransformer collapser = new CollapseUnaryTransformer();
+            for (String sentence : Corpus.sentences(length)) {
+                Annotation annotation = new Annotation(sentence);
+                pipeline.annotate(annotation);
+                for (CoreMap parsed : annotation.get(CoreAnnotations.SentencesAnnotation.class)) {
+                    trees.add(collapser.transformTree(parsed.get(TreeCoreAnnotations.BinarizedTreeAnnotation.class)));
+                }
+            }
+            scorer = new SentimentCostAndGradient(model.model, null);
+        }
+
+        Tree next() {
+            Tree tree = trees.get(next);
+            next = (next + 1) % trees.size();
+            return tree.deepCopy();
+        }
+    }
+
+    @Benchmark
+    public int forward(Trees trees) {
+        Tree tree = trees.next();
+        trees.scorer.forwardPropagateTree(tree);
+        return RNNCoreAnnotations.getPredictedClass(tree);
+    }
+}
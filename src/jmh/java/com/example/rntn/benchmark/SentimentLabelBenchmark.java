@@ -0,0 +1,34 @@
+package com.example.rntn.benchmark;
+
+import com.example.rntn.model.SentimentLabel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SentimentLabel.fromIndex, called once per prediction; cycles through all valid indices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SentimentLabelBenchmark {
+
+    private int index;
+
+    @Benchmark
+    public SentimentLabel fromIndex() {
+        index = (index + 1) % 5;
+        return SentimentLabel.fromIndex(index);
+    }
+}
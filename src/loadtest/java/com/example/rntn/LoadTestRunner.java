@@ -0,0 +1,542 @@
+package com.example.rntn;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadTestRunner: HTTP load generator for the REST API, reporting latency histograms (HdrHistogram),
+ * throughput and error rate per endpoint.
+ *
+ * Scenarios: predict (POST /api/v1/sentiment/predict), batch (POST /api/v1/sentiment/predict/batch),
+ * login (POST /api/v1/auth/login), respuestas (create, get, update and delete of one
+ * evaluacion_respuesta, each step reported as its own endpoint) and pacientes (GET of a random page
+ * of /api/v1/pacientes, a read-only CRUD call with no inference).
+ *
+ * Two load models:
+ *  - open loop ({@code -rate predict=20,batch=2,...}): each scenario starts at a fixed arrival rate
+ *    regardless of how fast the server answers, and latency is measured from the intended start
+ *    time, so queueing in the server is not hidden (no coordinated omission). Arrivals beyond
+ *    {@code -maxInFlight} per scenario are counted as dropped.
+ *  - closed loop ({@code -concurrency N}, no -rate): N users per scenario issuing requests back to back.
+ *
+ * With {@code -embedded} the application is started in this JVM on a random port with the
+ * {@code loadtest} profile (H2 in memory, seed user loadtest/loadtest123) and a tiny model trained
+ * from data/sample_train.binarized.sst, so no MySQL or production model is needed. The generator
+ * then shares the CPU with the server; use an external target for absolute numbers. Adding
+ * {@code -virtual} also activates the {@code virtual-threads} profile, to compare the two servlet
+ * execution modes under the same closed-loop load.
+ */
+public class LoadTestRunner {
+
+    private static final String[] SCENARIOS = {"predict", "batch", "login", "respuestas", "pacientes"};
+
+    /**
+     * Per-endpoint latency (microseconds) and outcome counters.
+     */
+    static final class EndpointStats {
+        final Recorder latencies = new Recorder(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        Histogram interval;
+
+        void reset() {
+            latencies.getIntervalHistogram();
+            ok.reset();
+            dropped.reset();
+            errors.clear();
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final List<String> texts;
+    private final int batchSize;
+    private final int preguntaId;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile String token;
+    private volatile boolean running = true;
+
+    public LoadTestRunner(String baseUrl, String username, String password, List<String> texts,
+                          int batchSize, int preguntaId) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.username = username;
+        this.password = password;
+        this.texts = texts;
+        this.batchSize = batchSize;
+        this.preguntaId = preguntaId;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(8, daemon("loadtest-http")))
+            .build();
+    }
+
+    // ===== Scenarios =====
+
+    /**
+     * Starts one iteration of a scenario; {@code start} is the intended start time (System.nanoTime).
+     */
+    CompletableFuture<?> runScenario(String scenario, long start) {
+        return switch (scenario) {
+            case "predict" -> call("predict", post("/api/v1/sentiment/predict", Map.of("text", randomText())), start);
+            case "batch" -> call("batch", post("/api/v1/sentiment/predict/batch", Map.of("texts", randomTexts(batchSize))), start);
+            case "login" -> call("login", loginRequest(), start);
+            case "respuestas" -> respuestasCrud(start);
+            case "pacientes" -> call("pacientes", request("/api/v1/pacientes?size=20&page="
+                + ThreadLocalRandom.current().nextInt(5)).GET().build(), start);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private static String firstEndpoint(String scenario) {
+        return "respuestas".equals(scenario) ? "respuestas.create" : scenario;
+    }
+
+    private CompletableFuture<?> respuestasCrud(long start) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("idEvaluacionPregunta", preguntaId);
+        body.put("textoEvaluacionRespuesta", randomText());
+        body.put("analizarSentimiento", true);
+        return call("respuestas.create", post("/api/v1/evaluaciones/respuestas", body), start)
+            .thenCompose(created -> {
+                Long id = idOf(created);
+                if (id == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                String path = "/api/v1/evaluaciones/respuestas/" + id;
+                body.put("textoEvaluacionRespuesta", randomText());
+                return call("respuestas.get", request(path).GET().build(), System.nanoTime())
+                    .thenCompose(r -> call("respuestas.update", put(path, body), System.nanoTime()))
+                    .thenCompose(r -> call("respuestas.delete", request(path).DELETE().build(), System.nanoTime()));
+            });
+    }
+
+    private Long idOf(HttpResponse<String> response) {
+        if (response == null || response.statusCode() / 100 != 2) {
+            return null;
+        }
+        try {
+            JsonNode id = mapper.readTree(response.body()).get("idEvaluacionRespuesta");
+            return id != null ? id.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends a request and records its latency from {@code start}; completes with the response,
+     * or null if the request failed at the transport level.
+     */
+    private CompletableFuture<HttpResponse<String>> call(String endpoint, HttpRequest request, long start) {
+        EndpointStats endpointStats = stats(endpoint);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .handle((response, error) -> {
+                endpointStats.latencies.recordValue(Math.max(0, (System.nanoTime() - start) / 1000));
+                if (error != null) {
+                    countError(endpointStats, error.getClass().getSimpleName());
+                    return null;
+                }
+                if (response.statusCode() / 100 == 2) {
+                    endpointStats.ok.increment();
+                } else {
+                    countError(endpointStats, "HTTP " + response.statusCode());
+                }
+                return response;
+            });
+    }
+
+    private static void countError(EndpointStats endpointStats, String kind) {
+        endpointStats.errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+    }
+
+    // ===== Requests =====
+
+    void login() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed (HTTP " + response.statusCode() + "): " + response.body());
+        }
+        token = mapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json(Map.of("username", username, "password", password))))
+            .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(60))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return request(path).POST(HttpRequest.BodyPublishers.ofString(json(body))).build();
+    }
+
+    private HttpRequest put(String path, Object body) {
+        return request(path).PUT(HttpRequest.BodyPublishers.ofString(json(body))).build();
+    }
+
+    private String json(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private String randomText() {
+        return texts.get(ThreadLocalRandom.current().nextInt(texts.size()));
+    }
+
+    private List<String> randomTexts(int count) {
+        List<String> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(randomText());
+        }
+        return batch;
+    }
+
+    // ===== Load models =====
+
+    /**
+     * Open loop: each scenario is started at its arrival rate (per second) until stopped.
+     */
+    void startOpenLoop(Map<String, Double> rates, int maxInFlight, ScheduledExecutorService scheduler) {
+        for (Map.Entry<String, Double> rate : rates.entrySet()) {
+            String scenario = rate.getKey();
+            long periodNanos = (long) (1e9 / rate.getValue());
+            long firstStart = System.nanoTime();
+            AtomicLong arrivals = new AtomicLong();
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            scheduler.scheduleAtFixedRate(() -> {
+                // Intended start of this arrival, even if the scheduler fired late
+                long start = firstStart + arrivals.getAndIncrement() * periodNanos;
+                if (!running) {
+                    return;
+                }
+                if (!inFlight.tryAcquire()) {
+                    stats(firstEndpoint(scenario)).dropped.increment();
+                    return;
+                }
+                runScenario(scenario, start).whenComplete((r, e) -> inFlight.release());
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Closed loop: {@code users} concurrent users per scenario, each issuing its next iteration
+     * when the previous one completes.
+     */
+    List<Thread> startClosedLoop(List<String> scenarios, int users) {
+        List<Thread> threads = new ArrayList<>();
+        for (String scenario : scenarios) {
+            for (int u = 0; u < users; u++) {
+                Thread thread = daemon("loadtest-" + scenario).newThread(() -> {
+                    while (running) {
+                        runScenario(scenario, System.nanoTime()).join();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    void resetStats() {
+        stats.values().forEach(EndpointStats::reset);
+    }
+
+    Map<String, EndpointStats> snapshot() {
+        stats.values().forEach(s -> s.interval = s.latencies.getIntervalHistogram());
+        return new TreeMap<>(stats);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicLong count = new AtomicLong();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // ===== Report =====
+
+    static Map<String, Object> report(Map<String, EndpointStats> snapshot, double seconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointStats> entry : snapshot.entrySet()) {
+            EndpointStats s = entry.getValue();
+            Histogram h = s.interval;
+            long errors = s.errorCount();
+            long total = s.ok.sum() + errors;
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", total);
+            endpoint.put("ok", s.ok.sum());
+            endpoint.put("errors", errors);
+            endpoint.put("errorRate", total == 0 ? 0.0 : (double) errors / total);
+            endpoint.put("dropped", s.dropped.sum());
+            endpoint.put("throughputPerSecond", total / seconds);
+            endpoint.put("meanMs", h.getMean() / 1000.0);
+            endpoint.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+            endpoint.put("p90Ms", h.getValueAtPercentile(90) / 1000.0);
+            endpoint.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+            endpoint.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+            endpoint.put("maxMs", h.getMaxValue() / 1000.0);
+            Map<String, Long> errorKinds = new TreeMap<>();
+            s.errors.forEach((kind, count) -> errorKinds.put(kind, count.sum()));
+            endpoint.put("errorKinds", errorKinds);
+            report.put(entry.getKey(), endpoint);
+        }
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    static void print(Map<String, Object> report, PrintStream out) {
+        out.printf("%-22s %8s %8s %7s %8s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "dropped",
+            "err%", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Object> entry : report.entrySet()) {
+            Map<String, Object> e = (Map<String, Object>) entry.getValue();
+            out.printf("%-22s %8d %8d %6.2f%% %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                (long) e.get("requests"), (long) e.get("dropped"), 100 * (double) e.get("errorRate"),
+                (double) e.get("throughputPerSecond"), (double) e.get("meanMs"), (double) e.get("p50Ms"),
+                (double) e.get("p90Ms"), (double) e.get("p99Ms"), (double) e.get("p999Ms"), (double) e.get("maxMs"));
+            Map<String, Long> errorKinds = (Map<String, Long>) e.get("errorKinds");
+            if (!errorKinds.isEmpty()) {
+                out.println("    errors: " + errorKinds);
+            }
+        }
+    }
+
+    // ===== CLI =====
+
+    static List<String> readTexts(Path csv) throws IOException {
+        List<String> texts = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            for (CSVRecord record : parser) {
+                if (!record.get(0).isBlank()) {
+                    texts.add(record.get(0));
+                }
+            }
+        }
+        if (texts.isEmpty()) {
+            throw new IllegalArgumentException("No sentences in " + csv);
+        }
+        return texts;
+    }
+
+    /**
+     * Trains a deliberately small model (few hidden units, few epochs) for the embedded server;
+     * reused across runs if it already exists.
+     */
+    static Path tinyModel(Path modelPath) throws Exception {
+        if (Files.isRegularFile(modelPath)) {
+            return modelPath;
+        }
+        Files.createDirectories(modelPath.toAbsolutePath().getParent());
+        TrainingOptions options = TrainingOptions.builder()
+            .trainPath("data/sample_train.binarized.sst")
+            .modelPath(modelPath.toString())
+            .numHid(5)
+            .epochs(3)
+            .threads(1)
+            .build();
+        options.validate();
+        new TrainingRunner(options).run();
+        return modelPath;
+    }
+
+    static Map<String, Double> parseRates(String spec) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            if (kv.length != 2 || !List.of(SCENARIOS).contains(kv[0].trim())) {
+                throw new IllegalArgumentException("Invalid rate '" + part + "', expected scenario=requestsPerSecond "
+                    + "with scenario in " + List.of(SCENARIOS));
+            }
+            double rate = Double.parseDouble(kv[1].trim());
+            if (rate > 0) {
+                rates.put(kv[0].trim(), rate);
+            }
+        }
+        return rates;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Example usage:
+        // java -cp "*" com.example.rntn.LoadTestRunner -embedded -rate predict=10,batch=1,login=1,respuestas=2 -duration 60
+        // java -cp "*" com.example.rntn.LoadTestRunner -url http://localhost:8080 -user admin -password ... -concurrency 8
+        String url = null;
+        String user = "loadtest";
+        String password = "loadtest123";
+        boolean embedded = false;
+        boolean virtual = false;
+        String rateSpec = null;
+        int concurrency = 4;
+        String scenarioSpec = String.join(",", SCENARIOS);
+        int duration = 60;
+        int warmup = 10;
+        int maxInFlight = 256;
+        int batchSize = 10;
+        int preguntaId = 1;
+        Path corpus = Path.of("data/sample_input.csv");
+        Path tinyModel = Path.of("target/loadtest/tiny-model.ser.gz");
+        String reportPath = null;
+        String hgrmDir = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-url" -> url = args[++i];
+                case "-user" -> user = args[++i];
+                case "-password" -> password = args[++i];
+                case "-embedded" -> embedded = true;
+                case "-virtual" -> virtual = true;
+                case "-rate" -> rateSpec = args[++i];
+                case "-concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "-scenarios" -> scenarioSpec = args[++i];
+                case "-duration" -> duration = Integer.parseInt(args[++i]);
+                case "-warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "-maxInFlight" -> maxInFlight = Integer.parseInt(args[++i]);
+                case "-batchSize" -> batchSize = Integer.parseInt(args[++i]);
+                case "-preguntaId" -> preguntaId = Integer.parseInt(args[++i]);
+                case "-corpus" -> corpus = Path.of(args[++i]);
+                case "-model" -> tinyModel = Path.of(args[++i]);
+                case "-report" -> reportPath = args[++i];
+                case "-hgrm" -> hgrmDir = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (url == null && !embedded) {
+            System.err.println("Usage: LoadTestRunner (-url <base url> | -embedded [-virtual]) [-user U -password P] "
+                + "[-rate predict=R,batch=R,login=R,respuestas=R,pacientes=R | -concurrency N -scenarios predict,batch,...] "
+                + "[-duration S] [-warmup S] [-maxInFlight N] [-batchSize N] [-preguntaId ID] [-corpus file.csv] "
+                + "[-model tiny.ser.gz] [-report report.json] [-hgrm dir]");
+            System.exit(2);
+        }
+
+        ConfigurableApplicationContext context = null;
+        if (embedded) {
+            Path model = tinyModel(tinyModel);
+            SpringApplication application = new SpringApplication(RntnApiApplication.class);
+            if (virtual) {
+                application.setAdditionalProfiles("loadtest", "virtual-threads");
+            } else {
+                application.setAdditionalProfiles("loadtest");
+            }
+            context = application.run("--rntn.model.default-path=" + model, "--rntn.model.directory=target/loadtest/");
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            System.out.println("Embedded server started at " + url + " with model " + model
+                + (virtual ? " (virtual threads)" : " (platform threads)"));
+        }
+
+        LoadTestRunner runner = new LoadTestRunner(url, user, password, readTexts(corpus), batchSize, preguntaId);
+        runner.login();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemon("loadtest-arrivals"));
+        String mode;
+        if (rateSpec != null) {
+            Map<String, Double> rates = parseRates(rateSpec);
+            runner.startOpenLoop(rates, maxInFlight, scheduler);
+            mode = "open loop " + rates + " req/s";
+        } else {
+            List<String> scenarios = List.of(scenarioSpec.split(","));
+            runner.startClosedLoop(scenarios, concurrency);
+            mode = "closed loop, " + concurrency + " users per scenario " + scenarios;
+        }
+        System.out.printf("Load: %s; warmup %ds, measuring %ds%n", mode, warmup, duration);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        runner.resetStats();
+        long measureStart = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        runner.stop();
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        scheduler.shutdownNow();
+        // Let requests in flight finish so their latency is recorded
+        Thread.sleep(2000);
+
+        Map<String, EndpointStats> snapshot = runner.snapshot();
+        Map<String, Object> report = report(snapshot, seconds);
+        print(report, System.out);
+
+        if (reportPath != null) {
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put("target", url);
+            document.put("mode", mode);
+            document.put("durationSeconds", seconds);
+            document.put("endpoints", report);
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(Path.of(reportPath).toFile(), document);
+            System.out.println("Wrote " + reportPath);
+        }
+        if (hgrmDir != null) {
+            Files.createDirectories(Path.of(hgrmDir));
+            for (Map.Entry<String, EndpointStats> entry : snapshot.entrySet()) {
+                try (PrintStream out = new PrintStream(Path.of(hgrmDir, entry.getKey() + ".hgrm").toFile(), StandardCharsets.UTF_8)) {
+                    // Values are recorded in microseconds; report in milliseconds
+                    entry.getValue().interval.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            System.out.println("Wrote latency distributions to " + hgrmDir);
+        }
+        if (context != null) {
+            context.close();
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,32 @@
+-- ============================================================================
+-- Datos mínimos para el perfil loadtest (H2): un usuario ADMIN con los permisos
+-- que usan los escenarios de LoadTestRunner, una pregunta para las respuestas y
+-- unos pacientes para el escenario de lectura.
+-- Usuario: loadtest / loadtest123
+-- ============================================================================
+
+INSERT INTO usuario_roles (id_roles, permisos_roles) VALUES (1, 'ADMIN');
+
+INSERT INTO permissions (permission_name, resource, action, description, created_at) VALUES
+('sentiment:analyze', 'SENTIMENT', 'EXECUTE', 'Run single sentiment analysis', CURRENT_TIMESTAMP),
+('sentiment:analyze_batch', 'SENTIMENT', 'EXECUTE', 'Run batch sentiment analysis', CURRENT_TIMESTAMP),
+('evaluacion_respuesta:create', 'EVALUACION_RESPUESTA', 'CREATE', 'Create evaluation responses', CURRENT_TIMESTAMP),
+('evaluacion_respuesta:read', 'EVALUACION_RESPUESTA', 'READ', 'View evaluation responses', CURRENT_TIMESTAMP),
+('evaluacion_respuesta:update', 'EVALUACION_RESPUESTA', 'UPDATE', 'Update evaluation responses', CURRENT_TIMESTAMP),
+('evaluacion_respuesta:delete', 'EVALUACION_RESPUESTA', 'DELETE', 'Delete evaluation responses', CURRENT_TIMESTAMP),
+('paciente:read', 'PACIENTE', 'READ', 'View patient information', CURRENT_TIMESTAMP);
+
+INSERT INTO role_permissions (id_role, id_permission)
+SELECT 1, id_permission FROM permissions;
+
+INSERT INTO usuario (id_usuario, nombre_usuario, pass_usuario, created_at) VALUES
+(1, 'loadtest', '$2a$10$UJVEm.4P4SM8M/.8f3k3U.XjZ3uM3xnmI/sV.CA864XYOrSWxtQX2', CURRENT_TIMESTAMP);
+
+INSERT INTO usuario_roles_mapping (id_usuario, id_roles) VALUES (1, 1);
+
+INSERT INTO evaluacion_pregunta (id_evaluacion_pregunta, texto_evaluacion_pregunta, created_at) VALUES
+(1, '¿Cómo se ha sentido durante la última semana?', CURRENT_TIMESTAMP);
+
+INSERT INTO paciente (doc_paciente, nombre_paciente, email_paciente, estatus_paciente, created_at)
+SELECT CONCAT('LT', n), CONCAT('Paciente carga ', n), CONCAT('paciente', n, '@loadtest.local'), 'ACTIVO', CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 100) AS r(n);
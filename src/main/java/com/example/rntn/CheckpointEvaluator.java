@@ -0,0 +1,156 @@
+package com.example.rntn;
+
+import edu.stanford.nlp.sentiment.SentimentModel;
+import edu.stanford.nlp.trees.Tree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * CheckpointEvaluator: scores model checkpoints on the dev set on a background thread so the
+ * training loop never waits for evaluation.
+ *
+ * At most one checkpoint is queued: if training produces a new checkpoint while an older one is
+ * still waiting, the older one is skipped. The best checkpoint is moved to the final model path;
+ * after {@code patience} evaluations without an improvement larger than {@code minDelta} a stop is
+ * requested, which the training loop polls between minibatches.
+ */
+public class CheckpointEvaluator {
+
+    private final List<Tree> devTrees;
+    private final Path bestModelPath;
+    private final int patience;
+    private final double minDelta;
+    private final Consumer<String> logger;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "checkpoint-evaluator");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicReference<Checkpoint> pending = new AtomicReference<>();
+
+    private double bestAccuracy;
+    private int evaluationsWithoutImprovement;
+    private int evaluations;
+    private volatile boolean stopRequested;
+
+    private record Checkpoint(Path file, long batch) {
+    }
+
+    public CheckpointEvaluator(List<Tree> devTrees, Path bestModelPath, int patience, double minDelta,
+                               double bestAccuracy, int evaluationsWithoutImprovement, Consumer<String> logger) {
+        this.devTrees = devTrees;
+        this.bestModelPath = bestModelPath;
+        this.patience = patience;
+        this.minDelta = minDelta;
+        this.bestAccuracy = bestAccuracy;
+        this.evaluationsWithoutImprovement = evaluationsWithoutImprovement;
+        this.logger = logger;
+    }
+
+    /**
+     * Queues a checkpoint for evaluation. Ownership of the file passes to the evaluator: it is
+     * either promoted to the best model path or deleted.
+     */
+    public void submit(Path checkpointFile, long batch) {
+        Checkpoint replaced = pending.getAndSet(new Checkpoint(checkpointFile, batch));
+        if (replaced != null) {
+            log("Skipping evaluation of checkpoint at batch " + replaced.batch() + " (superseded)");
+            deleteQuietly(replaced.file());
+        } else {
+            executor.execute(this::evaluatePending);
+        }
+    }
+
+    public boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    public synchronized double getBestAccuracy() {
+        return bestAccuracy;
+    }
+
+    public synchronized int getEvaluationsWithoutImprovement() {
+        return evaluationsWithoutImprovement;
+    }
+
+    public synchronized int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Waits for the queued evaluation, if any, and stops the evaluator thread.
+     */
+    public void finish() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops the queued evaluation and interrupts the running one, if any.
+     */
+    public void abort() {
+        Checkpoint dropped = pending.getAndSet(null);
+        if (dropped != null) {
+            deleteQuietly(dropped.file());
+        }
+        executor.shutdownNow();
+    }
+
+    private void evaluatePending() {
+        Checkpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            SentimentModel model = SentimentModel.loadSerialized(checkpoint.file().toString());
+            double accuracy = TrainingRunner.evaluateRootAccuracy(model, devTrees);
+            record(checkpoint, accuracy, (System.nanoTime() - start) / 1e9);
+        } catch (Exception e) {
+            log("Evaluation of checkpoint at batch " + checkpoint.batch() + " failed: " + e.getMessage());
+            deleteQuietly(checkpoint.file());
+        }
+    }
+
+    private synchronized void record(Checkpoint checkpoint, double accuracy, double seconds) throws IOException {
+        evaluations++;
+        if (accuracy > bestAccuracy + minDelta) {
+            bestAccuracy = accuracy;
+            evaluationsWithoutImprovement = 0;
+            Files.move(checkpoint.file(), bestModelPath, StandardCopyOption.REPLACE_EXISTING);
+            log(String.format("Batch %d: dev accuracy %.4f (new best, saved to %s) [%.1fs]",
+                checkpoint.batch(), accuracy, bestModelPath, seconds));
+        } else {
+            evaluationsWithoutImprovement++;
+            deleteQuietly(checkpoint.file());
+            log(String.format("Batch %d: dev accuracy %.4f (best %.4f, %d evaluation(s) without improvement) [%.1fs]",
+                checkpoint.batch(), accuracy, bestAccuracy, evaluationsWithoutImprovement, seconds));
+            if (patience > 0 && evaluationsWithoutImprovement >= patience) {
+                stopRequested = true;
+                log("Dev accuracy plateaued, requesting early stop");
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void log(String message) {
+        logger.accept(message);
+    }
+}
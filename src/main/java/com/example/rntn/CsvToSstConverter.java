@@ -6,6 +6,7 @@ import org.apache.commons.csv.CSVRecord;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 /**
  * CsvToSstConverter:
@@ -13,7 +14,7 @@ import java.nio.charset.StandardCharsets;
  * is a labeled parenthesized tree. If phrase-level annotations are not present, the sentence-level
  * label is propagated to all nodes.
  *
- * CSV format: header optional. Columns: sentence,label
+ * CSV format: header optional. Columns: sentence,label. Files ending in .gz are read as gzip.
  *
  * Example:
  * "I feel hopeless and anxious.",0
@@ -21,6 +22,8 @@ import java.nio.charset.StandardCharsets;
  * Output line:
  * (0 (0 I) (0 (0 feel) (0 (0 hopeless) (0 (0 and) (0 anxious)))) (. .))
  *
+ * An optional parse cache file can be supplied; parses are then reused across runs so that
+ * regenerating the SST file after a label change only re-renders labels onto cached trees.
  */
 public class CsvToSstConverter {
 
@@ -30,8 +33,17 @@ public class CsvToSstConverter {
         this.converter = new TreeConverter();
     }
 
+    public CsvToSstConverter(ParseCache cache) {
+        this.converter = new TreeConverter(cache);
+    }
+
     public void convert(File csvFile, File outSstFile, boolean hasHeader) throws IOException {
-        try (Reader in = new InputStreamReader(new FileInputStream(csvFile), StandardCharsets.UTF_8);
+        InputStream csvIn = new FileInputStream(csvFile);
+        if (csvFile.getName().endsWith(".gz")) {
+            // gzip CSV as produced by TrainingDataExporter
+            csvIn = new GZIPInputStream(csvIn, 1 << 16);
+        }
+        try (Reader in = new InputStreamReader(csvIn, StandardCharsets.UTF_8);
              BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outSstFile), StandardCharsets.UTF_8))) {
 
             CSVFormat format = hasHeader ? CSVFormat.DEFAULT.withFirstRecordAsHeader() : CSVFormat.DEFAULT;
@@ -56,15 +68,26 @@ public class CsvToSstConverter {
 
     public static void main(String[] args) throws Exception {
         if (args.length < 2) {
-            System.err.println("Usage: CsvToSstConverter <input.csv> <output.sst> [header:true|false]");
+            System.err.println("Usage: CsvToSstConverter <input.csv> <output.sst> [header:true|false] [parse-cache-file]");
             System.exit(2);
         }
         File in = new File(args[0]);
         File out = new File(args[1]);
         boolean header = true;
         if (args.length >= 3) header = Boolean.parseBoolean(args[2]);
-        CsvToSstConverter conv = new CsvToSstConverter();
-        conv.convert(in, out, header);
-        System.out.println("Converted " + in + " -> " + out);
+        if (args.length < 4) {
+            CsvToSstConverter conv = new CsvToSstConverter();
+            conv.convert(in, out, header);
+            System.out.println("Converted " + in + " -> " + out);
+            return;
+        }
+        File cacheFile = new File(args[3]);
+        try (ParseCache cache = new ParseCache(cacheFile, TreeConverter.defaultParserConfig())) {
+            CsvToSstConverter conv = new CsvToSstConverter(cache);
+            conv.convert(in, out, header);
+            System.out.println("Converted " + in + " -> " + out);
+            System.out.println("Parse cache " + cacheFile + ": " + cache.getHits() + " hits, "
+                    + cache.getMisses() + " misses, " + cache.size() + " entries");
+        }
     }
 }
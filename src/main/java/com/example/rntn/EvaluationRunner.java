@@ -0,0 +1,285 @@
+package com.example.rntn;
+
+import com.example.rntn.dto.response.ModelEvaluationResponse;
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.util.CalibrationMetrics;
+import com.example.rntn.util.ClassificationMetrics;
+import com.example.rntn.util.LatencyRecorder;
+import com.example.rntn.util.SentimentPredictor;
+import com.example.rntn.util.SentimentPredictorPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.stanford.nlp.ling.Word;
+import edu.stanford.nlp.trees.Tree;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * EvaluationRunner: the evaluate command. Scores a labeled .sst or CSV file end to end (tokenize,
+ * parse, RNTN) through a SentimentPredictorPool and reports quality and performance of the same run.
+ *
+ * Sentences are scored by {@code threads} workers sharing the pool; they wait in the background
+ * lane, so on a shared pool live traffic is served first. Quality: accuracy, per-class
+ * precision/recall/F1, the confusion matrix over SentimentLabel and calibration of the root class
+ * probabilities (expected calibration error over 10 bins, Brier score). Performance: sentences/sec
+ * over the wall time of the run and p50/p95/p99 per-sentence latency.
+ *
+ * SST input: one labeled tree per line, the root label is the gold class and the leaves are the text.
+ * CSV input: sentence,label with a numeric class or a SentimentLabel name; header optional. Files
+ * ending in .gz are read as gzip.
+ */
+public class EvaluationRunner {
+
+    private static final int CALIBRATION_BINS = 10;
+
+    public record Example(String text, int gold) {
+    }
+
+    private record Partial(ClassificationMetrics metrics, CalibrationMetrics calibration,
+                           LatencyRecorder latencies, long skipped) {
+    }
+
+    private final SentimentPredictorPool pool;
+    private final int threads;
+
+    /**
+     * @param threads concurrent scoring workers; more than the pool size only adds waiting
+     */
+    public EvaluationRunner(SentimentPredictorPool pool, int threads) {
+        this.pool = pool;
+        this.threads = Math.max(1, threads);
+    }
+
+    public ModelEvaluationResponse evaluate(List<Example> examples, String dataPath)
+            throws InterruptedException, ExecutionException {
+        int numClasses = SentimentLabel.values().length;
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "evaluate-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long start = System.nanoTime();
+        List<Future<Partial>> futures = new ArrayList<>();
+        try {
+            for (int w = 0; w < threads; w++) {
+                futures.add(executor.submit(() -> score(examples, next, numClasses)));
+            }
+            ClassificationMetrics metrics = new ClassificationMetrics(numClasses);
+            CalibrationMetrics calibration = new CalibrationMetrics(CALIBRATION_BINS);
+            LatencyRecorder latencies = new LatencyRecorder();
+            long skipped = 0;
+            for (Future<Partial> future : futures) {
+                Partial partial = future.get();
+                metrics.merge(partial.metrics());
+                calibration.merge(partial.calibration());
+                latencies.merge(partial.latencies());
+                skipped += partial.skipped();
+            }
+            double wallSeconds = (System.nanoTime() - start) / 1e9;
+            return report(dataPath, metrics, calibration, latencies, skipped, wallSeconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Partial score(List<Example> examples, AtomicInteger next, int numClasses) throws InterruptedException {
+        ClassificationMetrics metrics = new ClassificationMetrics(numClasses);
+        CalibrationMetrics calibration = new CalibrationMetrics(CALIBRATION_BINS);
+        LatencyRecorder latencies = new LatencyRecorder();
+        long skipped = 0;
+        for (int i = next.getAndIncrement(); i < examples.size(); i = next.getAndIncrement()) {
+            Example example = examples.get(i);
+            long[] elapsed = new long[1];
+            SentimentPredictor.Prediction prediction = pool.withPredictor(SentimentPredictorPool.Lane.BACKGROUND, predictor -> {
+                long t0 = System.nanoTime();
+                SentimentPredictor.Prediction p = predictor.predict(example.text());
+                elapsed[0] = System.nanoTime() - t0;
+                return p;
+            });
+            latencies.record(elapsed[0]);
+            if (prediction == null || prediction.predictedClass() < 0 || prediction.predictedClass() >= numClasses) {
+                skipped++;
+                continue;
+            }
+            metrics.add(example.gold(), prediction.predictedClass());
+            calibration.add(prediction.probabilities(), prediction.predictedClass(), example.gold());
+        }
+        return new Partial(metrics, calibration, latencies, skipped);
+    }
+
+    private ModelEvaluationResponse report(String dataPath, ClassificationMetrics metrics, CalibrationMetrics calibration,
+                                           LatencyRecorder latencies, long skipped, double wallSeconds) {
+        long[][] confusion = metrics.getConfusionMatrix();
+        List<ModelEvaluationResponse.ClassMetrics> classes = new ArrayList<>();
+        for (int c = 0; c < metrics.getNumClasses(); c++) {
+            classes.add(ModelEvaluationResponse.ClassMetrics.builder()
+                .label(SentimentLabel.fromIndex(c).name())
+                .precision(metrics.precision(c))
+                .recall(metrics.recall(c))
+                .f1(metrics.f1(c))
+                .support(Arrays.stream(confusion[c]).sum())
+                .build());
+        }
+        List<ModelEvaluationResponse.CalibrationBin> bins = new ArrayList<>();
+        for (int b = 0; b < calibration.getBins(); b++) {
+            bins.add(ModelEvaluationResponse.CalibrationBin.builder()
+                .lower((double) b / calibration.getBins())
+                .upper((double) (b + 1) / calibration.getBins())
+                .count(calibration.getCount(b))
+                .meanConfidence(calibration.meanConfidence(b))
+                .accuracy(calibration.accuracy(b))
+                .build());
+        }
+        long scored = latencies.getCount();
+        return ModelEvaluationResponse.builder()
+            .modelPath(pool.getModelPath())
+            .dataPath(dataPath)
+            .sentences(metrics.getTotal())
+            .skipped(skipped)
+            .threads(threads)
+            .accuracy(metrics.accuracy())
+            .macroF1(metrics.macroF1())
+            .classes(classes)
+            .labels(Arrays.stream(SentimentLabel.values()).map(SentimentLabel::name).collect(Collectors.toList()))
+            .confusionMatrix(confusion)
+            .expectedCalibrationError(calibration.expectedCalibrationError())
+            .brierScore(calibration.brierScore())
+            .calibration(bins)
+            .wallSeconds(wallSeconds)
+            .sentencesPerSecond(wallSeconds > 0 ? scored / wallSeconds : 0.0)
+            .latencyMeanMs(latencies.mean() / 1e6)
+            .latencyP50Ms(latencies.percentile(0.50) / 1e6)
+            .latencyP95Ms(latencies.percentile(0.95) / 1e6)
+            .latencyP99Ms(latencies.percentile(0.99) / 1e6)
+            .build();
+    }
+
+    /**
+     * Reads labeled examples from an .sst or CSV file (optionally gzip), keeping at most {@code limit}
+     * (0 = all).
+     */
+    public static List<Example> readExamples(Path file, int limit) throws IOException {
+        String name = file.getFileName().toString();
+        List<Example> examples = new ArrayList<>();
+        try (InputStream raw = Files.newInputStream(file);
+             InputStream in = name.endsWith(".gz") ? new GZIPInputStream(raw, 1 << 16) : raw;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            if (name.contains(".sst")) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Tree tree = Tree.valueOf(line);
+                    String text = tree.yieldWords().stream()
+                        .map(Word::word)
+                        .map(w -> w.replace("-LRB-", "(").replace("-RRB-", ")"))
+                        .collect(Collectors.joining(" "));
+                    examples.add(new Example(text, Integer.parseInt(tree.label().value())));
+                    if (limit > 0 && examples.size() >= limit) {
+                        break;
+                    }
+                }
+            } else {
+                CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT);
+                boolean first = true;
+                for (CSVRecord record : parser) {
+                    Integer gold = parseLabel(record.get(1));
+                    if (gold == null) {
+                        if (first) {
+                            first = false;
+                            continue; // header
+                        }
+                        throw new IllegalArgumentException("Invalid label '" + record.get(1) + "' at line "
+                            + record.getRecordNumber() + " of " + file);
+                    }
+                    first = false;
+                    examples.add(new Example(record.get(0), gold));
+                    if (limit > 0 && examples.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return examples;
+    }
+
+    private static Integer parseLabel(String value) {
+        String label = value.trim();
+        try {
+            int index = Integer.parseInt(label);
+            return index >= 0 && index < SentimentLabel.values().length ? index : null;
+        } catch (NumberFormatException e) {
+            try {
+                return SentimentLabel.valueOf(label.toUpperCase()).getIndex();
+            } catch (IllegalArgumentException notALabel) {
+                return null;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Example usage:
+        // java -Xmx4g -cp "*" com.example.rntn.EvaluationRunner models/out-model.ser.gz data/dev.sst -threads 4
+        if (args.length < 2) {
+            System.err.println("Usage: EvaluationRunner <model.ser.gz> <data.sst|data.csv>[.gz] "
+                + "[-threads N] [-limit N] [-json report.json]");
+            System.exit(2);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int limit = 0;
+        String json = null;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" -> threads = Integer.parseInt(args[++i]);
+                case "-limit" -> limit = Integer.parseInt(args[++i]);
+                case "-json" -> json = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<Example> examples = readExamples(Path.of(args[1]), limit);
+        SentimentPredictorPool pool = new SentimentPredictorPool(args[0], threads);
+        ModelEvaluationResponse report = new EvaluationRunner(pool, threads).evaluate(examples, args[1]);
+
+        System.out.printf("Sentences: %d (skipped %d), threads: %d%n", report.getSentences(), report.getSkipped(), threads);
+        System.out.printf("Accuracy: %.4f, macro F1: %.4f%n", report.getAccuracy(), report.getMacroF1());
+        System.out.printf("%-12s %9s %9s %9s %9s%n", "label", "precision", "recall", "f1", "support");
+        for (ModelEvaluationResponse.ClassMetrics c : report.getClasses()) {
+            System.out.printf("%-12s %9.4f %9.4f %9.4f %9d%n", c.getLabel(), c.getPrecision(), c.getRecall(),
+                c.getF1(), c.getSupport());
+        }
+        System.out.println("Confusion matrix (rows = gold, columns = predicted): " + report.getLabels());
+        for (int g = 0; g < report.getConfusionMatrix().length; g++) {
+            System.out.printf("%-12s %s%n", report.getLabels().get(g), Arrays.toString(report.getConfusionMatrix()[g]));
+        }
+        System.out.printf("Calibration: ECE %.4f, Brier %.4f%n", report.getExpectedCalibrationError(), report.getBrierScore());
+        System.out.printf("Throughput: %.1f sentences/sec over %.1fs; latency mean %.1fms, p50 %.1fms, p95 %.1fms, p99 %.1fms%n",
+            report.getSentencesPerSecond(), report.getWallSeconds(), report.getLatencyMeanMs(),
+            report.getLatencyP50Ms(), report.getLatencyP95Ms(), report.getLatencyP99Ms());
+        if (json != null) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(Path.of(json).toFile(), report);
+            System.out.println("Wrote " + json);
+        }
+    }
+}
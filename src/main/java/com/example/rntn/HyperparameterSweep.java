@@ -0,0 +1,312 @@
+package com.example.rntn;
+
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.util.ClassificationMetrics;
+import com.example.rntn.util.LatencyRecorder;
+import edu.stanford.nlp.neural.rnn.RNNCoreAnnotations;
+import edu.stanford.nlp.sentiment.SentimentCostAndGradient;
+import edu.stanford.nlp.sentiment.SentimentModel;
+import edu.stanford.nlp.sentiment.SentimentUtils;
+import edu.stanford.nlp.trees.Tree;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HyperparameterSweep: trains one model per point of a numHid x regularization x learningRate
+ * search space and ranks them on the dev set.
+ *
+ * Trials run concurrently, as many as fit in the CPU budget (cores / threads per trial) and the
+ * memory budget (budget / memory per trial). Each trial trains either in-process with its own
+ * SentimentModel or in a child JVM ({@code -childJvm}) with its own heap. Every trial is scored
+ * on the dev .sst for accuracy, per-class F1 and RNTN forward-pass latency on pre-parsed trees,
+ * and the ranked table is written to {@code <out-dir>/sweep-results.tsv}.
+ *
+ * Example:
+ *   java -Xmx12g -cp "*" com.example.rntn.HyperparameterSweep data/train.sst data/dev.sst sweeps/run1 \
+ *        -numHid 25,35,50 -regularization 0.001,0.0001 -learningRate 0.01,0.05 -epochs 50 -random 6
+ */
+public class HyperparameterSweep {
+
+    private final TrainingOptions base;
+    private final Path outDir;
+    private final List<Trial> trials;
+    private final int parallelism;
+    private final int threadsPerTrial;
+    private final boolean childJvm;
+    private final long memoryPerTrialMb;
+
+    record Trial(int id, int numHid, double regularization, double learningRate) {
+    }
+
+    record TrialResult(Trial trial, Path modelPath, double accuracy, double macroF1, double[] f1,
+                       double trainingSeconds, double p50Micros, double p95Micros, long modelBytes,
+                       String error) {
+    }
+
+    public HyperparameterSweep(TrainingOptions base, Path outDir, List<Trial> trials, int maxParallel,
+                               int threadsPerTrial, boolean childJvm, long memoryPerTrialMb, long memoryBudgetMb) {
+        this.base = base;
+        this.outDir = outDir;
+        this.trials = trials;
+        this.threadsPerTrial = threadsPerTrial;
+        this.childJvm = childJvm;
+        this.memoryPerTrialMb = memoryPerTrialMb;
+
+        int cpuSlots = Math.max(1, Runtime.getRuntime().availableProcessors() / threadsPerTrial);
+        int memorySlots = (int) Math.max(1, memoryBudgetMb / memoryPerTrialMb);
+        this.parallelism = Math.max(1, Math.min(Math.min(maxParallel, trials.size()), Math.min(cpuSlots, memorySlots)));
+        log(String.format("%d trial(s), %d in parallel (cpu slots %d, memory slots %d, %d thread(s) and %d MB per trial, %s)",
+            trials.size(), parallelism, cpuSlots, memorySlots, threadsPerTrial, memoryPerTrialMb,
+            childJvm ? "child JVMs" : "in-process"));
+    }
+
+    public List<TrialResult> run() throws IOException, InterruptedException {
+        Files.createDirectories(outDir);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        List<Future<TrialResult>> futures = new ArrayList<>();
+        for (Trial trial : trials) {
+            futures.add(pool.submit(() -> runTrial(trial)));
+        }
+        pool.shutdown();
+
+        List<TrialResult> results = new ArrayList<>();
+        for (Future<TrialResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Trial crashed", e.getCause());
+            }
+        }
+
+        results.sort(Comparator.comparing((TrialResult r) -> r.error() == null ? 0 : 1)
+            .thenComparing(TrialResult::accuracy, Comparator.reverseOrder())
+            .thenComparing(TrialResult::macroF1, Comparator.reverseOrder())
+            .thenComparingDouble(TrialResult::p95Micros));
+        writeTable(results, outDir.resolve("sweep-results.tsv"));
+        return results;
+    }
+
+    private TrialResult runTrial(Trial trial) {
+        Path trialDir = outDir.resolve("trial-" + trial.id());
+        Path modelPath = trialDir.resolve("model.ser.gz");
+        TrainingOptions options = base.toBuilder()
+            .numHid(trial.numHid())
+            .regularization(trial.regularization())
+            .learningRate(trial.learningRate())
+            .threads(threadsPerTrial)
+            .modelPath(modelPath.toString())
+            .extraArgs(new ArrayList<>(base.getExtraArgs()))
+            .build();
+
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(trialDir);
+            log("Starting " + trial);
+            if (childJvm) {
+                trainInChildJvm(options, trialDir.resolve("training.log"));
+            } else {
+                new TrainingRunner(options, message -> System.out.println("[trial-" + trial.id() + "] " + message)).run();
+            }
+            double trainingSeconds = (System.nanoTime() - start) / 1e9;
+            TrialResult result = evaluate(trial, modelPath, trainingSeconds);
+            log(String.format("Finished trial-%d: accuracy %.4f, macro F1 %.4f, %.0fs",
+                trial.id(), result.accuracy(), result.macroF1(), trainingSeconds));
+            return result;
+        } catch (Exception e) {
+            log("Trial-" + trial.id() + " failed: " + e.getMessage());
+            return new TrialResult(trial, modelPath, 0.0, 0.0, new double[base.getNumClasses()],
+                (System.nanoTime() - start) / 1e9, 0.0, 0.0, 0L, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void trainInChildJvm(TrainingOptions options, Path logFile) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + memoryPerTrialMb + "m");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(TrainingRunner.class.getName());
+        command.addAll(options.toCommandLine());
+
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile.toFile())
+            .start();
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException("Child JVM exited with " + exit + ", see " + logFile);
+        }
+    }
+
+    /**
+     * Scores the trained model on the dev trees. Trees are re-read per trial because the forward
+     * pass stores its predictions on the tree nodes.
+     */
+    private TrialResult evaluate(Trial trial, Path modelPath, double trainingSeconds) throws IOException {
+        SentimentModel model = SentimentModel.loadSerialized(modelPath.toString());
+        List<Tree> devTrees = SentimentUtils.readTreesWithGoldLabels(base.getDevPath());
+        SentimentCostAndGradient scorer = new SentimentCostAndGradient(model, null);
+        ClassificationMetrics metrics = new ClassificationMetrics(model.numClasses);
+
+        long[] latencies = new long[devTrees.size()];
+        for (int i = 0; i < devTrees.size(); i++) {
+            Tree tree = devTrees.get(i);
+            long t0 = System.nanoTime();
+            scorer.forwardPropagateTree(tree);
+            latencies[i] = System.nanoTime() - t0;
+            int gold = RNNCoreAnnotations.getGoldClass(tree);
+            if (gold >= 0) {
+                metrics.add(gold, RNNCoreAnnotations.getPredictedClass(tree));
+            }
+        }
+        Arrays.sort(latencies);
+
+        double[] f1 = new double[metrics.getNumClasses()];
+        for (int c = 0; c < f1.length; c++) {
+            f1[c] = metrics.f1(c);
+        }
+        return new TrialResult(trial, modelPath, metrics.accuracy(), metrics.macroF1(), f1, trainingSeconds,
+            percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.95) / 1e3, Files.size(modelPath), null);
+    }
+
+    private void writeTable(List<TrialResult> results, Path file) throws IOException {
+        List<String> header = new ArrayList<>(List.of("rank", "trial", "numHid", "regularization", "learningRate",
+            "accuracy", "macroF1"));
+        for (int c = 0; c < base.getNumClasses(); c++) {
+            header.add("f1_" + className(c));
+        }
+        header.addAll(List.of("trainSeconds", "p50Micros", "p95Micros", "modelBytes", "model", "error"));
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.join("\t", header));
+            writer.newLine();
+            System.out.println(String.join("\t", header));
+            int rank = 1;
+            for (TrialResult r : results) {
+                List<String> row = new ArrayList<>(List.of(
+                    String.valueOf(rank++),
+                    String.valueOf(r.trial().id()),
+                    String.valueOf(r.trial().numHid()),
+                    String.valueOf(r.trial().regularization()),
+                    String.valueOf(r.trial().learningRate()),
+                    String.format("%.4f", r.accuracy()),
+                    String.format("%.4f", r.macroF1())));
+                for (double f : r.f1()) {
+                    row.add(String.format("%.4f", f));
+                }
+                row.addAll(List.of(
+                    String.format("%.1f", r.trainingSeconds()),
+                    String.format("%.1f", r.p50Micros()),
+                    String.format("%.1f", r.p95Micros()),
+                    String.valueOf(r.modelBytes()),
+                    r.modelPath().toString(),
+                    r.error() == null ? "" : r.error()));
+                writer.write(String.join("\t", row));
+                writer.newLine();
+                System.out.println(String.join("\t", row));
+            }
+        }
+        log("Wrote ranked results to " + file);
+    }
+
+    private static String className(int index) {
+        return index < SentimentLabel.values().length ? SentimentLabel.fromIndex(index).name() : "class" + index;
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        return LatencyRecorder.percentile(sorted, sorted.length, q);
+    }
+
+    /**
+     * Cartesian product of the value lists; with {@code randomTrials > 0} a seeded random sample of it.
+     */
+    static List<Trial> searchSpace(List<Integer> numHids, List<Double> regularizations, List<Double> learningRates,
+                                   int randomTrials, long seed) {
+        List<Trial> grid = new ArrayList<>();
+        int id = 1;
+        for (int numHid : numHids) {
+            for (double reg : regularizations) {
+                for (double lr : learningRates) {
+                    grid.add(new Trial(id++, numHid, reg, lr));
+                }
+            }
+        }
+        if (randomTrials > 0 && randomTrials < grid.size()) {
+            Collections.shuffle(grid, new Random(seed));
+            grid = new ArrayList<>(grid.subList(0, randomTrials));
+            grid.sort(Comparator.comparingInt(Trial::id));
+        }
+        return grid;
+    }
+
+    private static long physicalMemoryMb() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getTotalMemorySize() / (1024 * 1024);
+        }
+        return Runtime.getRuntime().maxMemory() / (1024 * 1024);
+    }
+
+    private static void log(String message) {
+        System.out.println("[HyperparameterSweep] " + message);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: HyperparameterSweep <train.sst> <dev.sst> <out-dir> "
+                + "[-numHid 25,35] [-regularization 0.001,0.0001] [-learningRate 0.01,0.05] [-random N] "
+                + "[-maxParallel N] [-threadsPerTrial N] [-memoryPerTrialMb MB] [-memoryBudgetMb MB] [-childJvm] "
+                + "[TrainingRunner options...]");
+            System.exit(2);
+        }
+        List<Integer> numHids = List.of(25);
+        List<Double> regularizations = List.of(0.001);
+        List<Double> learningRates = List.of(0.01);
+        int randomTrials = 0;
+        int maxParallel = Integer.MAX_VALUE;
+        int threadsPerTrial = 1;
+        boolean childJvm = false;
+        long memoryPerTrialMb = 2048;
+        Long memoryBudgetMb = null;
+        List<String> trainingArgs = new ArrayList<>(List.of(args[0], args[1], new File(args[2], "model.ser.gz").getPath()));
+
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "-numHid" -> numHids = Arrays.stream(args[++i].split(",")).map(String::trim).map(Integer::valueOf).toList();
+                case "-regularization" -> regularizations = Arrays.stream(args[++i].split(",")).map(String::trim).map(Double::valueOf).toList();
+                case "-learningRate" -> learningRates = Arrays.stream(args[++i].split(",")).map(String::trim).map(Double::valueOf).toList();
+                case "-random" -> randomTrials = Integer.parseInt(args[++i]);
+                case "-maxParallel" -> maxParallel = Integer.parseInt(args[++i]);
+                case "-threadsPerTrial" -> threadsPerTrial = Integer.parseInt(args[++i]);
+                case "-memoryPerTrialMb" -> memoryPerTrialMb = Long.parseLong(args[++i]);
+                case "-memoryBudgetMb" -> memoryBudgetMb = Long.valueOf(args[++i]);
+                case "-childJvm" -> childJvm = true;
+                default -> trainingArgs.add(args[i]);
+            }
+        }
+
+        TrainingOptions base = TrainingOptions.parse(trainingArgs.toArray(new String[0]));
+        if (memoryBudgetMb == null) {
+            // in-process trials share this JVM's heap; child JVMs share the machine's memory
+            memoryBudgetMb = childJvm ? physicalMemoryMb() : Runtime.getRuntime().maxMemory() / (1024 * 1024);
+        }
+        List<Trial> trials = searchSpace(numHids, regularizations, learningRates, randomTrials, base.getSeed());
+        new HyperparameterSweep(base, Path.of(args[2]), trials, maxParallel, threadsPerTrial, childJvm,
+            memoryPerTrialMb, memoryBudgetMb).run();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.rntn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ParseCache: persistent key/value store of unlabeled constituency parses produced by TreeConverter.
+ *
+ * Keys are a 128-bit SHA-256 prefix of (parser configuration, sentence), values are the one-line
+ * Penn tree string. Labels are never stored, so relabeling a dataset only needs to re-render labels
+ * onto cached trees instead of running tokenize/pos/parse again.
+ *
+ * File layout (append-only, big-endian):
+ *   int magic, then records of [long keyHi][long keyLo][int length][length bytes of UTF-8 tree]
+ *
+ * The whole file is loaded into memory on open; new parses are appended as they are produced.
+ * A record truncated by an interrupted run is discarded and the file is cut back to the last
+ * complete record.
+ */
+public class ParseCache implements Closeable {
+
+    private static final int MAGIC = 0x52504331; // "RPC1"
+
+    private final File file;
+    private final String parserConfig;
+    private final Map<Key, String> entries = new HashMap<>();
+    private final DataOutputStream out;
+
+    private long hits;
+    private long misses;
+
+    private record Key(long hi, long lo) {
+    }
+
+    /**
+     * Opens (or creates) the cache file.
+     *
+     * @param file         on-disk cache file
+     * @param parserConfig fingerprint of the parser configuration; parses produced under a different
+     *                     configuration hash to different keys and are never reused
+     */
+    public ParseCache(File file, String parserConfig) throws IOException {
+        this.file = file;
+        this.parserConfig = parserConfig;
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory for parse cache: " + parent);
+        }
+        boolean fresh = !file.exists() || file.length() == 0;
+        if (!fresh) {
+            load();
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 1 << 16));
+        if (fresh) {
+            out.writeInt(MAGIC);
+        }
+    }
+
+    /**
+     * Returns the cached Penn tree string for the sentence, or null if it was never parsed
+     * under this parser configuration.
+     */
+    public synchronized String get(String sentence) {
+        String tree = entries.get(keyOf(sentence));
+        if (tree != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return tree;
+    }
+
+    /**
+     * Stores a parse and appends it to the cache file.
+     */
+    public synchronized void put(String sentence, String pennTree) throws IOException {
+        Key key = keyOf(sentence);
+        if (entries.putIfAbsent(key, pennTree) != null) {
+            return;
+        }
+        byte[] bytes = pennTree.getBytes(StandardCharsets.UTF_8);
+        out.writeLong(key.hi());
+        out.writeLong(key.lo());
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private void load() throws IOException {
+        long validLength;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a parse cache file: " + file);
+            }
+            validLength = Integer.BYTES;
+            while (true) {
+                long hi;
+                try {
+                    hi = in.readLong();
+                } catch (EOFException endOfFile) {
+                    break;
+                }
+                try {
+                    long lo = in.readLong();
+                    int length = in.readInt();
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    entries.put(new Key(hi, lo), new String(bytes, StandardCharsets.UTF_8));
+                    validLength += 2L * Long.BYTES + Integer.BYTES + length;
+                } catch (EOFException partialRecord) {
+                    System.err.println("Parse cache " + file + " ends with a partial record; discarding it");
+                    break;
+                }
+            }
+        }
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+    }
+
+    private Key keyOf(String sentence) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(parserConfig.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(sentence.getBytes(StandardCharsets.UTF_8)));
+        return new Key(hash.getLong(), hash.getLong());
+    }
+}
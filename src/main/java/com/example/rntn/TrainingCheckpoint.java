@@ -0,0 +1,78 @@
+package com.example.rntn;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TrainingCheckpoint: optimizer and loop state saved next to the last checkpointed model so that
+ * an interrupted TrainingRunner run can resume exactly where it stopped.
+ *
+ * The model parameters themselves are stored separately as a regular .ser.gz SentimentModel.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingCheckpoint implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Epoch in progress (0-based) */
+    private int epoch;
+
+    /** Index into epochOrder of the first tree not yet trained on in this epoch */
+    private int nextTree;
+
+    /** Minibatches completed since the start of training */
+    private long batchesDone;
+
+    /** Shuffled order of the training trees for the current epoch */
+    private int[] epochOrder;
+
+    /** AdaGrad accumulated squared gradients */
+    private double[] sumGradSquare;
+
+    /** Shuffling RNG, saved so later epochs shuffle exactly as in an uninterrupted run */
+    private Random shuffleRandom;
+
+    /** Best dev accuracy seen so far, -1 when no checkpoint was evaluated yet */
+    private double bestDevAccuracy;
+
+    /** Consecutive dev evaluations without improvement */
+    private int evaluationsWithoutImprovement;
+
+    public void save(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))) {
+            out.writeObject(this);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static TrainingCheckpoint load(Path path) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path))))) {
+            return (TrainingCheckpoint) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Invalid training checkpoint: " + path, e);
+        }
+    }
+}
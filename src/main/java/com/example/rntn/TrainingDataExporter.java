@@ -0,0 +1,226 @@
+package com.example.rntn;
+
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.util.JdbcStreaming;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * TrainingDataExporter: streams (text, label) pairs from evaluacion_respuesta as training data.
+ *
+ * Rows are read with a forward-only, read-only cursor and written as they arrive, so memory use does
+ * not depend on the table size. On MySQL the driver only streams with fetch size Integer.MIN_VALUE
+ * (or a positive fetch size when the URL has useCursorFetch=true); other databases use the
+ * configured fetch size.
+ *
+ * CSV output has the header "sentence,label" with the numeric class index, i.e. exactly the input of
+ * CsvToSstConverter. SST output renders each row directly as a labeled tree. Either format can be
+ * gzip-compressed.
+ */
+public class TrainingDataExporter {
+
+    public enum Format { CSV, SST }
+
+    /**
+     * Which label is exported: the clinician correction when present (EFFECTIVE), only corrected
+     * rows (CORRECTED), or the model prediction (PREDICTED)
+     */
+    public enum LabelSource { EFFECTIVE, CORRECTED, PREDICTED }
+
+    /**
+     * @param from         inclusive lower bound on created_at, or null
+     * @param to           exclusive upper bound on created_at, or null
+     * @param label        only rows with this (exported) label, or null
+     * @param modelVersion only rows predicted by this model version, or null
+     */
+    public record Filter(LocalDateTime from, LocalDateTime to, String label, String modelVersion,
+                         LabelSource labelSource) {
+    }
+
+    public record Result(long rows, long skipped, double seconds) {
+    }
+
+    @FunctionalInterface
+    public interface TreeRenderer {
+        String render(String sentence, int label) throws IOException;
+    }
+
+    private final int fetchSize;
+    private final TreeRenderer treeRenderer;
+
+    /**
+     * @param fetchSize    rows per round trip for drivers that honour a positive fetch size
+     * @param treeRenderer renders SST trees; only needed for {@link Format#SST}
+     */
+    public TrainingDataExporter(int fetchSize, TreeRenderer treeRenderer) {
+        this.fetchSize = fetchSize;
+        this.treeRenderer = treeRenderer;
+    }
+
+    public Result export(Connection con, Filter filter, Format format, boolean gzip, OutputStream out)
+            throws SQLException, IOException {
+        if (format == Format.SST && treeRenderer == null) {
+            throw new IllegalArgumentException("SST export requires a tree renderer");
+        }
+        long start = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(filter, params);
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 1 << 16) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 1 << 16);
+        CSVPrinter csv = format == Format.CSV ? new CSVPrinter(writer, CSVFormat.DEFAULT) : null;
+        if (csv != null) {
+            csv.printRecord("sentence", "label");
+        }
+
+        try (PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(JdbcStreaming.fetchSize(con, fetchSize));
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String text = rs.getString(1);
+                    Integer label = labelIndex(rs.getString(2));
+                    if (text == null || text.isBlank() || label == null) {
+                        skipped++;
+                        continue;
+                    }
+                    if (csv != null) {
+                        csv.printRecord(text, label);
+                    } else {
+                        writer.write(treeRenderer.render(text, label));
+                        writer.write('\n');
+                    }
+                    rows++;
+                }
+            }
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gz) {
+            gz.finish();
+        }
+        return new Result(rows, skipped, (System.nanoTime() - start) / 1e9);
+    }
+
+    static String buildQuery(Filter filter, List<Object> params) {
+        String labelColumn = switch (filter.labelSource()) {
+            case EFFECTIVE -> "COALESCE(label_corregido_evaluacion_respuesta, label_evaluacion_respuesta)";
+            case CORRECTED -> "label_corregido_evaluacion_respuesta";
+            case PREDICTED -> "label_evaluacion_respuesta";
+        };
+        StringBuilder sql = new StringBuilder("SELECT texto_evaluacion_respuesta, ")
+            .append(labelColumn)
+            .append(" FROM evaluacion_respuesta WHERE ")
+            .append(labelColumn).append(" IS NOT NULL");
+        if (filter.from() != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.label() != null) {
+            sql.append(" AND ").append(labelColumn).append(" = ?");
+            params.add(filter.label());
+        }
+        if (filter.modelVersion() != null) {
+            sql.append(" AND model_version = ?");
+            params.add(filter.modelVersion());
+        }
+        // primary key order: a sequential scan of the clustered index, stable across runs
+        sql.append(" ORDER BY id_evaluacion_respuesta");
+        return sql.toString();
+    }
+
+    private static Integer labelIndex(String label) {
+        if (label == null) {
+            return null;
+        }
+        try {
+            return SentimentLabel.valueOf(label.trim().toUpperCase()).getIndex();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Example usage:
+        // java -cp "*" com.example.rntn.TrainingDataExporter jdbc:mysql://localhost:3306/rntn_db user pass \
+        //      data/export.csv.gz -from 2025-01-01 -labelSource corrected
+        if (args.length < 4) {
+            System.err.println("Usage: TrainingDataExporter <jdbc-url> <user> <password> <output.csv[.gz]|output.sst[.gz]> "
+                + "[-from yyyy-MM-dd] [-to yyyy-MM-dd] [-label LABEL] [-modelVersion V] "
+                + "[-labelSource effective|corrected|predicted] [-fetchSize N] [-parseCache file]");
+            System.exit(2);
+        }
+        String output = args[3];
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        String label = null;
+        String modelVersion = null;
+        LabelSource labelSource = LabelSource.EFFECTIVE;
+        int fetchSize = 1000;
+        String parseCache = null;
+        for (int i = 4; i < args.length; i++) {
+            switch (args[i]) {
+                case "-from" -> from = LocalDate.parse(args[++i]).atStartOfDay();
+                case "-to" -> to = LocalDate.parse(args[++i]).plusDays(1).atStartOfDay();
+                case "-label" -> label = args[++i].toUpperCase();
+                case "-modelVersion" -> modelVersion = args[++i];
+                case "-labelSource" -> labelSource = LabelSource.valueOf(args[++i].toUpperCase());
+                case "-fetchSize" -> fetchSize = Integer.parseInt(args[++i]);
+                case "-parseCache" -> parseCache = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        Format format = output.contains(".sst") ? Format.SST : Format.CSV;
+        boolean gzip = output.endsWith(".gz");
+        Filter filter = new Filter(from, to, label, modelVersion, labelSource);
+
+        ParseCache cache = parseCache != null && format == Format.SST
+            ? new ParseCache(new File(parseCache), TreeConverter.defaultParserConfig())
+            : null;
+        try (Connection con = DriverManager.getConnection(args[0], args[1], args[2]);
+             OutputStream out = new FileOutputStream(output)) {
+            TreeRenderer renderer = null;
+            if (format == Format.SST) {
+                TreeConverter converter = new TreeConverter(cache);
+                renderer = converter::getLabeledTreeWithPropagation;
+            }
+            con.setReadOnly(true);
+            Result result = new TrainingDataExporter(fetchSize, renderer).export(con, filter, format, gzip, out);
+            System.out.printf("Exported %d rows (%d skipped) to %s in %.1fs%n",
+                result.rows(), result.skipped(), output, result.seconds());
+        } finally {
+            if (cache != null) {
+                cache.close();
+            }
+        }
+    }
+}
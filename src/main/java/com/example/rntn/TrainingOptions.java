@@ -0,0 +1,219 @@
+package com.example.rntn;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TrainingOptions: hyperparameters and paths for a TrainingRunner run.
+ *
+ * Defaults match rntn.training.* in application.yml (25 hidden units, 5 classes) and the
+ * CoreNLP SentimentTraining defaults for the optimizer. Any option not modelled here can be
+ * passed through verbatim to CoreNLP's RNNOptions via {@link #extraArgs}.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingOptions {
+
+    private String trainPath;
+    private String devPath;
+    private String modelPath;
+
+    @Builder.Default
+    private int numHid = 25;
+
+    @Builder.Default
+    private int numClasses = 5;
+
+    @Builder.Default
+    private int epochs = 400;
+
+    @Builder.Default
+    private int batchSize = 27;
+
+    @Builder.Default
+    private double learningRate = 0.01;
+
+    /**
+     * L2 regularization of the composition matrix and tensor (CoreNLP regTransformMatrix/regTransformTensor)
+     */
+    @Builder.Default
+    private double regularization = 0.001;
+
+    /**
+     * Threads used to compute the gradient of each minibatch
+     */
+    @Builder.Default
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Seed for parameter initialization and per-epoch shuffling; fixed so runs are reproducible
+     */
+    @Builder.Default
+    private long seed = 42L;
+
+    /**
+     * Save a checkpoint (and evaluate it on the dev set in the background) every N minibatches; 0 disables
+     */
+    @Builder.Default
+    private int checkpointEvery = 0;
+
+    /**
+     * Stop after this many consecutive dev evaluations without improvement; 0 disables early stopping
+     */
+    @Builder.Default
+    private int patience = 0;
+
+    /**
+     * Minimum dev accuracy gain that counts as an improvement
+     */
+    @Builder.Default
+    private double minDelta = 0.0;
+
+    /**
+     * Resume from the last checkpoint next to the model path, if one exists
+     */
+    @Builder.Default
+    private boolean resume = false;
+
+    /**
+     * Warm start: continue training the parameters of this serialized model instead of
+     * initializing a new one (fine-tuning). numHid/numClasses come from the model.
+     */
+    private String initialModelPath;
+
+    @Builder.Default
+    private List<String> extraArgs = new ArrayList<>();
+
+    /**
+     * Parses "<train.sst> <dev.sst> <out-model> [options]".
+     */
+    public static TrainingOptions parse(String[] args) {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Expected <train.sst> <dev.sst> <out-model>");
+        }
+        TrainingOptions options = TrainingOptions.builder()
+            .trainPath(args[0])
+            .devPath(args[1])
+            .modelPath(args[2])
+            .build();
+
+        for (int i = 3; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-threads" -> options.setThreads(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-batchSize" -> options.setBatchSize(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-epochs" -> options.setEpochs(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-learningRate" -> options.setLearningRate(Double.parseDouble(valueOf(args, ++i, arg)));
+                case "-regularization" -> options.setRegularization(Double.parseDouble(valueOf(args, ++i, arg)));
+                case "-numHid" -> options.setNumHid(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-numClasses" -> options.setNumClasses(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-seed" -> options.setSeed(Long.parseLong(valueOf(args, ++i, arg)));
+                case "-checkpointEvery" -> options.setCheckpointEvery(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-patience" -> options.setPatience(Integer.parseInt(valueOf(args, ++i, arg)));
+                case "-minDelta" -> options.setMinDelta(Double.parseDouble(valueOf(args, ++i, arg)));
+                case "-resume" -> options.setResume(true);
+                case "-initialModel" -> options.setInitialModelPath(valueOf(args, ++i, arg));
+                default -> options.getExtraArgs().add(arg);
+            }
+        }
+        options.validate();
+        return options;
+    }
+
+    public void validate() {
+        if (trainPath == null || modelPath == null) {
+            throw new IllegalArgumentException("trainPath and modelPath are required");
+        }
+        if (threads < 1 || batchSize < 1 || epochs < 1 || numHid < 1 || numClasses < 2) {
+            throw new IllegalArgumentException("threads, batchSize, epochs and numHid must be positive and numClasses >= 2");
+        }
+        if (learningRate <= 0 || regularization < 0) {
+            throw new IllegalArgumentException("learningRate must be positive and regularization non-negative");
+        }
+        if (checkpointEvery < 0 || patience < 0 || minDelta < 0) {
+            throw new IllegalArgumentException("checkpointEvery, patience and minDelta must be non-negative");
+        }
+        if (patience > 0 && (checkpointEvery == 0 || devPath == null)) {
+            throw new IllegalArgumentException("Early stopping (patience) requires checkpointEvery and a dev set");
+        }
+    }
+
+    /**
+     * Arguments understood by CoreNLP's RNNOptions.setOption.
+     */
+    public String[] toCoreNlpArgs() {
+        List<String> argList = new ArrayList<>();
+        argList.add("-numHid");
+        argList.add(String.valueOf(numHid));
+        argList.add("-numClasses");
+        argList.add(String.valueOf(numClasses));
+        argList.add("-epochs");
+        argList.add(String.valueOf(epochs));
+        argList.add("-batchSize");
+        argList.add(String.valueOf(batchSize));
+        argList.add("-learningRate");
+        argList.add(String.valueOf(learningRate));
+        argList.add("-regTransformMatrix");
+        argList.add(String.valueOf(regularization));
+        argList.add("-regTransformTensor");
+        argList.add(String.valueOf(regularization));
+        argList.add("-nThreads");
+        argList.add(String.valueOf(threads));
+        argList.add("-randomSeed");
+        argList.add(String.valueOf((int) seed));
+        argList.addAll(extraArgs);
+        return argList.toArray(new String[0]);
+    }
+
+    /**
+     * Command-line form accepted by {@link #parse}, used to launch TrainingRunner in a child JVM.
+     */
+    public List<String> toCommandLine() {
+        List<String> argList = new ArrayList<>();
+        argList.add(trainPath);
+        argList.add(devPath);
+        argList.add(modelPath);
+        argList.addAll(List.of(
+            "-threads", String.valueOf(threads),
+            "-batchSize", String.valueOf(batchSize),
+            "-epochs", String.valueOf(epochs),
+            "-learningRate", String.valueOf(learningRate),
+            "-regularization", String.valueOf(regularization),
+            "-numHid", String.valueOf(numHid),
+            "-numClasses", String.valueOf(numClasses),
+            "-seed", String.valueOf(seed),
+            "-checkpointEvery", String.valueOf(checkpointEvery),
+            "-patience", String.valueOf(patience),
+            "-minDelta", String.valueOf(minDelta)));
+        if (resume) {
+            argList.add("-resume");
+        }
+        if (initialModelPath != null) {
+            argList.add("-initialModel");
+            argList.add(initialModelPath);
+        }
+        argList.addAll(extraArgs);
+        return argList;
+    }
+
+    /**
+     * Path of the model file without the .ser.gz extension, used to name checkpoint files.
+     */
+    public String getCheckpointBase() {
+        return modelPath.endsWith(".ser.gz") ? modelPath.substring(0, modelPath.length() - ".ser.gz".length()) : modelPath;
+    }
+
+    private static String valueOf(String[] args, int index, String flag) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.rntn;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TrainingResult: summary of a TrainingRunner run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingResult {
+
+    private String modelPath;
+
+    private int epochsRun;
+
+    private double trainingSeconds;
+
+    private double treesPerSecond;
+
+    /**
+     * Sentence-level (root) accuracy on the dev set, null when no dev set was given
+     */
+    private Double devAccuracy;
+
+    private boolean stoppedEarly;
+}
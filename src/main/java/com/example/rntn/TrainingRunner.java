@@ -1,43 +1,320 @@
 package com.example.rntn;
 
+import edu.stanford.nlp.sentiment.Evaluate;
+import edu.stanford.nlp.sentiment.RNNOptions;
+import edu.stanford.nlp.sentiment.SentimentModel;
+import edu.stanford.nlp.sentiment.SentimentCostAndGradient;
+import edu.stanford.nlp.sentiment.SentimentUtils;
+import edu.stanford.nlp.trees.Tree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 /**
- * TrainingRunner: thin wrapper to call Stanford's SentimentTraining main.
+ * TrainingRunner: training front end for the RNTN sentiment model.
+ *
+ * Runs the CoreNLP AdaGrad minibatch loop (the update of SentimentTraining.train, which keeps its
+ * per-batch step private) itself so
+ * that batch size, epochs, learning rate, regularization and thread count are configurable and
+ * every epoch reports its wall time and throughput. The gradient of each minibatch is computed
+ * across {@code -threads} cores by CoreNLP; parameter initialization and shuffling use a fixed seed.
+ *
+ * With {@code -checkpointEvery N} the parameters and loop state are saved every N minibatches to
+ * {@code <model>.last.ser.gz} / {@code <model>.last.state} ({@code -resume} continues from there) and
+ * each checkpoint is scored on the dev set by a CheckpointEvaluator thread. The best checkpoint is
+ * kept at the model path; {@code -patience P} stops training after P evaluations without improvement.
+ *
+ * With {@code -initialModel <model.ser.gz>} training continues from an existing model (warm start),
+ * which is how clinician corrections are fine-tuned into the production model.
  *
  * Note: The class edu.stanford.nlp.sentiment.SentimentTraining must be available on the classpath
  * (provided by the stanford-corenlp jar). Training may require large memory: run with -Xmx6g or more.
  */
 public class TrainingRunner {
 
+    private static final double ADAGRAD_EPSILON = 1e-3;
+
+    private final TrainingOptions options;
+    private final Consumer<String> logger;
+    private volatile boolean cancelled;
+
+    public TrainingRunner(TrainingOptions options) {
+        this(options, message -> System.out.println("[TrainingRunner] " + message));
+    }
+
+    /**
+     * @param logger receives progress lines (per-epoch timing, checkpoints, evaluations)
+     */
+    public TrainingRunner(TrainingOptions options, Consumer<String> logger) {
+        options.validate();
+        this.options = options;
+        this.logger = logger;
+    }
+
+    public TrainingResult run() throws IOException, InterruptedException {
+        List<Tree> trainingTrees = SentimentUtils.readTreesWithGoldLabels(options.getTrainPath());
+        List<Tree> devTrees = options.getDevPath() != null
+            ? SentimentUtils.readTreesWithGoldLabels(options.getDevPath())
+            : Collections.emptyList();
+        if (trainingTrees.isEmpty()) {
+            throw new IllegalArgumentException("No training trees in " + options.getTrainPath());
+        }
+
+        Path modelPath = Path.of(options.getModelPath());
+        Path lastModelPath = Path.of(options.getCheckpointBase() + ".last.ser.gz");
+        Path statePath = Path.of(options.getCheckpointBase() + ".last.state");
+
+        SentimentModel model;
+        TrainingCheckpoint state;
+        if (options.isResume() && Files.exists(statePath) && Files.exists(lastModelPath)) {
+            // the checkpointed model carries its own RNNOptions, so hyperparameters of the original run apply
+            model = SentimentModel.loadSerialized(lastModelPath.toString());
+            state = TrainingCheckpoint.load(statePath);
+            log(String.format("Resuming from %s at epoch %d, batch %d",
+                lastModelPath, state.getEpoch() + 1, state.getBatchesDone()));
+        } else {
+            if (options.getInitialModelPath() != null) {
+                model = SentimentModel.loadSerialized(options.getInitialModelPath());
+                applyTrainOptions(model.op, options);
+                log(String.format("Warm start from %s (numHid=%d, numClasses=%d)",
+                    options.getInitialModelPath(), model.op.numHid, model.op.numClasses));
+            } else {
+                model = new SentimentModel(buildRnnOptions(options), trainingTrees);
+            }
+            RNNOptions op = model.op;
+            double[] sumGradSquare = new double[model.totalParamSize()];
+            Arrays.fill(sumGradSquare, op.trainOptions.initialAdagradWeight);
+            state = TrainingCheckpoint.builder()
+                .epoch(0)
+                .nextTree(0)
+                .batchesDone(0)
+                .sumGradSquare(sumGradSquare)
+                .shuffleRandom(new Random(options.getSeed()))
+                .bestDevAccuracy(-1.0)
+                .evaluationsWithoutImprovement(0)
+                .build();
+        }
+        log(String.format("Training on %d trees (dev: %d) with %d threads, batchSize=%d, epochs=%d, "
+                + "learningRate=%s, regularization=%s, numHid=%d, seed=%d, checkpointEvery=%d, patience=%d",
+            trainingTrees.size(), devTrees.size(), options.getThreads(), options.getBatchSize(),
+            options.getEpochs(), options.getLearningRate(), options.getRegularization(),
+            model.op.numHid, options.getSeed(), options.getCheckpointEvery(), options.getPatience()));
+
+        boolean checkpointing = options.getCheckpointEvery() > 0;
+        CheckpointEvaluator evaluator = checkpointing && !devTrees.isEmpty()
+            ? new CheckpointEvaluator(devTrees, modelPath, options.getPatience(), options.getMinDelta(),
+                state.getBestDevAccuracy(), state.getEvaluationsWithoutImprovement(), logger)
+            : null;
+
+        int batchSize = options.getBatchSize();
+        double[] sumGradSquare = state.getSumGradSquare();
+        long trainingStart = System.nanoTime();
+        long treesTrained = 0;
+        int epochsRun = 0;
+        boolean stoppedEarly = false;
+
+        epochs:
+        for (int epoch = state.getEpoch(); epoch < options.getEpochs(); epoch++) {
+            long epochStart = System.nanoTime();
+            long epochTrees = 0;
+
+            if (state.getEpochOrder() == null) {
+                state.setEpochOrder(shuffledOrder(trainingTrees.size(), state.getShuffleRandom()));
+                state.setNextTree(0);
+            }
+            int[] order = state.getEpochOrder();
+
+            for (int start = state.getNextTree(); start < order.length; start += batchSize) {
+                int end = Math.min(start + batchSize, order.length);
+                List<Tree> batch = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    batch.add(trainingTrees.get(order[i]));
+                }
+                executeOneTrainingBatch(model, batch, sumGradSquare);
+                epochTrees += batch.size();
+                state.setNextTree(end);
+                state.setBatchesDone(state.getBatchesDone() + 1);
+
+                if (checkpointing && state.getBatchesDone() % options.getCheckpointEvery() == 0) {
+                    checkpoint(model, state, epoch, evaluator, lastModelPath, statePath);
+                }
+                if (cancelled || Thread.currentThread().isInterrupted()) {
+                    if (evaluator != null) {
+                        evaluator.abort();
+                    }
+                    log(String.format("Cancelled at epoch %d, batch %d", epoch + 1, state.getBatchesDone()));
+                    throw new CancellationException("Training cancelled");
+                }
+                if (evaluator != null && evaluator.isStopRequested()) {
+                    stoppedEarly = true;
+                    treesTrained += epochTrees;
+                    break epochs;
+                }
+            }
+
+            if (model.op.trainOptions.adagradResetFrequency > 0
+                    && (epoch + 1) % model.op.trainOptions.adagradResetFrequency == 0) {
+                Arrays.fill(sumGradSquare, model.op.trainOptions.initialAdagradWeight);
+            }
+            state.setEpochOrder(null);
+            state.setEpoch(epoch + 1);
+
+            epochsRun++;
+            treesTrained += epochTrees;
+            double seconds = (System.nanoTime() - epochStart) / 1e9;
+            log(String.format("Epoch %d/%d: %.2fs, %.1f trees/sec",
+                epoch + 1, options.getEpochs(), seconds, epochTrees / seconds));
+        }
+
+        double totalSeconds = (System.nanoTime() - trainingStart) / 1e9;
+        log(String.format("Training %s after %d epoch(s) in %.1fs (%.1f trees/sec)",
+            stoppedEarly ? "stopped early" : "finished", epochsRun, totalSeconds, treesTrained / totalSeconds));
+
+        Double devAccuracy = null;
+        if (evaluator != null) {
+            // the final parameters compete with the earlier checkpoints for the best model slot
+            if (!stoppedEarly) {
+                checkpoint(model, state, state.getEpoch() - 1, evaluator, lastModelPath, statePath);
+            }
+            evaluator.finish();
+            devAccuracy = evaluator.getBestAccuracy() >= 0 ? evaluator.getBestAccuracy() : null;
+            log(String.format("Best checkpoint kept at %s (dev root accuracy %.4f, %d evaluation(s))",
+                modelPath, evaluator.getBestAccuracy(), evaluator.getEvaluations()));
+        } else {
+            model.saveSerialized(modelPath.toString());
+            if (checkpointing) {
+                checkpoint(model, state, state.getEpoch() - 1, null, lastModelPath, statePath);
+            }
+            log("Saved model to " + modelPath);
+            if (!devTrees.isEmpty()) {
+                devAccuracy = evaluateRootAccuracy(model, devTrees);
+                log(String.format("Dev root accuracy: %.4f", devAccuracy));
+            }
+        }
+
+        return TrainingResult.builder()
+            .modelPath(options.getModelPath())
+            .epochsRun(epochsRun)
+            .trainingSeconds(totalSeconds)
+            .treesPerSecond(treesTrained / totalSeconds)
+            .devAccuracy(devAccuracy)
+            .stoppedEarly(stoppedEarly)
+            .build();
+    }
+
+    /**
+     * Requests cancellation; the training loop stops at the next minibatch boundary and
+     * {@link #run()} throws a CancellationException. The last checkpoint, if any, stays resumable.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Saves the current parameters and loop state as the resumable "last" checkpoint and hands a
+     * copy to the background evaluator.
+     */
+    private void checkpoint(SentimentModel model, TrainingCheckpoint state, int epoch,
+                            CheckpointEvaluator evaluator, Path lastModelPath, Path statePath) throws IOException {
+        Path tmp = lastModelPath.resolveSibling(lastModelPath.getFileName() + ".tmp");
+        model.saveSerialized(tmp.toString());
+        Files.move(tmp, lastModelPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (evaluator != null) {
+            state.setBestDevAccuracy(evaluator.getBestAccuracy());
+            state.setEvaluationsWithoutImprovement(evaluator.getEvaluationsWithoutImprovement());
+        }
+        state.save(statePath);
+
+        if (evaluator != null) {
+            Path snapshot = Path.of(options.getCheckpointBase() + ".ckpt-" + state.getBatchesDone() + ".ser.gz");
+            Files.copy(lastModelPath, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            evaluator.submit(snapshot, state.getBatchesDone());
+        }
+        log(String.format("Checkpoint at epoch %d, batch %d", epoch + 1, state.getBatchesDone()));
+    }
+
+    /**
+     * One AdaGrad step over a minibatch, as in SentimentTraining (private there).
+     */
+    private static void executeOneTrainingBatch(SentimentModel model, List<Tree> batch, double[] sumGradSquare) {
+        SentimentCostAndGradient costAndGradient = new SentimentCostAndGradient(model, batch);
+        double[] theta = model.paramsToVector();
+        double[] gradient = costAndGradient.derivativeAt(theta);
+        double learningRate = model.op.trainOptions.learningRate;
+        for (int i = 0; i < gradient.length; i++) {
+            sumGradSquare[i] += gradient[i] * gradient[i];
+            theta[i] -= learningRate * gradient[i] / (Math.sqrt(sumGradSquare[i]) + ADAGRAD_EPSILON);
+        }
+        model.vectorToParams(theta);
+    }
+
+    private static int[] shuffledOrder(int size, Random random) {
+        List<Integer> indices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indices.add(i);
+        }
+        Collections.shuffle(indices, random);
+        return indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static RNNOptions buildRnnOptions(TrainingOptions options) {
+        RNNOptions op = new RNNOptions();
+        String[] args = options.toCoreNlpArgs();
+        for (int argIndex = 0; argIndex < args.length; ) {
+            int next = op.setOption(args, argIndex);
+            if (next == argIndex) {
+                throw new IllegalArgumentException("Unknown training option: " + args[argIndex]);
+            }
+            argIndex = next;
+        }
+        return op;
+    }
+
+    /**
+     * Overrides the optimizer settings stored in a serialized model with those of this run, so a
+     * warm-started model trains with the requested learning rate, regularization and threads.
+     */
+    private static void applyTrainOptions(RNNOptions op, TrainingOptions options) {
+        op.trainOptions.learningRate = options.getLearningRate();
+        op.trainOptions.regTransformMatrix = options.getRegularization();
+        op.trainOptions.regTransformTensor = options.getRegularization();
+        op.trainOptions.batchSize = options.getBatchSize();
+        op.trainOptions.epochs = options.getEpochs();
+        op.trainOptions.nThreads = options.getThreads();
+    }
+
+    public static double evaluateRootAccuracy(SentimentModel model, List<Tree> devTrees) {
+        Evaluate eval = new Evaluate(model);
+        eval.eval(devTrees);
+        return eval.exactRootAccuracy();
+    }
+
+    private void log(String message) {
+        logger.accept(message);
+    }
+
     public static void main(String[] args) throws Exception {
         // Example usage:
-        // java -cp "*" com.example.rntn.TrainingRunner /path/to/train.sst /path/to/dev.sst /path/to/out-model.ser.gz
+        // java -Xmx6g -cp "*" com.example.rntn.TrainingRunner /path/to/train.sst /path/to/dev.sst /path/to/out-model.ser.gz \
+        //      -threads 8 -batchSize 27 -epochs 100 -learningRate 0.01 -regularization 0.001 -seed 42 \
+        //      -checkpointEvery 50 -patience 5
         if (args.length < 3) {
-            System.err.println("Usage: TrainingRunner <train.sst> <dev.sst> <out-model>");
+            System.err.println("Usage: TrainingRunner <train.sst> <dev.sst> <out-model> "
+                + "[-threads N] [-batchSize N] [-epochs N] [-learningRate X] [-regularization X] "
+                + "[-numHid N] [-numClasses N] [-seed N] [-checkpointEvery N] [-patience N] [-minDelta X] "
+                + "[-resume] [-initialModel model.ser.gz] [extra CoreNLP RNNOptions...]");
             System.exit(2);
         }
-        String train = args[0];
-        String dev = args[1];
-        String out = args[2];
-
-        List<String> argList = new ArrayList<>();
-        argList.add("-trainPath");
-        argList.add(train);
-        argList.add("-devPath");
-        argList.add(dev);
-        argList.add("-model");
-        argList.add(out);
-        argList.add("-train");
-        argList.add("-numHid");
-        argList.add("25");
-        argList.add("-numClasses");
-        argList.add("5");
-
-        String[] runArgs = argList.toArray(new String[0]);
-
-        // Delegate to Stanford's SentimentTraining main entry point
-        edu.stanford.nlp.sentiment.SentimentTraining.main(runArgs);
+        new TrainingRunner(TrainingOptions.parse(args)).run();
     }
 }
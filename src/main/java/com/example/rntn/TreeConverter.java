@@ -6,7 +6,10 @@ import edu.stanford.nlp.trees.TreeCoreAnnotations;
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.util.CoreMap;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Properties;
+import java.util.TreeMap;
 
 /**
  * TreeConverter: produces a Penn-style constituency parse and renders a labeled tree string
@@ -15,24 +18,62 @@ import java.util.Properties;
  */
 public class TreeConverter {
 
-    private final StanfordCoreNLP pipeline;
+    private final Properties props;
+    private StanfordCoreNLP pipeline;
+    private final ParseCache cache;
 
     public TreeConverter() {
+        this(null);
+    }
+
+    /**
+     * @param cache optional parse cache; when present, sentences already parsed under the same
+     *              parser configuration are rendered from the cache without running the pipeline
+     */
+    public TreeConverter(ParseCache cache) {
+        this.props = defaultProperties();
+        this.cache = cache;
+        // the pipeline is built lazily so fully cached runs never load the parser models
+        if (cache == null) {
+            this.pipeline = new StanfordCoreNLP(props);
+        }
+    }
+
+    /**
+     * Fingerprint of the parser configuration, used to key the parse cache.
+     */
+    public String getParserConfig() {
+        return parserConfig(props);
+    }
+
+    /**
+     * Fingerprint of the default parser configuration, available without loading any models.
+     */
+    public static String defaultParserConfig() {
+        return parserConfig(defaultProperties());
+    }
+
+    private static Properties defaultProperties() {
         Properties props = new Properties();
         props.setProperty("annotators", "tokenize,ssplit,pos,parse");
         // reduce memory usage by disabling neural dependency parser if present
-        this.pipeline = new StanfordCoreNLP(props);
+        return props;
+    }
+
+    private static String parserConfig(Properties props) {
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (String name : props.stringPropertyNames()) {
+            sorted.put(name, props.getProperty(name));
+        }
+        // the CoreNLP version is part of the key so that upgrading the parser invalidates old entries
+        return "corenlp-4.5.5|" + sorted;
     }
 
     /**
      * Returns the constituency tree (Penn Treebank style) for the first sentence.
      */
     public String getParseTree(String sentence) {
-        Annotation ann = new Annotation(sentence);
-        pipeline.annotate(ann);
-        CoreMap sent = ann.get(CoreAnnotations.SentencesAnnotation.class).get(0);
-        Tree tree = sent.get(TreeCoreAnnotations.TreeAnnotation.class);
-        return tree.pennString();
+        return parse(sentence).pennString();
     }
 
     /**
@@ -42,11 +83,39 @@ public class TreeConverter {
      * Note: we simply propagate rootLabel to all nodes when phrase-level labels are not provided.
      */
     public String getLabeledTreeWithPropagation(String sentence, int rootLabel) {
+        return renderWithLabel(parse(sentence), rootLabel);
+    }
+
+    /**
+     * Returns the unlabeled constituency tree for the first sentence, served from the parse
+     * cache when available.
+     */
+    public Tree parse(String sentence) {
+        if (cache != null) {
+            String cached = cache.get(sentence);
+            if (cached != null) {
+                return Tree.valueOf(cached);
+            }
+        }
+        Tree tree = annotate(sentence);
+        if (cache != null) {
+            try {
+                cache.put(sentence, tree.toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write parse cache", e);
+            }
+        }
+        return tree;
+    }
+
+    private synchronized Tree annotate(String sentence) {
+        if (pipeline == null) {
+            pipeline = new StanfordCoreNLP(props);
+        }
         Annotation ann = new Annotation(sentence);
         pipeline.annotate(ann);
         CoreMap sent = ann.get(CoreAnnotations.SentencesAnnotation.class).get(0);
-        Tree tree = sent.get(TreeCoreAnnotations.TreeAnnotation.class);
-        return renderWithLabel(tree, rootLabel);
+        return sent.get(TreeCoreAnnotations.TreeAnnotation.class);
     }
 
     private String renderWithLabel(Tree node, int label) {
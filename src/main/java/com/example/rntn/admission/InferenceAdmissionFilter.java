@@ -0,0 +1,214 @@
+package com.example.rntn.admission;
+
+import com.example.rntn.exception.ErrorResponse;
+import com.example.rntn.util.AimdLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión para los endpoints de inferencia
+ *
+ * Cada carril (single: /api/v1/sentiment/predict; batch: /predict/batch, /predict/batch/aggregate y
+ * el registro de cuestionarios /api/v1/evaluaciones/respuestas/lote) tiene su propio AimdLimiter
+ * de peticiones en curso, con límites derivados de rntn.inference.pool-size. El carril
+ * batch no puede superar el tamaño del pool, así que una ráfaga de lotes no deja sin predictores a
+ * las predicciones interactivas.
+ *
+ * Si el límite está lleno, la petición espera en cola como máximo el SLO de cola del carril; si la
+ * espera estimada ya supera ese SLO se rechaza de inmediato con 429 y Retry-After, sin llegar a
+ * parsear el texto. Se ejecuta después de Spring Security, así que las peticiones no autenticadas
+ * no consumen cupo.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class InferenceAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String BASE_PATH = "/api/v1/sentiment";
+    private static final String RESPUESTAS_LOTE_PATH = "/api/v1/evaluaciones/respuestas/lote";
+
+    /**
+     * Atributo de la petición con System.nanoTime() de su llegada, base de RequestDeadlineResolver
+     */
+    public static final String ARRIVAL_ATTRIBUTE = InferenceAdmissionFilter.class.getName() + ".arrival";
+
+    @Value("${rntn.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rntn.inference.pool-size:4}")
+    private int poolSize;
+
+    @Value("${rntn.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${rntn.admission.single.initial-multiplier:2.0}")
+    private double singleInitialMultiplier;
+
+    @Value("${rntn.admission.single.max-multiplier:4.0}")
+    private double singleMaxMultiplier;
+
+    @Value("${rntn.admission.single.queue-slo-ms:250}")
+    private long singleQueueSloMs;
+
+    @Value("${rntn.admission.single.latency-target-ms:2000}")
+    private long singleLatencyTargetMs;
+
+    @Value("${rntn.admission.batch.initial-multiplier:0.5}")
+    private double batchInitialMultiplier;
+
+    @Value("${rntn.admission.batch.max-multiplier:1.0}")
+    private double batchMaxMultiplier;
+
+    @Value("${rntn.admission.batch.queue-slo-ms:2000}")
+    private long batchQueueSloMs;
+
+    @Value("${rntn.admission.batch.latency-target-ms:30000}")
+    private long batchLatencyTargetMs;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Lane single;
+    private Lane batch;
+
+    /**
+     * Carril de admisión: limitador y métricas
+     */
+    private final class Lane {
+        final String name;
+        final AimdLimiter limiter;
+        final long queueSloNanos;
+        final Timer queueTimer;
+        final Counter rejected;
+
+        Lane(String name, double initialMultiplier, double maxMultiplier, long queueSloMs, long latencyTargetMs) {
+            this.name = name;
+            int max = Math.max(1, (int) Math.round(poolSize * maxMultiplier));
+            int initial = Math.min(max, Math.max(1, (int) Math.round(poolSize * initialMultiplier)));
+            this.limiter = new AimdLimiter(initial, 1, max, backoffRatio, TimeUnit.MILLISECONDS.toNanos(latencyTargetMs));
+            this.queueSloNanos = TimeUnit.MILLISECONDS.toNanos(queueSloMs);
+            this.queueTimer = Timer.builder("rntn.admission.queue")
+                .description("Espera en cola de admisión")
+                .tag("lane", name)
+                .serviceLevelObjectives(Duration.ofMillis(queueSloMs))
+                .register(meterRegistry);
+            this.rejected = Counter.builder("rntn.admission.rejected")
+                .description("Peticiones rechazadas por control de admisión")
+                .tag("lane", name)
+                .register(meterRegistry);
+            Gauge.builder("rntn.admission.limit", limiter, AimdLimiter::getLimit).tag("lane", name).register(meterRegistry);
+            Gauge.builder("rntn.admission.inflight", limiter, AimdLimiter::getInFlight).tag("lane", name).register(meterRegistry);
+            Gauge.builder("rntn.admission.waiting", limiter, AimdLimiter::getWaiting).tag("lane", name).register(meterRegistry);
+            log.info("🚦 Carril de admisión '{}': límite inicial {}, máximo {}, SLO de cola {} ms",
+                name, initial, max, queueSloMs);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        single = new Lane("single", singleInitialMultiplier, singleMaxMultiplier, singleQueueSloMs, singleLatencyTargetMs);
+        batch = new Lane("batch", batchInitialMultiplier, batchMaxMultiplier, batchQueueSloMs, batchLatencyTargetMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || lane(request) == null;
+    }
+
+    private Lane lane(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals(BASE_PATH + "/predict")) {
+            return single;
+        }
+        if (path.equals(BASE_PATH + "/predict/batch") || path.equals(BASE_PATH + "/predict/batch/aggregate")
+                || path.equals(RESPUESTAS_LOTE_PATH)) {
+            return batch;
+        }
+        return null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Lane lane = lane(request);
+        request.setAttribute(ARRIVAL_ATTRIBUTE, System.nanoTime());
+
+        long estimatedWait = lane.limiter.estimatedWaitNanos();
+        if (estimatedWait > lane.queueSloNanos) {
+            reject(lane, request, response, estimatedWait);
+            return;
+        }
+
+        long queuedAt = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = lane.limiter.acquire(lane.queueSloNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrumpido en la cola de admisión", e);
+        }
+        long admittedAt = System.nanoTime();
+        lane.queueTimer.record(admittedAt - queuedAt, TimeUnit.NANOSECONDS);
+        if (!admitted) {
+            reject(lane, request, response, lane.limiter.estimatedWaitNanos());
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            lane.limiter.release(System.nanoTime() - admittedAt);
+        }
+    }
+
+    private void reject(Lane lane, HttpServletRequest request, HttpServletResponse response, long estimatedWaitNanos)
+            throws IOException {
+        lane.rejected.increment();
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(estimatedWaitNanos / 1e9));
+        log.warn("🚦 Petición rechazada por sobrecarga - Carril: {}, en curso: {}/{}, en cola: {}, espera estimada: {} ms",
+            lane.name, lane.limiter.getInFlight(), lane.limiter.getLimit(), lane.limiter.getWaiting(),
+            TimeUnit.NANOSECONDS.toMillis(estimatedWaitNanos));
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("El servicio de análisis está saturado. Reintente en " + retryAfterSeconds + " s.")
+                .details(Map.of(
+                    "lane", lane.name,
+                    "limit", lane.limiter.getLimit(),
+                    "retryAfterSeconds", retryAfterSeconds
+                ))
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        objectMapper.writeValue(response.getWriter(), errorResponse);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rntn.admission;
+
+import com.example.rntn.util.Deadline;
+import com.example.rntn.util.SentimentPredictorPool;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resuelve el plazo (deadline) de una petición de inferencia
+ *
+ * El cliente puede indicar su presupuesto con la cabecera X-Request-Timeout-Ms (limitado a
+ * rntn.inference.deadline.max-ms); si no, se usa el plazo configurado para el carril. El plazo
+ * cuenta desde la llegada de la petición registrada por InferenceAdmissionFilter, de modo que la
+ * espera en la cola de admisión también consume presupuesto. Fuera de una petición HTTP (lotes
+ * asíncronos, tareas programadas) cuenta desde el momento de la llamada.
+ */
+@Component
+public class RequestDeadlineResolver {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    @Value("${rntn.inference.deadline.interactive-ms:10000}")
+    private long interactiveMs;
+
+    @Value("${rntn.inference.deadline.batch-ms:120000}")
+    private long batchMs;
+
+    @Value("${rntn.inference.deadline.background-ms:0}")
+    private long backgroundMs;
+
+    @Value("${rntn.inference.deadline.max-ms:300000}")
+    private long maxMs;
+
+    /**
+     * Plazo de la petición actual para el carril; Deadline.NONE si el carril no tiene plazo (0)
+     */
+    public Deadline resolve(SentimentPredictorPool.Lane lane) {
+        long start = System.nanoTime();
+        long timeoutMs = defaultTimeoutMs(lane);
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            if (request.getAttribute(InferenceAdmissionFilter.ARRIVAL_ATTRIBUTE) instanceof Long arrival) {
+                start = arrival;
+            }
+            String header = request.getHeader(TIMEOUT_HEADER);
+            if (header != null && !header.isBlank()) {
+                timeoutMs = parseTimeout(header);
+            }
+        }
+
+        return timeoutMs > 0 ? Deadline.of(start, TimeUnit.MILLISECONDS.toNanos(timeoutMs)) : Deadline.NONE;
+    }
+
+    private long defaultTimeoutMs(SentimentPredictorPool.Lane lane) {
+        return switch (lane) {
+            case INTERACTIVE -> interactiveMs;
+            case BATCH -> batchMs;
+            case BACKGROUND -> backgroundMs;
+        };
+    }
+
+    private long parseTimeout(String header) {
+        long timeoutMs;
+        try {
+            timeoutMs = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cabecera " + TIMEOUT_HEADER + " inválida: " + header);
+        }
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("Cabecera " + TIMEOUT_HEADER + " debe ser positiva: " + header);
+        }
+        return Math.min(timeoutMs, maxMs);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.rntn.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita las conexiones en uso con un semáforo justo
+ *
+ * Con hilos virtuales el número de peticiones en curso ya no lo acota el pool de Tomcat, así que
+ * miles de peticiones pueden llegar a la vez a Hikari. El semáforo (dimensionado al pool de Hikari)
+ * las pone en cola en orden de llegada y con un tiempo máximo de espera, en lugar de dejarlas
+ * competir dentro de Hikari. El permiso se libera al cerrar la conexión.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMs;
+
+    public ConnectionLimitingDataSource(DataSource target, int maxPermits, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                    "No hay conexiones disponibles tras " + acquireTimeoutMs + " ms (límite " + maxPermits + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    /**
+     * Envuelve la conexión para devolver el permiso en el primer close()
+     */
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                    try {
+                        connection.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
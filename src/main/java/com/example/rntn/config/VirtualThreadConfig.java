@@ -0,0 +1,64 @@
+package com.example.rntn.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Modo opcional de ejecución con hilos virtuales (perfil virtual-threads o
+ * spring.threads.virtual.enabled=true)
+ *
+ * Spring Boot atiende entonces cada petición de Tomcat en un hilo virtual, de modo que los
+ * endpoints CRUD bloqueados en MySQL no agotan un pool de hilos de plataforma. Para que eso no
+ * traslade la saturación a la base de datos, el DataSource se envuelve en un
+ * ConnectionLimitingDataSource con tantos permisos como conexiones tiene Hikari
+ * (rntn.virtual-threads.db-permits para ajustarlo). La inferencia RNTN, intensiva en CPU, no corre
+ * en los hilos virtuales: SentimentService la ejecuta en su propio pool acotado de hilos de
+ * plataforma.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int hikariSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("rntn.virtual-threads.db-permits", Integer.class, hikariSize);
+                long timeoutMs = environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+                log.info("🧵 Hilos virtuales activos: DataSource '{}' limitado a {} conexiones concurrentes", beanName, permits);
+                return new ConnectionLimitingDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+
+    /**
+     * rntn.db.permits.available / rntn.db.permits.waiting: permisos libres y peticiones en cola
+     */
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limited) {
+                Gauge.builder("rntn.db.permits.available", limited, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Conexiones que aún se pueden tomar del DataSource limitado")
+                    .register(registry);
+                Gauge.builder("rntn.db.permits.waiting", limited, ConnectionLimitingDataSource::getQueueLength)
+                    .description("Peticiones esperando una conexión")
+                    .register(registry);
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.example.rntn.controller;
 
 import com.example.rntn.dto.request.ConsultaRequest;
 import com.example.rntn.dto.response.ConsultaResponse;
+import com.example.rntn.dto.response.CursorPageResponse;
 import com.example.rntn.service.ConsultaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -71,6 +72,33 @@ public class ConsultaController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/paciente/{idPaciente}/cursor")
+    @PreAuthorize("hasPermission(null, 'consulta:read')")
+    @Operation(summary = "Obtener consultas por paciente (cursor)",
+               description = "Lista las consultas de un paciente de la más reciente a la más antigua con paginación " +
+                             "por cursor (nextCursor). El total solo se calcula con includeTotal=true")
+    public ResponseEntity<CursorPageResponse<ConsultaResponse>> listarConsultasPorPacientePorCursor(
+            @Parameter(description = "ID del paciente", required = true)
+            @PathVariable Integer idPaciente,
+            @Parameter(description = "Fecha desde (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Fecha hasta (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío = primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Consultas por página (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Calcular el total de consultas (ejecuta un COUNT)")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/consultas/paciente/{}/cursor - Desde: {}, Hasta: {}", idPaciente, desde, hasta);
+
+        CursorPageResponse<ConsultaResponse> response = consultaService.listarConsultasPorPacientePorCursor(
+            idPaciente, desde, hasta, cursor, size, includeTotal);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/personal/{idPersonal}")
     @PreAuthorize("hasPermission(null, 'consulta:read')")
     @Operation(summary = "Obtener consultas por personal médico")
@@ -84,6 +112,25 @@ public class ConsultaController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/personal/{idPersonal}/cursor")
+    @PreAuthorize("hasPermission(null, 'consulta:read')")
+    @Operation(summary = "Obtener consultas por personal médico (cursor)")
+    public ResponseEntity<CursorPageResponse<ConsultaResponse>> listarConsultasPorPersonalPorCursor(
+            @PathVariable Integer idPersonal,
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío = primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Consultas por página (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Calcular el total de consultas (ejecuta un COUNT)")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/consultas/personal/{}/cursor", idPersonal);
+
+        CursorPageResponse<ConsultaResponse> response = consultaService.listarConsultasPorPersonalPorCursor(
+            idPersonal, cursor, size, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{id}/estado")
     @PreAuthorize("hasPermission(null, 'consulta:update')")
     @Operation(summary = "Actualizar estado de consulta",
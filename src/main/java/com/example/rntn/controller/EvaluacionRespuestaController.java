@@ -1,6 +1,10 @@
 package com.example.rntn.controller;
 
+import com.example.rntn.dto.request.EvaluacionRespuestaLoteRequest;
 import com.example.rntn.dto.request.EvaluacionRespuestaRequest;
+import com.example.rntn.dto.request.LabelCorrectionRequest;
+import com.example.rntn.dto.response.CursorPageResponse;
+import com.example.rntn.dto.response.EvaluacionRespuestaLoteResponse;
 import com.example.rntn.dto.response.EvaluacionRespuestaResponse;
 import com.example.rntn.service.EvaluacionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,9 +18,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -42,7 +49,9 @@ public class EvaluacionRespuestaController {
     @Operation(
         summary = "Registrar respuesta con análisis de sentimiento",
         description = "Registra una respuesta de evaluación y automáticamente analiza el sentimiento usando el modelo RNTN. " +
-                      "Si se detecta riesgo alto (SUICIDAL), se genera una alerta automática."
+                      "Si se detecta riesgo alto (SUICIDAL), se genera una alerta automática. " +
+                      "Con la cabecera Idempotency-Key un reintento devuelve la respuesta ya registrada. " +
+                      "Con escritura diferida activa responde 202 con estadoPersistencia=PENDIENTE."
     )
     @ApiResponses({
         @ApiResponse(
@@ -53,6 +62,10 @@ public class EvaluacionRespuestaController {
                 schema = @Schema(implementation = EvaluacionRespuestaResponse.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "202",
+            description = "Respuesta analizada y encolada para escritura diferida"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Pregunta de evaluación no encontrada"
@@ -67,13 +80,19 @@ public class EvaluacionRespuestaController {
         )
     })
     public ResponseEntity<EvaluacionRespuestaResponse> registrarRespuesta(
-            @Valid @RequestBody EvaluacionRespuestaRequest request) {
+            @Valid @RequestBody EvaluacionRespuestaRequest request,
+            @Parameter(description = "Clave de idempotencia del cliente (máx. 64 caracteres)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         log.info("POST /api/v1/evaluaciones/respuestas - Pregunta ID: {}, Analizar: {}",
             request.getIdEvaluacionPregunta(), request.isAnalizarSentimiento());
 
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 64)) {
+            throw new IllegalArgumentException("Idempotency-Key debe tener entre 1 y 64 caracteres");
+        }
+
         EvaluacionRespuestaResponse response =
-            evaluacionService.registrarRespuestaConAnalisis(request);
+            evaluacionService.registrarRespuestaConAnalisis(request, idempotencyKey);
 
         // Log de alerta si es riesgo alto
         if (response.getSentimentAnalysis() != null &&
@@ -82,6 +101,46 @@ public class EvaluacionRespuestaController {
                 response.getIdEvaluacionRespuesta());
         }
 
+        HttpStatus status = "PENDIENTE".equals(response.getEstadoPersistencia()) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Registra un cuestionario completo (varias respuestas) con análisis de sentimiento
+     */
+    @PostMapping("/lote")
+    @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:create')")
+    @Operation(
+        summary = "Registrar cuestionario completo con análisis de sentimiento",
+        description = "Registra todas las respuestas de un cuestionario en una sola petición: valida las preguntas " +
+                      "en una consulta, analiza los textos en paralelo y guarda las filas en un único batch. " +
+                      "Si una pregunta no existe o falla un análisis no se guarda ninguna respuesta."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "201",
+            description = "Respuestas registradas exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = EvaluacionRespuestaLoteResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "404", description = "Alguna pregunta de evaluación no existe"),
+        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+        @ApiResponse(responseCode = "504", description = "El plazo de la petición venció antes de completar los análisis")
+    })
+    public ResponseEntity<EvaluacionRespuestaLoteResponse> registrarRespuestasLote(
+            @Valid @RequestBody EvaluacionRespuestaLoteRequest request) {
+
+        log.info("POST /api/v1/evaluaciones/respuestas/lote - Cantidad: {}", request.getRespuestas().size());
+
+        EvaluacionRespuestaLoteResponse response =
+            evaluacionService.registrarRespuestasConAnalisis(request.getRespuestas());
+
+        if (response.getAlertasAltoRiesgo() > 0) {
+            log.warn("⚠️ ALERTA: {} respuestas con riesgo suicida en el cuestionario", response.getAlertasAltoRiesgo());
+        }
+
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -103,6 +162,29 @@ public class EvaluacionRespuestaController {
         return ResponseEntity.ok(respuestas);
     }
 
+    /**
+     * Listar respuestas con paginación por cursor
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:read')")
+    @Operation(
+        summary = "Listar respuestas por cursor",
+        description = "Lista las respuestas de la más reciente a la más antigua. Cada página devuelve nextCursor " +
+                      "para pedir la siguiente; el tiempo de respuesta no crece con la profundidad. " +
+                      "El total solo se calcula con includeTotal=true"
+    )
+    public ResponseEntity<CursorPageResponse<EvaluacionRespuestaResponse>> listarRespuestasPorCursor(
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío = primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Respuestas por página (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Calcular el total de respuestas (ejecuta un COUNT)")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/evaluaciones/respuestas/cursor - Size: {}, Cursor: {}", size, cursor != null);
+        return ResponseEntity.ok(evaluacionService.listarRespuestasPorCursor(cursor, size, includeTotal));
+    }
+
     /**
      * Obtener una respuesta específica por ID
      */
@@ -126,15 +208,41 @@ public class EvaluacionRespuestaController {
     @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:read')")
     @Operation(
         summary = "Buscar respuestas por label",
-        description = "Filtra respuestas por label de sentimiento (ANXIETY, SUICIDAL, ANGER, SADNESS, FRUSTRATION)"
+        description = "Filtra respuestas por label de sentimiento (ANXIETY, SUICIDAL, ANGER, SADNESS, FRUSTRATION). " +
+                      "Retorna las 'limite' de mayor confianza; para todas usar /label/{label}/stream"
     )
-    public ResponseEntity<List<EvaluacionRespuestaResponse>> buscarRespuestasPorLabel(@PathVariable String label) {
-        log.info("GET /api/v1/evaluaciones/respuestas/label/{}", label);
+    public ResponseEntity<List<EvaluacionRespuestaResponse>> buscarRespuestasPorLabel(
+            @PathVariable String label,
+            @Parameter(description = "Cantidad máxima de respuestas (1-1000)")
+            @RequestParam(defaultValue = "100") int limite) {
+
+        log.info("GET /api/v1/evaluaciones/respuestas/label/{} - Límite: {}", label, limite);
         List<EvaluacionRespuestaResponse> respuestas =
-            evaluacionService.buscarRespuestasPorLabel(label);
+            evaluacionService.buscarRespuestasPorLabel(label, limite);
         return ResponseEntity.ok(respuestas);
     }
 
+    /**
+     * Descargar todas las respuestas de un label en streaming
+     */
+    @GetMapping(value = "/label/{label}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:read')")
+    @Operation(
+        summary = "Descargar respuestas por label",
+        description = "Arreglo JSON con todas las respuestas del label, de mayor a menor confianza, escrito a " +
+                      "medida que se leen de la BD (memoria constante)"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Descarga en curso"),
+        @ApiResponse(responseCode = "429", description = "Hay demasiadas descargas en curso")
+    })
+    public ResponseEntity<StreamingResponseBody> descargarRespuestasPorLabel(@PathVariable String label) {
+        log.info("GET /api/v1/evaluaciones/respuestas/label/{}/stream", label);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(evaluacionService.streamRespuestasPorLabel(label, null));
+    }
+
     /**
      * Obtener respuestas de alto riesgo
      */
@@ -142,17 +250,43 @@ public class EvaluacionRespuestaController {
     @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:read')")
     @Operation(
         summary = "Obtener respuestas de alto riesgo",
-        description = "Retorna respuestas con label SUICIDAL y alta confianza"
+        description = "Retorna las 'limite' respuestas SUICIDAL de mayor confianza por encima del umbral; " +
+                      "para todas usar /alto-riesgo/stream"
     )
     public ResponseEntity<List<EvaluacionRespuestaResponse>> obtenerRespuestasAltoRiesgo(
-            @RequestParam(defaultValue = "0.7") Double umbral) {
+            @RequestParam(defaultValue = "0.7") Double umbral,
+            @Parameter(description = "Cantidad máxima de respuestas (1-1000)")
+            @RequestParam(defaultValue = "100") int limite) {
 
-        log.info("GET /api/v1/evaluaciones/respuestas/alto-riesgo - Umbral: {}", umbral);
+        log.info("GET /api/v1/evaluaciones/respuestas/alto-riesgo - Umbral: {}, Límite: {}", umbral, limite);
         List<EvaluacionRespuestaResponse> respuestas =
-            evaluacionService.obtenerRespuestasAltoRiesgo(umbral);
+            evaluacionService.obtenerRespuestasAltoRiesgo(umbral, limite);
         return ResponseEntity.ok(respuestas);
     }
 
+    /**
+     * Descargar todas las respuestas de alto riesgo en streaming
+     */
+    @GetMapping(value = "/alto-riesgo/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:read')")
+    @Operation(
+        summary = "Descargar respuestas de alto riesgo",
+        description = "Arreglo JSON con todas las respuestas SUICIDAL con confianza mayor al umbral, de mayor a " +
+                      "menor confianza, escrito a medida que se leen de la BD (memoria constante)"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Descarga en curso"),
+        @ApiResponse(responseCode = "429", description = "Hay demasiadas descargas en curso")
+    })
+    public ResponseEntity<StreamingResponseBody> descargarRespuestasAltoRiesgo(
+            @RequestParam(defaultValue = "0.7") Double umbral) {
+
+        log.info("GET /api/v1/evaluaciones/respuestas/alto-riesgo/stream - Umbral: {}", umbral);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(evaluacionService.streamRespuestasPorLabel("SUICIDAL", umbral));
+    }
+
     /**
      * Actualizar una respuesta existente
      */
@@ -172,6 +306,27 @@ public class EvaluacionRespuestaController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Corregir el label de sentimiento de una respuesta
+     */
+    @PutMapping("/{id}/label-correction")
+    @PreAuthorize("hasPermission(null, 'evaluacion_respuesta:update')")
+    @Operation(
+        summary = "Corregir label de respuesta",
+        description = "Registra el label correcto cuando la predicción del modelo es errónea. " +
+                      "Las respuestas corregidas se usan para el fine-tuning incremental del modelo."
+    )
+    public ResponseEntity<EvaluacionRespuestaResponse> corregirLabel(
+            @PathVariable Integer id,
+            @Valid @RequestBody LabelCorrectionRequest request,
+            Authentication authentication) {
+
+        log.info("PUT /api/v1/evaluaciones/respuestas/{}/label-correction - Label: {}", id, request.getLabel());
+        EvaluacionRespuestaResponse response =
+            evaluacionService.corregirLabel(id, request.getLabel(), authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Eliminar una respuesta
      */
@@ -192,7 +347,8 @@ public class EvaluacionRespuestaController {
     @Operation(
         summary = "Obtener análisis agregado",
         description = "Retorna estadísticas agregadas de sentimientos para un conjunto de preguntas. " +
-                      "Incluye distribución, sentimiento dominante, nivel de riesgo y alertas."
+                      "Incluye distribución de respuestas analizadas, sentimiento dominante, nivel de riesgo " +
+                      "y una página de alertas (ID, texto truncado y confianza) ordenadas por confianza."
     )
     @ApiResponses({
         @ApiResponse(
@@ -202,11 +358,15 @@ public class EvaluacionRespuestaController {
     })
     public ResponseEntity<Map<String, Object>> obtenerAnalisisAgregado(
             @Parameter(description = "Lista de IDs de preguntas a analizar", required = true)
-            @RequestParam List<Integer> preguntaIds) {
+            @RequestParam List<Integer> preguntaIds,
+            @Parameter(description = "Página de alertas (desde 0)", example = "0")
+            @RequestParam(defaultValue = "0") int alertasPage,
+            @Parameter(description = "Alertas por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int alertasSize) {
 
-        log.info("GET /api/v1/evaluaciones/respuestas/analisis-agregado - Preguntas: {}", preguntaIds);
+        log.info("GET /api/v1/evaluaciones/respuestas/analisis-agregado - Preguntas: {}", preguntaIds.size());
 
-        Map<String, Object> analisis = evaluacionService.obtenerAnalisisAgregado(preguntaIds);
+        Map<String, Object> analisis = evaluacionService.obtenerAnalisisAgregado(preguntaIds, alertasPage, alertasSize);
 
         return ResponseEntity.ok(analisis);
     }
@@ -1,7 +1,9 @@
 package com.example.rntn.controller;
 
 import com.example.rntn.dto.request.PacienteRequest;
+import com.example.rntn.dto.response.CursorPageResponse;
 import com.example.rntn.dto.response.PacienteResponse;
+import com.example.rntn.service.PacienteBusquedaService;
 import com.example.rntn.service.PacienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,6 +23,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * Controller REST para gestión de Pacientes
  */
@@ -32,6 +36,7 @@ import org.springframework.web.bind.annotation.*;
 public class PacienteController {
 
     private final PacienteService pacienteService;
+    private final PacienteBusquedaService pacienteBusquedaService;
 
     @PostMapping
     @PreAuthorize("hasPermission(null, 'paciente:create')")
@@ -98,7 +103,8 @@ public class PacienteController {
     public ResponseEntity<Page<PacienteResponse>> listarPacientes(
             @Parameter(description = "Filtrar por estatus")
             @RequestParam(required = false) String estatus,
-            @Parameter(description = "Buscar por nombre o documento")
+            @Parameter(description = "Buscar por nombre o documento (prefijos de palabra, sin distinguir " +
+                "mayúsculas ni acentos; resultados por relevancia)")
             @RequestParam(required = false) String search,
             @PageableDefault(size = 20) Pageable pageable) {
 
@@ -110,6 +116,32 @@ public class PacienteController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasPermission(null, 'paciente:read')")
+    @Operation(
+        summary = "Listar pacientes por cursor",
+        description = "Lista los pacientes del registro más reciente al más antiguo con paginación por cursor " +
+                      "(nextCursor). El total solo se calcula con includeTotal=true. Para buscar por nombre o " +
+                      "documento (por relevancia) usar GET /api/v1/pacientes?search="
+    )
+    public ResponseEntity<CursorPageResponse<PacienteResponse>> listarPacientesPorCursor(
+            @Parameter(description = "Filtrar por estatus")
+            @RequestParam(required = false) String estatus,
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío = primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Pacientes por página (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Calcular el total de pacientes (ejecuta un COUNT)")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/pacientes/cursor - Estatus: {}, Size: {}", estatus, size);
+
+        CursorPageResponse<PacienteResponse> response =
+            pacienteService.listarPacientesPorCursor(estatus, cursor, size, includeTotal);
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasPermission(null, 'paciente:update')")
     @Operation(
@@ -157,5 +189,18 @@ public class PacienteController {
 
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/busqueda/rebuild")
+    @PreAuthorize("hasPermission(null, 'paciente:search_rebuild')")
+    @Operation(
+        summary = "Reconstruir índice de búsqueda de pacientes",
+        description = "Recalcula paciente_busqueda desde paciente. Solo hace falta si se modificaron pacientes " +
+                      "fuera de la API; el índice se construye solo al arrancar si está vacío."
+    )
+    public ResponseEntity<Map<String, Object>> reconstruirIndiceBusqueda() {
+        log.info("POST /api/v1/pacientes/busqueda/rebuild");
+
+        return ResponseEntity.ok(pacienteBusquedaService.reconstruir());
+    }
 }
 
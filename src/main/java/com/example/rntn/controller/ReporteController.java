@@ -1,6 +1,7 @@
 package com.example.rntn.controller;
 
 import com.example.rntn.dto.request.ReporteRequest;
+import com.example.rntn.dto.response.CursorPageResponse;
 import com.example.rntn.dto.response.ReporteResponse;
 import com.example.rntn.service.ReporteService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -59,6 +60,24 @@ public class ReporteController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasPermission(null, 'reporte:read')")
+    @Operation(summary = "Listar reportes por cursor",
+               description = "Lista los reportes del más reciente al más antiguo con paginación por cursor " +
+                             "(nextCursor). El total solo se calcula con includeTotal=true")
+    public ResponseEntity<CursorPageResponse<ReporteResponse>> listarReportesPorCursor(
+            @Parameter(description = "Cursor devuelto por la página anterior (vacío = primera página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Reportes por página (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Calcular el total de reportes (ejecuta un COUNT)")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/reportes/cursor - Size: {}", size);
+        CursorPageResponse<ReporteResponse> response = reporteService.listarReportesPorCursor(cursor, size, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/usuario/{idUsuario}")
     @PreAuthorize("hasPermission(null, 'reporte:read')")
     @Operation(summary = "Listar reportes por usuario",
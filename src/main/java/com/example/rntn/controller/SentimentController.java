@@ -1,13 +1,18 @@
 package com.example.rntn.controller;
 
 import com.example.rntn.dto.request.BatchPredictRequest;
+import com.example.rntn.dto.request.ModelEvaluationRequest;
 import com.example.rntn.dto.request.PredictRequest;
 import com.example.rntn.dto.response.AnalisisSentimientoResponse;
 import com.example.rntn.dto.response.BatchPredictAggregateResponse;
 import com.example.rntn.dto.response.BatchPredictResponse;
+import com.example.rntn.dto.response.ModelEvaluationResponse;
 import com.example.rntn.dto.response.SentimentAggregateStats;
 import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.service.ModelEvaluationService;
+import com.example.rntn.service.SentimentAggregateService;
 import com.example.rntn.service.SentimentService;
+import com.example.rntn.util.SentimentPredictorPool;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,10 +23,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -40,6 +47,8 @@ import java.util.stream.Collectors;
 public class SentimentController {
 
     private final SentimentService sentimentService;
+    private final ModelEvaluationService modelEvaluationService;
+    private final SentimentAggregateService sentimentAggregateService;
 
     /**
      * Predice el sentimiento de un texto individual
@@ -61,7 +70,8 @@ public class SentimentController {
             )
         ),
         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
-        @ApiResponse(responseCode = "500", description = "Error en el análisis")
+        @ApiResponse(responseCode = "500", description = "Error en el análisis"),
+        @ApiResponse(responseCode = "504", description = "El plazo de la petición venció antes del análisis")
     })
     public ResponseEntity<AnalisisSentimientoResponse> predict(
             @Valid @RequestBody PredictRequest request) {
@@ -82,7 +92,9 @@ public class SentimentController {
     @Operation(
         summary = "Predecir sentimiento de múltiples textos",
         description = "Analiza el sentimiento de múltiples textos en una sola petición. " +
-                      "Útil para procesar lotes de respuestas de evaluaciones."
+                      "Útil para procesar lotes de respuestas de evaluaciones. Si vence el plazo " +
+                      "(cabecera X-Request-Timeout-Ms o el configurado) devuelve los resultados parciales " +
+                      "con partial=true."
     )
     @ApiResponses({
         @ApiResponse(
@@ -100,13 +112,15 @@ public class SentimentController {
 
         log.info("POST /api/v1/sentiment/predict/batch - Cantidad: {}", request.getTexts().size());
 
-        List<AnalisisSentimientoResponse> results = request.getTexts().stream()
-            .map(sentimentService::analizarTexto)
-            .collect(Collectors.toList());
+        List<AnalisisSentimientoResponse> results =
+            sentimentService.analizarTextos(request.getTexts(), SentimentPredictorPool.Lane.BATCH);
+        int skipped = request.getTexts().size() - results.size();
 
         BatchPredictResponse response = BatchPredictResponse.builder()
             .results(results)
             .processedCount(results.size())
+            .partial(skipped > 0)
+            .skippedCount(skipped)
             .timestamp(LocalDateTime.now())
             .build();
 
@@ -176,6 +190,41 @@ public class SentimentController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Evalúa un modelo sobre un conjunto etiquetado: calidad y rendimiento en una sola corrida
+     */
+    @PostMapping("/model/evaluate")
+    @PreAuthorize("hasPermission(null, 'sentiment:evaluate')")
+    @Operation(
+        summary = "Evaluar modelo sobre un conjunto etiquetado",
+        description = "Puntúa un archivo .sst o CSV (sentence,label) de rntn.data.directory en paralelo con el pool " +
+                      "de predictores y retorna accuracy, precision/recall/F1 por clase, matriz de confusión 5x5, " +
+                      "calibración de la confianza, oraciones por segundo y latencias p50/p95/p99."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Evaluación completada exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ModelEvaluationResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Archivo o parámetros inválidos"),
+        @ApiResponse(responseCode = "404", description = "Archivo o modelo no encontrado"),
+        @ApiResponse(responseCode = "429", description = "Ya hay una evaluación en curso")
+    })
+    public ResponseEntity<ModelEvaluationResponse> evaluateModel(
+            @Valid @RequestBody ModelEvaluationRequest request) {
+
+        log.info("POST /api/v1/sentiment/model/evaluate - Archivo: {}, Modelo: {}",
+            request.getDataPath(), request.getModel() != null ? request.getModel() : "activo");
+
+        ModelEvaluationResponse response = modelEvaluationService.evaluar(request);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * ⭐ NUEVO: Predice el sentimiento de múltiples textos con análisis agregado
      * Combina predicción individual + estadísticas agregadas
@@ -186,7 +235,8 @@ public class SentimentController {
         summary = "Predecir sentimiento por lote con análisis agregado",
         description = "Analiza múltiples textos y retorna tanto los resultados individuales como " +
                       "estadísticas agregadas (distribución, confianza promedio, riesgo dominante, alertas). " +
-                      "Ideal para análisis de sesiones completas de evaluación."
+                      "Ideal para análisis de sesiones completas de evaluación. Si vence el plazo, las " +
+                      "estadísticas se calculan sobre los resultados parciales (partial=true)."
     )
     @ApiResponses({
         @ApiResponse(
@@ -204,10 +254,10 @@ public class SentimentController {
 
         log.info("POST /api/v1/sentiment/predict/batch/aggregate - Cantidad: {}", request.getTexts().size());
 
-        // 1. Realizar análisis individual de cada texto
-        List<AnalisisSentimientoResponse> individualResults = request.getTexts().stream()
-            .map(sentimentService::analizarTexto)
-            .collect(Collectors.toList());
+        // 1. Realizar análisis individual de cada texto (parcial si vence el plazo)
+        List<AnalisisSentimientoResponse> individualResults =
+            sentimentService.analizarTextos(request.getTexts(), SentimentPredictorPool.Lane.BATCH);
+        int skipped = request.getTexts().size() - individualResults.size();
 
         // 2. Calcular estadísticas agregadas
         SentimentAggregateStats aggregateStats = sentimentService.calcularEstadisticasAgregadas(individualResults);
@@ -217,6 +267,8 @@ public class SentimentController {
             .individualResults(individualResults)
             .aggregateAnalysis(aggregateStats)
             .processedCount(individualResults.size())
+            .partial(skipped > 0)
+            .skippedCount(skipped)
             .timestamp(LocalDateTime.now())
             .build();
 
@@ -228,14 +280,14 @@ public class SentimentController {
 
     /**
      * ⭐ NUEVO: Obtiene estadísticas agregadas de respuestas guardadas en BD
-     * Usa stored procedure para cálculo optimizado
+     * Una consulta agrupada por bloque de IDs
      */
     @PostMapping("/aggregate/stats")
     @PreAuthorize("hasPermission(null, 'sentiment:aggregate')")
     @Operation(
         summary = "Calcular estadísticas agregadas desde BD",
         description = "Calcula estadísticas agregadas para un conjunto de respuestas ya almacenadas " +
-                      "en la base de datos. Usa stored procedures para cálculo optimizado. " +
+                      "en la base de datos con consultas agrupadas por bloques de IDs. " +
                       "Útil para generar reportes y dashboards."
     )
     @ApiResponses({
@@ -250,22 +302,21 @@ public class SentimentController {
 
         log.info("POST /api/v1/sentiment/aggregate/stats - IDs: {}", responseIds.size());
 
-        SentimentAggregateStats stats = sentimentService.obtenerEstadisticasAgregadasDesdeBD(responseIds);
+        SentimentAggregateStats stats = sentimentAggregateService.obtenerEstadisticasAgregadas(responseIds);
 
         return ResponseEntity.ok(stats);
     }
 
     /**
-     * ⭐ NUEVO: Obtiene distribución de sentimientos por evaluación
-     * Usa stored procedure para análisis de sesión completa
+     * ⭐ NUEVO: Obtiene la evaluación con el paciente y profesional de sus consultas
      */
     @GetMapping("/aggregate/evaluation/{idEvaluacion}")
     @PreAuthorize("hasPermission(null, 'sentiment:aggregate')")
     @Operation(
         summary = "Obtener distribución de sentimientos por evaluación",
-        description = "Obtiene la distribución de sentimientos para todas las respuestas de una evaluación. " +
-                      "Incluye información del paciente, profesional y estadísticas agregadas. " +
-                      "Usa stored procedure para cálculo optimizado."
+        description = "Obtiene la evaluación y, por cada consulta que la usa, el paciente y el profesional. " +
+                      "Las respuestas no están vinculadas a la evaluación en el esquema actual; para la " +
+                      "distribución de sentimientos usar POST /aggregate/stats con los IDs de respuesta."
     )
     @ApiResponses({
         @ApiResponse(
@@ -276,15 +327,67 @@ public class SentimentController {
     })
     public ResponseEntity<Map<String, Object>> getDistributionByEvaluation(
             @Parameter(description = "ID de la evaluación", example = "1")
-            @PathVariable Long idEvaluacion) {
+            @PathVariable Integer idEvaluacion) {
 
         log.info("GET /api/v1/sentiment/aggregate/evaluation/{}", idEvaluacion);
 
-        Map<String, Object> distribution = sentimentService.obtenerDistribucionPorEvaluacion(idEvaluacion);
+        Map<String, Object> distribution = sentimentAggregateService.obtenerDistribucionPorEvaluacion(idEvaluacion);
 
         return ResponseEntity.ok(distribution);
     }
 
+    /**
+     * Resumen diario de sentimientos desde las tablas de rollup
+     */
+    @GetMapping("/aggregate/daily")
+    @PreAuthorize("hasPermission(null, 'sentiment:aggregate')")
+    @Operation(
+        summary = "Resumen diario de sentimientos",
+        description = "Distribución, confianza y alertas de alto riesgo por día entre dos fechas (ambas incluidas). " +
+                      "Se lee del rollup diario, así que el coste depende del número de días y no de respuestas."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<Map<String, Object>> getDailySummary(
+            @Parameter(description = "Fecha inicial (yyyy-MM-dd)", example = "2026-10-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (yyyy-MM-dd)", example = "2026-10-19")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+
+        log.info("GET /api/v1/sentiment/aggregate/daily?desde={}&hasta={}", desde, hasta);
+
+        List<Map<String, Object>> dias = sentimentAggregateService.obtenerResumenDiario(desde, hasta);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("dias", dias);
+        response.put("desde", desde);
+        response.put("hasta", hasta);
+        response.put("timestamp", LocalDateTime.now());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Reconstruye las tablas de rollup de sentimiento desde las respuestas guardadas
+     */
+    @PostMapping("/aggregate/rollups/rebuild")
+    @PreAuthorize("hasPermission(null, 'sentiment:rollup_rebuild')")
+    @Operation(
+        summary = "Reconstruir rollups de sentimiento",
+        description = "Vacía y recalcula los rollups por pregunta y por día desde evaluacion_respuesta. " +
+                      "Solo hace falta si se modificaron respuestas fuera de la API; conviene ejecutarlo con poco tráfico de escritura."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Rollups reconstruidos")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        log.info("POST /api/v1/sentiment/aggregate/rollups/rebuild");
+
+        return ResponseEntity.ok(sentimentAggregateService.reconstruirRollups());
+    }
+
     /**
      * ⭐ NUEVO: Obtiene alertas de alto riesgo recientes
      * Detecta respuestas SUICIDAL con alta confianza
@@ -294,7 +397,7 @@ public class SentimentController {
     @Operation(
         summary = "Obtener alertas de alto riesgo",
         description = "Obtiene todas las respuestas con indicadores de alto riesgo (SUICIDAL con confianza > 0.7) " +
-                      "de los últimos N días. Incluye información completa del paciente, consulta y profesional. " +
+                      "de los últimos N días, con la pregunta a la que responden. " +
                       "Crítico para seguimiento de pacientes en riesgo."
     )
     @ApiResponses({
@@ -309,7 +412,7 @@ public class SentimentController {
 
         log.info("GET /api/v1/sentiment/alerts/high-risk?daysBack={}", daysBack);
 
-        List<Map<String, Object>> alerts = sentimentService.obtenerAlertasAltoRiesgo(daysBack);
+        List<Map<String, Object>> alerts = sentimentAggregateService.obtenerAlertasAltoRiesgo(daysBack);
 
         Map<String, Object> response = new HashMap<>();
         response.put("alerts", alerts);
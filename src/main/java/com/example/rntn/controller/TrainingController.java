@@ -0,0 +1,270 @@
+package com.example.rntn.controller;
+
+import com.example.rntn.TrainingDataExporter;
+import com.example.rntn.dto.request.FineTuningRequest;
+import com.example.rntn.dto.request.TrainingJobRequest;
+import com.example.rntn.dto.response.ModelInfoResponse;
+import com.example.rntn.dto.response.TrainingJobResponse;
+import com.example.rntn.service.FineTuningService;
+import com.example.rntn.service.ModelRegistryService;
+import com.example.rntn.service.TrainingDataExportService;
+import com.example.rntn.service.TrainingJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller REST para trabajos de entrenamiento del modelo RNTN
+ */
+@RestController
+@RequestMapping("/api/v1/training")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Model Training", description = "Entrenamiento asíncrono de modelos RNTN")
+public class TrainingController {
+
+    private final TrainingJobService trainingJobService;
+    private final ModelRegistryService modelRegistryService;
+    private final FineTuningService fineTuningService;
+    private final TrainingDataExportService trainingDataExportService;
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasPermission(null, 'training:execute')")
+    @Operation(
+        summary = "Enviar trabajo de entrenamiento",
+        description = "Encola un entrenamiento RNTN con los hiperparámetros indicados. Las rutas de datos " +
+                      "son relativas al directorio de datos. Retorna inmediatamente con el id del trabajo."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "201",
+            description = "Trabajo encolado",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = TrainingJobResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Hiperparámetros o rutas inválidas"),
+        @ApiResponse(responseCode = "404", description = "Archivo de datos no encontrado"),
+        @ApiResponse(responseCode = "429", description = "Cola de entrenamiento llena")
+    })
+    public ResponseEntity<TrainingJobResponse> enviarTrabajo(
+            @Valid @RequestBody TrainingJobRequest request,
+            Authentication authentication) {
+
+        log.info("POST /api/v1/training/jobs - train: {}, usuario: {}",
+            request.getTrainPath(), authentication.getName());
+
+        TrainingJobResponse response = trainingJobService.enviarTrabajo(request, authentication.getName());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/jobs")
+    @PreAuthorize("hasPermission(null, 'training:read')")
+    @Operation(summary = "Listar trabajos de entrenamiento", description = "Trabajos en cola, en ejecución y recientes")
+    public ResponseEntity<List<TrainingJobResponse>> listarTrabajos() {
+        log.info("GET /api/v1/training/jobs");
+        return ResponseEntity.ok(trainingJobService.listarTrabajos());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasPermission(null, 'training:read')")
+    @Operation(summary = "Consultar estado de un trabajo", description = "Estado, hiperparámetros y resultado del trabajo")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Trabajo encontrado"),
+        @ApiResponse(responseCode = "404", description = "Trabajo no encontrado")
+    })
+    public ResponseEntity<TrainingJobResponse> obtenerTrabajo(
+            @Parameter(description = "ID del trabajo") @PathVariable String jobId) {
+        log.info("GET /api/v1/training/jobs/{}", jobId);
+        return ResponseEntity.ok(trainingJobService.obtenerTrabajo(jobId));
+    }
+
+    @GetMapping("/jobs/{jobId}/logs")
+    @PreAuthorize("hasPermission(null, 'training:read')")
+    @Operation(
+        summary = "Obtener log de un trabajo",
+        description = "Retorna las líneas de log a partir de 'from'. Use 'nextLogIndex' de la respuesta " +
+                      "como 'from' en la siguiente consulta para obtener solo las líneas nuevas."
+    )
+    public ResponseEntity<Map<String, Object>> obtenerLogs(
+            @Parameter(description = "ID del trabajo") @PathVariable String jobId,
+            @Parameter(description = "Primera línea a retornar") @RequestParam(defaultValue = "0") long from) {
+        return ResponseEntity.ok(trainingJobService.obtenerLogs(jobId, from));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/logs/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasPermission(null, 'training:read')")
+    @Operation(
+        summary = "Seguir el log de un trabajo (SSE)",
+        description = "Server-Sent Events: eventos 'log' por cada línea y un evento 'status' final al terminar el trabajo"
+    )
+    public SseEmitter streamLogs(@Parameter(description = "ID del trabajo") @PathVariable String jobId) {
+        log.info("GET /api/v1/training/jobs/{}/logs/stream", jobId);
+        return trainingJobService.streamLogs(jobId);
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    @PreAuthorize("hasPermission(null, 'training:execute')")
+    @Operation(
+        summary = "Cancelar trabajo de entrenamiento",
+        description = "Cancela un trabajo en cola o en ejecución. El entrenamiento se detiene al terminar el minibatch actual."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Cancelación solicitada"),
+        @ApiResponse(responseCode = "404", description = "Trabajo no encontrado"),
+        @ApiResponse(responseCode = "409", description = "El trabajo ya terminó")
+    })
+    public ResponseEntity<TrainingJobResponse> cancelarTrabajo(
+            @Parameter(description = "ID del trabajo") @PathVariable String jobId) {
+        log.info("DELETE /api/v1/training/jobs/{}", jobId);
+        return ResponseEntity.ok(trainingJobService.cancelarTrabajo(jobId));
+    }
+
+    @PostMapping("/fine-tuning")
+    @PreAuthorize("hasPermission(null, 'training:execute')")
+    @Operation(
+        summary = "Lanzar fine-tuning con correcciones",
+        description = "Entrena unas pocas épocas partiendo del modelo activo (o del indicado) con las respuestas " +
+                      "cuyo label fue corregido por un profesional. Produce un modelo candidato que debe promoverse."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Fine-tuning encolado"),
+        @ApiResponse(responseCode = "400", description = "No hay suficientes correcciones"),
+        @ApiResponse(responseCode = "404", description = "Modelo base no encontrado"),
+        @ApiResponse(responseCode = "429", description = "Cola de entrenamiento llena")
+    })
+    public ResponseEntity<TrainingJobResponse> iniciarFineTuning(
+            @Valid @RequestBody(required = false) FineTuningRequest request,
+            Authentication authentication) {
+
+        log.info("POST /api/v1/training/fine-tuning - usuario: {}", authentication.getName());
+
+        TrainingJobResponse response = fineTuningService.iniciarFineTuning(
+            request != null ? request : new FineTuningRequest(), authentication.getName());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/fine-tuning/status")
+    @PreAuthorize("hasPermission(null, 'training:read')")
+    @Operation(summary = "Estado del fine-tuning", description = "Correcciones acumuladas y nuevas desde el último fine-tuning")
+    public ResponseEntity<Map<String, Object>> obtenerEstadoFineTuning() {
+        log.info("GET /api/v1/training/fine-tuning/status");
+        return ResponseEntity.ok(fineTuningService.obtenerEstado());
+    }
+
+    @PostMapping("/models/{name}/promote")
+    @PreAuthorize("hasPermission(null, 'training:execute')")
+    @Operation(
+        summary = "Promover modelo a activo",
+        description = "Reemplaza el modelo activo por el indicado (el anterior se conserva como .previous) " +
+                      "y recarga el predictor sin reiniciar la aplicación"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Modelo promovido"),
+        @ApiResponse(responseCode = "404", description = "Modelo no encontrado")
+    })
+    public ResponseEntity<ModelInfoResponse> promoverModelo(
+            @Parameter(description = "Nombre del modelo registrado") @PathVariable String name,
+            Authentication authentication) {
+        log.info("POST /api/v1/training/models/{}/promote - usuario: {}", name, authentication.getName());
+        return ResponseEntity.ok(modelRegistryService.promover(name, authentication.getName()));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasPermission(null, 'training:execute')")
+    @Operation(
+        summary = "Descargar datos de entrenamiento",
+        description = "Exporta pares (texto, label) de las respuestas en streaming, como CSV (sentence,label; " +
+                      "entrada de CsvToSstConverter) o SST, opcionalmente comprimido con gzip. La descarga se corta " +
+                      "al cumplirse rntn.export.stream-timeout-ms (1 h por defecto)"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "429", description = "Ya hay una exportación en curso")
+    })
+    public ResponseEntity<StreamingResponseBody> descargarDatos(
+            @Parameter(description = "Desde (inclusive)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Hasta (inclusive)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @Parameter(description = "Solo este label") @RequestParam(required = false) String label,
+            @Parameter(description = "Solo respuestas analizadas por esta versión del modelo")
+            @RequestParam(required = false) String modelVersion,
+            @Parameter(description = "Label exportado: EFFECTIVE (corrección si existe), CORRECTED o PREDICTED")
+            @RequestParam(defaultValue = "EFFECTIVE") TrainingDataExporter.LabelSource labelSource,
+            @Parameter(description = "Formato: CSV o SST") @RequestParam(defaultValue = "CSV") TrainingDataExporter.Format format,
+            @Parameter(description = "Comprimir con gzip") @RequestParam(defaultValue = "true") boolean gzip) {
+
+        log.info("GET /api/v1/training/export - formato: {}, desde: {}, hasta: {}, label: {}, modelVersion: {}",
+            format, desde, hasta, label, modelVersion);
+
+        TrainingDataExporter.Filter filter =
+            trainingDataExportService.filtro(desde, hasta, label, modelVersion, labelSource);
+        StreamingResponseBody body = trainingDataExportService.exportarStream(filter, format, gzip);
+        String fileName = "training-data" + (format == TrainingDataExporter.Format.SST ? ".sst" : ".csv")
+            + (gzip ? ".gz" : "");
+
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.TEXT_PLAIN)
+            .body(body);
+    }
+
+    @PostMapping("/exports")
+    @PreAuthorize("hasPermission(null, 'training:execute')")
+    @Operation(
+        summary = "Exportar datos de entrenamiento a archivo",
+        description = "Escribe la exportación en el directorio de datos (exports/); la ruta retornada puede usarse " +
+                      "como trainPath de un trabajo de entrenamiento (SST) o convertirse con CsvToSstConverter (CSV)"
+    )
+    public ResponseEntity<Map<String, Object>> exportarDatos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String label,
+            @RequestParam(required = false) String modelVersion,
+            @RequestParam(defaultValue = "EFFECTIVE") TrainingDataExporter.LabelSource labelSource,
+            @RequestParam(defaultValue = "SST") TrainingDataExporter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        log.info("POST /api/v1/training/exports - formato: {}, desde: {}, hasta: {}, label: {}, modelVersion: {}",
+            format, desde, hasta, label, modelVersion);
+
+        TrainingDataExporter.Filter filter =
+            trainingDataExportService.filtro(desde, hasta, label, modelVersion, labelSource);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(trainingDataExportService.exportarArchivo(filter, format, gzip));
+    }
+
+    @GetMapping("/models")
+    @PreAuthorize("hasPermission(null, 'training:read')")
+    @Operation(summary = "Listar modelos", description = "Modelos disponibles en el directorio de modelos, incluidos los producidos por trabajos")
+    public ResponseEntity<List<ModelInfoResponse>> listarModelos() {
+        log.info("GET /api/v1/training/models");
+        return ResponseEntity.ok(modelRegistryService.listarModelos());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.rntn.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de request para registrar todas las respuestas de un cuestionario en una sola petición
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para registrar un cuestionario completo con análisis de sentimiento")
+public class EvaluacionRespuestaLoteRequest {
+
+    @NotEmpty(message = "La lista de respuestas no puede estar vacía")
+    @Size(min = 1, max = 200, message = "El lote debe contener entre 1 y 200 respuestas")
+    @Valid
+    @Schema(description = "Respuestas del cuestionario", required = true)
+    private List<EvaluacionRespuestaRequest> respuestas;
+}
@@ -0,0 +1,38 @@
+package com.example.rntn.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de request para lanzar un fine-tuning con las correcciones de los profesionales
+ * Los valores omitidos toman rntn.fine-tuning.*
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para fine-tuning incremental del modelo RNTN")
+public class FineTuningRequest {
+
+    @Schema(description = "Modelo registrado desde el que continuar (por defecto el modelo activo)",
+            example = "job-3f2a9c1e")
+    private String baseModel;
+
+    @Min(value = 1, message = "epochs debe ser positivo")
+    @Max(value = 100, message = "epochs no puede superar 100")
+    @Schema(description = "Épocas de fine-tuning", example = "5")
+    private Integer epochs;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "learningRate debe ser positivo")
+    @Schema(description = "Learning rate de AdaGrad", example = "0.001")
+    private Double learningRate;
+
+    @Schema(description = "Semilla para el muestreo y el orden de entrenamiento", example = "42")
+    private Long seed;
+}
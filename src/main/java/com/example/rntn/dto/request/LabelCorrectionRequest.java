@@ -0,0 +1,26 @@
+package com.example.rntn.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de request para corregir el label predicho de una respuesta
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Corrección del label de sentimiento asignado por el modelo")
+public class LabelCorrectionRequest {
+
+    @NotBlank(message = "El label corregido es requerido")
+    @Pattern(regexp = "ANXIETY|SUICIDAL|ANGER|SADNESS|FRUSTRATION",
+        message = "El label debe ser ANXIETY, SUICIDAL, ANGER, SADNESS o FRUSTRATION")
+    @Schema(description = "Label correcto", example = "SADNESS", required = true)
+    private String label;
+}
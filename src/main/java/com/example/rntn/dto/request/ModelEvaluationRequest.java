@@ -0,0 +1,38 @@
+package com.example.rntn.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de request para evaluar un modelo sobre un conjunto etiquetado (.sst o CSV)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para evaluar calidad y rendimiento de un modelo RNTN")
+public class ModelEvaluationRequest {
+
+    @NotBlank(message = "dataPath es obligatorio")
+    @Schema(description = "Archivo .sst o CSV (sentence,label), relativo a rntn.data.directory",
+            example = "dev.sst", required = true)
+    private String dataPath;
+
+    @Schema(description = "Modelo registrado a evaluar (por defecto el modelo activo)", example = "job-3f2a9c1e")
+    private String model;
+
+    @Min(value = 1, message = "threads debe ser positivo")
+    @Schema(description = "Hilos de scoring (limitado a rntn.inference.pool-size)", example = "4")
+    private Integer threads;
+
+    @Min(value = 1, message = "limit debe ser positivo")
+    @Max(value = 1000000, message = "limit no puede superar 1000000")
+    @Schema(description = "Máximo de oraciones a evaluar (por defecto todas)", example = "500")
+    private Integer limit;
+}
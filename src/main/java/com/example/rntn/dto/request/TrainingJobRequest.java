@@ -0,0 +1,64 @@
+package com.example.rntn.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de request para lanzar un trabajo de entrenamiento RNTN
+ * Los hiperparámetros omitidos toman los valores por defecto de TrainingRunner / rntn.training.*
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para lanzar un entrenamiento asíncrono del modelo RNTN")
+public class TrainingJobRequest {
+
+    @NotBlank(message = "La ruta de entrenamiento es obligatoria")
+    @Schema(description = "Archivo .sst de entrenamiento, relativo a rntn.data.directory",
+            example = "sample_train.binarized.sst", required = true)
+    private String trainPath;
+
+    @Schema(description = "Archivo .sst de desarrollo, relativo a rntn.data.directory", example = "dev.sst")
+    private String devPath;
+
+    @Min(value = 1, message = "numHid debe ser positivo")
+    @Max(value = 200, message = "numHid no puede superar 200")
+    @Schema(description = "Unidades ocultas", example = "25")
+    private Integer numHid;
+
+    @Min(value = 1, message = "epochs debe ser positivo")
+    @Max(value = 1000, message = "epochs no puede superar 1000")
+    @Schema(description = "Número de épocas", example = "100")
+    private Integer epochs;
+
+    @Min(value = 1, message = "batchSize debe ser positivo")
+    @Schema(description = "Tamaño de minibatch", example = "27")
+    private Integer batchSize;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "learningRate debe ser positivo")
+    @Schema(description = "Learning rate de AdaGrad", example = "0.01")
+    private Double learningRate;
+
+    @DecimalMin(value = "0.0", message = "regularization no puede ser negativa")
+    @Schema(description = "Regularización L2 de matriz y tensor", example = "0.001")
+    private Double regularization;
+
+    @Min(value = 0, message = "checkpointEvery no puede ser negativo")
+    @Schema(description = "Checkpoint + evaluación en dev cada N minibatches (0 = desactivado)", example = "50")
+    private Integer checkpointEvery;
+
+    @Min(value = 0, message = "patience no puede ser negativa")
+    @Schema(description = "Evaluaciones sin mejora antes de parar (0 = sin early stopping)", example = "5")
+    private Integer patience;
+
+    @Schema(description = "Semilla aleatoria", example = "42")
+    private Long seed;
+}
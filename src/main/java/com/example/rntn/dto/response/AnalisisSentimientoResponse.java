@@ -38,6 +38,9 @@ public class AnalisisSentimientoResponse {
             allowableValues = {"BAJO", "MEDIO", "ALTO"})
     private String nivelRiesgo;
 
+    @Schema(description = "Versión del modelo que realizó la predicción", example = "out-model@3fa91c0b2d4e")
+    private String modelVersion;
+
     @Schema(description = "Timestamp del análisis")
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime timestamp;
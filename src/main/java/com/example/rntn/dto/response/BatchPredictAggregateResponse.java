@@ -29,6 +29,12 @@ public class BatchPredictAggregateResponse {
     @Schema(description = "Cantidad de textos procesados", example = "3")
     private Integer processedCount;
 
+    @Schema(description = "true si el plazo de la petición venció y no se analizaron todos los textos", example = "false")
+    private Boolean partial;
+
+    @Schema(description = "Textos no analizados por vencimiento del plazo", example = "0")
+    private Integer skippedCount;
+
     @Schema(description = "Timestamp del análisis")
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime timestamp;
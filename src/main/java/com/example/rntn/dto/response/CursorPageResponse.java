@@ -0,0 +1,57 @@
+package com.example.rntn.dto.response;
+
+import com.example.rntn.util.SeekCursor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO de respuesta para listados con paginación por cursor (keyset)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Página de un listado paginado por cursor, del más reciente al más antiguo")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Elementos de la página")
+    private List<T> content;
+
+    @Schema(description = "Cantidad de elementos solicitada por página", example = "20")
+    private Integer size;
+
+    @Schema(description = "Cursor opaco para pedir la página siguiente; ausente en la última página",
+            example = "MjAyNi0xMC0xOVQxMDoxNTozMHw0MjA")
+    private String nextCursor;
+
+    @Schema(description = "Indica si hay más elementos después de esta página", example = "true")
+    private Boolean hasNext;
+
+    @Schema(description = "Total de elementos del listado; solo se calcula con includeTotal=true", example = "1532")
+    private Long totalElements;
+
+    /**
+     * Arma la página a partir de las filas leídas con límite size + 1: la fila extra solo indica
+     * que hay página siguiente y no se devuelve
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> filas, int size, Function<E, SeekCursor> clave,
+                                                  Function<E, T> mapper, Long totalElements) {
+        boolean hasNext = filas.size() > size;
+        List<E> pagina = hasNext ? filas.subList(0, size) : filas;
+        return CursorPageResponse.<T>builder()
+            .content(pagina.stream().map(mapper).toList())
+            .size(size)
+            .nextCursor(hasNext ? clave.apply(pagina.get(size - 1)).encode() : null)
+            .hasNext(hasNext)
+            .totalElements(totalElements)
+            .build();
+    }
+}
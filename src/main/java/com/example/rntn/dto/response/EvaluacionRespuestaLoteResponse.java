@@ -0,0 +1,38 @@
+package com.example.rntn.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de respuesta para el registro de un cuestionario completo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Respuestas registradas de un cuestionario, con su análisis de sentimiento")
+public class EvaluacionRespuestaLoteResponse {
+
+    @Schema(description = "Respuestas registradas, en el mismo orden del request")
+    private List<EvaluacionRespuestaResponse> respuestas;
+
+    @Schema(description = "Cantidad de respuestas registradas", example = "12")
+    private Integer totalRespuestas;
+
+    @Schema(description = "Cantidad de respuestas analizadas con el modelo", example = "12")
+    private Integer analizadas;
+
+    @Schema(description = "Respuestas con alerta de riesgo suicida (SUICIDAL, confianza > 0.7)", example = "0")
+    private Integer alertasAltoRiesgo;
+
+    @Schema(description = "Timestamp del registro")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+}
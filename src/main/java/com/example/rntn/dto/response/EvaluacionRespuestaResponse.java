@@ -40,11 +40,25 @@ public class EvaluacionRespuestaResponse {
     @Schema(description = "Score de confianza del modelo", example = "0.92")
     private Double confidenceScore;
 
+    @Schema(description = "Label corregido por un profesional (null si no se corrigió)", example = "SADNESS")
+    private String labelCorregidoEvaluacionRespuesta;
+
+    @Schema(description = "Usuario que corrigió el label", example = "dr.garcia")
+    private String corregidoPor;
+
     @Schema(description = "Análisis detallado del sentimiento")
     private AnalisisSentimientoResponse sentimentAnalysis;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Schema(description = "Fecha de creación", example = "2025-12-21T15:30:00")
     private LocalDateTime createdAt;
+
+    @Schema(description = "Clave de idempotencia con la que se registró la respuesta",
+            example = "3f6c2a1e-8d4b-4c0e-9a57-2b1d6e9f0c11")
+    private String idempotencyKey;
+
+    @Schema(description = "Estado de persistencia al registrar: GUARDADA, o PENDIENTE con escritura diferida " +
+                          "(la respuesta aún no tiene ID)", example = "GUARDADA")
+    private String estadoPersistencia;
 }
 
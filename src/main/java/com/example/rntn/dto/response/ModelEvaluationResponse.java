@@ -0,0 +1,124 @@
+package com.example.rntn.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta con la evaluación de un modelo sobre un conjunto etiquetado:
+ * calidad (accuracy, P/R/F1, matriz de confusión, calibración) y rendimiento de la misma corrida
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Evaluación de calidad y rendimiento de un modelo RNTN")
+public class ModelEvaluationResponse {
+
+    @Schema(description = "Modelo evaluado", example = "models/out-model.ser.gz")
+    private String modelPath;
+
+    @Schema(description = "Archivo evaluado", example = "data/dev.sst")
+    private String dataPath;
+
+    @Schema(description = "Oraciones evaluadas", example = "1101")
+    private long sentences;
+
+    @Schema(description = "Oraciones sin predicción (texto sin oraciones)", example = "0")
+    private long skipped;
+
+    @Schema(description = "Hilos de scoring (predictores usados en paralelo)", example = "4")
+    private int threads;
+
+    @Schema(description = "Accuracy global", example = "0.78")
+    private double accuracy;
+
+    @Schema(description = "F1 macro", example = "0.74")
+    private double macroF1;
+
+    @Schema(description = "Precision, recall y F1 por clase")
+    private List<ClassMetrics> classes;
+
+    @Schema(description = "Orden de filas y columnas de la matriz de confusión")
+    private List<String> labels;
+
+    @Schema(description = "Matriz de confusión: filas = label real, columnas = label predicho")
+    private long[][] confusionMatrix;
+
+    @Schema(description = "Expected calibration error de la confianza", example = "0.041")
+    private double expectedCalibrationError;
+
+    @Schema(description = "Brier score multiclase", example = "0.31")
+    private double brierScore;
+
+    @Schema(description = "Diagrama de confiabilidad: accuracy vs confianza por intervalo")
+    private List<CalibrationBin> calibration;
+
+    @Schema(description = "Duración total de la corrida en segundos", example = "12.4")
+    private double wallSeconds;
+
+    @Schema(description = "Throughput en oraciones por segundo", example = "88.8")
+    private double sentencesPerSecond;
+
+    @Schema(description = "Latencia media por oración (ms)", example = "44.1")
+    private double latencyMeanMs;
+
+    @Schema(description = "Latencia p50 por oración (ms)", example = "38.0")
+    private double latencyP50Ms;
+
+    @Schema(description = "Latencia p95 por oración (ms)", example = "91.5")
+    private double latencyP95Ms;
+
+    @Schema(description = "Latencia p99 por oración (ms)", example = "140.2")
+    private double latencyP99Ms;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Métricas de una clase")
+    public static class ClassMetrics {
+
+        @Schema(description = "Label", example = "SUICIDAL")
+        private String label;
+
+        @Schema(description = "Precision", example = "0.81")
+        private double precision;
+
+        @Schema(description = "Recall", example = "0.77")
+        private double recall;
+
+        @Schema(description = "F1", example = "0.79")
+        private double f1;
+
+        @Schema(description = "Ejemplos con este label real", example = "212")
+        private long support;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Intervalo de confianza del diagrama de confiabilidad")
+    public static class CalibrationBin {
+
+        @Schema(description = "Límite inferior de confianza", example = "0.8")
+        private double lower;
+
+        @Schema(description = "Límite superior de confianza", example = "0.9")
+        private double upper;
+
+        @Schema(description = "Predicciones en el intervalo", example = "130")
+        private long count;
+
+        @Schema(description = "Confianza media", example = "0.85")
+        private double meanConfidence;
+
+        @Schema(description = "Accuracy observada", example = "0.82")
+        private double accuracy;
+    }
+}
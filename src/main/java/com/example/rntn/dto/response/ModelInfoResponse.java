@@ -0,0 +1,52 @@
+package com.example.rntn.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO con la información de un modelo registrado en el directorio de modelos
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Modelo RNTN registrado en el directorio de modelos")
+public class ModelInfoResponse {
+
+    @Schema(description = "Nombre del modelo", example = "job-3f2a9c1e")
+    private String name;
+
+    @Schema(description = "Ruta del archivo .ser.gz", example = "models/job-3f2a9c1e.ser.gz")
+    private String path;
+
+    @Schema(description = "Tamaño del archivo en bytes", example = "1843200")
+    private Long sizeBytes;
+
+    @Schema(description = "Origen del modelo", example = "training-job")
+    private String source;
+
+    @Schema(description = "ID del trabajo de entrenamiento que lo produjo")
+    private String jobId;
+
+    @Schema(description = "Accuracy (raíz) en el conjunto dev", example = "0.81")
+    private Double devAccuracy;
+
+    @Schema(description = "Hiperparámetros de entrenamiento")
+    private Map<String, Object> hyperparameters;
+
+    @Schema(description = "Indica si es el modelo cargado por defecto")
+    private boolean active;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Fecha de registro")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,70 @@
+package com.example.rntn.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO de respuesta con el estado de un trabajo de entrenamiento
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Estado de un trabajo de entrenamiento RNTN")
+public class TrainingJobResponse {
+
+    @Schema(description = "ID del trabajo", example = "3f2a9c1e")
+    private String jobId;
+
+    @Schema(description = "Origen del trabajo", example = "training-job", allowableValues = {"training-job", "fine-tuning"})
+    private String source;
+
+    @Schema(description = "Estado", example = "RUNNING",
+            allowableValues = {"QUEUED", "RUNNING", "SUCCEEDED", "FAILED", "CANCELLED"})
+    private String status;
+
+    @Schema(description = "Usuario que lanzó el trabajo", example = "admin")
+    private String submittedBy;
+
+    @Schema(description = "Hiperparámetros efectivos")
+    private Map<String, Object> hyperparameters;
+
+    @Schema(description = "Ruta del modelo producido", example = "models/job-3f2a9c1e.ser.gz")
+    private String modelPath;
+
+    @Schema(description = "Épocas completadas", example = "42")
+    private Integer epochsRun;
+
+    @Schema(description = "Accuracy (raíz) en dev del mejor modelo", example = "0.81")
+    private Double devAccuracy;
+
+    @Schema(description = "Árboles por segundo durante el entrenamiento", example = "350.5")
+    private Double treesPerSecond;
+
+    @Schema(description = "Si el entrenamiento terminó por early stopping")
+    private Boolean stoppedEarly;
+
+    @Schema(description = "Mensaje de error si falló")
+    private String error;
+
+    @Schema(description = "Número de la siguiente línea de log")
+    private Long nextLogIndex;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime submittedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime finishedAt;
+}
@@ -18,7 +18,15 @@ import java.time.LocalDateTime;
     @Index(name = "idx_id_personal", columnList = "id_personal"),
     @Index(name = "idx_id_evaluacion", columnList = "id_evaluacion"),
     @Index(name = "idx_fechahora_consulta", columnList = "fechahora_consulta"),
-    @Index(name = "idx_estatus_consulta", columnList = "estatus_consulta")
+    @Index(name = "idx_estatus_consulta", columnList = "estatus_consulta"),
+    @Index(name = "idx_consulta_paciente_fecha_id", columnList = "id_paciente, fechahora_consulta, id_consulta"),
+    @Index(name = "idx_consulta_personal_fecha_id", columnList = "id_personal, fechahora_consulta, id_consulta")
+})
+@NamedEntityGraph(name = Consulta.GRAFO_LISTADO, attributeNodes = {
+    @NamedAttributeNode("paciente"),
+    @NamedAttributeNode("personal"),
+    @NamedAttributeNode("evaluacion"),
+    @NamedAttributeNode("consultaEstatus")
 })
 @Getter
 @Setter
@@ -27,6 +35,12 @@ import java.time.LocalDateTime;
 @Builder
 public class Consulta {
 
+    /**
+     * Grafo de los listados: paciente, personal, evaluación y estatus en el mismo SELECT que la
+     * consulta (todas son relaciones N:1, no multiplican filas)
+     */
+    public static final String GRAFO_LISTADO = "Consulta.listado";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_consulta")
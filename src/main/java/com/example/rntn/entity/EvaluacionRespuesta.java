@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "evaluacion_respuesta", indexes = {
     @Index(name = "idx_id_evaluacion_pregunta", columnList = "id_evaluacion_pregunta"),
-    @Index(name = "idx_label_evaluacion_respuesta", columnList = "label_evaluacion_respuesta")
+    @Index(name = "idx_label_evaluacion_respuesta", columnList = "label_evaluacion_respuesta"),
+    @Index(name = "idx_respuesta_label_confidence", columnList = "label_evaluacion_respuesta, confidence_score"),
+    @Index(name = "idx_respuesta_created_id", columnList = "created_at, id_evaluacion_respuesta"),
+    @Index(name = "idx_respuesta_pregunta_label_confidence",
+           columnList = "id_evaluacion_pregunta, label_evaluacion_respuesta, confidence_score")
 })
 @Getter
 @Setter
@@ -50,6 +54,32 @@ public class EvaluacionRespuesta {
     @Column(name = "confidence_score")
     private Double confidenceScore;
 
+    /**
+     * Versión del modelo que produjo label y confianza (nombre del archivo + hash del contenido)
+     */
+    @Column(name = "model_version", length = 100)
+    private String modelVersion;
+
+    /**
+     * Label asignado por un profesional cuando la predicción del modelo es incorrecta.
+     * Las respuestas corregidas alimentan el fine-tuning incremental del modelo.
+     */
+    @Column(name = "label_corregido_evaluacion_respuesta", length = 50)
+    private String labelCorregidoEvaluacionRespuesta;
+
+    @Column(name = "corregido_por", length = 100)
+    private String corregidoPor;
+
+    @Column(name = "corregido_at")
+    private LocalDateTime corregidoAt;
+
+    /**
+     * Clave de idempotencia del registro (cabecera Idempotency-Key o asignada por el servidor);
+     * evita duplicados cuando la escritura diferida reintenta un lote
+     */
+    @Column(name = "idempotency_key", length = 64, unique = true)
+    private String idempotencyKey;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
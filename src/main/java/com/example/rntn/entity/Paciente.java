@@ -17,7 +17,8 @@ import java.util.List;
 @Entity
 @Table(name = "paciente", indexes = {
     @Index(name = "idx_doc_paciente", columnList = "doc_paciente"),
-    @Index(name = "idx_estatus_paciente", columnList = "estatus_paciente")
+    @Index(name = "idx_estatus_paciente", columnList = "estatus_paciente"),
+    @Index(name = "idx_paciente_created_id", columnList = "created_at, id_paciente")
 })
 @Getter
 @Setter
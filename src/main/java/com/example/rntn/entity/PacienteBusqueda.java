@@ -0,0 +1,50 @@
+package com.example.rntn.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Token normalizado del índice de búsqueda de pacientes (palabra del nombre o documento)
+ * Lo mantiene PacienteBusquedaRepository al crear y actualizar pacientes; JPA solo lo lee
+ */
+@Entity
+@Immutable
+@Table(name = "paciente_busqueda", indexes = {
+    @Index(name = "idx_busqueda_paciente", columnList = "id_paciente")
+})
+@IdClass(PacienteBusqueda.Clave.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PacienteBusqueda {
+
+    public static final String CAMPO_NOMBRE = "N";
+    public static final String CAMPO_DOCUMENTO = "D";
+
+    @Id
+    @Column(name = "token", length = 100)
+    private String token;
+
+    @Id
+    @Column(name = "id_paciente")
+    private Integer idPaciente;
+
+    /**
+     * N = palabra del nombre, D = documento
+     */
+    @Id
+    @Column(name = "campo", columnDefinition = "CHAR(1)")
+    private String campo;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private String token;
+        private Integer idPaciente;
+        private String campo;
+    }
+}
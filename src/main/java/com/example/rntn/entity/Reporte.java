@@ -11,7 +11,14 @@ import java.time.LocalDateTime;
 @Table(name = "reporte", indexes = {
     @Index(name = "idx_id_usuario", columnList = "id_usuario"),
     @Index(name = "idx_id_evaluacion", columnList = "id_evaluacion"),
-    @Index(name = "idx_fechageneracion_reporte", columnList = "fechageneracion_reporte")
+    @Index(name = "idx_fechageneracion_reporte", columnList = "fechageneracion_reporte"),
+    @Index(name = "idx_reporte_created_id", columnList = "created_at, id_reporte")
+})
+@NamedEntityGraph(name = Reporte.GRAFO_LISTADO, attributeNodes = {
+    @NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+    @NamedAttributeNode("evaluacion")
+}, subgraphs = {
+    @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("personal"))
 })
 @Getter
 @Setter
@@ -20,6 +27,13 @@ import java.time.LocalDateTime;
 @Builder
 public class Reporte {
 
+    /**
+     * Grafo de los listados: usuario y evaluación en el mismo SELECT que el reporte. El personal del
+     * usuario va en el subgrafo porque es el lado inverso de un 1:1 y, fuera del grafo, Hibernate lo
+     * leería con un SELECT por usuario; al declarar el subgrafo los roles (EAGER) quedan diferidos.
+     */
+    public static final String GRAFO_LISTADO = "Reporte.listado";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_reporte")
@@ -0,0 +1,61 @@
+package com.example.rntn.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Agregado de respuestas con label por pregunta y label
+ * Lo mantiene SentimientoRollupRepository en cada escritura de EvaluacionRespuesta; JPA solo lo lee
+ */
+@Entity
+@Immutable
+@Table(name = "sentimiento_rollup_pregunta")
+@IdClass(SentimientoRollupPregunta.Clave.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SentimientoRollupPregunta {
+
+    @Id
+    @Column(name = "id_evaluacion_pregunta")
+    private Integer idEvaluacionPregunta;
+
+    @Id
+    @Column(name = "label", length = 50)
+    private String label;
+
+    @Column(name = "total_respuestas", nullable = false)
+    private Long totalRespuestas;
+
+    /**
+     * Respuestas con confidence_score (divisor del promedio)
+     */
+    @Column(name = "total_confianza", nullable = false)
+    private Long totalConfianza;
+
+    @Column(name = "suma_confianza", nullable = false)
+    private Double sumaConfianza;
+
+    @Column(name = "min_confianza")
+    private Double minConfianza;
+
+    @Column(name = "max_confianza")
+    private Double maxConfianza;
+
+    /**
+     * Respuestas SUICIDAL con confianza mayor a SentimentLabel.HIGH_RISK_CONFIDENCE
+     */
+    @Column(name = "alto_riesgo", nullable = false)
+    private Long altoRiesgo;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Integer idEvaluacionPregunta;
+        private String label;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.rntn.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Excepción lanzada cuando vence el plazo de una petición antes de completar el análisis
+ */
+public class DeadlineExceededException extends BusinessException {
+
+    public DeadlineExceededException(String message) {
+        super(message, "Deadline Exceeded", HttpStatus.GATEWAY_TIMEOUT);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.rntn.metrics;
+
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.util.SentimentPredictor;
+import com.example.rntn.util.SentimentPredictorPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas Micrometer del camino de predicción, etiquetadas con la versión del modelo
+ *
+ * - rntn.inference.stage{stage=tokenize|pos|parse|rntn}: tiempo de cada etapa del pipeline
+ * - rntn.inference.pool.wait{lane}: espera por un predictor libre del pool, por carril de prioridad
+ * - rntn.inference.lane.depth{lane}: peticiones esperando un predictor en cada carril
+ * - rntn.inference.queue: espera en cola antes de empezar el análisis (lotes asíncronos)
+ * - rntn.inference.total: análisis completo de un texto
+ * - rntn.inference.tokens / rntn.inference.tree.depth: tamaño de la entrada y del árbol
+ * - rntn.inference.predictions{label}: predicciones por SentimentLabel
+ * - rntn.inference.failures{type}: fallos por tipo
+ * - rntn.deadline.expired{lane,phase}: textos descartados por plazo vencido (queue: antes de
+ *   tokenizar; parse: antes del parse; batch: restantes de un lote cortado)
+ * - rntn.deadline.cpu.saved{lane}: CPU estimada que no se gastó gracias a esos descartes, según el
+ *   coste medio reciente de cada etapa
+ * - rntn.deadline.cpu.wasted{lane}: CPU de predicciones que terminaron con el plazo ya vencido
+ *
+ * Los histogramas para percentiles en Prometheus se activan con
+ * management.metrics.distribution.percentiles-histogram.rntn.inference.
+ */
+@Component
+@RequiredArgsConstructor
+public class InferenceMetrics {
+
+    private static final String MODEL_TAG = "model";
+
+    private final MeterRegistry registry;
+
+    private volatile Meters meters;
+
+    /**
+     * Peso de la última muestra en la media móvil del coste por etapa
+     */
+    private static final double STAGE_COST_ALPHA = 0.05;
+
+    /**
+     * Coste medio reciente (ns) de cada etapa, para estimar la CPU ahorrada al descartar trabajo
+     */
+    private final double[] stageCostNanos = new double[SentimentPredictor.Stage.values().length];
+
+    /**
+     * Medidores de una versión de modelo; se recrean cuando cambia la versión (recarga/promoción)
+     */
+    private final class Meters {
+        final String modelVersion;
+        final Map<SentimentPredictor.Stage, Timer> stages = new EnumMap<>(SentimentPredictor.Stage.class);
+        final Map<SentimentPredictorPool.Lane, Timer> poolWait = new EnumMap<>(SentimentPredictorPool.Lane.class);
+        final Timer queue;
+        final Timer total;
+        final DistributionSummary tokens;
+        final DistributionSummary treeDepth;
+        final Map<SentimentLabel, Counter> predictions = new EnumMap<>(SentimentLabel.class);
+
+        Meters(String modelVersion) {
+            this.modelVersion = modelVersion;
+            for (SentimentPredictor.Stage stage : SentimentPredictor.Stage.values()) {
+                stages.put(stage, Timer.builder("rntn.inference.stage")
+                    .description("Tiempo por etapa del pipeline de inferencia")
+                    .tag("stage", stage.name().toLowerCase())
+                    .tag(MODEL_TAG, modelVersion)
+                    .register(registry));
+            }
+            for (SentimentPredictorPool.Lane lane : SentimentPredictorPool.Lane.values()) {
+                poolWait.put(lane, Timer.builder("rntn.inference.pool.wait")
+                    .description("Espera por un predictor libre del pool")
+                    .tag("lane", lane.name().toLowerCase())
+                    .tag(MODEL_TAG, modelVersion)
+                    .register(registry));
+            }
+            queue = Timer.builder("rntn.inference.queue")
+                .description("Espera en cola antes de iniciar el análisis")
+                .tag(MODEL_TAG, modelVersion)
+                .register(registry);
+            total = Timer.builder("rntn.inference.total")
+                .description("Análisis completo de un texto")
+                .tag(MODEL_TAG, modelVersion)
+                .register(registry);
+            tokens = DistributionSummary.builder("rntn.inference.tokens")
+                .description("Tokens de la oración analizada")
+                .baseUnit("tokens")
+                .tag(MODEL_TAG, modelVersion)
+                .register(registry);
+            treeDepth = DistributionSummary.builder("rntn.inference.tree.depth")
+                .description("Profundidad del árbol de parse")
+                .tag(MODEL_TAG, modelVersion)
+                .register(registry);
+            for (SentimentLabel label : SentimentLabel.values()) {
+                predictions.put(label, Counter.builder("rntn.inference.predictions")
+                    .description("Predicciones por label")
+                    .tag("label", label.name())
+                    .tag(MODEL_TAG, modelVersion)
+                    .register(registry));
+            }
+        }
+    }
+
+    private Meters meters(String modelVersion) {
+        String version = modelVersion != null ? modelVersion : "unknown";
+        Meters current = meters;
+        if (current == null || !current.modelVersion.equals(version)) {
+            current = new Meters(version);
+            meters = current;
+        }
+        return current;
+    }
+
+    /**
+     * Listener de etapas para SentimentPredictor.predict
+     */
+    public SentimentPredictor.StageListener stageListener(String modelVersion) {
+        Meters m = meters(modelVersion);
+        return (stage, nanos) -> {
+            m.stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+            updateStageCost(stage, nanos);
+        };
+    }
+
+    private synchronized void updateStageCost(SentimentPredictor.Stage stage, long nanos) {
+        double current = stageCostNanos[stage.ordinal()];
+        stageCostNanos[stage.ordinal()] = current == 0 ? nanos : current + STAGE_COST_ALPHA * (nanos - current);
+    }
+
+    /**
+     * Coste estimado (ns) de un texto a partir de la etapa indicada
+     */
+    private synchronized double estimatedCostNanos(SentimentPredictor.Stage from) {
+        double cost = 0;
+        for (int i = from.ordinal(); i < stageCostNanos.length; i++) {
+            cost += stageCostNanos[i];
+        }
+        return cost;
+    }
+
+    /**
+     * Registra la profundidad de cola de cada carril del pool activo; el proveedor se consulta en
+     * cada lectura, así que sigue al pool nuevo tras una recarga del modelo
+     */
+    public void registerLaneGauges(Supplier<SentimentPredictorPool> pool) {
+        for (SentimentPredictorPool.Lane lane : SentimentPredictorPool.Lane.values()) {
+            Gauge.builder("rntn.inference.lane.depth", () -> {
+                    SentimentPredictorPool current = pool.get();
+                    return current != null ? current.getQueueDepth(lane) : 0;
+                })
+                .description("Peticiones esperando un predictor en el carril")
+                .tag("lane", lane.name().toLowerCase())
+                .register(registry);
+        }
+    }
+
+    public void recordPoolWait(String modelVersion, SentimentPredictorPool.Lane lane, long nanos) {
+        meters(modelVersion).poolWait.get(lane).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordQueue(String modelVersion, long nanos) {
+        meters(modelVersion).queue.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPrediction(String modelVersion, SentimentPredictor.Prediction prediction,
+                                 SentimentLabel label, long totalNanos) {
+        Meters m = meters(modelVersion);
+        m.total.record(totalNanos, TimeUnit.NANOSECONDS);
+        m.tokens.record(prediction.tokens());
+        m.treeDepth.record(prediction.treeDepth());
+        m.predictions.get(label).increment();
+    }
+
+    /**
+     * Cuenta {@code items} textos descartados por plazo vencido en la fase indicada (queue, parse o
+     * batch) y suma la CPU estimada que se ahorró al no analizarlos
+     */
+    public void recordDeadlineExpired(SentimentPredictorPool.Lane lane, String phase, int items) {
+        String laneTag = lane.name().toLowerCase();
+        registry.counter("rntn.deadline.expired", "lane", laneTag, "phase", phase).increment(items);
+        SentimentPredictor.Stage from = "parse".equals(phase) ? SentimentPredictor.Stage.PARSE : SentimentPredictor.Stage.TOKENIZE;
+        Counter.builder("rntn.deadline.cpu.saved")
+            .description("CPU estimada ahorrada al descartar trabajo con el plazo vencido")
+            .baseUnit("seconds")
+            .tag("lane", laneTag)
+            .register(registry)
+            .increment(items * estimatedCostNanos(from) / 1e9);
+    }
+
+    /**
+     * Suma la CPU de una predicción que terminó con el plazo ya vencido
+     */
+    public void recordDeadlineWasted(SentimentPredictorPool.Lane lane, long nanos) {
+        Counter.builder("rntn.deadline.cpu.wasted")
+            .description("CPU gastada en predicciones que terminaron con el plazo vencido")
+            .baseUnit("seconds")
+            .tag("lane", lane.name().toLowerCase())
+            .register(registry)
+            .increment(nanos / 1e9);
+    }
+
+    /**
+     * Cuenta un fallo de predicción; {@code type} es un valor acotado (p.ej. empty_text, no_sentence,
+     * interrupted o el nombre simple de la excepción)
+     */
+    public void recordFailure(String modelVersion, String type) {
+        registry.counter("rntn.inference.failures", "type", type,
+            MODEL_TAG, modelVersion != null ? modelVersion : "unknown").increment();
+    }
+}
@@ -17,6 +17,11 @@ public enum SentimentLabel {
     SADNESS(3, "Sadness", "Sad or depressed state", "MEDIO"),
     FRUSTRATION(4, "Frustration", "Frustrated state", "BAJO");
 
+    /**
+     * Confianza a partir de la cual una predicción SUICIDAL cuenta como alerta de alto riesgo
+     */
+    public static final double HIGH_RISK_CONFIDENCE = 0.7;
+
     private final int index;
     private final String name;
     private final String description;
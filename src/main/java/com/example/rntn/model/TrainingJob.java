@@ -0,0 +1,115 @@
+package com.example.rntn.model;
+
+import com.example.rntn.TrainingOptions;
+import com.example.rntn.TrainingResult;
+import com.example.rntn.TrainingRunner;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Estado en memoria de un trabajo de entrenamiento asíncrono
+ *
+ * Guarda las últimas líneas de log en un buffer acotado; cada línea tiene un número de secuencia
+ * para que los clientes puedan pedir solo las líneas nuevas.
+ */
+@Getter
+public class TrainingJob {
+
+    private final String id;
+    private final TrainingOptions options;
+    private final String submittedBy;
+    /**
+     * Origen del trabajo, registrado como source del modelo producido ("training-job", "fine-tuning")
+     */
+    private final String source;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final int maxLogLines;
+
+    @Setter
+    private volatile TrainingJobStatus status = TrainingJobStatus.QUEUED;
+    @Setter
+    private volatile LocalDateTime startedAt;
+    @Setter
+    private volatile LocalDateTime finishedAt;
+    @Setter
+    private volatile TrainingResult result;
+    @Setter
+    private volatile String error;
+    @Setter
+    private volatile TrainingRunner runner;
+    @Setter
+    private volatile Future<?> future;
+    @Setter
+    private volatile boolean cancelRequested;
+
+    /**
+     * Datos adicionales que se registran junto a los hiperparámetros del modelo producido
+     */
+    private final Map<String, Object> metadata = new ConcurrentHashMap<>();
+
+    private final Deque<String> logLines = new ArrayDeque<>();
+    private long firstLogIndex;
+    private final List<Consumer<String>> logListeners = new CopyOnWriteArrayList<>();
+
+    public TrainingJob(String id, TrainingOptions options, String submittedBy, String source, int maxLogLines) {
+        this.id = id;
+        this.options = options;
+        this.submittedBy = submittedBy;
+        this.source = source;
+        this.maxLogLines = maxLogLines;
+    }
+
+    public void appendLog(String line) {
+        synchronized (logLines) {
+            logLines.addLast(line);
+            if (logLines.size() > maxLogLines) {
+                logLines.removeFirst();
+                firstLogIndex++;
+            }
+        }
+        for (Consumer<String> listener : logListeners) {
+            listener.accept(line);
+        }
+    }
+
+    /**
+     * Líneas de log con número de secuencia >= from (las más antiguas pueden haberse descartado)
+     */
+    public List<String> logsFrom(long from) {
+        synchronized (logLines) {
+            List<String> lines = new ArrayList<>();
+            long index = firstLogIndex;
+            for (String line : logLines) {
+                if (index++ >= from) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        }
+    }
+
+    public long nextLogIndex() {
+        synchronized (logLines) {
+            return firstLogIndex + logLines.size();
+        }
+    }
+
+    public void addLogListener(Consumer<String> listener) {
+        logListeners.add(listener);
+    }
+
+    public void removeLogListener(Consumer<String> listener) {
+        logListeners.remove(listener);
+    }
+}
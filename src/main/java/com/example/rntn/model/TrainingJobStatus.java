@@ -0,0 +1,16 @@
+package com.example.rntn.model;
+
+/**
+ * Estados de un trabajo de entrenamiento RNTN
+ */
+public enum TrainingJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
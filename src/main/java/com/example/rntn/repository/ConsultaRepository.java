@@ -3,6 +3,7 @@ package com.example.rntn.repository;
 import com.example.rntn.entity.Consulta;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,21 +22,25 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Integer> {
     /**
      * Obtiene consultas de un paciente específico
      */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
     Page<Consulta> findByPacienteIdPaciente(Integer idPaciente, Pageable pageable);
 
     /**
      * Obtiene consultas atendidas por un personal específico
      */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
     Page<Consulta> findByPersonalIdPersonal(Integer idPersonal, Pageable pageable);
 
     /**
      * Obtiene consultas por estado
      */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
     Page<Consulta> findByEstatusConsulta(String estatus, Pageable pageable);
 
     /**
      * Consultas de un paciente en un rango de fechas
      */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
     @Query("SELECT c FROM Consulta c WHERE " +
            "c.paciente.idPaciente = :idPaciente AND " +
            "c.fechahoraConsulta BETWEEN :desde AND :hasta")
@@ -59,9 +64,88 @@ public interface ConsultaRepository extends JpaRepository<Consulta, Integer> {
      */
     List<Consulta> findByEvaluacionIdEvaluacion(Integer idEvaluacion);
 
+    /**
+     * Paciente y profesional de cada consulta que usa una evaluación, en orden cronológico
+     */
+    @Query("SELECT c.idConsulta, c.fechahoraConsulta, p.nombrePaciente, per.nombrePersonal " +
+           "FROM Consulta c JOIN c.paciente p JOIN c.personal per " +
+           "WHERE c.evaluacion.idEvaluacion = :idEvaluacion " +
+           "ORDER BY c.fechahoraConsulta")
+    List<Object[]> findResumenByEvaluacion(@Param("idEvaluacion") Integer idEvaluacion);
+
     /**
      * Consultas en un rango de fechas (sin paginación)
      */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
     List<Consulta> findByFechahoraConsultaBetween(LocalDateTime desde, LocalDateTime hasta);
-}
 
+    /**
+     * Primera página de las consultas de un paciente por cursor, con rango de fechas opcional
+     * (null = sin límite)
+     */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
+    @Query("SELECT c FROM Consulta c WHERE c.paciente.idPaciente = :idPaciente " +
+           "AND (:desde IS NULL OR c.fechahoraConsulta >= :desde) " +
+           "AND (:hasta IS NULL OR c.fechahoraConsulta <= :hasta) " +
+           "ORDER BY c.fechahoraConsulta DESC, c.idConsulta DESC")
+    List<Consulta> findPrimeraPaginaPorPaciente(
+        @Param("idPaciente") Integer idPaciente,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        Pageable pageable
+    );
+
+    /**
+     * Página siguiente de las consultas de un paciente: anteriores a (fechahoraConsulta, id)
+     */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
+    @Query("SELECT c FROM Consulta c WHERE c.paciente.idPaciente = :idPaciente " +
+           "AND (:desde IS NULL OR c.fechahoraConsulta >= :desde) " +
+           "AND (:hasta IS NULL OR c.fechahoraConsulta <= :hasta) " +
+           "AND (c.fechahoraConsulta < :fecha OR (c.fechahoraConsulta = :fecha AND c.idConsulta < :id)) " +
+           "ORDER BY c.fechahoraConsulta DESC, c.idConsulta DESC")
+    List<Consulta> findPaginaPorPacienteDespuesDe(
+        @Param("idPaciente") Integer idPaciente,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("fecha") LocalDateTime fecha,
+        @Param("id") Integer id,
+        Pageable pageable
+    );
+
+    /**
+     * Primera página de las consultas de un personal por cursor
+     */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
+    @Query("SELECT c FROM Consulta c WHERE c.personal.idPersonal = :idPersonal " +
+           "ORDER BY c.fechahoraConsulta DESC, c.idConsulta DESC")
+    List<Consulta> findPrimeraPaginaPorPersonal(@Param("idPersonal") Integer idPersonal, Pageable pageable);
+
+    /**
+     * Página siguiente de las consultas de un personal: anteriores a (fechahoraConsulta, id)
+     */
+    @EntityGraph(Consulta.GRAFO_LISTADO)
+    @Query("SELECT c FROM Consulta c WHERE c.personal.idPersonal = :idPersonal " +
+           "AND (c.fechahoraConsulta < :fecha OR (c.fechahoraConsulta = :fecha AND c.idConsulta < :id)) " +
+           "ORDER BY c.fechahoraConsulta DESC, c.idConsulta DESC")
+    List<Consulta> findPaginaPorPersonalDespuesDe(
+        @Param("idPersonal") Integer idPersonal,
+        @Param("fecha") LocalDateTime fecha,
+        @Param("id") Integer id,
+        Pageable pageable
+    );
+
+    /**
+     * Total de consultas de un paciente con rango de fechas opcional (solo si el cliente lo pide)
+     */
+    @Query("SELECT COUNT(c) FROM Consulta c WHERE c.paciente.idPaciente = :idPaciente " +
+           "AND (:desde IS NULL OR c.fechahoraConsulta >= :desde) " +
+           "AND (:hasta IS NULL OR c.fechahoraConsulta <= :hasta)")
+    long countPorPaciente(
+        @Param("idPaciente") Integer idPaciente,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    long countByPersonalIdPersonal(Integer idPersonal);
+}
@@ -0,0 +1,217 @@
+package com.example.rntn.repository;
+
+import com.example.rntn.entity.EvaluacionRespuesta;
+import com.example.rntn.util.JdbcStreaming;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Inserciones masivas de EvaluacionRespuesta con JDBC batch
+ *
+ * La entidad usa GenerationType.IDENTITY, con lo que Hibernate inserta fila por fila aunque
+ * hibernate.jdbc.batch_size esté configurado. Aquí se envían todas las filas en un único
+ * executeBatch (con rewriteBatchedStatements=true el driver de MySQL lo convierte en INSERTs
+ * multi-fila) y se recuperan los IDs autogenerados.
+ *
+ * insertarLoteIdempotente es la variante de la escritura diferida: una fila cuya idempotency_key ya
+ * existe se ignora, de modo que reintentar un lote no duplica respuestas.
+ *
+ * Ambas suman las filas insertadas a los rollups de sentimiento en la misma transacción.
+ *
+ * recorrerPorLabel es la lectura en streaming de los listados por label: las filas se entregan una a
+ * una desde un cursor de solo avance (memoria constante), como en TrainingDataExporter.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EvaluacionRespuestaJdbcRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO evaluacion_respuesta (id_evaluacion_pregunta, texto_evaluacion_respuesta, " +
+        "texto_set_evaluacion_respuesta, label_evaluacion_respuesta, confidence_score, model_version, " +
+        "idempotency_key, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_IDEMPOTENT_SQL = INSERT_SQL +
+        " ON DUPLICATE KEY UPDATE id_evaluacion_respuesta = id_evaluacion_respuesta";
+
+    private static final String LISTADO_SQL =
+        "SELECT r.id_evaluacion_respuesta, p.id_evaluacion_pregunta, p.texto_evaluacion_pregunta, " +
+        "r.texto_evaluacion_respuesta, r.texto_set_evaluacion_respuesta, r.label_evaluacion_respuesta, " +
+        "r.confidence_score, r.label_corregido_evaluacion_respuesta, r.corregido_por, r.created_at, " +
+        "r.idempotency_key " +
+        "FROM evaluacion_respuesta r " +
+        "JOIN evaluacion_pregunta p ON p.id_evaluacion_pregunta = r.id_evaluacion_pregunta ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SentimientoRollupRepository rollupRepository;
+
+    /**
+     * Inserta las respuestas en un solo batch y asigna a cada una su ID y fecha de creación
+     *
+     * @param respuestas Respuestas nuevas (sin ID), con su pregunta asignada
+     */
+    @Transactional
+    public void insertarLote(List<EvaluacionRespuesta> respuestas) {
+        if (respuestas.isEmpty()) {
+            return;
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            setter(respuestas, createdAt),
+            keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != respuestas.size()) {
+            throw new IllegalStateException("Se esperaban " + respuestas.size() + " IDs generados y se obtuvieron " + keys.size());
+        }
+        for (int i = 0; i < respuestas.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            respuestas.get(i).setIdEvaluacionRespuesta(id.intValue());
+            respuestas.get(i).setCreatedAt(createdAt);
+        }
+        rollupRepository.sumar(respuestas);
+    }
+
+    /**
+     * Inserta las respuestas en un solo batch ignorando las que ya existen con la misma
+     * idempotency_key. Conserva el created_at de cada respuesta (momento en que se aceptó).
+     */
+    @Transactional
+    public void insertarLoteIdempotente(List<EvaluacionRespuesta> respuestas) {
+        if (respuestas.isEmpty()) {
+            return;
+        }
+        // Solo las claves que aún no están en BD (ni repetidas en el lote) cuentan para los rollups
+        Map<String, EvaluacionRespuesta> porClave = new LinkedHashMap<>();
+        List<EvaluacionRespuesta> nuevas = new ArrayList<>(respuestas.size());
+        for (EvaluacionRespuesta r : respuestas) {
+            if (r.getIdempotencyKey() == null) {
+                nuevas.add(r);
+            } else {
+                porClave.putIfAbsent(r.getIdempotencyKey(), r);
+            }
+        }
+        if (!porClave.isEmpty()) {
+            List<String> existentes = jdbcTemplate.queryForList(
+                "SELECT idempotency_key FROM evaluacion_respuesta WHERE idempotency_key IN (" +
+                String.join(",", Collections.nCopies(porClave.size(), "?")) + ")",
+                String.class, porClave.keySet().toArray());
+            existentes.forEach(porClave::remove);
+            nuevas.addAll(porClave.values());
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (EvaluacionRespuesta r : nuevas) {
+            if (r.getCreatedAt() == null) {
+                r.setCreatedAt(now);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_IDEMPOTENT_SQL, setter(nuevas, now));
+        rollupRepository.sumar(nuevas);
+    }
+
+    private static BatchPreparedStatementSetter setter(List<EvaluacionRespuesta> respuestas, LocalDateTime defaultCreatedAt) {
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                EvaluacionRespuesta r = respuestas.get(i);
+                ps.setInt(1, r.getEvaluacionPregunta().getIdEvaluacionPregunta());
+                ps.setString(2, r.getTextoEvaluacionRespuesta());
+                ps.setString(3, r.getTextoSetEvaluacionRespuesta());
+                ps.setString(4, r.getLabelEvaluacionRespuesta());
+                if (r.getConfidenceScore() != null) {
+                    ps.setDouble(5, r.getConfidenceScore());
+                } else {
+                    ps.setNull(5, Types.DOUBLE);
+                }
+                ps.setString(6, r.getModelVersion());
+                ps.setString(7, r.getIdempotencyKey());
+                ps.setTimestamp(8, Timestamp.valueOf(r.getCreatedAt() != null ? r.getCreatedAt() : defaultCreatedAt));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return respuestas.size();
+            }
+        };
+    }
+
+    /**
+     * Recorre las respuestas de un label, de mayor a menor confianza (orden de
+     * idx_respuesta_label_confidence), entregando cada fila al consumidor según llega
+     *
+     * @param label          Label de sentimiento
+     * @param confianzaMinima Solo respuestas con confianza mayor a este valor (null = todas)
+     * @param fetchSize      Filas por ida y vuelta en drivers que respetan un fetch size positivo
+     */
+    public void recorrerPorLabel(String label, Double confianzaMinima, int fetchSize,
+                                 Consumer<EvaluacionRespuestaRepository.RespuestaListado> consumidor) {
+        String sql = LISTADO_SQL + "WHERE r.label_evaluacion_respuesta = ?" +
+            (confianzaMinima != null ? " AND r.confidence_score > ?" : "") +
+            " ORDER BY r.confidence_score DESC, r.id_evaluacion_respuesta DESC";
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(JdbcStreaming.fetchSize(con, fetchSize));
+            ps.setString(1, label);
+            if (confianzaMinima != null) {
+                ps.setDouble(2, confianzaMinima);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumidor.accept(new FilaListado(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getObject(7, Double.class),
+            rs.getString(8),
+            rs.getString(9),
+            rs.getTimestamp(10).toLocalDateTime(),
+            rs.getString(11))));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class FilaListado implements EvaluacionRespuestaRepository.RespuestaListado {
+        private final Integer idEvaluacionRespuesta;
+        private final Integer idEvaluacionPregunta;
+        private final String textoPregunta;
+        private final String textoEvaluacionRespuesta;
+        private final String textoSetEvaluacionRespuesta;
+        private final String labelEvaluacionRespuesta;
+        private final Double confidenceScore;
+        private final String labelCorregidoEvaluacionRespuesta;
+        private final String corregidoPor;
+        private final LocalDateTime createdAt;
+        private final String idempotencyKey;
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.rntn.repository;
 
 import com.example.rntn.entity.EvaluacionRespuesta;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para EvaluacionRespuesta
@@ -16,52 +21,187 @@ import java.util.Map;
 @Repository
 public interface EvaluacionRespuestaRepository extends JpaRepository<EvaluacionRespuesta, Integer> {
 
+    /**
+     * Fila de un listado de respuestas con el texto de su pregunta, leída en una sola consulta
+     * con JOIN (sin cargar entidades ni disparar el lazy load de la pregunta por fila)
+     */
+    interface RespuestaListado {
+        Integer getIdEvaluacionRespuesta();
+
+        Integer getIdEvaluacionPregunta();
+
+        String getTextoPregunta();
+
+        String getTextoEvaluacionRespuesta();
+
+        String getTextoSetEvaluacionRespuesta();
+
+        String getLabelEvaluacionRespuesta();
+
+        Double getConfidenceScore();
+
+        String getLabelCorregidoEvaluacionRespuesta();
+
+        String getCorregidoPor();
+
+        LocalDateTime getCreatedAt();
+
+        String getIdempotencyKey();
+    }
+
+    /**
+     * SELECT y FROM comunes de las consultas que devuelven RespuestaListado
+     */
+    String LISTADO_SELECT =
+        "SELECT er.idEvaluacionRespuesta AS idEvaluacionRespuesta, " +
+        "p.idEvaluacionPregunta AS idEvaluacionPregunta, p.textoEvaluacionPregunta AS textoPregunta, " +
+        "er.textoEvaluacionRespuesta AS textoEvaluacionRespuesta, " +
+        "er.textoSetEvaluacionRespuesta AS textoSetEvaluacionRespuesta, " +
+        "er.labelEvaluacionRespuesta AS labelEvaluacionRespuesta, er.confidenceScore AS confidenceScore, " +
+        "er.labelCorregidoEvaluacionRespuesta AS labelCorregidoEvaluacionRespuesta, " +
+        "er.corregidoPor AS corregidoPor, er.createdAt AS createdAt, er.idempotencyKey AS idempotencyKey " +
+        "FROM EvaluacionRespuesta er JOIN er.evaluacionPregunta p ";
+
+    /**
+     * Página de respuestas para el listado con offset (orden y tamaño del Pageable)
+     */
+    @Query(value = LISTADO_SELECT,
+           countQuery = "SELECT COUNT(er) FROM EvaluacionRespuesta er")
+    Page<RespuestaListado> findListado(Pageable pageable);
+
     /**
      * Obtiene todas las respuestas de una pregunta específica
      */
-    List<EvaluacionRespuesta> findByEvaluacionPreguntaIdEvaluacionPregunta(Integer idPregunta);
+    @Query(LISTADO_SELECT + "WHERE p.idEvaluacionPregunta = :idPregunta ORDER BY er.idEvaluacionRespuesta")
+    List<RespuestaListado> findListadoByPregunta(@Param("idPregunta") Integer idPregunta);
+
+    /**
+     * Respuesta registrada con una clave de idempotencia
+     */
+    Optional<EvaluacionRespuesta> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Respuestas de un label de sentimiento (ANXIETY, SUICIDAL, etc.), de mayor a menor confianza;
+     * el Pageable acota el resultado (top-N sobre idx_respuesta_label_confidence)
+     */
+    @Query(LISTADO_SELECT + "WHERE er.labelEvaluacionRespuesta = :label " +
+           "ORDER BY er.confidenceScore DESC, er.idEvaluacionRespuesta DESC")
+    List<RespuestaListado> findByLabel(@Param("label") String label, Pageable pageable);
 
     /**
-     * Busca respuestas por label de sentimiento (ANXIETY, SUICIDAL, etc.)
+     * Total de respuestas (analizadas o no) de un conjunto de preguntas
      */
-    @Query("SELECT er FROM EvaluacionRespuesta er WHERE er.labelEvaluacionRespuesta = :label")
-    List<EvaluacionRespuesta> findByLabel(@Param("label") String label);
+    long countByEvaluacionPreguntaIdEvaluacionPreguntaIn(Collection<Integer> preguntaIds);
 
     /**
-     * Cuenta respuestas agrupadas por label para un conjunto de preguntas
-     * Útil para generar reportes y estadísticas
+     * Alerta de riesgo sin cargar la entidad: ID, texto truncado y confianza
      */
-    @Query("SELECT er.labelEvaluacionRespuesta, COUNT(er) FROM EvaluacionRespuesta er " +
+    interface AlertaResumen {
+        Integer getIdEvaluacionRespuesta();
+
+        Integer getIdEvaluacionPregunta();
+
+        /**
+         * Primeros ALERTA_TEXTO_MAX caracteres de la respuesta
+         */
+        String getTexto();
+
+        Integer getLongitudTexto();
+
+        Double getConfidenceScore();
+    }
+
+    /**
+     * Longitud máxima del texto en AlertaResumen
+     */
+    int ALERTA_TEXTO_MAX = 200;
+
+    /**
+     * Página de alertas SUICIDAL con confianza > umbral de un conjunto de preguntas, de mayor a
+     * menor confianza; Slice no lanza la consulta de conteo
+     */
+    @Query("SELECT er.idEvaluacionRespuesta AS idEvaluacionRespuesta, " +
+           "er.evaluacionPregunta.idEvaluacionPregunta AS idEvaluacionPregunta, " +
+           "SUBSTRING(er.textoEvaluacionRespuesta, 1, " + ALERTA_TEXTO_MAX + ") AS texto, " +
+           "LENGTH(er.textoEvaluacionRespuesta) AS longitudTexto, " +
+           "er.confidenceScore AS confidenceScore " +
+           "FROM EvaluacionRespuesta er " +
            "WHERE er.evaluacionPregunta.idEvaluacionPregunta IN :preguntaIds " +
-           "GROUP BY er.labelEvaluacionRespuesta")
-    List<Object[]> countByLabelForPreguntas(@Param("preguntaIds") List<Integer> preguntaIds);
+           "AND er.labelEvaluacionRespuesta = 'SUICIDAL' AND er.confidenceScore > :threshold " +
+           "ORDER BY er.confidenceScore DESC, er.idEvaluacionRespuesta")
+    Slice<AlertaResumen> findAlertasForPreguntas(@Param("preguntaIds") Collection<Integer> preguntaIds,
+                                                 @Param("threshold") Double threshold,
+                                                 Pageable pageable);
 
     /**
-     * Busca respuestas con riesgo alto (SUICIDAL con confianza > umbral)
+     * Respuestas con riesgo alto (SUICIDAL con confianza > umbral), de mayor a menor confianza;
+     * el Pageable acota el resultado (top-N sobre idx_respuesta_label_confidence)
      */
-    @Query("SELECT er FROM EvaluacionRespuesta er " +
+    @Query(LISTADO_SELECT +
            "WHERE er.labelEvaluacionRespuesta = 'SUICIDAL' " +
            "AND er.confidenceScore > :threshold " +
-           "ORDER BY er.confidenceScore DESC")
-    List<EvaluacionRespuesta> findHighRiskResponses(@Param("threshold") Double threshold);
+           "ORDER BY er.confidenceScore DESC, er.idEvaluacionRespuesta DESC")
+    List<RespuestaListado> findHighRiskResponses(@Param("threshold") Double threshold, Pageable pageable);
 
     /**
-     * Llama al stored procedure para obtener estadísticas agregadas
-     * @param respuestaIds IDs separados por coma: "1,2,3,4,5"
+     * Texto y label corregido de las respuestas corregidas por profesionales,
+     * en orden de corrección (datos de fine-tuning)
      */
-    @Query(value = "CALL sp_get_sentiment_aggregate_stats(:respuestaIds)", nativeQuery = true)
-    List<Map<String, Object>> getAggregateStats(@Param("respuestaIds") String respuestaIds);
+    @Query("SELECT er.textoEvaluacionRespuesta, er.labelCorregidoEvaluacionRespuesta FROM EvaluacionRespuesta er " +
+           "WHERE er.labelCorregidoEvaluacionRespuesta IS NOT NULL " +
+           "ORDER BY er.corregidoAt, er.idEvaluacionRespuesta")
+    List<Object[]> findCorrectedLabels();
 
     /**
-     * Obtiene distribución de sentimientos por evaluación
+     * Cuenta respuestas con label corregido
      */
-    @Query(value = "CALL sp_get_sentiment_distribution_by_evaluation(:idEvaluacion)", nativeQuery = true)
-    List<Map<String, Object>> getDistributionByEvaluation(@Param("idEvaluacion") Long idEvaluacion);
+    long countByLabelCorregidoEvaluacionRespuestaIsNotNull();
 
     /**
-     * Obtiene alertas de alto riesgo en los últimos N días
+     * Cuenta respuestas corregidas después de una fecha
      */
-    @Query(value = "CALL sp_get_high_risk_alerts(:daysBack)", nativeQuery = true)
-    List<Map<String, Object>> getHighRiskAlerts(@Param("daysBack") Integer daysBack);
-}
+    long countByCorregidoAtAfter(LocalDateTime fecha);
 
+    /**
+     * Estadísticas por label de un bloque de respuestas: label, total, confianza mínima, máxima,
+     * suma y número de confianzas no nulas, y alertas de alto riesgo (SUICIDAL con confianza
+     * mayor al umbral). Los bloques se combinan en SentimentAggregateService.
+     */
+    @Query("SELECT er.labelEvaluacionRespuesta, COUNT(er), MIN(er.confidenceScore), MAX(er.confidenceScore), " +
+           "SUM(er.confidenceScore), COUNT(er.confidenceScore), " +
+           "SUM(CASE WHEN er.labelEvaluacionRespuesta = 'SUICIDAL' AND er.confidenceScore > :threshold THEN 1 ELSE 0 END) " +
+           "FROM EvaluacionRespuesta er " +
+           "WHERE er.idEvaluacionRespuesta IN :ids AND er.labelEvaluacionRespuesta IS NOT NULL " +
+           "GROUP BY er.labelEvaluacionRespuesta")
+    List<Object[]> aggregateByLabel(@Param("ids") Collection<Integer> ids, @Param("threshold") Double threshold);
+
+    /**
+     * Respuestas SUICIDAL con confianza mayor al umbral creadas desde una fecha, con su pregunta
+     */
+    @Query("SELECT er.idEvaluacionRespuesta, er.textoEvaluacionRespuesta, er.labelEvaluacionRespuesta, " +
+           "er.confidenceScore, er.createdAt, p.idEvaluacionPregunta, p.textoEvaluacionPregunta " +
+           "FROM EvaluacionRespuesta er JOIN er.evaluacionPregunta p " +
+           "WHERE er.labelEvaluacionRespuesta = 'SUICIDAL' AND er.confidenceScore > :threshold " +
+           "AND er.createdAt >= :desde " +
+           "ORDER BY er.confidenceScore DESC, er.createdAt DESC")
+    List<Object[]> findHighRiskAlerts(@Param("threshold") Double threshold, @Param("desde") LocalDateTime desde);
+
+    /**
+     * Primera página del listado por cursor: más recientes primero, con su pregunta
+     * (el límite lo da el Pageable, sin COUNT)
+     */
+    @Query(LISTADO_SELECT + "ORDER BY er.createdAt DESC, er.idEvaluacionRespuesta DESC")
+    List<RespuestaListado> findPrimeraPagina(Pageable pageable);
+
+    /**
+     * Página siguiente del listado por cursor: respuestas anteriores a (createdAt, id)
+     */
+    @Query(LISTADO_SELECT +
+           "WHERE er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.idEvaluacionRespuesta < :id) " +
+           "ORDER BY er.createdAt DESC, er.idEvaluacionRespuesta DESC")
+    List<RespuestaListado> findPaginaDespuesDe(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Integer id,
+        Pageable pageable
+    );
+}
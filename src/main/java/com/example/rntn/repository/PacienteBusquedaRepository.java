@@ -0,0 +1,194 @@
+package com.example.rntn.repository;
+
+import com.example.rntn.entity.PacienteBusqueda;
+import com.example.rntn.util.SearchTokens;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantenimiento y consulta del índice de búsqueda de pacientes (paciente_busqueda)
+ *
+ * Cada paciente tiene un token por palabra de su nombre y uno con su documento, normalizados con
+ * SearchTokens (minúsculas, sin acentos). Un término de búsqueda es un rango de prefijo sobre la
+ * clave primaria (token LIKE 'termino%'; los términos de menos de SearchTokens.MIN_PREFIX_LENGTH
+ * letras solo coinciden con el token completo); un paciente aparece si todos los términos coinciden
+ * con alguno de sus tokens. Relevancia por término: documento exacto 10, palabra exacta 3,
+ * prefijo 1; los resultados se ordenan por la suma. La búsqueda parte del término más selectivo y
+ * considera como mucho MAX_CANDIDATOS pacientes. Todos los métodos exigen una transacción abierta.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class PacienteBusquedaRepository {
+
+    /**
+     * Pacientes candidatos por búsqueda: acota el recorrido del término más selectivo, y con él la
+     * relevancia y el total, que se calculan sobre estos candidatos
+     */
+    public static final int MAX_CANDIDATOS = 10_000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO paciente_busqueda (token, id_paciente, campo) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reemplaza los tokens de un paciente por los de su nombre y documento actuales
+     */
+    public void indexar(Integer idPaciente, String nombre, String documento) {
+        jdbcTemplate.update("DELETE FROM paciente_busqueda WHERE id_paciente = ?", idPaciente);
+        jdbcTemplate.batchUpdate(INSERT_SQL, filas(idPaciente, nombre, documento));
+    }
+
+    /**
+     * Reindexa un bloque de pacientes [desdeId, hastaId]; usado por la reconstrucción
+     *
+     * @param pacientes Filas (id_paciente, nombre_paciente, doc_paciente) del bloque
+     */
+    public void indexarBloque(Integer desdeId, Integer hastaId, List<Object[]> pacientes) {
+        jdbcTemplate.update("DELETE FROM paciente_busqueda WHERE id_paciente BETWEEN ? AND ?", desdeId, hastaId);
+        List<Object[]> filas = new ArrayList<>();
+        for (Object[] p : pacientes) {
+            filas.addAll(filas((Integer) p[0], (String) p[1], (String) p[2]));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, filas);
+    }
+
+    /**
+     * Siguiente bloque de pacientes por ID, en orden: (id_paciente, nombre_paciente, doc_paciente)
+     */
+    public List<Object[]> leerPacientes(Integer despuesDeId, int limite) {
+        return jdbcTemplate.query(
+            "SELECT id_paciente, nombre_paciente, doc_paciente FROM paciente " +
+            "WHERE id_paciente > ? ORDER BY id_paciente LIMIT ?",
+            (rs, i) -> new Object[]{rs.getInt(1), rs.getString(2), rs.getString(3)},
+            despuesDeId, limite);
+    }
+
+    public boolean estaVacio() {
+        return jdbcTemplate.queryForList("SELECT id_paciente FROM paciente_busqueda LIMIT 1", Integer.class).isEmpty();
+    }
+
+    /**
+     * IDs de los pacientes que coinciden con todos los términos, de mayor a menor relevancia
+     *
+     * @param terminos Términos ya normalizados y ordenados con porSelectividad, al menos uno
+     */
+    public List<Integer> buscar(List<String> terminos, long offset, int limite) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder orden = new StringBuilder();
+        for (int i = 0; i < terminos.size(); i++) {
+            orden.append(i == 0 ? "" : " + ").append("t").append(i);
+        }
+        String sql = "SELECT id_paciente FROM (" + coincidencias(terminos, params) + ") s " +
+            "WHERE " + todosLosTerminos(terminos.size()) + " " +
+            "ORDER BY " + orden + " DESC, id_paciente DESC LIMIT ? OFFSET ?";
+        params.add(limite);
+        params.add(offset);
+        return jdbcTemplate.queryForList(sql, Integer.class, params.toArray());
+    }
+
+    /**
+     * Total de pacientes que coinciden con todos los términos, como máximo MAX_CANDIDATOS
+     */
+    public long contar(List<String> terminos) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM (" + coincidencias(terminos, params) + ") s " +
+            "WHERE " + todosLosTerminos(terminos.size());
+        Long total = jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Relevancia por término (t0, t1, ...) de cada candidato; 0 si el término no coincide
+     *
+     * Los candidatos son los primeros MAX_CANDIDATOS pacientes con un token que coincide con el
+     * primer término, el más selectivo según porSelectividad: el recorrido es un rango acotado de la clave primaria y el resto de
+     * términos se evalúa solo sobre los tokens de esos pacientes (idx_busqueda_paciente), así que el
+     * costo no crece con el tamaño del índice.
+     */
+    private static String coincidencias(List<String> terminos, List<Object> params) {
+        String guia = terminos.get(0);
+        StringBuilder sql = new StringBuilder("SELECT b.id_paciente");
+        for (int i = 0; i < terminos.size(); i++) {
+            String termino = terminos.get(i);
+            sql.append(", MAX(CASE WHEN b.token = ? THEN (CASE WHEN b.campo = '")
+                .append(PacienteBusqueda.CAMPO_DOCUMENTO).append("' THEN 10 ELSE 3 END) ");
+            params.add(termino);
+            if (SearchTokens.matchesPrefix(termino)) {
+                sql.append("WHEN b.token LIKE ? THEN 1 ");
+                params.add(termino + "%");
+            }
+            sql.append("ELSE 0 END) AS t").append(i);
+        }
+        sql.append(" FROM (SELECT DISTINCT id_paciente FROM paciente_busqueda WHERE ")
+            .append(condicion(guia, params))
+            .append(" LIMIT ?) c JOIN paciente_busqueda b ON b.id_paciente = c.id_paciente")
+            .append(" GROUP BY b.id_paciente");
+        params.add(MAX_CANDIDATOS);
+        return sql.toString();
+    }
+
+    /**
+     * Los términos con el más selectivo primero: el de menos tokens coincidentes, contados hasta
+     * MAX_CANDIDATOS + 1 por término (un rango acotado de la clave primaria cada uno)
+     */
+    public List<String> porSelectividad(List<String> terminos) {
+        if (terminos.size() <= 1) {
+            return terminos;
+        }
+        String guia = null;
+        long minimo = Long.MAX_VALUE;
+        for (String termino : terminos) {
+            List<Object> params = new ArrayList<>();
+            String sql = "SELECT COUNT(*) FROM (SELECT id_paciente FROM paciente_busqueda WHERE " +
+                condicion(termino, params) + " LIMIT ?) x";
+            params.add(MAX_CANDIDATOS + 1);
+            Long coincidencias = jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+            long cantidad = coincidencias != null ? coincidencias : 0L;
+            if (cantidad < minimo) {
+                minimo = cantidad;
+                guia = termino;
+            }
+        }
+        List<String> ordenados = new ArrayList<>(terminos);
+        ordenados.remove(guia);
+        ordenados.add(0, guia);
+        return ordenados;
+    }
+
+    private static String condicion(String termino, List<Object> params) {
+        if (SearchTokens.matchesPrefix(termino)) {
+            params.add(termino + "%");
+            return "token LIKE ?";
+        }
+        params.add(termino);
+        return "token = ?";
+    }
+
+    private static String todosLosTerminos(int cantidad) {
+        List<String> condiciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            condiciones.add("t" + i + " > 0");
+        }
+        return String.join(" AND ", condiciones);
+    }
+
+    private static List<Object[]> filas(Integer idPaciente, String nombre, String documento) {
+        List<Object[]> filas = new ArrayList<>();
+        for (String palabra : SearchTokens.words(nombre)) {
+            filas.add(new Object[]{palabra, idPaciente, PacienteBusqueda.CAMPO_NOMBRE});
+        }
+        String doc = SearchTokens.compact(documento);
+        if (doc != null) {
+            filas.add(new Object[]{doc, idPaciente, PacienteBusqueda.CAMPO_DOCUMENTO});
+        }
+        return filas;
+    }
+}
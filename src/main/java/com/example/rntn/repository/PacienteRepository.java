@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,16 +30,29 @@ public interface PacienteRepository extends JpaRepository<Paciente, Integer> {
     Page<Paciente> findByEstatusPaciente(String estatus, Pageable pageable);
 
     /**
-     * Búsqueda de pacientes por nombre o documento (like)
+     * Verifica si existe un paciente con el documento dado
      */
-    @Query("SELECT p FROM Paciente p WHERE " +
-           "LOWER(p.nombrePaciente) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.docPaciente) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<Paciente> searchPacientes(@Param("search") String search, Pageable pageable);
+    boolean existsByDocPaciente(String docPaciente);
 
     /**
-     * Verifica si existe un paciente con el documento dado
+     * Primera página del listado por cursor, con filtro de estatus opcional (null = todos)
      */
-    boolean existsByDocPaciente(String docPaciente);
-}
+    @Query("SELECT p FROM Paciente p WHERE (:estatus IS NULL OR p.estatusPaciente = :estatus) " +
+           "ORDER BY p.createdAt DESC, p.idPaciente DESC")
+    List<Paciente> findPrimeraPagina(@Param("estatus") String estatus, Pageable pageable);
 
+    /**
+     * Página siguiente del listado por cursor: pacientes anteriores a (createdAt, id)
+     */
+    @Query("SELECT p FROM Paciente p WHERE (:estatus IS NULL OR p.estatusPaciente = :estatus) " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.idPaciente < :id)) " +
+           "ORDER BY p.createdAt DESC, p.idPaciente DESC")
+    List<Paciente> findPaginaDespuesDe(
+        @Param("estatus") String estatus,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Integer id,
+        Pageable pageable
+    );
+
+    long countByEstatusPaciente(String estatus);
+}
@@ -3,12 +3,14 @@ package com.example.rntn.repository;
 import com.example.rntn.entity.Reporte;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Repositorio JPA para Reporte
@@ -16,19 +18,29 @@ import java.time.LocalDateTime;
 @Repository
 public interface ReporteRepository extends JpaRepository<Reporte, Integer> {
 
+    /**
+     * Listado paginado con usuario y evaluación unidos (sin lazy load por fila)
+     */
+    @Override
+    @EntityGraph(Reporte.GRAFO_LISTADO)
+    Page<Reporte> findAll(Pageable pageable);
+
     /**
      * Obtiene reportes de un usuario específico
      */
+    @EntityGraph(Reporte.GRAFO_LISTADO)
     Page<Reporte> findByUsuarioIdUsuario(Integer idUsuario, Pageable pageable);
 
     /**
      * Obtiene reportes de una evaluación específica
      */
+    @EntityGraph(Reporte.GRAFO_LISTADO)
     Page<Reporte> findByEvaluacionIdEvaluacion(Integer idEvaluacion, Pageable pageable);
 
     /**
      * Reportes de un usuario en un rango de fechas
      */
+    @EntityGraph(Reporte.GRAFO_LISTADO)
     @Query("SELECT r FROM Reporte r WHERE " +
            "r.usuario.idUsuario = :idUsuario AND " +
            "r.fechageneracionReporte BETWEEN :desde AND :hasta")
@@ -47,5 +59,24 @@ public interface ReporteRepository extends JpaRepository<Reporte, Integer> {
            "JOIN FETCH r.evaluacion e " +
            "WHERE r.idReporte = :id")
     Reporte findByIdWithFullDetails(@Param("id") Integer id);
-}
 
+    /**
+     * Primera página del listado por cursor: más recientes primero
+     */
+    @EntityGraph(Reporte.GRAFO_LISTADO)
+    @Query("SELECT r FROM Reporte r ORDER BY r.createdAt DESC, r.idReporte DESC")
+    List<Reporte> findPrimeraPagina(Pageable pageable);
+
+    /**
+     * Página siguiente del listado por cursor: reportes anteriores a (createdAt, id)
+     */
+    @EntityGraph(Reporte.GRAFO_LISTADO)
+    @Query("SELECT r FROM Reporte r " +
+           "WHERE r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.idReporte < :id) " +
+           "ORDER BY r.createdAt DESC, r.idReporte DESC")
+    List<Reporte> findPaginaDespuesDe(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Integer id,
+        Pageable pageable
+    );
+}
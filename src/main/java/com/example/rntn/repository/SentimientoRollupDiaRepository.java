@@ -0,0 +1,20 @@
+package com.example.rntn.repository;
+
+import com.example.rntn.entity.SentimientoRollupDia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lectura del rollup diario de sentimiento (lo escribe SentimientoRollupRepository)
+ */
+@Repository
+public interface SentimientoRollupDiaRepository extends JpaRepository<SentimientoRollupDia, SentimientoRollupDia.Clave> {
+
+    /**
+     * Buckets de un rango de días (ambos incluidos), por fecha y label
+     */
+    List<SentimientoRollupDia> findByFechaBetweenOrderByFechaAscLabelAsc(LocalDate desde, LocalDate hasta);
+}
@@ -0,0 +1,25 @@
+package com.example.rntn.repository;
+
+import com.example.rntn.entity.SentimientoRollupPregunta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lectura del rollup de sentimiento por pregunta (lo escribe SentimientoRollupRepository)
+ */
+@Repository
+public interface SentimientoRollupPreguntaRepository extends JpaRepository<SentimientoRollupPregunta, SentimientoRollupPregunta.Clave> {
+
+    /**
+     * Label, total de respuestas y alertas de alto riesgo sumados sobre un conjunto de preguntas
+     */
+    @Query("SELECT r.label, SUM(r.totalRespuestas), SUM(r.altoRiesgo) FROM SentimientoRollupPregunta r " +
+           "WHERE r.idEvaluacionPregunta IN :preguntaIds " +
+           "GROUP BY r.label")
+    List<Object[]> sumByLabelForPreguntas(@Param("preguntaIds") Collection<Integer> preguntaIds);
+}
@@ -0,0 +1,224 @@
+package com.example.rntn.repository;
+
+import com.example.rntn.entity.EvaluacionRespuesta;
+import com.example.rntn.entity.SentimientoRollupDia;
+import com.example.rntn.entity.SentimientoRollupPregunta;
+import com.example.rntn.model.SentimentLabel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantenimiento de las tablas de rollup de sentimiento (sentimiento_rollup_pregunta y
+ * sentimiento_rollup_dia)
+ *
+ * Cada bucket (pregunta o día, label) guarda total de respuestas, total/suma/mín/máx de confianza y
+ * alertas de alto riesgo de las respuestas con label. Las inserciones suman su delta con un
+ * INSERT ... ON DUPLICATE KEY UPDATE por bucket (MySQL y H2 en modo MySQL); como el mínimo y el
+ * máximo no se pueden restar, una actualización o un borrado recalcula sus buckets desde
+ * evaluacion_respuesta (acotado por pregunta o por día con índice). Todos los métodos exigen una
+ * transacción abierta, la misma en la que se escribe la respuesta.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SentimientoRollupRepository {
+
+    private static final String COLUMNAS =
+        "total_respuestas, total_confianza, suma_confianza, min_confianza, max_confianza, alto_riesgo";
+
+    private static final String AGREGADOS =
+        "COUNT(*), COUNT(confidence_score), COALESCE(SUM(confidence_score), 0), " +
+        "MIN(confidence_score), MAX(confidence_score), " +
+        "SUM(CASE WHEN label_evaluacion_respuesta = 'SUICIDAL' AND confidence_score > " +
+        SentimentLabel.HIGH_RISK_CONFIDENCE + " THEN 1 ELSE 0 END)";
+
+    private static final String SUMAR =
+        " ON DUPLICATE KEY UPDATE total_respuestas = total_respuestas + VALUES(total_respuestas), " +
+        "total_confianza = total_confianza + VALUES(total_confianza), " +
+        "suma_confianza = suma_confianza + VALUES(suma_confianza), " +
+        "min_confianza = LEAST(COALESCE(min_confianza, VALUES(min_confianza)), COALESCE(VALUES(min_confianza), min_confianza)), " +
+        "max_confianza = GREATEST(COALESCE(max_confianza, VALUES(max_confianza)), COALESCE(VALUES(max_confianza), max_confianza)), " +
+        "alto_riesgo = alto_riesgo + VALUES(alto_riesgo)";
+
+    private static final String SUMAR_PREGUNTA_SQL =
+        "INSERT INTO sentimiento_rollup_pregunta (id_evaluacion_pregunta, label, " + COLUMNAS + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)" + SUMAR;
+
+    private static final String SUMAR_DIA_SQL =
+        "INSERT INTO sentimiento_rollup_dia (fecha, label, " + COLUMNAS + ") " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)" + SUMAR;
+
+    private static final String RECALCULAR_PREGUNTA_SQL =
+        "INSERT INTO sentimiento_rollup_pregunta (id_evaluacion_pregunta, label, " + COLUMNAS + ") " +
+        "SELECT id_evaluacion_pregunta, label_evaluacion_respuesta, " + AGREGADOS + " " +
+        "FROM evaluacion_respuesta WHERE id_evaluacion_pregunta = ? AND label_evaluacion_respuesta = ? " +
+        "GROUP BY id_evaluacion_pregunta, label_evaluacion_respuesta";
+
+    private static final String RECALCULAR_DIA_SQL =
+        "INSERT INTO sentimiento_rollup_dia (fecha, label, " + COLUMNAS + ") " +
+        "SELECT CAST(? AS DATE), label_evaluacion_respuesta, " + AGREGADOS + " " +
+        "FROM evaluacion_respuesta WHERE created_at >= ? AND created_at < ? AND label_evaluacion_respuesta = ? " +
+        "GROUP BY label_evaluacion_respuesta";
+
+    private static final String RECONSTRUIR_PREGUNTA_SQL =
+        "INSERT INTO sentimiento_rollup_pregunta (id_evaluacion_pregunta, label, " + COLUMNAS + ") " +
+        "SELECT id_evaluacion_pregunta, label_evaluacion_respuesta, " + AGREGADOS + " " +
+        "FROM evaluacion_respuesta WHERE label_evaluacion_respuesta IS NOT NULL " +
+        "GROUP BY id_evaluacion_pregunta, label_evaluacion_respuesta";
+
+    private static final String RECONSTRUIR_DIA_SQL =
+        "INSERT INTO sentimiento_rollup_dia (fecha, label, " + COLUMNAS + ") " +
+        "SELECT CAST(created_at AS DATE), label_evaluacion_respuesta, " + AGREGADOS + " " +
+        "FROM evaluacion_respuesta WHERE label_evaluacion_respuesta IS NOT NULL " +
+        "GROUP BY CAST(created_at AS DATE), label_evaluacion_respuesta";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Delta de un bucket: lo que aportan las respuestas nuevas que caen en él
+     */
+    private static final class Acumulado {
+        long total;
+        long totalConfianza;
+        double sumaConfianza;
+        Double minConfianza;
+        Double maxConfianza;
+        long altoRiesgo;
+
+        void sumar(EvaluacionRespuesta r) {
+            total++;
+            Double confidence = r.getConfidenceScore();
+            if (confidence != null) {
+                totalConfianza++;
+                sumaConfianza += confidence;
+                minConfianza = minConfianza == null ? confidence : Math.min(minConfianza, confidence);
+                maxConfianza = maxConfianza == null ? confidence : Math.max(maxConfianza, confidence);
+                if ("SUICIDAL".equals(r.getLabelEvaluacionRespuesta()) && confidence > SentimentLabel.HIGH_RISK_CONFIDENCE) {
+                    altoRiesgo++;
+                }
+            }
+        }
+
+        Object[] valores(Object clave, String label) {
+            return new Object[]{clave, label, total, totalConfianza, sumaConfianza, minConfianza, maxConfianza, altoRiesgo};
+        }
+    }
+
+    /**
+     * Suma a los rollups las respuestas recién insertadas (con ID y created_at asignados)
+     *
+     * Los buckets se actualizan en orden de clave para que dos lotes concurrentes tomen los
+     * bloqueos de fila en el mismo orden.
+     */
+    public void sumar(List<EvaluacionRespuesta> respuestas) {
+        Map<SentimientoRollupPregunta.Clave, Acumulado> porPregunta = new TreeMap<>(
+            Comparator.comparing(SentimientoRollupPregunta.Clave::getIdEvaluacionPregunta)
+                .thenComparing(SentimientoRollupPregunta.Clave::getLabel));
+        Map<SentimientoRollupDia.Clave, Acumulado> porDia = new TreeMap<>(
+            Comparator.comparing(SentimientoRollupDia.Clave::getFecha)
+                .thenComparing(SentimientoRollupDia.Clave::getLabel));
+
+        for (EvaluacionRespuesta r : respuestas) {
+            String label = r.getLabelEvaluacionRespuesta();
+            if (label == null) {
+                continue;
+            }
+            porPregunta.computeIfAbsent(
+                new SentimientoRollupPregunta.Clave(r.getEvaluacionPregunta().getIdEvaluacionPregunta(), label),
+                k -> new Acumulado()).sumar(r);
+            porDia.computeIfAbsent(
+                new SentimientoRollupDia.Clave(r.getCreatedAt().toLocalDate(), label),
+                k -> new Acumulado()).sumar(r);
+        }
+        if (porPregunta.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> filasPregunta = new ArrayList<>(porPregunta.size());
+        porPregunta.forEach((clave, acumulado) ->
+            filasPregunta.add(acumulado.valores(clave.getIdEvaluacionPregunta(), clave.getLabel())));
+        List<Object[]> filasDia = new ArrayList<>(porDia.size());
+        porDia.forEach((clave, acumulado) ->
+            filasDia.add(acumulado.valores(Date.valueOf(clave.getFecha()), clave.getLabel())));
+
+        int[] tipos = {Types.INTEGER, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.BIGINT};
+        jdbcTemplate.batchUpdate(SUMAR_PREGUNTA_SQL, filasPregunta, tipos);
+        tipos[0] = Types.DATE;
+        jdbcTemplate.batchUpdate(SUMAR_DIA_SQL, filasDia, tipos);
+    }
+
+    /**
+     * Recalcula desde evaluacion_respuesta los buckets de pregunta y día de una respuesta
+     * actualizada o borrada (llamar después del flush de la escritura)
+     */
+    public void recalcular(Integer idEvaluacionPregunta, LocalDate fecha, String label) {
+        if (label == null) {
+            return;
+        }
+        recalcularPregunta(idEvaluacionPregunta, label);
+        recalcularDia(new SentimientoRollupDia.Clave(fecha, label));
+    }
+
+    public void recalcularPregunta(Integer idEvaluacionPregunta, String label) {
+        jdbcTemplate.update("DELETE FROM sentimiento_rollup_pregunta WHERE id_evaluacion_pregunta = ? AND label = ?",
+            idEvaluacionPregunta, label);
+        jdbcTemplate.update(RECALCULAR_PREGUNTA_SQL, idEvaluacionPregunta, label);
+    }
+
+    public void recalcularDia(SentimientoRollupDia.Clave clave) {
+        Date fecha = Date.valueOf(clave.getFecha());
+        jdbcTemplate.update("DELETE FROM sentimiento_rollup_dia WHERE fecha = ? AND label = ?", fecha, clave.getLabel());
+        jdbcTemplate.update(RECALCULAR_DIA_SQL,
+            fecha,
+            Timestamp.valueOf(clave.getFecha().atStartOfDay()),
+            Timestamp.valueOf(clave.getFecha().plusDays(1).atStartOfDay()),
+            clave.getLabel());
+    }
+
+    /**
+     * Buckets diarios a los que contribuyen las respuestas de una pregunta; se leen antes de
+     * borrarla para recalcularlos después
+     */
+    public List<SentimientoRollupDia.Clave> bucketsDiaDePregunta(Integer idEvaluacionPregunta) {
+        return jdbcTemplate.query(
+            "SELECT DISTINCT CAST(created_at AS DATE), label_evaluacion_respuesta FROM evaluacion_respuesta " +
+            "WHERE id_evaluacion_pregunta = ? AND label_evaluacion_respuesta IS NOT NULL",
+            (rs, i) -> new SentimientoRollupDia.Clave(rs.getDate(1).toLocalDate(), rs.getString(2)),
+            idEvaluacionPregunta);
+    }
+
+    /**
+     * Quita los buckets de una pregunta borrada
+     */
+    public void eliminarPregunta(Integer idEvaluacionPregunta) {
+        jdbcTemplate.update("DELETE FROM sentimiento_rollup_pregunta WHERE id_evaluacion_pregunta = ?", idEvaluacionPregunta);
+    }
+
+    /**
+     * Vacía y recalcula todos los rollups desde evaluacion_respuesta
+     *
+     * @return Buckets escritos por tabla
+     */
+    public Map<String, Integer> reconstruir() {
+        jdbcTemplate.update("DELETE FROM sentimiento_rollup_pregunta");
+        jdbcTemplate.update("DELETE FROM sentimiento_rollup_dia");
+        Map<String, Integer> buckets = new LinkedHashMap<>();
+        buckets.put("sentimiento_rollup_pregunta", jdbcTemplate.update(RECONSTRUIR_PREGUNTA_SQL));
+        buckets.put("sentimiento_rollup_dia", jdbcTemplate.update(RECONSTRUIR_DIA_SQL));
+        return buckets;
+    }
+}
@@ -73,6 +73,9 @@ public class SecurityConfig {
                 // Sentiment analysis - accesible por profesionales de salud
                 .requestMatchers("/api/v1/sentiment/**").hasAnyRole("ADMIN", "DOCTOR", "ANALISTA")
 
+                // Entrenamiento de modelos - solo administradores
+                .requestMatchers("/api/v1/training/**").hasRole("ADMIN")
+
                 // Reportes - accesible por profesionales
                 .requestMatchers("/api/v1/reportes/**").hasAnyRole("ADMIN", "DOCTOR", "ANALISTA")
 
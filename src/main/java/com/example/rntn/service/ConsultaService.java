@@ -2,6 +2,7 @@ package com.example.rntn.service;
 
 import com.example.rntn.dto.request.ConsultaRequest;
 import com.example.rntn.dto.response.ConsultaResponse;
+import com.example.rntn.dto.response.CursorPageResponse;
 import com.example.rntn.entity.Consulta;
 import com.example.rntn.entity.ConsultaEstatus;
 import com.example.rntn.entity.Evaluacion;
@@ -12,14 +13,17 @@ import com.example.rntn.repository.ConsultaRepository;
 import com.example.rntn.repository.EvaluacionRepository;
 import com.example.rntn.repository.PacienteRepository;
 import com.example.rntn.repository.PersonalRepository;
+import com.example.rntn.util.SeekCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -90,6 +94,50 @@ public class ConsultaService {
         return consultas.map(this::mapToResponse);
     }
 
+    /**
+     * Listar consultas de un paciente por cursor (keyset) sobre (fechahoraConsulta, id), de la
+     * más reciente a la más antigua; desde y hasta son opcionales e independientes
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ConsultaResponse> listarConsultasPorPacientePorCursor(
+            Integer idPaciente, LocalDateTime desde, LocalDateTime hasta,
+            String cursor, int size, boolean includeTotal) {
+
+        SeekCursor despuesDe = SeekCursor.decode(cursor);
+        PageRequest limite = PageRequest.ofSize(SeekCursor.checkSize(size) + 1);
+
+        List<Consulta> consultas = despuesDe == null
+            ? consultaRepository.findPrimeraPaginaPorPaciente(idPaciente, desde, hasta, limite)
+            : consultaRepository.findPaginaPorPacienteDespuesDe(
+                idPaciente, desde, hasta, despuesDe.timestamp(), despuesDe.id(), limite);
+
+        return CursorPageResponse.of(consultas, size,
+            c -> new SeekCursor(c.getFechahoraConsulta(), c.getIdConsulta()),
+            this::mapToResponse,
+            includeTotal ? consultaRepository.countPorPaciente(idPaciente, desde, hasta) : null);
+    }
+
+    /**
+     * Listar consultas de un personal por cursor (keyset) sobre (fechahoraConsulta, id)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ConsultaResponse> listarConsultasPorPersonalPorCursor(
+            Integer idPersonal, String cursor, int size, boolean includeTotal) {
+
+        SeekCursor despuesDe = SeekCursor.decode(cursor);
+        PageRequest limite = PageRequest.ofSize(SeekCursor.checkSize(size) + 1);
+
+        List<Consulta> consultas = despuesDe == null
+            ? consultaRepository.findPrimeraPaginaPorPersonal(idPersonal, limite)
+            : consultaRepository.findPaginaPorPersonalDespuesDe(
+                idPersonal, despuesDe.timestamp(), despuesDe.id(), limite);
+
+        return CursorPageResponse.of(consultas, size,
+            c -> new SeekCursor(c.getFechahoraConsulta(), c.getIdConsulta()),
+            this::mapToResponse,
+            includeTotal ? consultaRepository.countByPersonalIdPersonal(idPersonal) : null);
+    }
+
     public ConsultaResponse actualizarEstadoConsulta(Integer id, Integer nuevoEstatusId) {
         log.info("Actualizando estado de consulta {} a {}", id, nuevoEstatusId);
 
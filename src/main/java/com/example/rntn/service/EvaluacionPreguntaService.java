@@ -3,8 +3,10 @@ package com.example.rntn.service;
 import com.example.rntn.dto.request.EvaluacionPreguntaRequest;
 import com.example.rntn.dto.response.EvaluacionPreguntaResponse;
 import com.example.rntn.entity.EvaluacionPregunta;
+import com.example.rntn.entity.SentimientoRollupDia;
 import com.example.rntn.exception.ResourceNotFoundException;
 import com.example.rntn.repository.EvaluacionPreguntaRepository;
+import com.example.rntn.repository.SentimientoRollupRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,6 +27,7 @@ import java.util.stream.Collectors;
 public class EvaluacionPreguntaService {
 
     private final EvaluacionPreguntaRepository preguntaRepository;
+    private final SentimientoRollupRepository rollupRepository;
 
     public EvaluacionPreguntaResponse crearPregunta(EvaluacionPreguntaRequest request) {
         log.info("Creando pregunta de evaluación");
@@ -71,7 +74,14 @@ public class EvaluacionPreguntaService {
         EvaluacionPregunta pregunta = preguntaRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Pregunta no encontrada: " + id));
 
+        // Días a los que contribuyen sus respuestas, para recalcularlos tras el borrado en cascada
+        List<SentimientoRollupDia.Clave> dias = rollupRepository.bucketsDiaDePregunta(id);
+
         preguntaRepository.delete(pregunta);
+        preguntaRepository.flush();
+
+        rollupRepository.eliminarPregunta(id);
+        dias.forEach(rollupRepository::recalcularDia);
     }
 
     /**
@@ -2,20 +2,58 @@ package com.example.rntn.service;
 
 import com.example.rntn.dto.request.EvaluacionRespuestaRequest;
 import com.example.rntn.dto.response.AnalisisSentimientoResponse;
+import com.example.rntn.dto.response.CursorPageResponse;
+import com.example.rntn.dto.response.EvaluacionRespuestaLoteResponse;
 import com.example.rntn.dto.response.EvaluacionRespuestaResponse;
 import com.example.rntn.entity.EvaluacionPregunta;
 import com.example.rntn.entity.EvaluacionRespuesta;
+import com.example.rntn.exception.BusinessException;
 import com.example.rntn.exception.ResourceNotFoundException;
+import com.example.rntn.model.SentimentLabel;
 import com.example.rntn.repository.EvaluacionPreguntaRepository;
+import com.example.rntn.repository.EvaluacionRespuestaJdbcRepository;
 import com.example.rntn.repository.EvaluacionRespuestaRepository;
+import com.example.rntn.repository.SentimientoRollupPreguntaRepository;
+import com.example.rntn.repository.SentimientoRollupRepository;
+import com.example.rntn.util.PermitReleasingBody;
+import com.example.rntn.util.SeekCursor;
+import com.example.rntn.util.SentimentPredictorPool;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -28,9 +66,40 @@ import java.util.stream.Collectors;
 @Transactional
 public class EvaluacionService {
 
+    /**
+     * Máximo de alertas por página en el análisis agregado
+     */
+    public static final int MAX_ALERTAS_PAGE_SIZE = 100;
+
     private final EvaluacionPreguntaRepository preguntaRepository;
     private final EvaluacionRespuestaRepository respuestaRepository;
+    private final EvaluacionRespuestaJdbcRepository respuestaJdbcRepository;
+    private final SentimientoRollupRepository rollupRepository;
+    private final SentimientoRollupPreguntaRepository rollupPreguntaRepository;
     private final SentimentService sentimentService;
+    private final RespuestaWriteBehindService writeBehindService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${rntn.respuestas.max-limit:1000}")
+    private int maxLimite;
+
+    @Value("${rntn.respuestas.stream.fetch-size:500}")
+    private int streamFetchSize;
+
+    @Value("${rntn.respuestas.stream.max-concurrent:2}")
+    private int streamMaxConcurrent;
+
+    @Value("${rntn.respuestas.stream.timeout-ms:3600000}")
+    private long streamTimeoutMs;
+
+    private Semaphore streamPermits;
+
+    @PostConstruct
+    public void init() {
+        streamPermits = new Semaphore(streamMaxConcurrent);
+    }
 
     /**
      * Registra una respuesta con análisis automático de sentimiento
@@ -41,13 +110,44 @@ public class EvaluacionService {
      */
     public EvaluacionRespuestaResponse registrarRespuestaConAnalisis(
             EvaluacionRespuestaRequest request) {
+        return registrarRespuestaConAnalisis(request, null);
+    }
+
+    /**
+     * Registra una respuesta con análisis automático de sentimiento
+     *
+     * Si ya existe una respuesta con la misma clave de idempotencia se devuelve esa sin volver a
+     * analizar. Con escritura diferida activa la respuesta se encola y se devuelve con estado
+     * PENDIENTE (sin ID) en cuanto se calcula la predicción.
+     *
+     * El flujo va en tres fases para no retener una conexión del pool durante la inferencia:
+     * 1. Lectura: clave de idempotencia y pregunta, con consultas cortas
+     * 2. Análisis RNTN sin transacción ni conexión abierta
+     * 3. Escritura: una transacción corta solo para el INSERT
+     *
+     * @param request        Request con texto de respuesta
+     * @param idempotencyKey Clave de idempotencia del cliente (null para asignar una nueva)
+     * @return Response con análisis de sentimiento incluido
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EvaluacionRespuestaResponse registrarRespuestaConAnalisis(
+            EvaluacionRespuestaRequest request, String idempotencyKey) {
+
+        // 1. Lectura
+        if (idempotencyKey != null) {
+            EvaluacionRespuestaResponse existente = buscarPorIdempotencyKey(idempotencyKey);
+            if (existente != null) {
+                return existente;
+            }
+        }
+        String key = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
 
         // Validar que existe la pregunta
         EvaluacionPregunta pregunta = preguntaRepository.findById(request.getIdEvaluacionPregunta())
             .orElseThrow(() -> new ResourceNotFoundException(
                 "Pregunta no encontrada: " + request.getIdEvaluacionPregunta()));
 
-        // Analizar sentimiento si está habilitado
+        // 2. Analizar sentimiento si está habilitado (sin conexión a BD)
         AnalisisSentimientoResponse analisis = null;
         String label = null;
         Double confidence = null;
@@ -56,7 +156,8 @@ public class EvaluacionService {
             log.info("🔍 Analizando sentimiento para respuesta de pregunta ID: {}",
                 request.getIdEvaluacionPregunta());
 
-            analisis = sentimentService.analizarTexto(request.getTextoEvaluacionRespuesta());
+            analisis = medirFase("registrar", "analisis",
+                () -> sentimentService.analizarTexto(request.getTextoEvaluacionRespuesta()));
             label = analisis.getPredictedLabel();
             confidence = analisis.getConfidence();
 
@@ -68,18 +169,64 @@ public class EvaluacionService {
             }
         }
 
+        // Escritura diferida: se encola y se responde sin esperar a la BD
+        if (writeBehindService.isEnabled()) {
+            RespuestaWriteBehindService.RespuestaPendiente pendiente = new RespuestaWriteBehindService.RespuestaPendiente(
+                key,
+                pregunta.getIdEvaluacionPregunta(),
+                request.getTextoEvaluacionRespuesta(),
+                request.getTextoEvaluacionRespuesta().toLowerCase().trim(),
+                label,
+                confidence,
+                analisis != null ? analisis.getModelVersion() : null,
+                LocalDateTime.now());
+            writeBehindService.encolar(pendiente);
+
+            log.info("📝 Respuesta encolada para escritura diferida: clave={}, Label={}", key, label);
+
+            return EvaluacionRespuestaResponse.builder()
+                .idEvaluacionPregunta(pregunta.getIdEvaluacionPregunta())
+                .textoPregunta(pregunta.getTextoEvaluacionPregunta())
+                .textoEvaluacionRespuesta(pendiente.textoEvaluacionRespuesta())
+                .textoSetEvaluacionRespuesta(pendiente.textoSetEvaluacionRespuesta())
+                .labelEvaluacionRespuesta(label)
+                .confidenceScore(confidence)
+                .sentimentAnalysis(analisis)
+                .createdAt(pendiente.aceptadaAt())
+                .idempotencyKey(key)
+                .estadoPersistencia("PENDIENTE")
+                .build();
+        }
+
         // Crear entidad de respuesta
-        EvaluacionRespuesta respuesta = EvaluacionRespuesta.builder()
+        EvaluacionRespuesta nueva = EvaluacionRespuesta.builder()
             .evaluacionPregunta(pregunta)
             .textoEvaluacionRespuesta(request.getTextoEvaluacionRespuesta())
             .textoSetEvaluacionRespuesta(
                 request.getTextoEvaluacionRespuesta().toLowerCase().trim())
             .labelEvaluacionRespuesta(label)
             .confidenceScore(confidence)
+            .modelVersion(analisis != null ? analisis.getModelVersion() : null)
+            .idempotencyKey(key)
             .build();
 
-        // Guardar en base de datos
-        respuesta = respuestaRepository.save(respuesta);
+        // 3. Guardar en base de datos en una transacción corta
+        EvaluacionRespuesta respuesta;
+        try {
+            respuesta = medirFase("registrar", "escritura",
+                () -> transactionTemplate.execute(status -> {
+                    EvaluacionRespuesta guardada = respuestaRepository.save(nueva);
+                    rollupRepository.sumar(List.of(guardada));
+                    return guardada;
+                }));
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición con la misma clave se guardó mientras se analizaba esta
+            EvaluacionRespuestaResponse existente = idempotencyKey != null ? buscarPorIdempotencyKey(idempotencyKey) : null;
+            if (existente == null) {
+                throw e;
+            }
+            return existente;
+        }
 
         log.info("✅ Respuesta guardada: ID={}, Label={}",
             respuesta.getIdEvaluacionRespuesta(), label);
@@ -93,35 +240,144 @@ public class EvaluacionService {
             .textoSetEvaluacionRespuesta(respuesta.getTextoSetEvaluacionRespuesta())
             .labelEvaluacionRespuesta(respuesta.getLabelEvaluacionRespuesta())
             .confidenceScore(respuesta.getConfidenceScore())
+            .labelCorregidoEvaluacionRespuesta(respuesta.getLabelCorregidoEvaluacionRespuesta())
+            .corregidoPor(respuesta.getCorregidoPor())
             .sentimentAnalysis(analisis)
             .createdAt(respuesta.getCreatedAt())
+            .idempotencyKey(respuesta.getIdempotencyKey())
+            .estadoPersistencia("GUARDADA")
             .build();
 
         return response;
     }
 
+    /**
+     * Respuesta ya guardada con la clave de idempotencia, o null si no existe
+     */
+    private EvaluacionRespuestaResponse buscarPorIdempotencyKey(String idempotencyKey) {
+        EvaluacionRespuestaResponse existente = transactionTemplate.execute(status ->
+            respuestaRepository.findByIdempotencyKey(idempotencyKey)
+                .map(this::mapRespuestaToResponse)
+                .orElse(null));
+        if (existente != null) {
+            log.info("🔁 Respuesta ya registrada con clave de idempotencia {}: ID={}",
+                idempotencyKey, existente.getIdEvaluacionRespuesta());
+            existente.setEstadoPersistencia("GUARDADA");
+        }
+        return existente;
+    }
+
+    /**
+     * Registra todas las respuestas de un cuestionario con análisis de sentimiento
+     *
+     * 1. Resuelve todas las preguntas en una sola consulta
+     * 2. Analiza los textos en paralelo (carril BATCH) sin conexión a BD abierta
+     * 3. Inserta todas las filas en un único JDBC batch
+     *
+     * Si una pregunta no existe o falla el análisis de algún texto no se guarda nada.
+     *
+     * @param requests Respuestas del cuestionario
+     * @return Respuestas guardadas, en el mismo orden, con su análisis
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EvaluacionRespuestaLoteResponse registrarRespuestasConAnalisis(List<EvaluacionRespuestaRequest> requests) {
+        log.info("📋 Registrando cuestionario con {} respuestas", requests.size());
+
+        // 1. Validar preguntas en una sola consulta
+        Set<Integer> preguntaIds = requests.stream()
+            .map(EvaluacionRespuestaRequest::getIdEvaluacionPregunta)
+            .collect(Collectors.toCollection(HashSet::new));
+        Map<Integer, EvaluacionPregunta> preguntas = preguntaRepository.findAllById(preguntaIds).stream()
+            .collect(Collectors.toMap(EvaluacionPregunta::getIdEvaluacionPregunta, Function.identity()));
+        for (Integer id : preguntaIds) {
+            if (!preguntas.containsKey(id)) {
+                throw new ResourceNotFoundException("Pregunta no encontrada: " + id);
+            }
+        }
+
+        // 2. Analizar en paralelo los textos que lo requieren
+        List<String> textosAnalizar = requests.stream()
+            .filter(EvaluacionRespuestaRequest::isAnalizarSentimiento)
+            .map(EvaluacionRespuestaRequest::getTextoEvaluacionRespuesta)
+            .collect(Collectors.toList());
+        Iterator<AnalisisSentimientoResponse> analisisIt = sentimentService
+            .analizarTextosEnParalelo(textosAnalizar, SentimentPredictorPool.Lane.BATCH)
+            .iterator();
+
+        List<EvaluacionRespuesta> respuestas = new ArrayList<>(requests.size());
+        List<AnalisisSentimientoResponse> analisisPorRespuesta = new ArrayList<>(requests.size());
+        int alertas = 0;
+        for (EvaluacionRespuestaRequest request : requests) {
+            AnalisisSentimientoResponse analisis = request.isAnalizarSentimiento() ? analisisIt.next() : null;
+            if (analisis != null && "SUICIDAL".equals(analisis.getPredictedLabel()) && analisis.getConfidence() > 0.7) {
+                alertas++;
+                log.warn("⚠️ ALERTA RIESGO SUICIDA - Pregunta ID: {}, Confidence: {}",
+                    request.getIdEvaluacionPregunta(), analisis.getConfidence());
+            }
+            respuestas.add(EvaluacionRespuesta.builder()
+                .evaluacionPregunta(preguntas.get(request.getIdEvaluacionPregunta()))
+                .textoEvaluacionRespuesta(request.getTextoEvaluacionRespuesta())
+                .textoSetEvaluacionRespuesta(request.getTextoEvaluacionRespuesta().toLowerCase().trim())
+                .labelEvaluacionRespuesta(analisis != null ? analisis.getPredictedLabel() : null)
+                .confidenceScore(analisis != null ? analisis.getConfidence() : null)
+                .modelVersion(analisis != null ? analisis.getModelVersion() : null)
+                .build());
+            analisisPorRespuesta.add(analisis);
+        }
+
+        // 3. Insertar todas las filas en un único batch
+        respuestaJdbcRepository.insertarLote(respuestas);
+
+        List<EvaluacionRespuestaResponse> resultados = new ArrayList<>(respuestas.size());
+        for (int i = 0; i < respuestas.size(); i++) {
+            resultados.add(mapRespuestaToResponse(respuestas.get(i), analisisPorRespuesta.get(i)));
+        }
+
+        log.info("✅ Cuestionario guardado: {} respuestas, {} analizadas, {} alertas",
+            respuestas.size(), textosAnalizar.size(), alertas);
+
+        return EvaluacionRespuestaLoteResponse.builder()
+            .respuestas(resultados)
+            .totalRespuestas(resultados.size())
+            .analizadas(textosAnalizar.size())
+            .alertasAltoRiesgo(alertas)
+            .timestamp(LocalDateTime.now())
+            .build();
+    }
+
     /**
      * Obtiene el análisis agregado de todas las respuestas
      *
-     * @param preguntaIds Lista de IDs de preguntas a analizar
+     * La distribución sale de una sola consulta agrupada sobre el rollup por pregunta, el total de
+     * respuestas de un COUNT sobre el índice de pregunta, y las alertas de una consulta paginada que
+     * solo lee ID, texto truncado y confianza, así que memoria y número de consultas no crecen con
+     * las preguntas ni las respuestas.
+     *
+     * @param preguntaIds  Lista de IDs de preguntas a analizar
+     * @param alertasPage  Página de alertas (desde 0)
+     * @param alertasSize  Alertas por página (máximo MAX_ALERTAS_PAGE_SIZE)
      * @return Mapa con estadísticas y distribución de sentimientos
      */
     @Transactional(readOnly = true)
-    public Map<String, Object> obtenerAnalisisAgregado(List<Integer> preguntaIds) {
-
-        // Obtener todas las respuestas
-        List<EvaluacionRespuesta> respuestas = preguntaIds.stream()
-            .flatMap(id -> respuestaRepository
-                .findByEvaluacionPreguntaIdEvaluacionPregunta(id).stream())
-            .collect(Collectors.toList());
+    public Map<String, Object> obtenerAnalisisAgregado(List<Integer> preguntaIds, int alertasPage, int alertasSize) {
+        if (alertasPage < 0 || alertasSize < 1 || alertasSize > MAX_ALERTAS_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                "Paginación de alertas inválida: page >= 0 y size entre 1 y " + MAX_ALERTAS_PAGE_SIZE);
+        }
+        Set<Integer> ids = new HashSet<>(preguntaIds);
+
+        // Distribución de sentimientos (respuestas analizadas) y total de alertas
+        Map<String, Long> distribucion = new HashMap<>();
+        long totalAlertas = 0;
+        for (Object[] row : rollupPreguntaRepository.sumByLabelForPreguntas(ids)) {
+            distribucion.put((String) row[0], ((Number) row[1]).longValue());
+            totalAlertas += ((Number) row[2]).longValue();
+        }
 
-        // Calcular distribución de sentimientos
-        Map<String, Long> distribucion = respuestas.stream()
-            .filter(r -> r.getLabelEvaluacionRespuesta() != null)
-            .collect(Collectors.groupingBy(
-                EvaluacionRespuesta::getLabelEvaluacionRespuesta,
-                Collectors.counting()
-            ));
+        // Total de respuestas, incluidas las que aún no tienen label
+        long totalRespuestas = ids.isEmpty()
+            ? 0
+            : respuestaRepository.countByEvaluacionPreguntaIdEvaluacionPreguntaIn(ids);
 
         // Determinar sentimiento dominante
         String sentimientoDominante = distribucion.entrySet().stream()
@@ -130,30 +386,36 @@ public class EvaluacionService {
             .orElse("UNKNOWN");
 
         // Calcular nivel de riesgo
-        String nivelRiesgo = calcularNivelRiesgo(distribucion, respuestas.size());
-
-        // Detectar alertas
-        List<Map<String, Object>> alertas = respuestas.stream()
-            .filter(r -> "SUICIDAL".equals(r.getLabelEvaluacionRespuesta())
-                && r.getConfidenceScore() != null
-                && r.getConfidenceScore() > 0.7)
-            .map(r -> {
+        String nivelRiesgo = totalRespuestas > 0 ? calcularNivelRiesgo(distribucion, totalRespuestas) : "BAJO";
+
+        // Alertas: una página, de mayor a menor confianza
+        Slice<EvaluacionRespuestaRepository.AlertaResumen> pagina = respuestaRepository.findAlertasForPreguntas(
+            ids, SentimentLabel.HIGH_RISK_CONFIDENCE, PageRequest.of(alertasPage, alertasSize));
+        List<Map<String, Object>> alertas = pagina.getContent().stream()
+            .map(a -> {
                 Map<String, Object> alerta = new HashMap<>();
                 alerta.put("tipo", "RIESGO_SUICIDA");
                 alerta.put("nivel", "ALTO");
-                alerta.put("respuesta", r.getTextoEvaluacionRespuesta());
-                alerta.put("confidence", r.getConfidenceScore());
+                alerta.put("idEvaluacionRespuesta", a.getIdEvaluacionRespuesta());
+                alerta.put("idEvaluacionPregunta", a.getIdEvaluacionPregunta());
+                alerta.put("respuesta", a.getTexto());
+                alerta.put("respuestaTruncada", a.getLongitudTexto() > EvaluacionRespuestaRepository.ALERTA_TEXTO_MAX);
+                alerta.put("confidence", a.getConfidenceScore());
                 return alerta;
             })
             .collect(Collectors.toList());
 
         // Construir respuesta
         Map<String, Object> resultado = new HashMap<>();
-        resultado.put("totalRespuestas", respuestas.size());
+        resultado.put("totalRespuestas", totalRespuestas);
         resultado.put("distribucionSentimientos", distribucion);
         resultado.put("sentimientoDominante", sentimientoDominante);
         resultado.put("nivelRiesgo", nivelRiesgo);
         resultado.put("alertas", alertas);
+        resultado.put("totalAlertas", totalAlertas);
+        resultado.put("alertasPage", alertasPage);
+        resultado.put("alertasSize", alertasSize);
+        resultado.put("hayMasAlertas", pagina.hasNext());
 
         return resultado;
     }
@@ -161,7 +423,7 @@ public class EvaluacionService {
     /**
      * Calcula el nivel de riesgo basado en la distribución de sentimientos
      */
-    private String calcularNivelRiesgo(Map<String, Long> distribucion, int total) {
+    private String calcularNivelRiesgo(Map<String, Long> distribucion, long total) {
         long suicidal = distribucion.getOrDefault("SUICIDAL", 0L);
         long anxiety = distribucion.getOrDefault("ANXIETY", 0L);
         long anger = distribucion.getOrDefault("ANGER", 0L);
@@ -188,10 +450,37 @@ public class EvaluacionService {
     public org.springframework.data.domain.Page<EvaluacionRespuestaResponse> listarTodasLasRespuestas(
             org.springframework.data.domain.Pageable pageable) {
 
-        org.springframework.data.domain.Page<EvaluacionRespuesta> respuestas =
-            respuestaRepository.findAll(pageable);
+        org.springframework.data.domain.Page<EvaluacionRespuestaRepository.RespuestaListado> respuestas =
+            respuestaRepository.findListado(pageable);
+
+        return respuestas.map(this::mapListadoToResponse);
+    }
+
+    /**
+     * Listar respuestas por cursor (keyset), de la más reciente a la más antigua
+     *
+     * Cada página parte de la clave (createdAt, id) de la última fila de la anterior, así que su
+     * costo no depende de la profundidad; el COUNT(*) solo se ejecuta con includeTotal.
+     *
+     * @param cursor       Cursor devuelto por la página anterior (null = primera página)
+     * @param size         Respuestas por página (máximo SeekCursor.MAX_SIZE)
+     * @param includeTotal Calcular también el total de respuestas
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<EvaluacionRespuestaResponse> listarRespuestasPorCursor(
+            String cursor, int size, boolean includeTotal) {
+
+        SeekCursor desde = SeekCursor.decode(cursor);
+        PageRequest limite = PageRequest.ofSize(SeekCursor.checkSize(size) + 1);
+
+        List<EvaluacionRespuestaRepository.RespuestaListado> respuestas = desde == null
+            ? respuestaRepository.findPrimeraPagina(limite)
+            : respuestaRepository.findPaginaDespuesDe(desde.timestamp(), desde.id(), limite);
 
-        return respuestas.map(this::mapRespuestaToResponse);
+        return CursorPageResponse.of(respuestas, size,
+            r -> new SeekCursor(r.getCreatedAt(), r.getIdEvaluacionRespuesta()),
+            this::mapListadoToResponse,
+            includeTotal ? respuestaRepository.count() : null);
     }
 
     /**
@@ -210,64 +499,163 @@ public class EvaluacionService {
      */
     @Transactional(readOnly = true)
     public List<EvaluacionRespuestaResponse> listarRespuestasPorPregunta(Integer idPregunta) {
-        List<EvaluacionRespuesta> respuestas =
-            respuestaRepository.findByEvaluacionPreguntaIdEvaluacionPregunta(idPregunta);
+        List<EvaluacionRespuestaRepository.RespuestaListado> respuestas =
+            respuestaRepository.findListadoByPregunta(idPregunta);
 
         return respuestas.stream()
-            .map(this::mapRespuestaToResponse)
+            .map(this::mapListadoToResponse)
             .collect(Collectors.toList());
     }
 
     /**
-     * Buscar respuestas por label
+     * Buscar respuestas por label: las limite de mayor confianza
      */
     @Transactional(readOnly = true)
-    public List<EvaluacionRespuestaResponse> buscarRespuestasPorLabel(String label) {
-        List<EvaluacionRespuesta> respuestas = respuestaRepository.findByLabel(label);
+    public List<EvaluacionRespuestaResponse> buscarRespuestasPorLabel(String label, int limite) {
+        List<EvaluacionRespuestaRepository.RespuestaListado> respuestas =
+            respuestaRepository.findByLabel(label, PageRequest.ofSize(validarLimite(limite)));
 
         return respuestas.stream()
-            .map(this::mapRespuestaToResponse)
+            .map(this::mapListadoToResponse)
             .collect(Collectors.toList());
     }
 
     /**
-     * Obtener respuestas de alto riesgo
+     * Obtener respuestas de alto riesgo: las limite de mayor confianza
      */
     @Transactional(readOnly = true)
-    public List<EvaluacionRespuestaResponse> obtenerRespuestasAltoRiesgo(Double umbral) {
-        List<EvaluacionRespuesta> respuestas =
-            respuestaRepository.findHighRiskResponses(umbral);
+    public List<EvaluacionRespuestaResponse> obtenerRespuestasAltoRiesgo(Double umbral, int limite) {
+        List<EvaluacionRespuestaRepository.RespuestaListado> respuestas =
+            respuestaRepository.findHighRiskResponses(umbral, PageRequest.ofSize(validarLimite(limite)));
 
         return respuestas.stream()
-            .map(this::mapRespuestaToResponse)
+            .map(this::mapListadoToResponse)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Todas las respuestas de un label (con confianza mayor a confianzaMinima si no es null) como
+     * arreglo JSON en streaming, de mayor a menor confianza
+     *
+     * Las filas se leen con un cursor de solo avance y se escriben a medida que llegan, así que la
+     * memoria no depende de cuántas haya. Cada descarga ocupa una conexión del pool mientras dura;
+     * solo se permiten rntn.respuestas.stream.max-concurrent a la vez, y la descarga se corta al
+     * cumplirse rntn.respuestas.stream.timeout-ms.
+     *
+     * @throws BusinessException 429 si ya hay demasiadas descargas en curso
+     */
+    public StreamingResponseBody streamRespuestasPorLabel(String label, Double confianzaMinima) {
+        ObjectWriter writer = objectMapper.writerFor(EvaluacionRespuestaResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (!streamPermits.tryAcquire()) {
+            throw new BusinessException("Hay demasiadas descargas de respuestas en curso. Intente más tarde.",
+                "Stream In Progress", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return PermitReleasingBody.wrap(streamPermits, streamTimeoutMs, out -> {
+            long start = System.nanoTime();
+            long[] filas = {0};
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                respuestaJdbcRepository.recorrerPorLabel(label, confianzaMinima, streamFetchSize, fila -> {
+                    try {
+                        writer.writeValue(generator, mapListadoToResponse(fila));
+                        filas[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            log.info("📤 Respuestas {} enviadas en streaming: {} filas en {} ms",
+                label, filas[0], (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    private int validarLimite(int limite) {
+        if (limite < 1 || limite > maxLimite) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + maxLimite + ": " + limite);
+        }
+        return limite;
+    }
+
     /**
      * Actualizar respuesta con re-análisis
+     *
+     * Como en el registro, el análisis se hace sin conexión abierta; la fila se relee y se
+     * actualiza después en una transacción corta.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EvaluacionRespuestaResponse actualizarRespuesta(Integer id, EvaluacionRespuestaRequest request) {
         log.info("Actualizando respuesta: {}", id);
 
+        // Validar antes de gastar CPU en el análisis
+        if (!respuestaRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Respuesta no encontrada: " + id);
+        }
+
+        // Re-analizar si está habilitado, sin conexión a BD
+        AnalisisSentimientoResponse analisis = request.isAnalizarSentimiento()
+            ? medirFase("actualizar", "analisis",
+                () -> sentimentService.analizarTexto(request.getTextoEvaluacionRespuesta()))
+            : null;
+
+        // Releer y actualizar en una transacción corta
+        return medirFase("actualizar", "escritura", () -> transactionTemplate.execute(status -> {
+            EvaluacionRespuesta respuesta = respuestaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Respuesta no encontrada: " + id));
+            String labelAnterior = respuesta.getLabelEvaluacionRespuesta();
+
+            // Una corrección de label deja de aplicar si cambia el texto
+            if (!request.getTextoEvaluacionRespuesta().equals(respuesta.getTextoEvaluacionRespuesta())) {
+                respuesta.setLabelCorregidoEvaluacionRespuesta(null);
+                respuesta.setCorregidoPor(null);
+                respuesta.setCorregidoAt(null);
+            }
+
+            // Actualizar texto
+            respuesta.setTextoEvaluacionRespuesta(request.getTextoEvaluacionRespuesta());
+            respuesta.setTextoSetEvaluacionRespuesta(
+                request.getTextoEvaluacionRespuesta().toLowerCase().trim());
+
+            if (analisis != null) {
+                respuesta.setLabelEvaluacionRespuesta(analisis.getPredictedLabel());
+                respuesta.setConfidenceScore(analisis.getConfidence());
+                respuesta.setModelVersion(analisis.getModelVersion());
+            }
+
+            respuesta = respuestaRepository.saveAndFlush(respuesta);
+
+            // Recalcular los buckets de los que sale y a los que entra la respuesta
+            Integer idPregunta = respuesta.getEvaluacionPregunta().getIdEvaluacionPregunta();
+            LocalDate fecha = respuesta.getCreatedAt().toLocalDate();
+            rollupRepository.recalcular(idPregunta, fecha, labelAnterior);
+            if (!Objects.equals(labelAnterior, respuesta.getLabelEvaluacionRespuesta())) {
+                rollupRepository.recalcular(idPregunta, fecha, respuesta.getLabelEvaluacionRespuesta());
+            }
+
+            return mapRespuestaToResponse(respuesta, analisis);
+        }));
+    }
+
+    /**
+     * Registra el label correcto asignado por un profesional; las respuestas corregidas
+     * se usan como datos de fine-tuning del modelo
+     */
+    public EvaluacionRespuestaResponse corregirLabel(Integer id, String label, String username) {
+        log.info("✏️ Corrigiendo label de respuesta {}: {} (usuario: {})", id, label, username);
+
         EvaluacionRespuesta respuesta = respuestaRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Respuesta no encontrada: " + id));
 
-        // Actualizar texto
-        respuesta.setTextoEvaluacionRespuesta(request.getTextoEvaluacionRespuesta());
-        respuesta.setTextoSetEvaluacionRespuesta(
-            request.getTextoEvaluacionRespuesta().toLowerCase().trim());
-
-        // Re-analizar si está habilitado
-        AnalisisSentimientoResponse analisis = null;
-        if (request.isAnalizarSentimiento()) {
-            analisis = sentimentService.analizarTexto(request.getTextoEvaluacionRespuesta());
-            respuesta.setLabelEvaluacionRespuesta(analisis.getPredictedLabel());
-            respuesta.setConfidenceScore(analisis.getConfidence());
-        }
+        respuesta.setLabelCorregidoEvaluacionRespuesta(SentimentLabel.valueOf(label).name());
+        respuesta.setCorregidoPor(username);
+        respuesta.setCorregidoAt(LocalDateTime.now());
 
         respuesta = respuestaRepository.save(respuesta);
 
-        return mapRespuestaToResponse(respuesta, analisis);
+        return mapRespuestaToResponse(respuesta);
     }
 
     /**
@@ -280,6 +668,40 @@ public class EvaluacionService {
             .orElseThrow(() -> new ResourceNotFoundException("Respuesta no encontrada: " + id));
 
         respuestaRepository.delete(respuesta);
+        respuestaRepository.flush();
+        rollupRepository.recalcular(respuesta.getEvaluacionPregunta().getIdEvaluacionPregunta(),
+            respuesta.getCreatedAt().toLocalDate(), respuesta.getLabelEvaluacionRespuesta());
+    }
+
+    /**
+     * Ejecuta una fase del registro de respuestas midiendo su duración en rntn.evaluacion.fase
+     */
+    private <T> T medirFase(String operacion, String fase, Supplier<T> accion) {
+        return Timer.builder("rntn.evaluacion.fase")
+            .description("Duración de cada fase del registro de respuestas")
+            .tag("operacion", operacion)
+            .tag("fase", fase)
+            .register(meterRegistry)
+            .record(accion);
+    }
+
+    /**
+     * Mapeo de una fila de listado (proyección con la pregunta ya unida)
+     */
+    private EvaluacionRespuestaResponse mapListadoToResponse(EvaluacionRespuestaRepository.RespuestaListado fila) {
+        return EvaluacionRespuestaResponse.builder()
+            .idEvaluacionRespuesta(fila.getIdEvaluacionRespuesta())
+            .idEvaluacionPregunta(fila.getIdEvaluacionPregunta())
+            .textoPregunta(fila.getTextoPregunta())
+            .textoEvaluacionRespuesta(fila.getTextoEvaluacionRespuesta())
+            .textoSetEvaluacionRespuesta(fila.getTextoSetEvaluacionRespuesta())
+            .labelEvaluacionRespuesta(fila.getLabelEvaluacionRespuesta())
+            .confidenceScore(fila.getConfidenceScore())
+            .labelCorregidoEvaluacionRespuesta(fila.getLabelCorregidoEvaluacionRespuesta())
+            .corregidoPor(fila.getCorregidoPor())
+            .createdAt(fila.getCreatedAt())
+            .idempotencyKey(fila.getIdempotencyKey())
+            .build();
     }
 
     /**
@@ -300,8 +722,11 @@ public class EvaluacionService {
             .textoSetEvaluacionRespuesta(respuesta.getTextoSetEvaluacionRespuesta())
             .labelEvaluacionRespuesta(respuesta.getLabelEvaluacionRespuesta())
             .confidenceScore(respuesta.getConfidenceScore())
+            .labelCorregidoEvaluacionRespuesta(respuesta.getLabelCorregidoEvaluacionRespuesta())
+            .corregidoPor(respuesta.getCorregidoPor())
             .sentimentAnalysis(analisis)
             .createdAt(respuesta.getCreatedAt())
+            .idempotencyKey(respuesta.getIdempotencyKey())
             .build();
     }
 }
@@ -0,0 +1,252 @@
+package com.example.rntn.service;
+
+import com.example.rntn.TrainingOptions;
+import com.example.rntn.TrainingRunner;
+import com.example.rntn.dto.request.FineTuningRequest;
+import com.example.rntn.dto.response.ModelInfoResponse;
+import com.example.rntn.dto.response.TrainingJobResponse;
+import com.example.rntn.exception.BusinessException;
+import com.example.rntn.exception.ResourceNotFoundException;
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.model.TrainingJob;
+import com.example.rntn.repository.EvaluacionRespuestaRepository;
+import edu.stanford.nlp.sentiment.SentimentModel;
+import edu.stanford.nlp.sentiment.SentimentUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de fine-tuning incremental con labels corregidos por profesionales
+ *
+ * Las respuestas con label corregido se convierten en árboles SST (reutilizando parses cacheados por
+ * TreeConversionService) y se entrenan unas pocas épocas partiendo del modelo activo, en el
+ * executor de entrenamiento. El resultado es un modelo candidato registrado con su accuracy en dev y
+ * la del modelo base, que se promueve explícitamente con {@link ModelRegistryService#promover}.
+ *
+ * El corte de correcciones de cada fine-tuning se guarda en los metadatos del modelo registrado
+ * (correctionsUpTo), que solo se escriben si el trabajo termina con éxito; el último corte se lee de
+ * ahí, de modo que un trabajo fallido o un reinicio no da por entrenadas correcciones que no lo fueron.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FineTuningService {
+
+    private static final String SOURCE = "fine-tuning";
+    private static final String CORTE_METADATA = "correctionsUpTo";
+
+    @Value("${rntn.model.default-path}")
+    private String defaultModelPath;
+
+    @Value("${rntn.fine-tuning.work-directory:data/fine-tuning/}")
+    private String workDirectory;
+
+    @Value("${rntn.fine-tuning.dev-path:}")
+    private String devPath;
+
+    @Value("${rntn.fine-tuning.dev-fraction:0.2}")
+    private double devFraction;
+
+    @Value("${rntn.fine-tuning.replay-path:}")
+    private String replayPath;
+
+    @Value("${rntn.fine-tuning.replay-ratio:1.0}")
+    private double replayRatio;
+
+    @Value("${rntn.fine-tuning.min-corrections:20}")
+    private int minCorrections;
+
+    @Value("${rntn.fine-tuning.epochs:5}")
+    private int defaultEpochs;
+
+    @Value("${rntn.fine-tuning.learning-rate:0.001}")
+    private double defaultLearningRate;
+
+    @Value("${rntn.fine-tuning.batch-size:27}")
+    private int batchSize;
+
+    private final EvaluacionRespuestaRepository respuestaRepository;
+    private final TrainingJobService trainingJobService;
+    private final ModelRegistryService modelRegistryService;
+    private final TreeConversionService treeConversionService;
+
+    /**
+     * Correcciones acumuladas y correcciones nuevas desde el último fine-tuning
+     */
+    public Map<String, Object> obtenerEstado() {
+        LocalDateTime ultimoCorte = ultimoCorte();
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("totalCorrecciones", respuestaRepository.countByLabelCorregidoEvaluacionRespuestaIsNotNull());
+        estado.put("correccionesNuevas", ultimoCorte != null
+            ? respuestaRepository.countByCorregidoAtAfter(ultimoCorte)
+            : respuestaRepository.countByLabelCorregidoEvaluacionRespuestaIsNotNull());
+        estado.put("minCorrecciones", minCorrections);
+        estado.put("ultimoFineTuning", ultimoCorte);
+        return estado;
+    }
+
+    /**
+     * Encola un fine-tuning con todas las correcciones acumuladas
+     *
+     * @throws BusinessException si no hay suficientes correcciones
+     */
+    public TrainingJobResponse iniciarFineTuning(FineTuningRequest request, String username) {
+        long correcciones = respuestaRepository.countByLabelCorregidoEvaluacionRespuestaIsNotNull();
+        if (correcciones < minCorrections) {
+            throw new BusinessException(String.format(
+                "Se requieren al menos %d respuestas corregidas para el fine-tuning (hay %d)",
+                minCorrections, correcciones));
+        }
+
+        Path baseModel = request.getBaseModel() != null
+            ? modelRegistryService.resolveModelPath(request.getBaseModel())
+            : Path.of(defaultModelPath);
+        if (!Files.isRegularFile(baseModel)) {
+            throw new ResourceNotFoundException("Modelo base no encontrado: " + baseModel);
+        }
+
+        String jobId = trainingJobService.nuevoJobId();
+        Path jobDir = Path.of(workDirectory, jobId);
+        boolean heldOutDev = devPath == null || devPath.isBlank();
+        TrainingOptions options = TrainingOptions.builder()
+            .trainPath(jobDir.resolve("train.sst").toString())
+            .devPath(heldOutDev ? jobDir.resolve("dev.sst").toString() : devPath)
+            .modelPath(modelRegistryService.resolveModelPath(TrainingJobService.modelName(jobId)).toString())
+            .initialModelPath(baseModel.toString())
+            .epochs(request.getEpochs() != null ? request.getEpochs() : defaultEpochs)
+            .learningRate(request.getLearningRate() != null ? request.getLearningRate() : defaultLearningRate)
+            .batchSize(batchSize)
+            .seed(request.getSeed() != null ? request.getSeed() : 42L)
+            .threads(trainingJobService.getThreadsPerJob())
+            .build();
+        options.validate();
+
+        log.info("🔁 Fine-tuning solicitado por {} - base: {}, correcciones: {}", username, baseModel, correcciones);
+        return trainingJobService.encolar(jobId, options, username, SOURCE,
+            job -> prepararDatos(job, jobDir, heldOutDev));
+    }
+
+    /**
+     * Genera train.sst (y dev.sst si no hay un dev fijo) con las correcciones y mide el modelo base
+     * en dev. Se ejecuta en el hilo del trabajo.
+     */
+    private void prepararDatos(TrainingJob job, Path jobDir, boolean heldOutDev) throws IOException {
+        TrainingOptions options = job.getOptions();
+        LocalDateTime corte = LocalDateTime.now();
+
+        // la última corrección de un mismo texto prevalece
+        Map<String, Integer> ejemplos = new LinkedHashMap<>();
+        for (Object[] row : respuestaRepository.findCorrectedLabels()) {
+            String texto = ((String) row[0]).trim();
+            if (!texto.isEmpty()) {
+                ejemplos.put(texto, SentimentLabel.valueOf((String) row[1]).getIndex());
+            }
+        }
+        job.appendLog(String.format("Loaded %d corrected responses", ejemplos.size()));
+
+        Random random = new Random(options.getSeed());
+        List<Map.Entry<String, Integer>> shuffled = new ArrayList<>(ejemplos.entrySet());
+        Collections.shuffle(shuffled, random);
+
+        List<String> trees = new ArrayList<>(shuffled.size());
+        long hitsBefore = treeConversionService.getHits();
+        long missesBefore = treeConversionService.getMisses();
+        long start = System.nanoTime();
+        for (Map.Entry<String, Integer> ejemplo : shuffled) {
+            if (job.isCancelRequested()) {
+                throw new CancellationException("Fine-tuning cancelled");
+            }
+            trees.add(treeConversionService.toLabeledTree(ejemplo.getKey(), ejemplo.getValue()));
+        }
+        treeConversionService.flush();
+        job.appendLog(String.format("Converted %d responses to trees in %.1fs (parse cache: %d hits, %d misses)",
+            trees.size(), (System.nanoTime() - start) / 1e9,
+            treeConversionService.getHits() - hitsBefore, treeConversionService.getMisses() - missesBefore));
+
+        List<String> train = trees;
+        Files.createDirectories(jobDir);
+        if (heldOutDev) {
+            int devSize = Math.max(1, (int) Math.round(trees.size() * devFraction));
+            escribir(Path.of(options.getDevPath()), trees.subList(0, devSize));
+            train = new ArrayList<>(trees.subList(devSize, trees.size()));
+            job.appendLog(String.format("Held out %d corrected trees as dev set", devSize));
+        }
+
+        int replayed = 0;
+        if (replayPath != null && !replayPath.isBlank()) {
+            // mezclar datos originales evita que el modelo olvide lo aprendido en el entrenamiento completo
+            List<String> replay;
+            try (Stream<String> lines = Files.lines(Path.of(replayPath), StandardCharsets.UTF_8)) {
+                replay = lines.filter(line -> !line.isBlank()).collect(Collectors.toCollection(ArrayList::new));
+            }
+            Collections.shuffle(replay, random);
+            replayed = Math.min(replay.size(), (int) Math.round(train.size() * replayRatio));
+            train = new ArrayList<>(train);
+            train.addAll(replay.subList(0, replayed));
+            Collections.shuffle(train, random);
+            job.appendLog(String.format("Mixed in %d replay trees from %s", replayed, replayPath));
+        }
+        escribir(Path.of(options.getTrainPath()), train);
+
+        double baseline = TrainingRunner.evaluateRootAccuracy(
+            SentimentModel.loadSerialized(options.getInitialModelPath()),
+            SentimentUtils.readTreesWithGoldLabels(options.getDevPath()));
+        job.appendLog(String.format("Base model dev root accuracy: %.4f", baseline));
+
+        job.getMetadata().put("baseModel", options.getInitialModelPath());
+        job.getMetadata().put("baselineDevAccuracy", baseline);
+        job.getMetadata().put("corrections", ejemplos.size());
+        job.getMetadata().put("replayTrees", replayed);
+        job.getMetadata().put(CORTE_METADATA, corte.toString());
+    }
+
+    /**
+     * Corte más reciente entre los fine-tuning completados, o null si no hubo ninguno
+     */
+    private LocalDateTime ultimoCorte() {
+        LocalDateTime ultimo = null;
+        for (ModelInfoResponse modelo : modelRegistryService.listarModelos()) {
+            Object corte = modelo.getHyperparameters() != null ? modelo.getHyperparameters().get(CORTE_METADATA) : null;
+            if (!SOURCE.equals(modelo.getSource()) || corte == null) {
+                continue;
+            }
+            try {
+                LocalDateTime fecha = LocalDateTime.parse(corte.toString());
+                if (ultimo == null || fecha.isAfter(ultimo)) {
+                    ultimo = fecha;
+                }
+            } catch (DateTimeParseException e) {
+                log.warn("⚠️ Corte de correcciones ilegible en el modelo {}: {}", modelo.getName(), corte);
+            }
+        }
+        return ultimo;
+    }
+
+    private static void escribir(Path file, List<String> trees) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String tree : trees) {
+                writer.write(tree);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.rntn.service;
+
+import com.example.rntn.EvaluationRunner;
+import com.example.rntn.dto.request.ModelEvaluationRequest;
+import com.example.rntn.dto.response.ModelEvaluationResponse;
+import com.example.rntn.exception.BusinessException;
+import com.example.rntn.exception.ResourceNotFoundException;
+import com.example.rntn.util.SentimentPredictorPool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Servicio de evaluación de modelos sobre conjuntos etiquetados (dev/test SST o CSV)
+ *
+ * Envuelve EvaluationRunner. Sin modelo explícito evalúa el modelo activo con el pool de
+ * predictores de SentimentService (compite con el tráfico real, así que los hilos se limitan al
+ * tamaño del pool); con un modelo registrado carga un pool temporal para ese modelo.
+ * Solo se permite una evaluación a la vez.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ModelEvaluationService {
+
+    @Value("${rntn.data.directory}")
+    private String dataDirectory;
+
+    private final SentimentService sentimentService;
+    private final ModelRegistryService modelRegistryService;
+
+    private final Semaphore permit = new Semaphore(1);
+
+    public ModelEvaluationResponse evaluar(ModelEvaluationRequest request) {
+        Path dataPath = resolverRutaDatos(request.getDataPath());
+        if (!permit.tryAcquire()) {
+            throw new BusinessException("Ya hay una evaluación en curso. Intente más tarde.",
+                "Evaluation In Progress", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        try {
+            List<EvaluationRunner.Example> examples =
+                leerEjemplos(dataPath, request.getLimit() != null ? request.getLimit() : 0);
+            if (examples.isEmpty()) {
+                throw new IllegalArgumentException("El archivo no contiene oraciones etiquetadas: " + request.getDataPath());
+            }
+
+            SentimentPredictorPool pool = sentimentService.getPool();
+            int threads = Math.min(request.getThreads() != null ? request.getThreads() : pool.getSize(), pool.getSize());
+            if (request.getModel() != null && !request.getModel().isBlank()) {
+                Path modelPath = modelRegistryService.resolveModelPath(request.getModel());
+                if (!Files.isRegularFile(modelPath)) {
+                    throw new ResourceNotFoundException("Modelo", request.getModel());
+                }
+                pool = new SentimentPredictorPool(modelPath.toString(), threads);
+            }
+
+            log.info("🧪 Evaluando modelo {} sobre {} ({} oraciones, {} hilos)",
+                pool.getModelPath(), request.getDataPath(), examples.size(), threads);
+            ModelEvaluationResponse response = new EvaluationRunner(pool, threads)
+                .evaluate(examples, request.getDataPath());
+            log.info("✅ Evaluación completada - accuracy: {}, macro F1: {}, {} oraciones/s, p95: {} ms",
+                response.getAccuracy(), response.getMacroF1(), response.getSentencesPerSecond(), response.getLatencyP95Ms());
+            return response;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evaluación interrumpida", e);
+        } catch (ExecutionException e) {
+            log.error("❌ Error durante la evaluación", e.getCause());
+            throw new BusinessException("Error durante la evaluación: " + e.getCause().getMessage(),
+                "Evaluation Error", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private List<EvaluationRunner.Example> leerEjemplos(Path dataPath, int limit) {
+        try {
+            return EvaluationRunner.readExamples(dataPath, limit);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("No se pudo leer el archivo de evaluación: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resuelve una ruta de datos relativa a rntn.data.directory, sin permitir salir de él
+     */
+    private Path resolverRutaDatos(String path) {
+        Path base = Path.of(dataDirectory).toAbsolutePath().normalize();
+        Path resolved = base.resolve(path).normalize();
+        if (!resolved.startsWith(base)) {
+            throw new IllegalArgumentException("La ruta de datos debe estar dentro de " + dataDirectory + ": " + path);
+        }
+        if (!Files.isRegularFile(resolved)) {
+            throw new ResourceNotFoundException("Archivo de datos no encontrado: " + path);
+        }
+        return resolved;
+    }
+}
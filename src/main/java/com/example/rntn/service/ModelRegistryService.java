@@ -0,0 +1,172 @@
+package com.example.rntn.service;
+
+import com.example.rntn.dto.response.ModelInfoResponse;
+import com.example.rntn.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Registro de modelos RNTN en el directorio rntn.model.directory
+ *
+ * Cada modelo es un archivo {@code <nombre>.ser.gz}; sus metadatos (origen, hiperparámetros,
+ * accuracy en dev) se guardan al lado en {@code <nombre>.json}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ModelRegistryService {
+
+    private static final String MODEL_SUFFIX = ".ser.gz";
+
+    @Value("${rntn.model.directory}")
+    private String modelDirectory;
+
+    @Value("${rntn.model.default-path}")
+    private String defaultModelPath;
+
+    private final ObjectMapper objectMapper;
+    private final SentimentService sentimentService;
+
+    public Path getModelDirectory() {
+        return Path.of(modelDirectory);
+    }
+
+    /**
+     * Ruta para un nuevo modelo dentro del directorio de modelos
+     */
+    public Path resolveModelPath(String name) {
+        return getModelDirectory().resolve(name + MODEL_SUFFIX);
+    }
+
+    /**
+     * Registra un modelo ya escrito en el directorio, guardando sus metadatos
+     */
+    public ModelInfoResponse register(ModelInfoResponse info) {
+        Path modelPath = Path.of(info.getPath());
+        try {
+            info.setSizeBytes(Files.size(modelPath));
+            Files.createDirectories(getModelDirectory());
+            objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(metadataPath(modelPath).toFile(), info);
+            log.info("📦 Modelo registrado: {} ({} bytes)", info.getName(), info.getSizeBytes());
+            return info;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo registrar el modelo " + info.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lista los modelos del directorio, con metadatos cuando existen
+     */
+    public List<ModelInfoResponse> listarModelos() {
+        Path dir = getModelDirectory();
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<ModelInfoResponse> modelos = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(MODEL_SUFFIX))
+                // checkpoints intermedios del entrenamiento no son modelos registrados
+                .filter(p -> !p.getFileName().toString().matches(".*\\.(last|ckpt-\\d+)\\.ser\\.gz"))
+                .forEach(p -> modelos.add(readInfo(p)));
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo listar el directorio de modelos: " + e.getMessage(), e);
+        }
+        modelos.sort(Comparator.comparing(ModelInfoResponse::getName));
+        return modelos;
+    }
+
+    /**
+     * Promueve un modelo registrado a modelo activo: lo copia a rntn.model.default-path (guardando
+     * el anterior como {@code <activo>.previous.ser.gz}) y recarga el predictor
+     */
+    public synchronized ModelInfoResponse promover(String name, String username) {
+        Path candidate = resolveModelPath(name);
+        if (!Files.isRegularFile(candidate)) {
+            throw new ResourceNotFoundException("Modelo", name);
+        }
+        Path active = Path.of(defaultModelPath);
+        String activeBase = active.getFileName().toString().replace(MODEL_SUFFIX, "");
+        Path previous = active.resolveSibling(activeBase + ".previous" + MODEL_SUFFIX);
+        Path tmp = active.resolveSibling(activeBase + ".promote.tmp");
+        try {
+            if (Files.exists(active)) {
+                Files.copy(active, previous, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.copy(candidate, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, active, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo promover el modelo " + name + ": " + e.getMessage(), e);
+        }
+
+        ModelInfoResponse info = readInfo(candidate);
+        Map<String, Object> hyperparameters = info.getHyperparameters() != null
+            ? new LinkedHashMap<>(info.getHyperparameters())
+            : new LinkedHashMap<>();
+        hyperparameters.put("promotedFrom", name);
+        hyperparameters.put("promotedBy", username);
+        register(ModelInfoResponse.builder()
+            .name(activeBase)
+            .path(active.toString())
+            .source(info.getSource())
+            .jobId(info.getJobId())
+            .devAccuracy(info.getDevAccuracy())
+            .hyperparameters(hyperparameters)
+            .createdAt(LocalDateTime.now())
+            .build());
+
+        sentimentService.recargarModelo();
+        log.info("🚀 Modelo {} promovido a activo por {}", name, username);
+        return readInfo(active);
+    }
+
+    private ModelInfoResponse readInfo(Path modelPath) {
+        String fileName = modelPath.getFileName().toString();
+        ModelInfoResponse info = null;
+        Path metadata = metadataPath(modelPath);
+        if (Files.exists(metadata)) {
+            try {
+                info = objectMapper.readValue(metadata.toFile(), ModelInfoResponse.class);
+            } catch (IOException e) {
+                log.warn("⚠️ Metadatos ilegibles para {}: {}", fileName, e.getMessage());
+            }
+        }
+        if (info == null) {
+            info = ModelInfoResponse.builder()
+                .name(fileName.substring(0, fileName.length() - MODEL_SUFFIX.length()))
+                .path(modelPath.toString())
+                .source("unregistered")
+                .build();
+        }
+        try {
+            info.setSizeBytes(Files.size(modelPath));
+        } catch (IOException ignored) {
+            // el archivo pudo eliminarse mientras se listaba
+        }
+        info.setActive(modelPath.normalize().equals(Path.of(defaultModelPath).normalize()));
+        return info;
+    }
+
+    private static Path metadataPath(Path modelPath) {
+        String fileName = modelPath.getFileName().toString();
+        String base = fileName.endsWith(MODEL_SUFFIX)
+            ? fileName.substring(0, fileName.length() - MODEL_SUFFIX.length())
+            : fileName;
+        return modelPath.resolveSibling(base + ".json");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.rntn.service;
+
+import com.example.rntn.repository.PacienteBusquedaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstrucción del índice de búsqueda de pacientes (paciente_busqueda)
+ *
+ * PacienteService lo mantiene al crear y actualizar; aquí se llena completo al arrancar si está
+ * vacío (la migración solo crea la tabla, la normalización se hace en Java) y bajo demanda. Se
+ * recorre paciente por bloques de ID, cada uno en su propia transacción corta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PacienteBusquedaService {
+
+    private static final int BLOQUE = 1000;
+
+    private final PacienteBusquedaRepository busquedaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexarSiVacio() {
+        Boolean pendiente = transactionTemplate.execute(status ->
+            busquedaRepository.estaVacio() && !busquedaRepository.leerPacientes(0, 1).isEmpty());
+        if (Boolean.TRUE.equals(pendiente)) {
+            log.info("🔎 Índice de búsqueda de pacientes vacío, construyéndolo");
+            reconstruir();
+        }
+    }
+
+    /**
+     * Recalcula los tokens de todos los pacientes
+     */
+    public Map<String, Object> reconstruir() {
+        long start = System.nanoTime();
+        int total = 0;
+        int ultimoId = 0;
+        while (true) {
+            int desde = ultimoId;
+            // {pacientes del bloque, último ID}
+            int[] bloque = transactionTemplate.execute(status -> {
+                List<Object[]> pacientes = busquedaRepository.leerPacientes(desde, BLOQUE);
+                if (pacientes.isEmpty()) {
+                    return new int[]{0, desde};
+                }
+                int hasta = (Integer) pacientes.get(pacientes.size() - 1)[0];
+                busquedaRepository.indexarBloque(desde + 1, hasta, pacientes);
+                return new int[]{pacientes.size(), hasta};
+            });
+            if (bloque == null || bloque[0] == 0) {
+                break;
+            }
+            total += bloque[0];
+            ultimoId = bloque[1];
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("✅ Índice de búsqueda de pacientes reconstruido: {} pacientes en {} ms", total, millis);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pacientes", total);
+        result.put("duracionMs", millis);
+        result.put("timestamp", LocalDateTime.now());
+        return result;
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.rntn.service;
 
 import com.example.rntn.dto.request.PacienteRequest;
+import com.example.rntn.dto.response.CursorPageResponse;
 import com.example.rntn.dto.response.PacienteResponse;
 import com.example.rntn.entity.Paciente;
 import com.example.rntn.exception.ResourceNotFoundException;
+import com.example.rntn.repository.PacienteBusquedaRepository;
 import com.example.rntn.repository.PacienteRepository;
+import com.example.rntn.util.SearchTokens;
+import com.example.rntn.util.SeekCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Servicio de negocio para Pacientes
  */
@@ -22,6 +34,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class PacienteService {
 
     private final PacienteRepository pacienteRepository;
+    private final PacienteBusquedaRepository busquedaRepository;
 
     /**
      * Crear un nuevo paciente
@@ -48,6 +61,7 @@ public class PacienteService {
             .build();
 
         paciente = pacienteRepository.save(paciente);
+        busquedaRepository.indexar(paciente.getIdPaciente(), paciente.getNombrePaciente(), paciente.getDocPaciente());
 
         return mapToResponse(paciente);
     }
@@ -65,13 +79,17 @@ public class PacienteService {
 
     /**
      * Listar pacientes con paginación y filtros
+     *
+     * Con search los resultados salen del índice de búsqueda ordenados por relevancia (el orden del
+     * Pageable no aplica): cada palabra buscada debe ser prefijo de una palabra del nombre o del
+     * documento, sin distinguir mayúsculas ni acentos.
      */
     @Transactional(readOnly = true)
     public Page<PacienteResponse> listarPacientes(String estatus, String search, Pageable pageable) {
         Page<Paciente> pacientes;
 
         if (search != null && !search.isEmpty()) {
-            pacientes = pacienteRepository.searchPacientes(search, pageable);
+            pacientes = buscarPacientes(search, pageable);
         } else if (estatus != null && !estatus.isEmpty()) {
             pacientes = pacienteRepository.findByEstatusPaciente(estatus, pageable);
         } else {
@@ -81,6 +99,50 @@ public class PacienteService {
         return pacientes.map(this::mapToResponse);
     }
 
+    /**
+     * Listar pacientes por cursor (keyset), del registro más reciente al más antiguo, con filtro de
+     * estatus opcional; el total solo se calcula con includeTotal. La búsqueda por texto se ordena
+     * por relevancia y se pagina con listarPacientes.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PacienteResponse> listarPacientesPorCursor(
+            String estatus, String cursor, int size, boolean includeTotal) {
+
+        SeekCursor desde = SeekCursor.decode(cursor);
+        PageRequest limite = PageRequest.ofSize(SeekCursor.checkSize(size) + 1);
+        String filtro = estatus != null && !estatus.isEmpty() ? estatus : null;
+
+        List<Paciente> pacientes = desde == null
+            ? pacienteRepository.findPrimeraPagina(filtro, limite)
+            : pacienteRepository.findPaginaDespuesDe(filtro, desde.timestamp(), desde.id(), limite);
+        Long total = null;
+        if (includeTotal) {
+            total = filtro != null ? pacienteRepository.countByEstatusPaciente(filtro) : pacienteRepository.count();
+        }
+
+        return CursorPageResponse.of(pacientes, size,
+            p -> new SeekCursor(p.getCreatedAt(), p.getIdPaciente()),
+            this::mapToResponse, total);
+    }
+
+    /**
+     * Página de la búsqueda por nombre o documento sobre paciente_busqueda, por relevancia; el
+     * total se acota a PacienteBusquedaRepository.MAX_CANDIDATOS
+     */
+    private Page<Paciente> buscarPacientes(String search, Pageable pageable) {
+        List<String> normalizados = SearchTokens.queryTerms(search);
+        if (normalizados.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        List<String> terminos = busquedaRepository.porSelectividad(normalizados);
+        List<Integer> ids = busquedaRepository.buscar(terminos, pageable.getOffset(), pageable.getPageSize());
+        Map<Integer, Paciente> porId = pacienteRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Paciente::getIdPaciente, Function.identity()));
+        List<Paciente> pacientes = ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+
+        return PageableExecutionUtils.getPage(pacientes, pageable, () -> busquedaRepository.contar(terminos));
+    }
+
     /**
      * Actualizar paciente
      */
@@ -109,6 +171,7 @@ public class PacienteService {
         paciente.setEstatusPaciente(request.getEstatusPaciente());
 
         paciente = pacienteRepository.save(paciente);
+        busquedaRepository.indexar(paciente.getIdPaciente(), paciente.getNombrePaciente(), paciente.getDocPaciente());
 
         return mapToResponse(paciente);
     }
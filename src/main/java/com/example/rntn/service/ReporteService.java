@@ -1,6 +1,7 @@
 package com.example.rntn.service;
 
 import com.example.rntn.dto.request.ReporteRequest;
+import com.example.rntn.dto.response.CursorPageResponse;
 import com.example.rntn.dto.response.ReporteResponse;
 import com.example.rntn.entity.Evaluacion;
 import com.example.rntn.entity.Reporte;
@@ -9,14 +10,17 @@ import com.example.rntn.exception.ResourceNotFoundException;
 import com.example.rntn.repository.EvaluacionRepository;
 import com.example.rntn.repository.ReporteRepository;
 import com.example.rntn.repository.UsuarioRepository;
+import com.example.rntn.util.SeekCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Servicio de negocio para Reportes
@@ -83,6 +87,25 @@ public class ReporteService {
         return reportes.map(this::mapToResponse);
     }
 
+    /**
+     * Listar reportes por cursor (keyset), del más reciente al más antiguo; el total solo se
+     * calcula con includeTotal
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ReporteResponse> listarReportesPorCursor(String cursor, int size, boolean includeTotal) {
+        SeekCursor desde = SeekCursor.decode(cursor);
+        PageRequest limite = PageRequest.ofSize(SeekCursor.checkSize(size) + 1);
+
+        List<Reporte> reportes = desde == null
+            ? reporteRepository.findPrimeraPagina(limite)
+            : reporteRepository.findPaginaDespuesDe(desde.timestamp(), desde.id(), limite);
+
+        return CursorPageResponse.of(reportes, size,
+            r -> new SeekCursor(r.getCreatedAt(), r.getIdReporte()),
+            this::mapToResponse,
+            includeTotal ? reporteRepository.count() : null);
+    }
+
     public ReporteResponse actualizarReporte(Integer id, ReporteRequest request) {
         log.info("Actualizando reporte: {}", id);
 
@@ -0,0 +1,241 @@
+package com.example.rntn.service;
+
+import com.example.rntn.entity.EvaluacionPregunta;
+import com.example.rntn.entity.EvaluacionRespuesta;
+import com.example.rntn.repository.EvaluacionRespuestaJdbcRepository;
+import com.example.rntn.util.AppendLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura diferida (write-behind) de respuestas analizadas
+ *
+ * Con rntn.persistence.write-behind.enabled=true, registrarRespuestaConAnalisis devuelve la
+ * predicción en cuanto se calcula y la respuesta se encola en un AppendLog local (durable: el
+ * registro está en disco antes de responder). Un escritor en segundo plano drena el log en lotes
+ * con un único JDBC batch por lote y confirma el checkpoint solo después del commit en BD.
+ *
+ * Entrega al menos una vez: si la BD falla, el lote se relee desde el checkpoint en el siguiente
+ * ciclo, y tras un reinicio se reanuda desde el checkpoint. Cada respuesta lleva una
+ * idempotency_key única, así que un lote repetido no duplica filas. Las filas que la BD rechaza
+ * de forma permanente (p.ej. la pregunta se borró mientras estaban en cola) se apartan a
+ * dead-letter.jsonl para no bloquear la cola.
+ *
+ * Métricas: rntn.writebehind.pending (registros sin confirmar), rntn.writebehind.lag (segundos
+ * desde que se aceptó el registro pendiente más antiguo), rntn.writebehind.appended / written /
+ * dead_letter / failures y rntn.writebehind.flush (duración de cada lote).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RespuestaWriteBehindService {
+
+    @Value("${rntn.persistence.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${rntn.persistence.write-behind.directory:data/write-behind}")
+    private String directory;
+
+    @Value("${rntn.persistence.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${rntn.persistence.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${rntn.persistence.write-behind.segment-size-mb:64}")
+    private long segmentSizeMb;
+
+    private final EvaluacionRespuestaJdbcRepository respuestaJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private AppendLog appendLog;
+    private ScheduledExecutorService writer;
+    private Counter appended;
+    private Counter written;
+    private Counter deadLetter;
+    private Counter failures;
+    private Timer flushTimer;
+
+    /**
+     * Respuesta aceptada y aún no guardada; es el contenido (JSON) de cada registro del log
+     */
+    public record RespuestaPendiente(
+        String idempotencyKey,
+        Integer idEvaluacionPregunta,
+        String textoEvaluacionRespuesta,
+        String textoSetEvaluacionRespuesta,
+        String labelEvaluacionRespuesta,
+        Double confidenceScore,
+        String modelVersion,
+        LocalDateTime aceptadaAt
+    ) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        appendLog = new AppendLog(Path.of(directory), segmentSizeMb * 1024 * 1024);
+        appended = meterRegistry.counter("rntn.writebehind.appended");
+        written = meterRegistry.counter("rntn.writebehind.written");
+        deadLetter = meterRegistry.counter("rntn.writebehind.dead_letter");
+        failures = meterRegistry.counter("rntn.writebehind.failures");
+        flushTimer = Timer.builder("rntn.writebehind.flush")
+            .description("Escritura de un lote de respuestas diferidas en BD")
+            .register(meterRegistry);
+        Gauge.builder("rntn.writebehind.pending", appendLog, AppendLog::pending)
+            .description("Respuestas aceptadas pendientes de guardar en BD")
+            .register(meterRegistry);
+        Gauge.builder("rntn.writebehind.lag", this, RespuestaWriteBehindService::lagSeconds)
+            .description("Antigüedad de la respuesta pendiente más antigua")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "respuestas-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::drenar, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("📝 Escritura diferida activa en {} ({} respuestas pendientes de una ejecución anterior)",
+            directory, appendLog.pending());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        writer.shutdown();
+        writer.awaitTermination(30, TimeUnit.SECONDS);
+        // Último intento de vaciar la cola; lo que quede se guarda en el próximo arranque
+        drenar();
+        appendLog.close();
+        log.info("📝 Escritura diferida detenida ({} respuestas pendientes)", appendLog.pending());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encola una respuesta; retorna cuando el registro es durable en disco
+     */
+    public void encolar(RespuestaPendiente respuesta) {
+        try {
+            appendLog.append(objectMapper.writeValueAsBytes(respuesta));
+            appended.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo encolar la respuesta para escritura diferida", e);
+        }
+    }
+
+    /**
+     * Guarda en BD todos los lotes disponibles; ante un error relee desde el checkpoint en el
+     * siguiente ciclo
+     */
+    void drenar() {
+        try {
+            List<AppendLog.Entry> entries;
+            while (!(entries = appendLog.read(batchSize)).isEmpty()) {
+                List<RespuestaPendiente> pendientes = new ArrayList<>(entries.size());
+                for (AppendLog.Entry entry : entries) {
+                    pendientes.add(objectMapper.readValue(entry.payload(), RespuestaPendiente.class));
+                }
+
+                long start = System.nanoTime();
+                guardar(pendientes);
+                appendLog.commit(entries);
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(pendientes.size());
+            }
+        } catch (Exception e) {
+            failures.increment();
+            appendLog.rewind();
+            log.error("❌ Error en la escritura diferida de respuestas ({} pendientes); se reintentará: {}",
+                appendLog.pending(), e.getMessage());
+        }
+    }
+
+    private void guardar(List<RespuestaPendiente> pendientes) throws IOException {
+        List<EvaluacionRespuesta> respuestas = pendientes.stream().map(this::toEntity).toList();
+        try {
+            respuestaJdbcRepository.insertarLoteIdempotente(respuestas);
+        } catch (DataIntegrityViolationException e) {
+            // Una fila inválida no debe bloquear la cola: se reintenta fila a fila
+            log.warn("⚠️ Lote de escritura diferida rechazado, reintentando fila a fila: {}", e.getMessage());
+            for (int i = 0; i < respuestas.size(); i++) {
+                try {
+                    respuestaJdbcRepository.insertarLoteIdempotente(List.of(respuestas.get(i)));
+                } catch (DataIntegrityViolationException rowError) {
+                    apartar(pendientes.get(i), rowError);
+                }
+            }
+        }
+    }
+
+    private void apartar(RespuestaPendiente pendiente, Exception error) throws IOException {
+        deadLetter.increment();
+        log.error("❌ Respuesta {} descartada de la escritura diferida: {}", pendiente.idempotencyKey(), error.getMessage());
+        Files.write(Path.of(directory, "dead-letter.jsonl"),
+            (objectMapper.writeValueAsString(pendiente) + "\n").getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private EvaluacionRespuesta toEntity(RespuestaPendiente pendiente) {
+        return EvaluacionRespuesta.builder()
+            .evaluacionPregunta(EvaluacionPregunta.builder().idEvaluacionPregunta(pendiente.idEvaluacionPregunta()).build())
+            .textoEvaluacionRespuesta(pendiente.textoEvaluacionRespuesta())
+            .textoSetEvaluacionRespuesta(pendiente.textoSetEvaluacionRespuesta())
+            .labelEvaluacionRespuesta(pendiente.labelEvaluacionRespuesta())
+            .confidenceScore(pendiente.confidenceScore())
+            .modelVersion(pendiente.modelVersion())
+            .idempotencyKey(pendiente.idempotencyKey())
+            .createdAt(pendiente.aceptadaAt())
+            .build();
+    }
+
+    /**
+     * Antigüedad del registro sin confirmar más antiguo (el del checkpoint), leída del log y no del
+     * último lote: cubre la cola heredada de un reinicio y la BD caída antes de la primera lectura
+     */
+    private double lagSeconds() {
+        try {
+            AppendLog.Entry oldest = appendLog.peek();
+            if (oldest == null) {
+                return 0.0;
+            }
+            LocalDateTime aceptadaAt = objectMapper.readValue(oldest.payload(), RespuestaPendiente.class).aceptadaAt();
+            return Duration.between(aceptadaAt, LocalDateTime.now()).toMillis() / 1000.0;
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo leer la respuesta pendiente más antigua: {}", e.getMessage());
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.rntn.service;
+
+import com.example.rntn.dto.response.SentimentAggregateStats;
+import com.example.rntn.entity.Evaluacion;
+import com.example.rntn.entity.SentimientoRollupDia;
+import com.example.rntn.exception.ResourceNotFoundException;
+import com.example.rntn.model.SentimentLabel;
+import com.example.rntn.repository.ConsultaRepository;
+import com.example.rntn.repository.EvaluacionRepository;
+import com.example.rntn.repository.EvaluacionRespuestaRepository;
+import com.example.rntn.repository.SentimientoRollupDiaRepository;
+import com.example.rntn.repository.SentimientoRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Estadísticas agregadas de respuestas guardadas en BD
+ *
+ * Sustituye a los stored procedures de V4 (nunca aplicados): cada cálculo es una consulta JPQL
+ * agrupada (conteos, min/max/avg, sumas condicionales) que funciona igual en MySQL y H2. Las listas
+ * grandes de IDs se parten en bloques de IN con un número fijo de parámetros
+ * (rntn.aggregate.in-list-size) y los parciales por label se combinan en memoria, así que 100k IDs
+ * son ~100 consultas agrupadas que usan la clave primaria.
+ *
+ * El resumen diario se lee de sentimiento_rollup_dia: una fila por día y label, sin recorrer
+ * respuestas.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SentimentAggregateService {
+
+    @Value("${rntn.aggregate.in-list-size:1000}")
+    private int inListSize;
+
+    private final EvaluacionRespuestaRepository respuestaRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final ConsultaRepository consultaRepository;
+    private final SentimientoRollupRepository rollupRepository;
+    private final SentimientoRollupDiaRepository rollupDiaRepository;
+
+    /**
+     * Obtiene estadísticas agregadas de un conjunto de respuestas guardadas
+     * Solo cuentan las respuestas con label; los IDs repetidos o inexistentes se ignoran
+     *
+     * @param responseIds Lista de IDs de EvaluacionRespuesta
+     * @return SentimentAggregateStats calculadas por la BD
+     */
+    public SentimentAggregateStats obtenerEstadisticasAgregadas(List<Long> responseIds) {
+        if (responseIds == null || responseIds.isEmpty()) {
+            log.warn("⚠️ Lista de IDs vacía para estadísticas agregadas");
+            return SentimentAggregateStats.builder()
+                .totalResponses(0)
+                .sentimentDistribution(new HashMap<>())
+                .build();
+        }
+
+        // Ordenados y sin repetir: cada respuesta cuenta una vez aunque caiga en bloques distintos
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (Long id : responseIds) {
+            if (id != null && id > 0 && id <= Integer.MAX_VALUE) {
+                ids.add(id.intValue());
+            }
+        }
+
+        log.info("📊 Obteniendo estadísticas agregadas desde BD para {} respuestas ({} bloques)",
+            ids.size(), (ids.size() + inListSize - 1) / inListSize);
+
+        Map<String, Integer> distribution = new HashMap<>();
+        for (SentimentLabel label : SentimentLabel.values()) {
+            distribution.put(label.name(), 0);
+        }
+        long total = 0;
+        long highRisk = 0;
+        long confidenceCount = 0;
+        double confidenceSum = 0.0;
+        Double minConf = null;
+        Double maxConf = null;
+
+        List<Integer> ordenados = new ArrayList<>(ids);
+        for (int from = 0; from < ordenados.size(); from += inListSize) {
+            List<Integer> bloque = ordenados.subList(from, Math.min(from + inListSize, ordenados.size()));
+            for (Object[] row : respuestaRepository.aggregateByLabel(bloque, SentimentLabel.HIGH_RISK_CONFIDENCE)) {
+                String label = (String) row[0];
+                long count = ((Number) row[1]).longValue();
+                distribution.merge(label, (int) count, Integer::sum);
+                total += count;
+                if (row[2] != null) {
+                    double min = ((Number) row[2]).doubleValue();
+                    double max = ((Number) row[3]).doubleValue();
+                    minConf = minConf == null ? min : Math.min(minConf, min);
+                    maxConf = maxConf == null ? max : Math.max(maxConf, max);
+                    confidenceSum += ((Number) row[4]).doubleValue();
+                    confidenceCount += ((Number) row[5]).longValue();
+                }
+                highRisk += ((Number) row[6]).longValue();
+            }
+        }
+
+        // Sentimiento dominante: el más frecuente, en empate el primero alfabéticamente
+        String dominantSentiment = distribution.entrySet().stream()
+            .filter(e -> e.getValue() > 0)
+            .max(Map.Entry.<String, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<String, Integer>comparingByKey().reversed()))
+            .map(Map.Entry::getKey)
+            .orElse(null);
+
+        SentimentAggregateStats stats = SentimentAggregateStats.builder()
+            .sentimentDistribution(distribution)
+            .dominantSentiment(dominantSentiment)
+            .averageConfidence(confidenceCount > 0 ? redondear(confidenceSum / confidenceCount) : 0.0)
+            .minConfidence(minConf != null ? redondear(minConf) : 0.0)
+            .maxConfidence(maxConf != null ? redondear(maxConf) : 0.0)
+            .highestRiskLevel(nivelRiesgoMasAlto(distribution))
+            .highRiskAlerts((int) highRisk)
+            .totalResponses((int) total)
+            .build();
+
+        log.info("✅ Estadísticas obtenidas desde BD - Dominante: {}, Total: {}",
+                 stats.getDominantSentiment(), stats.getTotalResponses());
+
+        return stats;
+    }
+
+    /**
+     * Obtiene la evaluación con el paciente y profesional de las consultas que la usan
+     *
+     * Las respuestas se relacionan con preguntas, y las preguntas no guardan la evaluación a la
+     * que pertenecen, así que aquí no hay distribución de sentimientos por evaluación; para eso se
+     * usan las estadísticas por IDs de respuesta.
+     */
+    public Map<String, Object> obtenerDistribucionPorEvaluacion(Integer idEvaluacion) {
+        log.info("📊 Obteniendo distribución de sentimientos para evaluación {}", idEvaluacion);
+
+        Evaluacion evaluacion = evaluacionRepository.findById(idEvaluacion)
+            .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada: " + idEvaluacion));
+
+        List<Map<String, Object>> consultas = new ArrayList<>();
+        for (Object[] row : consultaRepository.findResumenByEvaluacion(idEvaluacion)) {
+            Map<String, Object> consulta = new LinkedHashMap<>();
+            consulta.put("id_consulta", row[0]);
+            consulta.put("fechahora_consulta", row[1]);
+            consulta.put("nombre_paciente", row[2]);
+            consulta.put("nombre_profesional", row[3]);
+            consultas.add(consulta);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id_evaluacion", evaluacion.getIdEvaluacion());
+        result.put("nombre_evaluacion", evaluacion.getNombreEvaluacion());
+        result.put("titulo_evaluacion", evaluacion.getTituloEvaluacion());
+        result.put("fecha_evaluacion", evaluacion.getFechaEvaluacion());
+        result.put("total_consultas", consultas.size());
+        result.put("consultas", consultas);
+
+        log.info("✅ Distribución obtenida para evaluación {}", idEvaluacion);
+
+        return result;
+    }
+
+    /**
+     * Obtiene alertas de alto riesgo de los últimos N días
+     */
+    public List<Map<String, Object>> obtenerAlertasAltoRiesgo(Integer daysBack) {
+        if (daysBack == null || daysBack < 0) {
+            throw new IllegalArgumentException("daysBack debe ser mayor o igual a 0");
+        }
+        log.info("⚠️ Obteniendo alertas de alto riesgo de los últimos {} días", daysBack);
+
+        LocalDateTime desde = LocalDateTime.now().minusDays(daysBack);
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        for (Object[] row : respuestaRepository.findHighRiskAlerts(SentimentLabel.HIGH_RISK_CONFIDENCE, desde)) {
+            Map<String, Object> alert = new LinkedHashMap<>();
+            alert.put("id_evaluacion_respuesta", row[0]);
+            alert.put("texto_evaluacion_respuesta", row[1]);
+            alert.put("label_evaluacion_respuesta", row[2]);
+            alert.put("confidence_score", row[3]);
+            alert.put("nivel_riesgo", SentimentLabel.SUICIDAL.getRiskLevel());
+            alert.put("fecha_respuesta", row[4]);
+            alert.put("id_evaluacion_pregunta", row[5]);
+            alert.put("texto_pregunta", row[6]);
+            alerts.add(alert);
+        }
+
+        log.info("✅ Se encontraron {} alertas de alto riesgo", alerts.size());
+
+        return alerts;
+    }
+
+    /**
+     * Estadísticas por día entre dos fechas (ambas incluidas), desde el rollup diario
+     */
+    public List<Map<String, Object>> obtenerResumenDiario(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("La fecha 'hasta' debe ser igual o posterior a 'desde'");
+        }
+        log.info("📊 Obteniendo resumen diario de sentimientos del {} al {}", desde, hasta);
+
+        Map<LocalDate, List<SentimientoRollupDia>> porDia = new LinkedHashMap<>();
+        for (SentimientoRollupDia bucket : rollupDiaRepository.findByFechaBetweenOrderByFechaAscLabelAsc(desde, hasta)) {
+            porDia.computeIfAbsent(bucket.getFecha(), f -> new ArrayList<>()).add(bucket);
+        }
+
+        List<Map<String, Object>> dias = new ArrayList<>(porDia.size());
+        porDia.forEach((fecha, buckets) -> {
+            Map<String, Long> distribucion = new LinkedHashMap<>();
+            long total = 0;
+            long totalConfianza = 0;
+            long altoRiesgo = 0;
+            double sumaConfianza = 0.0;
+            Double minConf = null;
+            Double maxConf = null;
+            for (SentimientoRollupDia bucket : buckets) {
+                distribucion.put(bucket.getLabel(), bucket.getTotalRespuestas());
+                total += bucket.getTotalRespuestas();
+                totalConfianza += bucket.getTotalConfianza();
+                sumaConfianza += bucket.getSumaConfianza();
+                altoRiesgo += bucket.getAltoRiesgo();
+                if (bucket.getMinConfianza() != null) {
+                    minConf = minConf == null ? bucket.getMinConfianza() : Math.min(minConf, bucket.getMinConfianza());
+                    maxConf = maxConf == null ? bucket.getMaxConfianza() : Math.max(maxConf, bucket.getMaxConfianza());
+                }
+            }
+            Map<String, Object> dia = new LinkedHashMap<>();
+            dia.put("fecha", fecha);
+            dia.put("totalRespuestas", total);
+            dia.put("distribucionSentimientos", distribucion);
+            dia.put("confianzaPromedio", totalConfianza > 0 ? redondear(sumaConfianza / totalConfianza) : null);
+            dia.put("confianzaMinima", minConf);
+            dia.put("confianzaMaxima", maxConf);
+            dia.put("alertasAltoRiesgo", altoRiesgo);
+            dias.add(dia);
+        });
+
+        return dias;
+    }
+
+    /**
+     * Recalcula todas las tablas de rollup desde evaluacion_respuesta
+     */
+    @Transactional
+    public Map<String, Object> reconstruirRollups() {
+        log.info("🔄 Reconstruyendo rollups de sentimiento");
+        long start = System.nanoTime();
+
+        Map<String, Integer> buckets = rollupRepository.reconstruir();
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("✅ Rollups reconstruidos en {} ms: {}", millis, buckets);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("buckets", buckets);
+        result.put("duracionMs", millis);
+        result.put("timestamp", LocalDateTime.now());
+        return result;
+    }
+
+    // ===== Métodos auxiliares =====
+
+    /**
+     * Nivel de riesgo más alto entre los labels presentes (ALTO > MEDIO > BAJO)
+     */
+    private String nivelRiesgoMasAlto(Map<String, Integer> distribution) {
+        List<String> orden = List.of("BAJO", "MEDIO", "ALTO");
+        String highest = null;
+        for (SentimentLabel label : SentimentLabel.values()) {
+            if (distribution.getOrDefault(label.name(), 0) > 0
+                    && (highest == null || orden.indexOf(label.getRiskLevel()) > orden.indexOf(highest))) {
+                highest = label.getRiskLevel();
+            }
+        }
+        return highest;
+    }
+
+    private static double redondear(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
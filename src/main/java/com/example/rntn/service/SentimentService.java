@@ -1,24 +1,42 @@
 package com.example.rntn.service;
 
 import com.example.rntn.dto.response.AnalisisSentimientoResponse;
+import com.example.rntn.admission.RequestDeadlineResolver;
 import com.example.rntn.dto.response.SentimentAggregateStats;
+import com.example.rntn.exception.DeadlineExceededException;
 import com.example.rntn.exception.PredictionException;
+import com.example.rntn.metrics.InferenceMetrics;
 import com.example.rntn.model.SentimentLabel;
-import com.example.rntn.repository.EvaluacionRespuestaRepository;
+import com.example.rntn.util.Deadline;
 import com.example.rntn.util.SentimentPredictor;
+import com.example.rntn.util.SentimentPredictorPool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -33,8 +51,40 @@ public class SentimentService {
     @Value("${rntn.model.default-path}")
     private String defaultModelPath;
 
-    private final EvaluacionRespuestaRepository respuestaRepository;
-    private SentimentPredictor predictor;
+    @Value("${rntn.inference.pool-size:4}")
+    private int poolSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${rntn.inference.lane-weights.interactive:8}")
+    private int interactiveWeight;
+
+    @Value("${rntn.inference.lane-weights.batch:2}")
+    private int batchWeight;
+
+    @Value("${rntn.inference.lane-weights.background:1}")
+    private int backgroundWeight;
+
+    private final InferenceMetrics inferenceMetrics;
+    private final RequestDeadlineResolver deadlineResolver;
+
+    /**
+     * Pool y versión del modelo activo; se reemplazan juntos al recargar, así que quien lee ambos
+     * de la misma instancia nunca etiqueta una predicción con la versión de otro modelo
+     */
+    private volatile ModeloActivo activo;
+
+    /**
+     * Hilos de plataforma para la inferencia cuando las peticiones corren en hilos virtuales; null
+     * en el modo clásico, donde se analiza en el hilo de la petición
+     */
+    private ExecutorService inferenceExecutor;
+
+    /**
+     * Hilos que reparten los textos de un lote entre los predictores (analizarTextosEnParalelo)
+     */
+    private ExecutorService loteExecutor;
 
     /**
      * Inicializa el modelo RNTN al arrancar la aplicación
@@ -43,40 +93,171 @@ public class SentimentService {
     @PostConstruct
     public void init() {
         try {
-            log.info("🚀 Inicializando SentimentService con modelo: {}", defaultModelPath);
-            predictor = new SentimentPredictor(defaultModelPath);
-            log.info("✅ Modelo RNTN cargado exitosamente desde: {}", defaultModelPath);
+            log.info("🚀 Inicializando SentimentService con modelo: {} ({} predictores)", defaultModelPath, poolSize);
+            String version = calcularVersionModelo(defaultModelPath);
+            activo = new ModeloActivo(crearPool(version), version);
+            inferenceMetrics.registerLaneGauges(this::getPool);
+            AtomicInteger loteThreads = new AtomicInteger();
+            loteExecutor = Executors.newFixedThreadPool(poolSize, r -> {
+                Thread t = new Thread(r, "rntn-lote-" + loteThreads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            if (virtualThreads) {
+                // Tantos hilos como predictores: nunca hay más análisis en curso que predictores
+                AtomicInteger threadCount = new AtomicInteger();
+                inferenceExecutor = Executors.newFixedThreadPool(poolSize, r -> {
+                    Thread t = new Thread(r, "rntn-inference-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+                log.info("🧵 Inferencia en pool propio de {} hilos de plataforma (peticiones en hilos virtuales)", poolSize);
+            }
+            log.info("✅ Modelo RNTN cargado exitosamente desde: {} (versión {})", defaultModelPath, activo.version());
         } catch (Exception e) {
             log.error("❌ Error al cargar modelo RNTN desde: {}", defaultModelPath, e);
             throw new RuntimeException("No se pudo inicializar el servicio de análisis de sentimientos", e);
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (loteExecutor != null) {
+            loteExecutor.shutdownNow();
+        }
+        if (inferenceExecutor != null) {
+            inferenceExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Recarga el modelo desde rntn.model.default-path (p.ej. tras promover un modelo candidato).
+     * El pool nuevo se carga completo antes de reemplazar al actual, así que las peticiones en
+     * curso nunca ven un modelo a medio cargar; las que ya tomaron un predictor del pool anterior
+     * terminan con él.
+     */
+    public void recargarModelo() {
+        log.info("🔄 Recargando modelo RNTN desde: {}", defaultModelPath);
+        String version = calcularVersionModelo(defaultModelPath);
+        ModeloActivo nuevo = new ModeloActivo(crearPool(version), version);
+        activo = nuevo;
+        log.info("✅ Modelo RNTN recargado (versión {})", nuevo.version());
+    }
+
+    /**
+     * Pool con los pesos de reparto por carril (interactivo, lote, segundo plano). La versión
+     * (hash del contenido) forma parte de la clave con que CoreNLP guarda sus anotadores: sin
+     * ella, un modelo promovido sobre la misma ruta reutilizaría el anotador del modelo anterior.
+     */
+    private SentimentPredictorPool crearPool(String version) {
+        return new SentimentPredictorPool(defaultModelPath, version, poolSize,
+            new int[]{interactiveWeight, batchWeight, backgroundWeight});
+    }
+
+    /**
+     * Pool de predictores del modelo activo
+     */
+    public SentimentPredictorPool getPool() {
+        return activo.pool();
+    }
+
+    /**
+     * Versión del modelo activo: nombre del archivo + prefijo del SHA-256 de su contenido
+     */
+    public String getModelVersion() {
+        return activo.version();
+    }
+
+    private static String calcularVersionModelo(String modelPath) {
+        Path path = Path.of(modelPath);
+        String name = path.getFileName().toString().replace(".ser.gz", "");
+        if (!Files.isRegularFile(path)) {
+            return name;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, n);
+            }
+            return name + "@" + HexFormat.of().formatHex(digest.digest()).substring(0, 12);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("⚠️ No se pudo calcular la versión del modelo {}: {}", modelPath, e.getMessage());
+            return name;
+        }
+    }
+
     /**
-     * Analiza el sentimiento de un texto individual
+     * Analiza el sentimiento de un texto individual en el carril interactivo
      *
      * @param texto Texto a analizar
      * @return AnalisisSentimientoResponse con predicción y nivel de riesgo
      * @throws PredictionException si hay error en el análisis
      */
     public AnalisisSentimientoResponse analizarTexto(String texto) {
+        return analizarTexto(texto, SentimentPredictorPool.Lane.INTERACTIVE);
+    }
+
+    /**
+     * Analiza el sentimiento de un texto individual con el plazo de la petición actual
+     * (cabecera X-Request-Timeout-Ms o rntn.inference.deadline del carril)
+     *
+     * @param texto Texto a analizar
+     * @param lane  Carril de prioridad en el que espera por un predictor; el trabajo masivo usa
+     *              BATCH o BACKGROUND y pide un predictor por texto, de modo que las peticiones
+     *              interactivas se le adelantan entre un texto y el siguiente
+     * @return AnalisisSentimientoResponse con predicción y nivel de riesgo
+     * @throws PredictionException si hay error en el análisis
+     * @throws DeadlineExceededException si el plazo vence antes de empezar el parse
+     */
+    public AnalisisSentimientoResponse analizarTexto(String texto, SentimentPredictorPool.Lane lane) {
+        return analizarTexto(texto, lane, deadlineResolver.resolve(lane));
+    }
+
+    /**
+     * Analiza el sentimiento de un texto individual dentro de un plazo: si vence mientras espera un
+     * predictor o antes del parse, el texto se descarta sin analizar
+     */
+    public AnalisisSentimientoResponse analizarTexto(String texto, SentimentPredictorPool.Lane lane, Deadline deadline) {
+        long start = System.nanoTime();
+        ModeloActivo modelo = activo;
+        String version = modelo.version();
         try {
             if (texto == null || texto.trim().isEmpty()) {
+                inferenceMetrics.recordFailure(version, "empty_text");
                 throw new PredictionException("El texto no puede estar vacío");
             }
 
             log.debug("Analizando texto: {}", texto.substring(0, Math.min(50, texto.length())));
 
-            // Predecir con el modelo RNTN
-            int predictedClass = predictor.predictClass(texto);
+            // Predecir con el modelo RNTN, midiendo la espera por el pool y cada etapa
+            SentimentPredictor.StageListener stages = inferenceMetrics.stageListener(version);
+            long[] inferenceNanos = new long[1];
+            SentimentPredictor.Prediction prediction = modelo.pool().withPredictor(lane, deadline, p -> {
+                long acquired = System.nanoTime();
+                inferenceMetrics.recordPoolWait(version, lane, acquired - start);
+                try {
+                    return enHiloDeInferencia(() -> p.predict(texto, stages, deadline));
+                } finally {
+                    inferenceNanos[0] = System.nanoTime() - acquired;
+                }
+            });
+            if (deadline.isExpired()) {
+                // El resultado llega tarde: el cliente probablemente ya no lo espera
+                inferenceMetrics.recordDeadlineWasted(lane, inferenceNanos[0]);
+            }
+            if (prediction == null) {
+                inferenceMetrics.recordFailure(version, "no_sentence");
+                throw new PredictionException("El texto no contiene oraciones analizables");
+            }
+            int predictedClass = prediction.predictedClass();
 
             // Mapear índice a label usando el enum
             SentimentLabel sentimentLabel = SentimentLabel.fromIndex(predictedClass);
             String predictedLabelName = sentimentLabel.name();
 
-            // TODO: Implementar cálculo de confianza real del modelo
-            // Por ahora, usamos un valor simulado basado en la longitud del texto
-            double confidence = 0.75 + (Math.random() * 0.2); // Entre 0.75 y 0.95
+            // Confianza: probabilidad softmax de la clase predicha en la raíz del árbol
+            double confidence = prediction.confidence();
 
             // Determinar nivel de riesgo según el label
             String nivelRiesgo = sentimentLabel.getRiskLevel();
@@ -87,9 +268,12 @@ public class SentimentService {
                 .predictedLabel(predictedLabelName)
                 .confidence(confidence)
                 .nivelRiesgo(nivelRiesgo)
+                .modelVersion(version)
                 .timestamp(LocalDateTime.now())
                 .build();
 
+            inferenceMetrics.recordPrediction(version, prediction, sentimentLabel, System.nanoTime() - start);
+
             log.info("✅ Análisis completado: {} (confidence: {}, riesgo: {})",
                      predictedLabelName, confidence, nivelRiesgo);
 
@@ -101,25 +285,138 @@ public class SentimentService {
 
             return response;
 
+        } catch (Deadline.ExceededException e) {
+            inferenceMetrics.recordDeadlineExpired(lane, e.getPhase(), 1);
+            log.warn("⏱️ Plazo vencido antes de analizar el texto (fase: {}, carril: {})", e.getPhase(), lane);
+            throw new DeadlineExceededException("El plazo de la petición venció antes de completar el análisis");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inferenceMetrics.recordFailure(version, "interrupted");
+            throw new PredictionException("Análisis interrumpido mientras esperaba un predictor", e);
         } catch (Exception e) {
+            if (!(e instanceof PredictionException)) {
+                inferenceMetrics.recordFailure(version, e.getClass().getSimpleName());
+            }
             log.error("❌ Error al analizar texto", e);
             throw new PredictionException("Error en el análisis de sentimiento: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Analiza múltiples textos en lote de forma asíncrona
+     * Ejecuta el análisis (CPU intensivo) en el pool de inferencia si las peticiones corren en hilos
+     * virtuales, para no ocupar los hilos portadores que comparten con los endpoints de E/S. El
+     * llamante ya tiene un predictor, así que el pool nunca tiene tareas en cola.
+     */
+    private <T> T enHiloDeInferencia(Supplier<T> analisis) {
+        if (inferenceExecutor == null) {
+            return analisis.get();
+        }
+        Future<T> future = inferenceExecutor.submit(analisis::get);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PredictionException("Análisis interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new PredictionException("Error en el análisis de sentimiento: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Analiza varios textos en orden con el plazo de la petición actual. Si el plazo vence, deja de
+     * analizar los restantes y devuelve los resultados obtenidos hasta ese momento: el resultado es
+     * parcial cuando tiene menos elementos que {@code textos}.
      *
      * @param textos Lista de textos a analizar
-     * @return CompletableFuture con lista de análisis
+     * @param lane   Carril de prioridad (BATCH o BACKGROUND para trabajo masivo)
+     * @return Análisis de los textos procesados, en el mismo orden
+     */
+    public List<AnalisisSentimientoResponse> analizarTextos(List<String> textos, SentimentPredictorPool.Lane lane) {
+        return analizarTextos(textos, lane, deadlineResolver.resolve(lane));
+    }
+
+    private List<AnalisisSentimientoResponse> analizarTextos(List<String> textos, SentimentPredictorPool.Lane lane,
+                                                             Deadline deadline) {
+        List<AnalisisSentimientoResponse> resultados = new ArrayList<>(textos.size());
+        for (String texto : textos) {
+            if (deadline.isExpired()) {
+                inferenceMetrics.recordDeadlineExpired(lane, "batch", textos.size() - resultados.size());
+                break;
+            }
+            try {
+                resultados.add(analizarTexto(texto, lane, deadline));
+            } catch (DeadlineExceededException e) {
+                // El texto actual ya se contó en analizarTexto; se cuentan los que quedaban detrás
+                int restantes = textos.size() - resultados.size() - 1;
+                if (restantes > 0) {
+                    inferenceMetrics.recordDeadlineExpired(lane, "batch", restantes);
+                }
+                break;
+            }
+        }
+        if (resultados.size() < textos.size()) {
+            log.warn("⏱️ Plazo vencido: lote parcial con {} de {} textos analizados", resultados.size(), textos.size());
+        }
+        return resultados;
+    }
+
+    /**
+     * Analiza todos los textos repartiéndolos entre los predictores del pool, con el plazo de la
+     * petición actual. A diferencia de analizarTextos no admite resultados parciales: si un texto
+     * falla o vence el plazo se cancela el resto y se propaga el error.
+     *
+     * @param textos Lista de textos a analizar
+     * @param lane   Carril de prioridad de los textos
+     * @return Análisis en el mismo orden que {@code textos}
+     */
+    public List<AnalisisSentimientoResponse> analizarTextosEnParalelo(List<String> textos, SentimentPredictorPool.Lane lane) {
+        Deadline deadline = deadlineResolver.resolve(lane);
+        List<CompletableFuture<AnalisisSentimientoResponse>> futures = new ArrayList<>(textos.size());
+        CompletableFuture<Void> primerError = new CompletableFuture<>();
+        for (String texto : textos) {
+            CompletableFuture<AnalisisSentimientoResponse> future =
+                CompletableFuture.supplyAsync(() -> analizarTexto(texto, lane, deadline), loteExecutor);
+            future.whenComplete((r, e) -> {
+                if (e != null) {
+                    primerError.completeExceptionally(e);
+                }
+            });
+            futures.add(future);
+        }
+        try {
+            // Termina al completar todos o en cuanto falla el primero
+            CompletableFuture.anyOf(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])), primerError).join();
+        } catch (CompletionException e) {
+            // Los textos aún en cola no llegan a analizarse
+            futures.forEach(f -> f.cancel(false));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new PredictionException("Error en el análisis de sentimiento: " + e.getCause().getMessage(), e.getCause());
+        }
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    /**
+     * Analiza múltiples textos en lote de forma asíncrona. El plazo se resuelve al encolar el lote,
+     * así que la espera en cola también lo consume.
+     *
+     * @param textos Lista de textos a analizar
+     * @return CompletableFuture con lista de análisis (parcial si vence el plazo)
      */
     public CompletableFuture<List<AnalisisSentimientoResponse>> analizarLote(List<String> textos) {
+        long submitted = System.nanoTime();
+        Deadline deadline = deadlineResolver.resolve(SentimentPredictorPool.Lane.BATCH);
         return CompletableFuture.supplyAsync(() -> {
+            inferenceMetrics.recordQueue(getModelVersion(), System.nanoTime() - submitted);
             log.info("📊 Analizando lote de {} textos", textos.size());
 
-            List<AnalisisSentimientoResponse> resultados = textos.stream()
-                .map(this::analizarTexto)
-                .collect(Collectors.toList());
+            List<AnalisisSentimientoResponse> resultados =
+                analizarTextos(textos, SentimentPredictorPool.Lane.BATCH, deadline);
 
             log.info("✅ Lote completado: {} análisis realizados", resultados.size());
             return resultados;
@@ -132,6 +429,7 @@ public class SentimentService {
     public java.util.Map<String, Object> obtenerEstadisticasModelo() {
         return java.util.Map.of(
             "modelPath", defaultModelPath,
+            "modelVersion", getModelVersion(),
             "status", "LOADED",
             "supportedLabels", java.util.Arrays.stream(SentimentLabel.values())
                 .map(SentimentLabel::getName)
@@ -222,136 +520,6 @@ public class SentimentService {
         return stats;
     }
 
-    /**
-     * Obtiene estadísticas agregadas usando stored procedure de BD
-     * Usa IDs de respuestas ya guardadas en la base de datos
-     *
-     * @param responseIds Lista de IDs de EvaluacionRespuesta
-     * @return SentimentAggregateStats calculadas por la BD
-     */
-    public SentimentAggregateStats obtenerEstadisticasAgregadasDesdeBD(List<Long> responseIds) {
-        if (responseIds == null || responseIds.isEmpty()) {
-            log.warn("⚠️ Lista de IDs vacía para estadísticas agregadas");
-            return SentimentAggregateStats.builder()
-                .totalResponses(0)
-                .sentimentDistribution(new HashMap<>())
-                .build();
-        }
-
-        log.info("📊 Obteniendo estadísticas agregadas desde BD para {} respuestas", responseIds.size());
-
-        // Convertir lista de IDs a string separado por comas
-        String idsStr = responseIds.stream()
-            .map(String::valueOf)
-            .collect(Collectors.joining(","));
-
-        try {
-            // Llamar al stored procedure
-            List<Map<String, Object>> resultList = respuestaRepository.getAggregateStats(idsStr);
-
-            if (resultList.isEmpty()) {
-                log.warn("⚠️ Stored procedure no retornó resultados");
-                return SentimentAggregateStats.builder()
-                    .totalResponses(0)
-                    .sentimentDistribution(new HashMap<>())
-                    .build();
-            }
-
-            // Procesar resultado del stored procedure
-            Map<String, Object> result = resultList.get(0);
-
-            // Construir distribución
-            Map<String, Integer> distribution = new HashMap<>();
-            distribution.put("ANXIETY", getIntValue(result, "count_anxiety"));
-            distribution.put("SUICIDAL", getIntValue(result, "count_suicidal"));
-            distribution.put("ANGER", getIntValue(result, "count_anger"));
-            distribution.put("SADNESS", getIntValue(result, "count_sadness"));
-            distribution.put("FRUSTRATION", getIntValue(result, "count_frustration"));
-
-            SentimentAggregateStats stats = SentimentAggregateStats.builder()
-                .sentimentDistribution(distribution)
-                .dominantSentiment((String) result.get("dominant_sentiment"))
-                .averageConfidence(getDoubleValue(result, "avg_confidence"))
-                .minConfidence(getDoubleValue(result, "min_confidence"))
-                .maxConfidence(getDoubleValue(result, "max_confidence"))
-                .highestRiskLevel((String) result.get("highest_risk_level"))
-                .highRiskAlerts(getIntValue(result, "high_risk_alerts"))
-                .totalResponses(getIntValue(result, "total_respuestas"))
-                .build();
-
-            log.info("✅ Estadísticas obtenidas desde BD - Dominante: {}, Total: {}",
-                     stats.getDominantSentiment(), stats.getTotalResponses());
-
-            return stats;
-
-        } catch (Exception e) {
-            log.error("❌ Error al obtener estadísticas agregadas desde BD", e);
-            throw new RuntimeException("Error al calcular estadísticas agregadas: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Obtiene distribución de sentimientos por evaluación
-     */
-    public Map<String, Object> obtenerDistribucionPorEvaluacion(Long idEvaluacion) {
-        log.info("📊 Obteniendo distribución de sentimientos para evaluación {}", idEvaluacion);
-
-        try {
-            List<Map<String, Object>> resultList = respuestaRepository.getDistributionByEvaluation(idEvaluacion);
-
-            if (resultList.isEmpty()) {
-                log.warn("⚠️ No se encontró información para evaluación {}", idEvaluacion);
-                return Map.of("error", "No se encontró la evaluación o no tiene respuestas");
-            }
-
-            Map<String, Object> result = resultList.get(0);
-            log.info("✅ Distribución obtenida para evaluación {}", idEvaluacion);
-
-            return result;
-
-        } catch (Exception e) {
-            log.error("❌ Error al obtener distribución por evaluación", e);
-            throw new RuntimeException("Error al obtener distribución: " + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Obtiene alertas de alto riesgo de los últimos N días
-     */
-    public List<Map<String, Object>> obtenerAlertasAltoRiesgo(Integer daysBack) {
-        log.info("⚠️ Obteniendo alertas de alto riesgo de los últimos {} días", daysBack);
-
-        try {
-            List<Map<String, Object>> alerts = respuestaRepository.getHighRiskAlerts(daysBack);
-            log.info("✅ Se encontraron {} alertas de alto riesgo", alerts.size());
-
-            return alerts;
-
-        } catch (Exception e) {
-            log.error("❌ Error al obtener alertas de alto riesgo", e);
-            throw new RuntimeException("Error al obtener alertas: " + e.getMessage(), e);
-        }
-    }
-
-    // ===== Métodos auxiliares =====
-
-    private Integer getIntValue(Map<String, Object> map, String key) {
-        Object value = map.get(key);
-        if (value == null) return 0;
-        if (value instanceof Integer) return (Integer) value;
-        if (value instanceof Long) return ((Long) value).intValue();
-        if (value instanceof BigInteger) return ((BigInteger) value).intValue();
-        if (value instanceof BigDecimal) return ((BigDecimal) value).intValue();
-        return Integer.parseInt(value.toString());
-    }
-
-    private Double getDoubleValue(Map<String, Object> map, String key) {
-        Object value = map.get(key);
-        if (value == null) return 0.0;
-        if (value instanceof Double) return (Double) value;
-        if (value instanceof Float) return ((Float) value).doubleValue();
-        if (value instanceof BigDecimal) return ((BigDecimal) value).doubleValue();
-        return Double.parseDouble(value.toString());
+    private record ModeloActivo(SentimentPredictorPool pool, String version) {
     }
 }
-
@@ -0,0 +1,151 @@
+package com.example.rntn.service;
+
+import com.example.rntn.TrainingDataExporter;
+import com.example.rntn.exception.BusinessException;
+import com.example.rntn.util.PermitReleasingBody;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Servicio de exportación de datos de entrenamiento desde evaluacion_respuesta
+ *
+ * Envuelve TrainingDataExporter: cada exportación recorre la tabla con un cursor de solo avance y
+ * escribe las filas a medida que llegan (memoria constante). Como una exportación ocupa una conexión
+ * del pool durante todo el recorrido, solo se permiten rntn.export.max-concurrent a la vez.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TrainingDataExportService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${rntn.data.directory}")
+    private String dataDirectory;
+
+    @Value("${rntn.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${rntn.export.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${rntn.export.stream-timeout-ms:3600000}")
+    private long streamTimeoutMs;
+
+    private final DataSource dataSource;
+    private final TreeConversionService treeConversionService;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Construye el filtro de exportación; las fechas son días completos (hasta inclusive)
+     */
+    public TrainingDataExporter.Filter filtro(LocalDate desde, LocalDate hasta, String label, String modelVersion,
+                                              TrainingDataExporter.LabelSource labelSource) {
+        return new TrainingDataExporter.Filter(
+            desde != null ? desde.atStartOfDay() : null,
+            hasta != null ? hasta.plusDays(1).atStartOfDay() : null,
+            label != null ? label.toUpperCase() : null,
+            modelVersion,
+            labelSource != null ? labelSource : TrainingDataExporter.LabelSource.EFFECTIVE);
+    }
+
+    /**
+     * Exportación como descarga HTTP: las filas se escriben directamente en la respuesta, con
+     * rntn.export.stream-timeout-ms como plazo de la petición asíncrona
+     *
+     * @throws BusinessException 429 si ya hay una exportación en curso
+     */
+    public StreamingResponseBody exportarStream(TrainingDataExporter.Filter filter,
+                                                TrainingDataExporter.Format format, boolean gzip) {
+        adquirirPermiso();
+        return PermitReleasingBody.wrap(permits, streamTimeoutMs, out -> exportar(filter, format, gzip, out, "descarga"));
+    }
+
+    /**
+     * Exportación a un archivo en rntn.data.directory/exports, utilizable directamente como trainPath
+     * de un trabajo de entrenamiento (SST) o como entrada de CsvToSstConverter (CSV)
+     */
+    public Map<String, Object> exportarArchivo(TrainingDataExporter.Filter filter,
+                                               TrainingDataExporter.Format format, boolean gzip) {
+        adquirirPermiso();
+        try {
+            String fileName = "export-" + LocalDateTime.now().format(FILE_TIMESTAMP)
+                + (format == TrainingDataExporter.Format.SST ? ".sst" : ".csv") + (gzip ? ".gz" : "");
+            Path dir = Path.of(dataDirectory, "exports");
+            Files.createDirectories(dir);
+            Path file = dir.resolve(fileName);
+
+            TrainingDataExporter.Result result;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                result = exportar(filter, format, gzip, out, file.toString());
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("path", Path.of("exports", fileName).toString());
+            response.put("format", format.name());
+            response.put("gzip", gzip);
+            response.put("rows", result.rows());
+            response.put("skipped", result.skipped());
+            response.put("sizeBytes", Files.size(file));
+            response.put("seconds", result.seconds());
+            return response;
+        } catch (IOException e) {
+            throw new BusinessException("Error al escribir la exportación: " + e.getMessage(),
+                "Export Error", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private TrainingDataExporter.Result exportar(TrainingDataExporter.Filter filter, TrainingDataExporter.Format format,
+                                                 boolean gzip, OutputStream out, String destino) throws IOException {
+        TrainingDataExporter exporter = new TrainingDataExporter(fetchSize,
+            format == TrainingDataExporter.Format.SST ? treeConversionService::toLabeledTree : null);
+        log.info("📤 Exportando datos de entrenamiento ({}{}) a {} - filtro: {}",
+            format, gzip ? ", gzip" : "", destino, filter);
+        try (Connection con = dataSource.getConnection()) {
+            con.setReadOnly(true);
+            TrainingDataExporter.Result result = exporter.export(con, filter, format, gzip, out);
+            if (format == TrainingDataExporter.Format.SST) {
+                treeConversionService.flush();
+            }
+            log.info("✅ Exportación completada: {} filas ({} omitidas) en {}s",
+                result.rows(), result.skipped(), String.format("%.1f", result.seconds()));
+            return result;
+        } catch (SQLException e) {
+            throw new IOException("Error al leer evaluacion_respuesta: " + e.getMessage(), e);
+        }
+    }
+
+    private void adquirirPermiso() {
+        if (!permits.tryAcquire()) {
+            throw new BusinessException("Ya hay una exportación en curso. Intente más tarde.",
+                "Export In Progress", HttpStatus.TOO_MANY_REQUESTS);
+        }
+    }
+}
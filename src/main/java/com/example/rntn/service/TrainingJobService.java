@@ -0,0 +1,478 @@
+package com.example.rntn.service;
+
+import com.example.rntn.TrainingOptions;
+import com.example.rntn.TrainingResult;
+import com.example.rntn.TrainingRunner;
+import com.example.rntn.dto.request.TrainingJobRequest;
+import com.example.rntn.dto.response.ModelInfoResponse;
+import com.example.rntn.dto.response.TrainingJobResponse;
+import com.example.rntn.exception.BusinessException;
+import com.example.rntn.exception.ResourceNotFoundException;
+import com.example.rntn.model.TrainingJob;
+import com.example.rntn.model.TrainingJobStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de trabajos de entrenamiento RNTN asíncronos
+ *
+ * Los trabajos se ejecutan en un executor dedicado (hilos "training-job-N" de prioridad mínima),
+ * separado de los hilos que atienden inferencia. Solo rntn.training.max-concurrent-jobs trabajos
+ * corren a la vez y como mucho rntn.training.queue-capacity esperan en cola; el resto se rechaza
+ * con 429. Al terminar con éxito, el modelo producido se registra en el directorio de modelos.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TrainingJobService {
+
+    @Value("${rntn.data.directory}")
+    private String dataDirectory;
+
+    @Value("${rntn.training.default-hidden-units}")
+    private int defaultHiddenUnits;
+
+    @Value("${rntn.training.default-classes}")
+    private int defaultClasses;
+
+    @Value("${rntn.training.max-concurrent-jobs:1}")
+    private int maxConcurrentJobs;
+
+    @Value("${rntn.training.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${rntn.training.threads-per-job:2}")
+    private int threadsPerJob;
+
+    @Value("${rntn.training.log-buffer-lines:2000}")
+    private int logBufferLines;
+
+    @Value("${rntn.training.retained-jobs:100}")
+    private int retainedJobs;
+
+    @Value("${rntn.training.log-stream-timeout-ms:3600000}")
+    private long logStreamTimeoutMs;
+
+    private final ModelRegistryService modelRegistryService;
+
+    private final Map<String, TrainingJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> logEmitters = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "training-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        log.info("🏋️ Executor de entrenamiento: {} trabajo(s) concurrente(s), cola de {}, {} hilo(s) por trabajo",
+            maxConcurrentJobs, queueCapacity, threadsPerJob);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().stream()
+            .filter(job -> job.getRunner() != null && !job.getStatus().isFinished())
+            .forEach(job -> job.getRunner().cancel());
+        executor.shutdownNow();
+    }
+
+    /**
+     * Paso previo al entrenamiento que se ejecuta en el hilo del trabajo (p.ej. generar el archivo
+     * de entrenamiento), de modo que el trabajo pesado nunca bloquea la petición HTTP
+     */
+    @FunctionalInterface
+    public interface Preparation {
+        void prepare(TrainingJob job) throws Exception;
+    }
+
+    /**
+     * Encola un nuevo trabajo de entrenamiento
+     *
+     * @throws BusinessException 429 si la cola de entrenamiento está llena
+     */
+    public TrainingJobResponse enviarTrabajo(TrainingJobRequest request, String username) {
+        String jobId = nuevoJobId();
+        TrainingOptions options = construirOpciones(jobId, request);
+        return encolar(jobId, options, username, "training-job", null);
+    }
+
+    /**
+     * Encola un trabajo con opciones ya construidas y un paso de preparación opcional
+     *
+     * @throws BusinessException 429 si la cola de entrenamiento está llena
+     */
+    public TrainingJobResponse encolar(String jobId, TrainingOptions options, String username,
+                                       String source, Preparation preparation) {
+        TrainingJob job = new TrainingJob(jobId, options, username, source, logBufferLines);
+        jobs.put(jobId, job);
+        try {
+            job.setFuture(executor.submit(() -> ejecutar(job, preparation)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            throw new BusinessException(
+                "La cola de entrenamiento está llena (" + queueCapacity + " en espera). Intente más tarde.",
+                "Training Queue Full", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        purgarTrabajosAntiguos();
+
+        log.info("🏋️ Trabajo {} {} encolado por {} - train: {}, dev: {}",
+            source, jobId, username, options.getTrainPath(), options.getDevPath());
+        return mapToResponse(job);
+    }
+
+    public String nuevoJobId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public int getThreadsPerJob() {
+        return threadsPerJob;
+    }
+
+    public TrainingJobResponse obtenerTrabajo(String jobId) {
+        return mapToResponse(buscarTrabajo(jobId));
+    }
+
+    public List<TrainingJobResponse> listarTrabajos() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(TrainingJob::getSubmittedAt).reversed())
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Líneas de log a partir del número de secuencia indicado
+     */
+    public Map<String, Object> obtenerLogs(String jobId, long from) {
+        TrainingJob job = buscarTrabajo(jobId);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jobId", jobId);
+        response.put("status", job.getStatus().name());
+        response.put("lines", job.logsFrom(from));
+        response.put("nextLogIndex", job.nextLogIndex());
+        return response;
+    }
+
+    /**
+     * Emite el log del trabajo como Server-Sent Events: primero las líneas ya disponibles y luego
+     * cada línea nueva, hasta que el trabajo termina. Un trabajo ya terminado solo recibe su log
+     * y su estado final, sin registrar el emisor.
+     */
+    public SseEmitter streamLogs(String jobId) {
+        TrainingJob job = buscarTrabajo(jobId);
+        SseEmitter emitter = new SseEmitter(logStreamTimeoutMs);
+
+        if (job.getStatus().isFinished()) {
+            for (String line : job.logsFrom(0)) {
+                enviarEvento(emitter, "log", line);
+            }
+            enviarEvento(emitter, "status", job.getStatus().name());
+            emitter.complete();
+            return emitter;
+        }
+
+        Consumer<String> listener = line -> enviarEvento(emitter, "log", line);
+        job.addLogListener(listener);
+        Runnable cleanup = () -> {
+            job.removeLogListener(listener);
+            quitarEmisor(jobId, emitter);
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(e -> cleanup.run());
+
+        logEmitters.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        for (String line : job.logsFrom(0)) {
+            enviarEvento(emitter, "log", line);
+        }
+        // Si terminó mientras se registraba y completarEmisores no lo alcanzó, se completa aquí
+        if (job.getStatus().isFinished() && quitarEmisor(jobId, emitter)) {
+            job.removeLogListener(listener);
+            enviarEvento(emitter, "status", job.getStatus().name());
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Quita el emisor de los del trabajo, y la entrada del trabajo si queda vacía
+     *
+     * @return true si el emisor seguía registrado
+     */
+    private boolean quitarEmisor(String jobId, SseEmitter emitter) {
+        boolean[] removed = new boolean[1];
+        logEmitters.computeIfPresent(jobId, (id, emitters) -> {
+            removed[0] = emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Cancela un trabajo en cola o en ejecución; el entrenamiento se detiene al terminar el minibatch actual
+     */
+    public TrainingJobResponse cancelarTrabajo(String jobId) {
+        TrainingJob job = buscarTrabajo(jobId);
+        if (job.getStatus().isFinished()) {
+            throw new IllegalStateException("El trabajo " + jobId + " ya terminó con estado " + job.getStatus());
+        }
+        job.setCancelRequested(true);
+        if (job.getRunner() != null) {
+            job.getRunner().cancel();
+        } else if (job.getFuture() != null && job.getFuture().cancel(false)) {
+            executor.purge();
+            job.setStatus(TrainingJobStatus.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            job.appendLog("Cancelled before start");
+            completarEmisores(job);
+        }
+        log.info("🛑 Cancelación solicitada para trabajo de entrenamiento {}", jobId);
+        return mapToResponse(job);
+    }
+
+    private void ejecutar(TrainingJob job, Preparation preparation) {
+        if (job.isCancelRequested()) {
+            // Cancelado cuando la tarea ya había empezado, así que future.cancel no la detuvo
+            job.setStatus(TrainingJobStatus.CANCELLED);
+            job.setFinishedAt(LocalDateTime.now());
+            job.appendLog("Cancelled before start");
+            log.info("🛑 Trabajo de entrenamiento {} cancelado antes de iniciar", job.getId());
+            completarEmisores(job);
+            return;
+        }
+        if (preparation != null) {
+            job.setStatus(TrainingJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            try {
+                preparation.prepare(job);
+            } catch (CancellationException e) {
+                job.setStatus(TrainingJobStatus.CANCELLED);
+                job.appendLog("Cancelled during preparation");
+                job.setFinishedAt(LocalDateTime.now());
+                completarEmisores(job);
+                return;
+            } catch (Exception e) {
+                job.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                job.setStatus(TrainingJobStatus.FAILED);
+                job.appendLog("Preparation failed: " + job.getError());
+                job.setFinishedAt(LocalDateTime.now());
+                log.error("❌ Preparación del trabajo {} falló", job.getId(), e);
+                completarEmisores(job);
+                return;
+            }
+        }
+        TrainingRunner runner = new TrainingRunner(job.getOptions(), job::appendLog);
+        job.setRunner(runner);
+        job.setStatus(TrainingJobStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        if (job.isCancelRequested()) {
+            runner.cancel();
+        }
+        log.info("🏋️ Iniciando trabajo de entrenamiento {}", job.getId());
+
+        try {
+            TrainingResult result = runner.run();
+            job.setResult(result);
+            registrarModelo(job, result);
+            job.setStatus(TrainingJobStatus.SUCCEEDED);
+            log.info("✅ Trabajo de entrenamiento {} completado - dev accuracy: {}", job.getId(), result.getDevAccuracy());
+        } catch (CancellationException e) {
+            job.setStatus(TrainingJobStatus.CANCELLED);
+            log.info("🛑 Trabajo de entrenamiento {} cancelado", job.getId());
+        } catch (Exception e) {
+            job.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            job.setStatus(TrainingJobStatus.FAILED);
+            job.appendLog("Failed: " + job.getError());
+            log.error("❌ Trabajo de entrenamiento {} falló", job.getId(), e);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            job.setRunner(null);
+            completarEmisores(job);
+        }
+    }
+
+    private void registrarModelo(TrainingJob job, TrainingResult result) throws IOException {
+        TrainingOptions options = job.getOptions();
+        Map<String, Object> hyperparameters = hiperparametros(options);
+        hyperparameters.putAll(job.getMetadata());
+        modelRegistryService.register(ModelInfoResponse.builder()
+            .name(modelName(job.getId()))
+            .path(result.getModelPath())
+            .source(job.getSource())
+            .jobId(job.getId())
+            .devAccuracy(result.getDevAccuracy())
+            .hyperparameters(hyperparameters)
+            .createdAt(LocalDateTime.now())
+            .build());
+
+        // el checkpoint reanudable ya no es necesario una vez registrado el modelo
+        Files.deleteIfExists(Path.of(options.getCheckpointBase() + ".last.ser.gz"));
+        Files.deleteIfExists(Path.of(options.getCheckpointBase() + ".last.state"));
+    }
+
+    private TrainingOptions construirOpciones(String jobId, TrainingJobRequest request) {
+        TrainingOptions defaults = new TrainingOptions();
+        TrainingOptions options = TrainingOptions.builder()
+            .trainPath(resolverRutaDatos(request.getTrainPath()))
+            .devPath(request.getDevPath() != null ? resolverRutaDatos(request.getDevPath()) : null)
+            .modelPath(modelRegistryService.resolveModelPath(modelName(jobId)).toString())
+            .numHid(request.getNumHid() != null ? request.getNumHid() : defaultHiddenUnits)
+            .numClasses(defaultClasses)
+            .epochs(request.getEpochs() != null ? request.getEpochs() : defaults.getEpochs())
+            .batchSize(request.getBatchSize() != null ? request.getBatchSize() : defaults.getBatchSize())
+            .learningRate(request.getLearningRate() != null ? request.getLearningRate() : defaults.getLearningRate())
+            .regularization(request.getRegularization() != null ? request.getRegularization() : defaults.getRegularization())
+            .checkpointEvery(request.getCheckpointEvery() != null ? request.getCheckpointEvery() : 0)
+            .patience(request.getPatience() != null ? request.getPatience() : 0)
+            .seed(request.getSeed() != null ? request.getSeed() : defaults.getSeed())
+            .threads(threadsPerJob)
+            .build();
+        options.validate();
+        try {
+            Files.createDirectories(modelRegistryService.getModelDirectory());
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo crear el directorio de modelos: " + e.getMessage(),
+                "Model Directory Error", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return options;
+    }
+
+    /**
+     * Resuelve una ruta de datos relativa a rntn.data.directory, sin permitir salir de él
+     */
+    private String resolverRutaDatos(String path) {
+        Path base = Path.of(dataDirectory).toAbsolutePath().normalize();
+        Path resolved = base.resolve(path).normalize();
+        if (!resolved.startsWith(base)) {
+            throw new IllegalArgumentException("La ruta de datos debe estar dentro de " + dataDirectory + ": " + path);
+        }
+        if (!Files.isRegularFile(resolved)) {
+            throw new ResourceNotFoundException("Archivo de datos no encontrado: " + path);
+        }
+        return resolved.toString();
+    }
+
+    public static String modelName(String jobId) {
+        return "job-" + jobId;
+    }
+
+    private TrainingJob buscarTrabajo(String jobId) {
+        TrainingJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Trabajo de entrenamiento", jobId);
+        }
+        return job;
+    }
+
+    private void purgarTrabajosAntiguos() {
+        if (jobs.size() <= retainedJobs) {
+            return;
+        }
+        jobs.values().stream()
+            .filter(job -> job.getStatus().isFinished())
+            .sorted(Comparator.comparing(TrainingJob::getSubmittedAt))
+            .limit(jobs.size() - retainedJobs)
+            .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    private void completarEmisores(TrainingJob job) {
+        List<SseEmitter> emitters = logEmitters.remove(job.getId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            enviarEvento(emitter, "status", job.getStatus().name());
+            emitter.complete();
+        }
+    }
+
+    private void enviarEvento(SseEmitter emitter, String name, String data) {
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (IOException | IllegalStateException e) {
+                // el cliente cerró la conexión; onError/onCompletion limpian el listener
+                log.debug("No se pudo enviar evento de log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> hiperparametros(TrainingOptions options) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("trainPath", options.getTrainPath());
+        params.put("devPath", options.getDevPath());
+        params.put("numHid", options.getNumHid());
+        params.put("numClasses", options.getNumClasses());
+        params.put("epochs", options.getEpochs());
+        params.put("batchSize", options.getBatchSize());
+        params.put("learningRate", options.getLearningRate());
+        params.put("regularization", options.getRegularization());
+        params.put("threads", options.getThreads());
+        params.put("checkpointEvery", options.getCheckpointEvery());
+        params.put("patience", options.getPatience());
+        params.put("seed", options.getSeed());
+        if (options.getInitialModelPath() != null) {
+            params.put("initialModel", options.getInitialModelPath());
+        }
+        return params;
+    }
+
+    private Map<String, Object> hiperparametrosConMetadata(TrainingJob job) {
+        Map<String, Object> params = hiperparametros(job.getOptions());
+        params.putAll(job.getMetadata());
+        return params;
+    }
+
+    private TrainingJobResponse mapToResponse(TrainingJob job) {
+        TrainingResult result = job.getResult();
+        return TrainingJobResponse.builder()
+            .jobId(job.getId())
+            .source(job.getSource())
+            .status(job.getStatus().name())
+            .submittedBy(job.getSubmittedBy())
+            .hyperparameters(hiperparametrosConMetadata(job))
+            .modelPath(job.getOptions().getModelPath())
+            .epochsRun(result != null ? result.getEpochsRun() : null)
+            .devAccuracy(result != null ? result.getDevAccuracy() : null)
+            .treesPerSecond(result != null ? result.getTreesPerSecond() : null)
+            .stoppedEarly(result != null ? result.isStoppedEarly() : null)
+            .error(job.getError())
+            .nextLogIndex(job.nextLogIndex())
+            .submittedAt(job.getSubmittedAt())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .build();
+    }
+}
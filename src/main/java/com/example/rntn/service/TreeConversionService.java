@@ -0,0 +1,71 @@
+package com.example.rntn.service;
+
+import com.example.rntn.ParseCache;
+import com.example.rntn.TreeConverter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Conversión de textos etiquetados a árboles SST con la cache de parses compartida
+ *
+ * Hay un único TreeConverter y una única ParseCache (rntn.data.parse-cache) por aplicación: el parser
+ * de CoreNLP se carga una sola vez y el archivo de la cache tiene un único escritor.
+ */
+@Service
+@Slf4j
+public class TreeConversionService {
+
+    @Value("${rntn.data.parse-cache:data/parse-cache.bin}")
+    private String parseCachePath;
+
+    private ParseCache parseCache;
+    private TreeConverter treeConverter;
+
+    /**
+     * Árbol SST con el label propagado a todos los nodos
+     */
+    public String toLabeledTree(String texto, int label) throws IOException {
+        return converter().getLabeledTreeWithPropagation(texto, label);
+    }
+
+    public synchronized long getHits() throws IOException {
+        return cache().getHits();
+    }
+
+    public synchronized long getMisses() throws IOException {
+        return cache().getMisses();
+    }
+
+    public synchronized void flush() throws IOException {
+        if (parseCache != null) {
+            parseCache.flush();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException {
+        if (parseCache != null) {
+            parseCache.close();
+        }
+    }
+
+    private synchronized ParseCache cache() throws IOException {
+        if (parseCache == null) {
+            parseCache = new ParseCache(Path.of(parseCachePath).toFile(), TreeConverter.defaultParserConfig());
+            log.info("🗂️ Cache de parses abierta: {} ({} entradas)", parseCachePath, parseCache.size());
+        }
+        return parseCache;
+    }
+
+    private synchronized TreeConverter converter() throws IOException {
+        if (treeConverter == null) {
+            treeConverter = new TreeConverter(cache());
+        }
+        return treeConverter;
+    }
+}
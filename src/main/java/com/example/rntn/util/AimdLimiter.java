@@ -0,0 +1,143 @@
+package com.example.rntn.util;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AimdLimiter: adaptive concurrency limit with a bounded wait for a slot.
+ *
+ * The limit grows by one (additive increase) when a request completes within the latency target
+ * while the limiter is at least half used, and is multiplied by the backoff ratio (multiplicative
+ * decrease) when a request exceeds the target, staying within [min, max]. Callers that find the
+ * limit reached may wait for a slot; {@link #estimatedWaitNanos()} predicts that wait from the
+ * smoothed latency of completed requests so callers can reject up front instead of timing out.
+ *
+ * Waiting uses a {@link ReentrantLock} rather than a monitor so that virtual threads queued for a
+ * slot unmount from their carrier instead of pinning it.
+ */
+public class AimdLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final int min;
+    private final int max;
+    private final double backoffRatio;
+    private final long latencyTargetNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double averageLatencyNanos;
+
+    public AimdLimiter(int initial, int min, int max, double backoffRatio, long latencyTargetNanos) {
+        if (min < 1 || max < min || initial < min || initial > max) {
+            throw new IllegalArgumentException("Invalid limits: initial=" + initial + ", min=" + min + ", max=" + max);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in (0, 1): " + backoffRatio);
+        }
+        this.limit = initial;
+        this.min = min;
+        this.max = max;
+        this.backoffRatio = backoffRatio;
+        this.latencyTargetNanos = latencyTargetNanos;
+    }
+
+    /**
+     * Takes a slot if one is free, otherwise waits up to {@code timeoutNanos} for one.
+     *
+     * @return true if a slot was taken; the caller must then call {@link #release}
+     */
+    public boolean acquire(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            long remaining = timeoutNanos;
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot and feeds the request latency back into the limit.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            averageLatencyNanos = averageLatencyNanos == 0
+                ? latencyNanos
+                : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+            if (latencyNanos > latencyTargetNanos) {
+                limit = Math.max(min, limit * backoffRatio);
+            } else if (inFlight + 1 >= limit / 2) {
+                limit = Math.min(max, limit + 1);
+            }
+            // The limit may have grown as well, so more than one waiter can proceed
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expected wait for a slot if a request arrived now: the requests ahead of it (those already
+     * waiting plus itself) drain at {@code limit} per smoothed latency.
+     */
+    public long estimatedWaitNanos() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                return 0;
+            }
+            return (long) ((waiting + 1) * averageLatencyNanos / (int) limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.rntn.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * AppendLog: durable FIFO of byte records on local disk, for write-behind queues with at-least-once
+ * delivery.
+ *
+ * Records are appended to numbered segment files ({@code segment-<n>.log}) as
+ * {@code [int length][int crc32][payload]}. {@link #append(byte[])} returns once the record has been
+ * forced to disk; concurrent appenders share one fsync (group commit). A single consumer reads
+ * batches with {@link #read(int)} and, once they have been processed, calls {@link #commit(List)},
+ * which persists the read position in a {@code checkpoint} file and deletes fully consumed
+ * segments. {@link #rewind()} goes back to the last checkpoint after a failed batch, and after a
+ * restart reading resumes from the checkpoint, so a record can be delivered more than once but is
+ * never lost. A torn record at the end of the last segment (crash mid-write) is truncated on open.
+ */
+public class AppendLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * Location in the log: segment number and byte offset within it.
+     */
+    public record Position(long segment, long offset) {
+    }
+
+    /**
+     * A record and the position just past it.
+     */
+    public record Entry(Position end, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel writer;
+    private long writeSegment;
+    private long writeOffset;
+    private long appendedSeq;
+    private long syncedSeq;
+
+    private final Object readLock = new Object();
+    private Position checkpoint;
+    private Position readPosition;
+    private FileChannel reader;
+    private long readerSegment = -1;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Opens (or creates) the log in {@code directory}; a new segment is started once the current
+     * one reaches {@code segmentBytes}.
+     */
+    public AppendLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        List<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            segments.add(1L);
+            Files.createFile(segmentPath(1));
+        }
+        checkpoint = readCheckpoint(segments.get(0));
+        readPosition = checkpoint;
+
+        // Recover the tail of the last segment and count what is left to consume
+        writeSegment = segments.get(segments.size() - 1);
+        long records = 0;
+        for (long segment : segments) {
+            if (segment < checkpoint.segment()) {
+                continue;
+            }
+            long from = segment == checkpoint.segment() ? checkpoint.offset() : 0;
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                long[] end = new long[1];
+                records += scan(channel, from, end);
+                if (segment == writeSegment) {
+                    writeOffset = end[0];
+                }
+            }
+        }
+        pending.set(records);
+
+        writer = FileChannel.open(segmentPath(writeSegment), StandardOpenOption.WRITE);
+        writer.truncate(writeOffset);
+        writer.position(writeOffset);
+        deleteSegmentsBefore(checkpoint.segment());
+    }
+
+    /**
+     * Appends a record and returns once it is durable.
+     */
+    public void append(byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        long seq;
+        synchronized (writeLock) {
+            if (writeOffset > 0 && writeOffset + buffer.remaining() > segmentBytes) {
+                roll();
+            }
+            while (buffer.hasRemaining()) {
+                writer.write(buffer);
+            }
+            writeOffset += HEADER_BYTES + payload.length;
+            seq = ++appendedSeq;
+        }
+        pending.incrementAndGet();
+        sync(seq);
+    }
+
+    /**
+     * Starts a new segment; the previous one is forced first so its records stay durable. Must
+     * hold writeLock.
+     */
+    private void roll() throws IOException {
+        writer.force(false);
+        writer.close();
+        writeSegment++;
+        writeOffset = 0;
+        writer = FileChannel.open(segmentPath(writeSegment),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Forces everything appended so far if {@code seq} is not durable yet. Appenders that arrive
+     * while a force is running are covered by the next one.
+     */
+    private void sync(long seq) throws IOException {
+        synchronized (syncLock) {
+            while (syncedSeq < seq) {
+                FileChannel channel;
+                long target;
+                synchronized (writeLock) {
+                    channel = writer;
+                    target = appendedSeq;
+                }
+                try {
+                    channel.force(false);
+                    syncedSeq = target;
+                } catch (ClosedChannelException e) {
+                    // Rolled over meanwhile: roll() forced the old segment, force the new one
+                    synchronized (writeLock) {
+                        if (writer == channel) {
+                            throw e;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads up to {@code max} records after the last one read (or after the checkpoint after a
+     * rewind or restart). Returns an empty list when there is nothing new.
+     */
+    public List<Entry> read(int max) throws IOException {
+        synchronized (readLock) {
+            List<Entry> entries = new ArrayList<>();
+            while (entries.size() < max) {
+                long limitSegment;
+                long limitOffset;
+                synchronized (writeLock) {
+                    limitSegment = writeSegment;
+                    limitOffset = writeOffset;
+                }
+                long segment = readPosition.segment();
+                long end = segment == limitSegment ? limitOffset : Long.MAX_VALUE;
+                if (readPosition.offset() >= end) {
+                    break;
+                }
+                FileChannel channel = readerFor(segment);
+                long offset = readPosition.offset();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                if (!readFully(channel, header, offset)) {
+                    if (segment < limitSegment) {
+                        readPosition = new Position(segment + 1, 0);
+                        continue;
+                    }
+                    break;
+                }
+                header.flip();
+                int length = header.getInt();
+                int crc = header.getInt();
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(channel, payload, offset + HEADER_BYTES) || crc(payload.array()) != crc) {
+                    throw new IOException("Corrupt record in " + segmentPath(segment) + " at offset " + offset);
+                }
+                readPosition = new Position(segment, offset + HEADER_BYTES + length);
+                entries.add(new Entry(readPosition, payload.array()));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Returns the oldest record not yet committed (the one at the checkpoint) without moving the
+     * read position, or null when everything appended has been committed.
+     */
+    public Entry peek() throws IOException {
+        synchronized (readLock) {
+            Position position = checkpoint;
+            while (true) {
+                long limitSegment;
+                long limitOffset;
+                synchronized (writeLock) {
+                    limitSegment = writeSegment;
+                    limitOffset = writeOffset;
+                }
+                long segment = position.segment();
+                long end = segment == limitSegment ? limitOffset : Long.MAX_VALUE;
+                if (position.offset() >= end) {
+                    return null;
+                }
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    if (!readFully(channel, header, position.offset())) {
+                        if (segment < limitSegment) {
+                            position = new Position(segment + 1, 0);
+                            continue;
+                        }
+                        return null;
+                    }
+                    header.flip();
+                    int length = header.getInt();
+                    int crc = header.getInt();
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    if (!readFully(channel, payload, position.offset() + HEADER_BYTES) || crc(payload.array()) != crc) {
+                        throw new IOException("Corrupt record in " + segmentPath(segment) + " at offset " + position.offset());
+                    }
+                    return new Entry(new Position(segment, position.offset() + HEADER_BYTES + length), payload.array());
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the records read so far up to the last of {@code entries} as processed.
+     */
+    public void commit(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Position position = entries.get(entries.size() - 1).end();
+        synchronized (readLock) {
+            Path tmp = directory.resolve(CHECKPOINT + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap((position.segment() + " " + position.offset())
+                    .getBytes(StandardCharsets.US_ASCII)));
+                channel.force(true);
+            }
+            Files.move(tmp, directory.resolve(CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpoint = position;
+            pending.addAndGet(-entries.size());
+            deleteSegmentsBefore(position.segment());
+        }
+    }
+
+    /**
+     * Goes back to the last checkpoint, so the records read since are read again.
+     */
+    public void rewind() {
+        synchronized (readLock) {
+            readPosition = checkpoint;
+        }
+    }
+
+    /**
+     * Records appended and not yet committed.
+     */
+    public long pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (readLock) {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+        synchronized (writeLock) {
+            writer.force(false);
+            writer.close();
+        }
+    }
+
+    // ===== Helpers =====
+
+    private FileChannel readerFor(long segment) throws IOException {
+        if (readerSegment != segment) {
+            if (reader != null) {
+                reader.close();
+            }
+            reader = FileChannel.open(segmentPath(segment), StandardOpenOption.READ);
+            readerSegment = segment;
+        }
+        return reader;
+    }
+
+    /**
+     * Counts the valid records from {@code from}; {@code end[0]} receives the offset after the last.
+     */
+    private static long scan(FileChannel channel, long from, long[] end) throws IOException {
+        long offset = from;
+        long records = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (true) {
+            header.clear();
+            if (!readFully(channel, header, offset)) {
+                break;
+            }
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || offset + HEADER_BYTES + length > channel.size()) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (!readFully(channel, payload, offset + HEADER_BYTES) || crc(payload.array()) != crc) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+            records++;
+        }
+        end[0] = offset;
+        return records;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                return false;
+            }
+            position += n;
+        }
+        return true;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("segment-%012d.log", segment));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                .map(name -> Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length())))
+                .sorted()
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private Position readCheckpoint(long firstSegment) throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.isRegularFile(file)) {
+            return new Position(firstSegment, 0);
+        }
+        String[] parts = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+        return new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    private void deleteSegmentsBefore(long segment) throws IOException {
+        for (long s : listSegments()) {
+            if (s < segment) {
+                Files.deleteIfExists(segmentPath(s));
+            }
+        }
+    }
+}
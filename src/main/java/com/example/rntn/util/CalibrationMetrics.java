@@ -0,0 +1,82 @@
+package com.example.rntn.util;
+
+/**
+ * CalibrationMetrics: how well the predicted class probabilities match observed accuracy.
+ *
+ * Predictions are bucketed by confidence (probability of the predicted class) into equal-width
+ * bins; the expected calibration error is the count-weighted gap between mean confidence and
+ * accuracy per bin. The multi-class Brier score is the mean squared error of the full probability
+ * vector against the one-hot gold label.
+ *
+ * Not thread-safe; use one instance per scoring thread and {@link #merge} the results.
+ */
+public class CalibrationMetrics {
+
+    private final long[] binCount;
+    private final long[] binCorrect;
+    private final double[] binConfidence;
+    private double brierSum;
+    private long total;
+
+    public CalibrationMetrics(int bins) {
+        this.binCount = new long[bins];
+        this.binCorrect = new long[bins];
+        this.binConfidence = new double[bins];
+    }
+
+    public void add(double[] probabilities, int predicted, int gold) {
+        double confidence = probabilities[predicted];
+        int bin = Math.min((int) (confidence * binCount.length), binCount.length - 1);
+        binCount[bin]++;
+        binConfidence[bin] += confidence;
+        if (predicted == gold) {
+            binCorrect[bin]++;
+        }
+        for (int c = 0; c < probabilities.length; c++) {
+            double target = c == gold ? 1.0 : 0.0;
+            brierSum += (probabilities[c] - target) * (probabilities[c] - target);
+        }
+        total++;
+    }
+
+    public void merge(CalibrationMetrics other) {
+        for (int b = 0; b < binCount.length; b++) {
+            binCount[b] += other.binCount[b];
+            binCorrect[b] += other.binCorrect[b];
+            binConfidence[b] += other.binConfidence[b];
+        }
+        brierSum += other.brierSum;
+        total += other.total;
+    }
+
+    public int getBins() {
+        return binCount.length;
+    }
+
+    public long getCount(int bin) {
+        return binCount[bin];
+    }
+
+    public double meanConfidence(int bin) {
+        return binCount[bin] == 0 ? 0.0 : binConfidence[bin] / binCount[bin];
+    }
+
+    public double accuracy(int bin) {
+        return binCount[bin] == 0 ? 0.0 : (double) binCorrect[bin] / binCount[bin];
+    }
+
+    public double expectedCalibrationError() {
+        if (total == 0) {
+            return 0.0;
+        }
+        double ece = 0.0;
+        for (int b = 0; b < binCount.length; b++) {
+            ece += (double) binCount[b] / total * Math.abs(accuracy(b) - meanConfidence(b));
+        }
+        return ece;
+    }
+
+    public double brierScore() {
+        return total == 0 ? 0.0 : brierSum / total;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.rntn.util;
+
+/**
+ * ClassificationMetrics: confusion matrix over class indices with accuracy and per-class
+ * precision, recall and F1. Rows are gold classes, columns are predicted classes.
+ *
+ * Not thread-safe; use one instance per scoring thread and {@link #merge} the results.
+ */
+public class ClassificationMetrics {
+
+    private final long[][] confusion;
+    private long total;
+    private long correct;
+
+    public ClassificationMetrics(int numClasses) {
+        this.confusion = new long[numClasses][numClasses];
+    }
+
+    public void add(int gold, int predicted) {
+        confusion[gold][predicted]++;
+        total++;
+        if (gold == predicted) {
+            correct++;
+        }
+    }
+
+    public void merge(ClassificationMetrics other) {
+        for (int g = 0; g < confusion.length; g++) {
+            for (int p = 0; p < confusion.length; p++) {
+                confusion[g][p] += other.confusion[g][p];
+            }
+        }
+        total += other.total;
+        correct += other.correct;
+    }
+
+    public int getNumClasses() {
+        return confusion.length;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long[][] getConfusionMatrix() {
+        long[][] copy = new long[confusion.length][];
+        for (int i = 0; i < confusion.length; i++) {
+            copy[i] = confusion[i].clone();
+        }
+        return copy;
+    }
+
+    public double accuracy() {
+        return total == 0 ? 0.0 : (double) correct / total;
+    }
+
+    public double precision(int cls) {
+        long predicted = 0;
+        for (long[] row : confusion) {
+            predicted += row[cls];
+        }
+        return predicted == 0 ? 0.0 : (double) confusion[cls][cls] / predicted;
+    }
+
+    public double recall(int cls) {
+        long gold = 0;
+        for (long count : confusion[cls]) {
+            gold += count;
+        }
+        return gold == 0 ? 0.0 : (double) confusion[cls][cls] / gold;
+    }
+
+    public double f1(int cls) {
+        double p = precision(cls);
+        double r = recall(cls);
+        return p + r == 0 ? 0.0 : 2 * p * r / (p + r);
+    }
+
+    public double macroF1() {
+        double sum = 0.0;
+        for (int c = 0; c < confusion.length; c++) {
+            sum += f1(c);
+        }
+        return sum / confusion.length;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rntn.util;
+
+/**
+ * Deadline: point in {@link System#nanoTime()} time after which the result of a request is no longer
+ * wanted. Carried from the request into the predictor pool and SentimentPredictor so that work the
+ * client has given up on is dropped before the expensive stages run.
+ */
+public final class Deadline {
+
+    /**
+     * No deadline: never expires.
+     */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Deadline {@code timeoutNanos} after {@code startNanos} (a {@link System#nanoTime()} reading).
+     */
+    public static Deadline of(long startNanos, long timeoutNanos) {
+        if (timeoutNanos <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeoutNanos);
+        }
+        return new Deadline(startNanos + timeoutNanos, true);
+    }
+
+    /**
+     * Deadline {@code timeoutNanos} from now.
+     */
+    public static Deadline after(long timeoutNanos) {
+        return of(System.nanoTime(), timeoutNanos);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * Nanoseconds left, never negative; {@link Long#MAX_VALUE} without a deadline.
+     */
+    public long remainingNanos() {
+        return bounded ? Math.max(0, expiresAtNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Throws {@link ExceededException} for {@code phase} if the deadline has passed.
+     */
+    public void check(String phase) {
+        if (isExpired()) {
+            throw new ExceededException(phase);
+        }
+    }
+
+    /**
+     * The deadline passed before {@code phase} started, so that work was not done.
+     */
+    public static class ExceededException extends RuntimeException {
+
+        private final String phase;
+
+        public ExceededException(String phase) {
+            super("Deadline exceeded before " + phase);
+            this.phase = phase;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+    }
+}
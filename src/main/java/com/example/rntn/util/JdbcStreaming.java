@@ -0,0 +1,25 @@
+package com.example.rntn.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Helpers for reading large result sets row by row instead of buffering them in the driver.
+ */
+public final class JdbcStreaming {
+
+    private JdbcStreaming() {
+    }
+
+    /**
+     * Fetch size that makes the driver stream a forward-only result set over {@code con}: Integer.MIN_VALUE
+     * on MySQL without useCursorFetch, {@code fetchSize} otherwise.
+     */
+    public static int fetchSize(Connection con, int fetchSize) throws SQLException {
+        String product = con.getMetaData().getDatabaseProductName();
+        if ("MySQL".equalsIgnoreCase(product) && !con.getMetaData().getURL().contains("useCursorFetch=true")) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+}
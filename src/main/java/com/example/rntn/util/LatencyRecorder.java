@@ -0,0 +1,64 @@
+package com.example.rntn.util;
+
+import java.util.Arrays;
+
+/**
+ * LatencyRecorder: keeps every recorded latency (nanoseconds) for exact percentiles.
+ *
+ * Intended for bounded runs such as evaluating a dev set, where one long per sample is cheap.
+ * Not thread-safe; use one instance per thread and {@link #merge} the results.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private boolean sorted = true;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double mean() {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Nearest-rank percentile, q in [0, 1].
+     */
+    public long percentile(double q) {
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        return percentile(samples, count, q);
+    }
+
+    /**
+     * Nearest-rank percentile of the first {@code length} values of a sorted array.
+     */
+    public static long percentile(long[] sorted, int length, double q) {
+        if (length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(q * length) - 1;
+        return sorted[Math.max(0, Math.min(index, length - 1))];
+    }
+}
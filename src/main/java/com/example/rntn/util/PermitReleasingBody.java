@@ -0,0 +1,75 @@
+package com.example.rntn.util;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streaming download that holds a concurrency permit, acquired by the caller before the body is
+ * returned so that a full limit is reported as a plain HTTP error instead of a broken stream.
+ *
+ * <p>The permit is released exactly once: when the body finishes, or when the async request
+ * completes without the body having run (client abort, async timeout, failure while writing the
+ * response headers).
+ *
+ * <p>These are long downloads, so the async request gets its own timeout instead of the default
+ * ({@code spring.mvc.async.request-timeout}, or the container's 30 seconds when unset), which
+ * would cut a large download off partway through.
+ */
+public final class PermitReleasingBody {
+
+    private PermitReleasingBody() {
+    }
+
+    /**
+     * Wraps {@code body} so that {@code permits}, already acquired by the caller, is given back.
+     * Must be called on the request thread, before the controller returns the body.
+     *
+     * @param timeoutMs async request timeout for the download; 0 or less means no timeout
+     */
+    public static StreamingResponseBody wrap(Semaphore permits, long timeoutMs, StreamingResponseBody body) {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            WebAsyncUtils.getAsyncManager(servletAttributes.getRequest()).registerCallableInterceptor(
+                PermitReleasingBody.class.getName() + "." + System.identityHashCode(release),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        // Runs before the async request starts, so the timeout still applies
+                        if (request instanceof AsyncWebRequest asyncRequest) {
+                            asyncRequest.setTimeout(timeoutMs > 0 ? timeoutMs : -1L);
+                        }
+                    }
+
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        release.run();
+                    }
+                });
+        }
+
+        return out -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                release.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.rntn.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer for the patient search index: the same normalization is applied to indexed values and
+ * to queries, so matching is case- and accent-insensitive without relying on database collations.
+ *
+ * <p>Names are split into words; a document number is kept as a single token with separators
+ * removed ({@code "12.345.678-9"} and {@code "123456789"} index and match the same way).
+ */
+public final class SearchTokens {
+
+    /**
+     * Longest token stored; matches the width of paciente_busqueda.token.
+     */
+    public static final int MAX_TOKEN_LENGTH = 100;
+
+    /**
+     * Query terms shorter than this are ignored: a one-character prefix matches too much of the index.
+     */
+    public static final int MIN_TERM_LENGTH = 2;
+
+    /**
+     * Shorter terms only match whole tokens; from this length on a term also matches as a prefix.
+     * A two-letter prefix such as "ma" covers a large share of any name index.
+     */
+    public static final int MIN_PREFIX_LENGTH = 3;
+
+    /**
+     * Whether {@code term} matches tokens that start with it, or only the identical token.
+     */
+    public static boolean matchesPrefix(String term) {
+        return term.length() >= MIN_PREFIX_LENGTH;
+    }
+
+    /**
+     * Only the first terms of a query are used.
+     */
+    public static final int MAX_TERMS = 5;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokens() {
+    }
+
+    /**
+     * Lower-cases {@code value} and strips accents ({@code "Núñez"} becomes {@code "nunez"}).
+     */
+    public static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct normalized words of a name, in order of appearance.
+     */
+    public static List<String> words(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : SEPARATORS.split(normalize(value))) {
+            if (!word.isEmpty()) {
+                words.add(truncate(word));
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Normalized document number with every separator removed, or {@code null} if nothing is left.
+     */
+    public static String compact(String value) {
+        if (value == null) {
+            return null;
+        }
+        String compact = SEPARATORS.matcher(normalize(value)).replaceAll("");
+        return compact.isEmpty() ? null : truncate(compact);
+    }
+
+    /**
+     * Terms of a search query. A query without letters is taken as a document number and becomes a
+     * single compact term; otherwise each word is a term. Short terms are dropped and at most
+     * {@link #MAX_TERMS} are kept, so the result may be empty.
+     */
+    public static List<String> queryTerms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        List<String> terms;
+        if (query.codePoints().noneMatch(Character::isLetter)) {
+            String compact = compact(query);
+            terms = compact == null ? List.of() : List.of(compact);
+        } else {
+            terms = words(query);
+        }
+        return terms.stream()
+            .filter(term -> term.length() >= MIN_TERM_LENGTH)
+            .limit(MAX_TERMS)
+            .toList();
+    }
+
+    private static String truncate(String token) {
+        return token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rntn.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset (seek) pagination over a {@code (timestamp, id)} key.
+ *
+ * <p>Listings are ordered by {@code timestamp DESC, id DESC}; the token holds the key of the last
+ * row of a page and the next page is read with {@code WHERE (ts < :ts OR (ts = :ts AND id < :id))},
+ * which a composite index on {@code (ts, id)} serves with a range scan whatever the depth. The
+ * encoding is URL-safe Base64 and is not part of the API contract: clients must pass tokens back
+ * unchanged.
+ */
+public record SeekCursor(LocalDateTime timestamp, Integer id) {
+
+    /**
+     * Largest page a client may request.
+     */
+    public static final int MAX_SIZE = 100;
+
+    public SeekCursor {
+        if (timestamp == null || id == null) {
+            throw new IllegalArgumentException("Cursor key must have a timestamp and an id");
+        }
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; {@code null} or blank means the first page.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SeekCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new SeekCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Integer.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Validates a requested page size against {@link #MAX_SIZE}.
+     */
+    public static int checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        return size;
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.rntn.util;
 
+import edu.stanford.nlp.neural.rnn.RNNCoreAnnotations;
 import edu.stanford.nlp.pipeline.*;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.sentiment.SentimentCoreAnnotations;
 import edu.stanford.nlp.util.CoreMap;
+import org.ejml.simple.SimpleMatrix;
 
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -17,6 +21,12 @@ public class SentimentPredictor {
 
     private final StanfordCoreNLP pipeline;
 
+    /**
+     * The same annotators as {@link #pipeline}, split by stage so each can be timed. CoreNLP caches
+     * annotators by configuration, so these share the models loaded by the full pipeline.
+     */
+    private final StanfordCoreNLP[] stages;
+
     // Custom labels mapping (index 0..4)
     private static final String[] CUSTOM_LABELS = new String[]{
             "ANXIETY",
@@ -26,15 +36,138 @@ public class SentimentPredictor {
             "FRUSTRATION"
     };
 
+    /**
+     * Inference stages, in pipeline order: tokenize+ssplit, POS tagging, binarized parse and the
+     * RNTN composition over the parse tree.
+     */
+    public enum Stage {
+        TOKENIZE("tokenize,ssplit"),
+        POS("pos"),
+        PARSE("parse"),
+        RNTN("sentiment");
+
+        private final String annotators;
+
+        Stage(String annotators) {
+            this.annotators = annotators;
+        }
+    }
+
+    /**
+     * Receives the wall time of each stage of {@link #predict(String, StageListener)}.
+     */
+    @FunctionalInterface
+    public interface StageListener {
+        void onStage(Stage stage, long nanos);
+    }
+
+    /**
+     * Property CoreNLP does not read but includes, like every {@code sentiment.*} property, in the
+     * key of its process-wide annotator cache.
+     */
+    private static final String MODEL_VERSION_PROPERTY = "sentiment.modelVersion";
+
     /**
      * modelPath: path to serialized model (.ser.gz) produced by SentimentTraining
      */
     public SentimentPredictor(String modelPath) {
+        this(modelPath, null);
+    }
+
+    /**
+     * @param modelVersion identifies the content of {@code modelPath}. CoreNLP caches annotators by
+     *                     their properties, so a new model copied over the same path would
+     *                     otherwise reuse the annotator loaded from the old file; with a different
+     *                     version the sentiment annotator is loaded again. The parser and tagger
+     *                     stay shared.
+     */
+    public SentimentPredictor(String modelPath, String modelVersion) {
         Properties props = new Properties();
         props.setProperty("annotators", "tokenize,ssplit,pos,parse,sentiment");
         // set custom sentiment model location (check CoreNLP docs for version-specific keys)
         props.setProperty("sentiment.model", modelPath);
+        if (modelVersion != null) {
+            props.setProperty(MODEL_VERSION_PROPERTY, modelVersion);
+        }
         this.pipeline = new StanfordCoreNLP(props);
+
+        this.stages = new StanfordCoreNLP[Stage.values().length];
+        for (Stage stage : Stage.values()) {
+            Properties stageProps = new Properties();
+            stageProps.setProperty("annotators", stage.annotators);
+            // The full pipeline turns this on because it contains the sentiment annotator
+            stageProps.setProperty("parse.binaryTrees", "true");
+            stageProps.setProperty("sentiment.model", modelPath);
+            if (modelVersion != null) {
+                stageProps.setProperty(MODEL_VERSION_PROPERTY, modelVersion);
+            }
+            stages[stage.ordinal()] = new StanfordCoreNLP(stageProps, false);
+        }
+    }
+
+    /**
+     * Predicted class and class probabilities of the RNTN root node for the first sentence, with
+     * the size of the input (tokens) and of the parse tree (depth) that drive its cost.
+     */
+    public record Prediction(int predictedClass, double[] probabilities, int tokens, int treeDepth) {
+
+        /**
+         * Probability the model assigns to its predicted class.
+         */
+        public double confidence() {
+            return predictedClass >= 0 && predictedClass < probabilities.length ? probabilities[predictedClass] : 0.0;
+        }
+    }
+
+    /**
+     * Returns the predicted class together with the softmax distribution over classes at the root
+     * of the sentiment tree, or null if the input has no sentence.
+     */
+    public Prediction predict(String sentence) {
+        return predict(sentence, null);
+    }
+
+    /**
+     * As {@link #predict(String)}, reporting the time spent in each stage to {@code listener}
+     * (may be null). Stages after the input turns out to have no sentence are not run.
+     */
+    public Prediction predict(String sentence, StageListener listener) {
+        return predict(sentence, listener, Deadline.NONE);
+    }
+
+    /**
+     * As {@link #predict(String, StageListener)}, giving up with {@link Deadline.ExceededException}
+     * if the deadline has passed before tokenizing (phase "queue") or before parsing (phase
+     * "parse"). Once the parse has run the RNTN pass is cheap and always completes.
+     */
+    public Prediction predict(String sentence, StageListener listener, Deadline deadline) {
+        deadline.check("queue");
+        Annotation ann = new Annotation(sentence);
+        for (Stage stage : Stage.values()) {
+            if (stage == Stage.PARSE) {
+                deadline.check("parse");
+            }
+            long start = System.nanoTime();
+            stages[stage.ordinal()].annotate(ann);
+            if (listener != null) {
+                listener.onStage(stage, System.nanoTime() - start);
+            }
+            if (stage == Stage.TOKENIZE) {
+                List<CoreMap> sentences = ann.get(CoreAnnotations.SentencesAnnotation.class);
+                if (sentences == null || sentences.isEmpty()) return null;
+            }
+        }
+        List<CoreMap> sentences = ann.get(CoreAnnotations.SentencesAnnotation.class);
+        Tree tree = sentences.get(0).get(SentimentCoreAnnotations.SentimentAnnotatedTree.class);
+        if (tree == null) return null;
+        SimpleMatrix predictions = RNNCoreAnnotations.getPredictions(tree);
+        double[] probabilities = new double[predictions.getNumElements()];
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = predictions.get(i);
+        }
+        List<CoreLabel> tokens = sentences.get(0).get(CoreAnnotations.TokensAnnotation.class);
+        return new Prediction(RNNCoreAnnotations.getPredictedClass(tree), probabilities,
+            tokens != null ? tokens.size() : 0, tree.depth());
     }
 
     /**
@@ -0,0 +1,224 @@
+package com.example.rntn.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * SentimentPredictorPool: fixed set of SentimentPredictor instances for one model, handed out to
+ * one caller at a time.
+ *
+ * CoreNLP shares annotators between pipelines built with the same properties, so the extra
+ * predictors cost little memory; the pool size is effectively the number of sentences scored
+ * concurrently. Callers beyond that wait for a predictor to be returned.
+ *
+ * Waiting callers are queued per {@link Lane}. When a predictor is returned it goes to the head of
+ * a lane chosen by smooth weighted round robin over the lanes that have waiters, so interactive
+ * work gets most of the predictors under contention but batch and background work still progress.
+ * Bulk callers borrow a predictor per item, which lets interactive requests overtake them at every
+ * item boundary.
+ */
+public class SentimentPredictorPool {
+
+    /**
+     * Priority lanes, highest first.
+     */
+    public enum Lane {
+        INTERACTIVE, BATCH, BACKGROUND
+    }
+
+    /**
+     * A queued caller; {@code predictor} is set when one is handed to it.
+     */
+    private static final class Waiter {
+        final Condition assigned;
+        SentimentPredictor predictor;
+
+        Waiter(Condition assigned) {
+            this.assigned = assigned;
+        }
+    }
+
+    private final String modelPath;
+    private final int size;
+    private final int[] weights;
+    private final int[] currentWeights;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<SentimentPredictor> idle = new ArrayDeque<>();
+    private final List<Deque<Waiter>> queues;
+
+    public SentimentPredictorPool(String modelPath, int size) {
+        this(modelPath, size, new int[]{8, 2, 1});
+    }
+
+    /**
+     * @param weights dequeue weight per lane, in {@link Lane} order
+     */
+    public SentimentPredictorPool(String modelPath, int size, int[] weights) {
+        this(modelPath, null, size, weights);
+    }
+
+    /**
+     * @param modelVersion content version of {@code modelPath}, see
+     *                     {@link SentimentPredictor#SentimentPredictor(String, String)}; required
+     *                     when a different model may later be loaded from the same path
+     * @param weights      dequeue weight per lane, in {@link Lane} order
+     */
+    public SentimentPredictorPool(String modelPath, String modelVersion, int size, int[] weights) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        if (weights.length != Lane.values().length) {
+            throw new IllegalArgumentException("Expected one weight per lane: " + weights.length);
+        }
+        for (int weight : weights) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Lane weights must be positive: " + weight);
+            }
+        }
+        this.modelPath = modelPath;
+        this.size = size;
+        this.weights = weights.clone();
+        this.currentWeights = new int[weights.length];
+        this.queues = new ArrayList<>(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            queues.add(new ArrayDeque<>());
+        }
+        for (int i = 0; i < size; i++) {
+            idle.add(new SentimentPredictor(modelPath, modelVersion));
+        }
+    }
+
+    /**
+     * Runs the function with a predictor borrowed from the pool in the interactive lane.
+     */
+    public <T> T withPredictor(Function<SentimentPredictor, T> action) throws InterruptedException {
+        return withPredictor(Lane.INTERACTIVE, action);
+    }
+
+    /**
+     * Runs the function with a predictor borrowed from the pool, waiting in {@code lane} if all are
+     * in use.
+     */
+    public <T> T withPredictor(Lane lane, Function<SentimentPredictor, T> action) throws InterruptedException {
+        return withPredictor(lane, Deadline.NONE, action);
+    }
+
+    /**
+     * As {@link #withPredictor(Lane, Function)}, but stops waiting when the deadline passes and
+     * throws {@link Deadline.ExceededException} with phase "queue".
+     */
+    public <T> T withPredictor(Lane lane, Deadline deadline, Function<SentimentPredictor, T> action)
+            throws InterruptedException {
+        SentimentPredictor predictor = acquire(lane, deadline);
+        try {
+            return action.apply(predictor);
+        } finally {
+            release(predictor);
+        }
+    }
+
+    private SentimentPredictor acquire(Lane lane, Deadline deadline) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!idle.isEmpty()) {
+                return idle.poll();
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            queues.get(lane.ordinal()).add(waiter);
+            try {
+                while (waiter.predictor == null) {
+                    if (!deadline.isBounded()) {
+                        waiter.assigned.await();
+                    } else if (waiter.assigned.awaitNanos(deadline.remainingNanos()) <= 0 && waiter.predictor == null) {
+                        queues.get(lane.ordinal()).remove(waiter);
+                        throw new Deadline.ExceededException("queue");
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (waiter.predictor != null) {
+                    // Handed a predictor while being interrupted: pass it on
+                    dispatch(waiter.predictor);
+                } else {
+                    queues.get(lane.ordinal()).remove(waiter);
+                }
+                throw e;
+            }
+            return waiter.predictor;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(SentimentPredictor predictor) {
+        lock.lock();
+        try {
+            dispatch(predictor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the predictor to the next waiter (smooth weighted round robin over non-empty lanes) or
+     * returns it to the idle set. Must hold the lock.
+     */
+    private void dispatch(SentimentPredictor predictor) {
+        int chosen = -1;
+        int totalWeight = 0;
+        for (int i = 0; i < queues.size(); i++) {
+            if (queues.get(i).isEmpty()) {
+                continue;
+            }
+            currentWeights[i] += weights[i];
+            totalWeight += weights[i];
+            if (chosen < 0 || currentWeights[i] > currentWeights[chosen]) {
+                chosen = i;
+            }
+        }
+        if (chosen < 0) {
+            idle.add(predictor);
+            return;
+        }
+        currentWeights[chosen] -= totalWeight;
+        Waiter waiter = queues.get(chosen).poll();
+        waiter.predictor = predictor;
+        waiter.assigned.signal();
+    }
+
+    public String getModelPath() {
+        return modelPath;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Predictors currently idle.
+     */
+    public int getAvailable() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Callers waiting for a predictor in the lane.
+     */
+    public int getQueueDepth(Lane lane) {
+        lock.lock();
+        try {
+            return queues.get(lane.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- ============================================================================
+-- V11: Add training job permissions
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Permissions for the asynchronous RNTN training API
+--              (/api/v1/training). Granted to ADMIN only.
+-- ============================================================================
+
+INSERT INTO permissions (permission_name, resource, action, description) VALUES
+('training:execute', 'TRAINING', 'EXECUTE', 'Submit and cancel model training jobs'),
+('training:read', 'TRAINING', 'READ', 'View training jobs, logs and trained models');
+
+INSERT INTO role_permissions (id_role, id_permission)
+SELECT r.id_roles, p.id_permission
+FROM usuario_roles r, permissions p
+WHERE r.permisos_roles = 'ADMIN'
+AND p.permission_name IN ('training:execute', 'training:read');
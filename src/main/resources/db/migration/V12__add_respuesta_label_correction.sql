@@ -0,0 +1,14 @@
+-- ============================================================================
+-- V12: Clinician label corrections on evaluacion_respuesta
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Stores the label assigned by a clinician when the RNTN
+--              prediction is wrong. Corrected rows are the training data
+--              for incremental fine-tuning of the model.
+-- ============================================================================
+
+ALTER TABLE evaluacion_respuesta
+    ADD COLUMN label_corregido_evaluacion_respuesta VARCHAR(50) NULL COMMENT 'Label corregido por un profesional',
+    ADD COLUMN corregido_por VARCHAR(100) NULL COMMENT 'Usuario que corrigió el label',
+    ADD COLUMN corregido_at TIMESTAMP NULL COMMENT 'Fecha de la corrección',
+    ADD INDEX idx_respuesta_corregido_at (corregido_at);
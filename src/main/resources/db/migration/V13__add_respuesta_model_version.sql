@@ -0,0 +1,11 @@
+-- ============================================================================
+-- V13: Model version on evaluacion_respuesta
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Records which RNTN model produced each prediction, so that
+--              training data can be exported per model version.
+-- ============================================================================
+
+ALTER TABLE evaluacion_respuesta
+    ADD COLUMN model_version VARCHAR(100) NULL COMMENT 'Versión del modelo RNTN que produjo el label',
+    ADD INDEX idx_respuesta_model_version (model_version);
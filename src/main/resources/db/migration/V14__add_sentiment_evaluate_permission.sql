@@ -0,0 +1,17 @@
+-- ============================================================================
+-- V14: Add model evaluation permission
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Permission for POST /api/v1/sentiment/model/evaluate
+--              (accuracy, confusion matrix and latency over a labeled set).
+--              Granted to ADMIN and ANALISTA.
+-- ============================================================================
+
+INSERT INTO permissions (permission_name, resource, action, description) VALUES
+('sentiment:evaluate', 'SENTIMENT', 'EXECUTE', 'Evaluate sentiment models over labeled datasets');
+
+INSERT INTO role_permissions (id_role, id_permission)
+SELECT r.id_roles, p.id_permission
+FROM usuario_roles r, permissions p
+WHERE r.permisos_roles IN ('ADMIN', 'ANALISTA')
+AND p.permission_name = 'sentiment:evaluate';
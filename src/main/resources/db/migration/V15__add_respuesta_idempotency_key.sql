@@ -0,0 +1,13 @@
+-- ============================================================================
+-- V15: Idempotency key on evaluacion_respuesta
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Client- or server-assigned key per registered answer. The
+--              write-behind writer may deliver a record more than once; the
+--              unique key turns repeated inserts into no-ops. NULL for rows
+--              registered without a key.
+-- ============================================================================
+
+ALTER TABLE evaluacion_respuesta
+    ADD COLUMN idempotency_key VARCHAR(64) NULL COMMENT 'Clave de idempotencia del registro',
+    ADD UNIQUE INDEX uk_respuesta_idempotency_key (idempotency_key);
@@ -0,0 +1,60 @@
+-- ============================================================================
+-- V16: Sentiment rollup tables
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Per-question and per-day aggregates of labeled answers (count,
+--              confidence count/sum/min/max, high-risk count per label),
+--              maintained incrementally on every insert, update and delete
+--              of evaluacion_respuesta (see SentimientoRollupRepository).
+--              Dashboard reads scan buckets instead of answers. Backfilled
+--              here; POST /api/v1/sentiment/aggregate/rollups/rebuild
+--              recomputes them from scratch.
+-- ============================================================================
+
+CREATE TABLE sentimiento_rollup_pregunta (
+    id_evaluacion_pregunta INT NOT NULL,
+    label VARCHAR(50) NOT NULL,
+    total_respuestas BIGINT NOT NULL,
+    total_confianza BIGINT NOT NULL COMMENT 'Respuestas con confidence_score',
+    suma_confianza DOUBLE NOT NULL,
+    min_confianza DOUBLE NULL,
+    max_confianza DOUBLE NULL,
+    alto_riesgo BIGINT NOT NULL COMMENT 'SUICIDAL con confianza > 0.7',
+    PRIMARY KEY (id_evaluacion_pregunta, label),
+    FOREIGN KEY (id_evaluacion_pregunta) REFERENCES evaluacion_pregunta(id_evaluacion_pregunta) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE sentimiento_rollup_dia (
+    fecha DATE NOT NULL,
+    label VARCHAR(50) NOT NULL,
+    total_respuestas BIGINT NOT NULL,
+    total_confianza BIGINT NOT NULL COMMENT 'Respuestas con confidence_score',
+    suma_confianza DOUBLE NOT NULL,
+    min_confianza DOUBLE NULL,
+    max_confianza DOUBLE NULL,
+    alto_riesgo BIGINT NOT NULL COMMENT 'SUICIDAL con confianza > 0.7',
+    PRIMARY KEY (fecha, label)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Recalcular un día tras un UPDATE/DELETE lee solo las respuestas de ese día
+CREATE INDEX idx_respuesta_created_at ON evaluacion_respuesta(created_at);
+
+INSERT INTO sentimiento_rollup_pregunta
+    (id_evaluacion_pregunta, label, total_respuestas, total_confianza, suma_confianza,
+     min_confianza, max_confianza, alto_riesgo)
+SELECT id_evaluacion_pregunta, label_evaluacion_respuesta, COUNT(*), COUNT(confidence_score),
+       COALESCE(SUM(confidence_score), 0), MIN(confidence_score), MAX(confidence_score),
+       SUM(CASE WHEN label_evaluacion_respuesta = 'SUICIDAL' AND confidence_score > 0.7 THEN 1 ELSE 0 END)
+FROM evaluacion_respuesta
+WHERE label_evaluacion_respuesta IS NOT NULL
+GROUP BY id_evaluacion_pregunta, label_evaluacion_respuesta;
+
+INSERT INTO sentimiento_rollup_dia
+    (fecha, label, total_respuestas, total_confianza, suma_confianza,
+     min_confianza, max_confianza, alto_riesgo)
+SELECT CAST(created_at AS DATE), label_evaluacion_respuesta, COUNT(*), COUNT(confidence_score),
+       COALESCE(SUM(confidence_score), 0), MIN(confidence_score), MAX(confidence_score),
+       SUM(CASE WHEN label_evaluacion_respuesta = 'SUICIDAL' AND confidence_score > 0.7 THEN 1 ELSE 0 END)
+FROM evaluacion_respuesta
+WHERE label_evaluacion_respuesta IS NOT NULL
+GROUP BY CAST(created_at AS DATE), label_evaluacion_respuesta;
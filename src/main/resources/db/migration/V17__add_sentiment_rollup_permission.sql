@@ -0,0 +1,17 @@
+-- ============================================================================
+-- V17: Add sentiment rollup rebuild permission
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Permission for POST /api/v1/sentiment/aggregate/rollups/rebuild
+--              (recompute the sentiment rollup tables from evaluacion_respuesta).
+--              Granted to ADMIN.
+-- ============================================================================
+
+INSERT INTO permissions (permission_name, resource, action, description) VALUES
+('sentiment:rollup_rebuild', 'SENTIMENT', 'EXECUTE', 'Rebuild sentiment rollup tables');
+
+INSERT INTO role_permissions (id_role, id_permission)
+SELECT r.id_roles, p.id_permission
+FROM usuario_roles r, permissions p
+WHERE r.permisos_roles = 'ADMIN'
+AND p.permission_name = 'sentiment:rollup_rebuild';
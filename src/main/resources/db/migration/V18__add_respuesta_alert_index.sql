@@ -0,0 +1,12 @@
+-- ============================================================================
+-- V18: Index for per-question high-risk alerts
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Serves the paginated SUICIDAL alert query of
+--              /api/v1/evaluaciones/respuestas/analisis-agregado: equality on
+--              question and label, range and order on confidence_score, so a
+--              page reads only the rows it returns.
+-- ============================================================================
+
+CREATE INDEX idx_respuesta_pregunta_label_confidence
+    ON evaluacion_respuesta(id_evaluacion_pregunta, label_evaluacion_respuesta, confidence_score);
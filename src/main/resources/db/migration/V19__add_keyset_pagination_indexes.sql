@@ -0,0 +1,29 @@
+-- ============================================================================
+-- V19: Composite indexes for keyset (cursor) pagination
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Cursor listings are ordered by (created_at DESC, id DESC) or,
+--              for consultas, (fechahora_consulta DESC, id_consulta DESC)
+--              and continue with WHERE (ts < ? OR (ts = ? AND id < ?)).
+--              These indexes let each page start with a range seek instead
+--              of skipping OFFSET rows. idx_respuesta_created_at (V16) is a
+--              prefix of the new respuesta index and is replaced by it; the
+--              rollup day recalculation uses the same prefix.
+-- ============================================================================
+
+CREATE INDEX idx_respuesta_created_id
+    ON evaluacion_respuesta(created_at, id_evaluacion_respuesta);
+
+DROP INDEX idx_respuesta_created_at ON evaluacion_respuesta;
+
+CREATE INDEX idx_paciente_created_id
+    ON paciente(created_at, id_paciente);
+
+CREATE INDEX idx_reporte_created_id
+    ON reporte(created_at, id_reporte);
+
+CREATE INDEX idx_consulta_paciente_fecha_id
+    ON consulta(id_paciente, fechahora_consulta, id_consulta);
+
+CREATE INDEX idx_consulta_personal_fecha_id
+    ON consulta(id_personal, fechahora_consulta, id_consulta);
@@ -0,0 +1,23 @@
+-- ============================================================================
+-- V20: Patient search index
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Normalized search tokens of each patient (lower-cased,
+--              accent-stripped name words with campo 'N' and the document
+--              number without separators with campo 'D'), written by
+--              PacienteService on create and update. A search term is a
+--              prefix range on the primary key (token LIKE 'term%'), so it
+--              no longer scans paciente with LOWER(...) LIKE '%term%'.
+--              Tokens are normalized in Java, so the table is filled at
+--              startup when empty; POST /api/v1/pacientes/busqueda/rebuild
+--              rebuilds it.
+-- ============================================================================
+
+CREATE TABLE paciente_busqueda (
+    token VARCHAR(100) NOT NULL COLLATE utf8mb4_bin,
+    id_paciente INT NOT NULL,
+    campo CHAR(1) NOT NULL COMMENT 'N = palabra del nombre, D = documento',
+    PRIMARY KEY (token, id_paciente, campo),
+    INDEX idx_busqueda_paciente (id_paciente),
+    FOREIGN KEY (id_paciente) REFERENCES paciente(id_paciente) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
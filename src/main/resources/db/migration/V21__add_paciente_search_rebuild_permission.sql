@@ -0,0 +1,16 @@
+-- ============================================================================
+-- V21: Add patient search index rebuild permission
+-- ============================================================================
+-- Date: 2026-10-19
+-- Description: Permission for POST /api/v1/pacientes/busqueda/rebuild
+--              (recompute paciente_busqueda from paciente). Granted to ADMIN.
+-- ============================================================================
+
+INSERT INTO permissions (permission_name, resource, action, description) VALUES
+('paciente:search_rebuild', 'PACIENTE', 'EXECUTE', 'Rebuild patient search index');
+
+INSERT INTO role_permissions (id_role, id_permission)
+SELECT r.id_roles, p.id_permission
+FROM usuario_roles r, permissions p
+WHERE r.permisos_roles = 'ADMIN'
+AND p.permission_name = 'paciente:search_rebuild';
@@ -0,0 +1,220 @@
+package com.example.rntn.repository;
+
+import com.example.rntn.entity.Consulta;
+import com.example.rntn.entity.ConsultaEstatus;
+import com.example.rntn.entity.Evaluacion;
+import com.example.rntn.entity.EvaluacionPregunta;
+import com.example.rntn.entity.EvaluacionRespuesta;
+import com.example.rntn.entity.Paciente;
+import com.example.rntn.entity.Personal;
+import com.example.rntn.entity.Reporte;
+import com.example.rntn.entity.Usuario;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sentencias SQL por página de los listados de respuestas, reportes y consultas
+ *
+ * Cada fila apunta a padres distintos (pregunta, usuario, evaluación, paciente, personal), que es
+ * el peor caso para cargas perezosas: si la proyección o el entity graph dejaran de cubrir una
+ * relación que usa el mapeo a DTO, el conteo crecería con el tamaño de página. Una página con
+ * offset es un SELECT más su COUNT; una página por cursor es un solo SELECT.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListadoStatementCountTest {
+
+    private static final int FILAS = 30;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EvaluacionRespuestaRepository respuestaRepository;
+
+    @Autowired
+    private ReporteRepository reporteRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    private Statistics statistics;
+    private Integer idPaciente;
+    private Integer idPersonal;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+
+        List<ConsultaEstatus> estatus = List.of(
+            em.persist(ConsultaEstatus.builder().nombreConsultaEstatus("PENDIENTE").build()),
+            em.persist(ConsultaEstatus.builder().nombreConsultaEstatus("COMPLETADA").build()));
+        Paciente paciente = em.persist(paciente(0));
+        Personal personal = em.persist(personal(0, em.persist(usuario("personal-0"))));
+        idPaciente = paciente.getIdPaciente();
+        idPersonal = personal.getIdPersonal();
+
+        LocalDateTime inicio = LocalDateTime.of(2026, 1, 1, 8, 0);
+        for (int i = 1; i <= FILAS; i++) {
+            EvaluacionPregunta pregunta = em.persist(EvaluacionPregunta.builder()
+                .textoEvaluacionPregunta("Pregunta " + i)
+                .build());
+            em.persist(EvaluacionRespuesta.builder()
+                .evaluacionPregunta(pregunta)
+                .textoEvaluacionRespuesta("Respuesta " + i)
+                .labelEvaluacionRespuesta("SUICIDAL")
+                .confidenceScore(0.5 + i / 100.0)
+                .build());
+
+            Evaluacion evaluacion = em.persist(Evaluacion.builder().nombreEvaluacion("Evaluación " + i).build());
+            em.persist(Reporte.builder()
+                .usuario(em.persist(usuario("usuario-" + i)))
+                .evaluacion(evaluacion)
+                .nombreReporte("Reporte " + i)
+                .build());
+
+            // consultas del paciente con personal distinto, y del personal con paciente distinto
+            em.persist(consulta(paciente, em.persist(personal(i, em.persist(usuario("personal-" + i)))),
+                evaluacion, estatus.get(i % 2), inicio.plusHours(i)));
+            em.persist(consulta(em.persist(paciente(i)), personal,
+                evaluacion, estatus.get(i % 2), inicio.plusHours(i)));
+        }
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void respuestasPorOffset(int size) {
+        Page<EvaluacionRespuestaRepository.RespuestaListado> pagina =
+            respuestaRepository.findListado(PageRequest.of(0, size, Sort.by("idEvaluacionRespuesta")));
+        pagina.forEach(fila -> assertThat(fila.getTextoPregunta()).isNotNull());
+
+        assertThat(pagina.getContent()).hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void respuestasPorCursorYLabel(int size) {
+        List<EvaluacionRespuestaRepository.RespuestaListado> cursor =
+            respuestaRepository.findPrimeraPagina(PageRequest.ofSize(size + 1));
+        List<EvaluacionRespuestaRepository.RespuestaListado> label =
+            respuestaRepository.findByLabel("SUICIDAL", PageRequest.ofSize(size));
+        cursor.forEach(fila -> assertThat(fila.getTextoPregunta()).isNotNull());
+        label.forEach(fila -> assertThat(fila.getTextoPregunta()).isNotNull());
+
+        assertThat(cursor).hasSize(size + 1);
+        assertThat(label).hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void reportesPorOffset(int size) {
+        Page<Reporte> pagina = reporteRepository.findAll(PageRequest.of(0, size));
+        pagina.forEach(ListadoStatementCountTest::leer);
+
+        assertThat(pagina.getContent()).hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void reportesPorCursor(int size) {
+        List<Reporte> pagina = reporteRepository.findPrimeraPagina(PageRequest.ofSize(size + 1));
+        pagina.forEach(ListadoStatementCountTest::leer);
+
+        assertThat(pagina).hasSize(size + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void consultasPorOffset(int size) {
+        Page<Consulta> porPaciente = consultaRepository.findByPacienteIdPaciente(idPaciente, PageRequest.of(0, size));
+        Page<Consulta> porPersonal = consultaRepository.findByPersonalIdPersonal(idPersonal, PageRequest.of(0, size));
+        porPaciente.forEach(ListadoStatementCountTest::leer);
+        porPersonal.forEach(ListadoStatementCountTest::leer);
+
+        assertThat(porPaciente.getContent()).hasSize(size);
+        assertThat(porPersonal.getContent()).hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void consultasPorCursor(int size) {
+        List<Consulta> porPaciente = consultaRepository.findPrimeraPaginaPorPaciente(
+            idPaciente, null, null, PageRequest.ofSize(size + 1));
+        List<Consulta> porPersonal = consultaRepository.findPrimeraPaginaPorPersonal(
+            idPersonal, PageRequest.ofSize(size + 1));
+        porPaciente.forEach(ListadoStatementCountTest::leer);
+        porPersonal.forEach(ListadoStatementCountTest::leer);
+
+        assertThat(porPaciente).hasSize(size + 1);
+        assertThat(porPersonal).hasSize(size + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Relaciones que lee ReporteService.mapToResponse
+     */
+    private static void leer(Reporte reporte) {
+        assertThat(reporte.getUsuario().getNombreUsuario()).isNotNull();
+        assertThat(reporte.getEvaluacion().getNombreEvaluacion()).isNotNull();
+    }
+
+    /**
+     * Relaciones que lee ConsultaService.mapToResponse
+     */
+    private static void leer(Consulta consulta) {
+        assertThat(consulta.getPaciente().getNombrePaciente()).isNotNull();
+        assertThat(consulta.getPersonal().getNombrePersonal()).isNotNull();
+        assertThat(consulta.getEvaluacion().getNombreEvaluacion()).isNotNull();
+        assertThat(consulta.getConsultaEstatus().getNombreConsultaEstatus()).isNotNull();
+    }
+
+    private static Usuario usuario(String nombre) {
+        return Usuario.builder().nombreUsuario(nombre).passUsuario("x").build();
+    }
+
+    private static Paciente paciente(int i) {
+        return Paciente.builder().docPaciente("P" + i).nombrePaciente("Paciente " + i).build();
+    }
+
+    private static Personal personal(int i, Usuario usuario) {
+        return Personal.builder().docPersonal("S" + i).nombrePersonal("Personal " + i).usuario(usuario).build();
+    }
+
+    private static Consulta consulta(Paciente paciente, Personal personal, Evaluacion evaluacion,
+                                     ConsultaEstatus estatus, LocalDateTime fecha) {
+        return Consulta.builder()
+            .paciente(paciente)
+            .personal(personal)
+            .evaluacion(evaluacion)
+            .estatusConsulta(estatus.getIdConsultaEstatus())
+            .fechahoraConsulta(fecha)
+            .build();
+    }
+}